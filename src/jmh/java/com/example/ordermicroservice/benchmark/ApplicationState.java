@@ -0,0 +1,72 @@
+package com.example.ordermicroservice.benchmark;
+
+import com.example.ordermicroservice.OrderMicroserviceApplication;
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code ApplicationState} class starts the order microservice without a web server against its in-memory H2
+ * database and seeds it with stock, so that benchmarks can call the service beans directly.
+ *
+ * <p>The inventory is decremented with the {@code CONDITIONAL_UPDATE} strategy, so that contended benchmarks measure
+ * lock waits rather than exhausted optimistic retries.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ */
+public final class ApplicationState {
+
+    /**
+     * The number of products seeded with stock, named {@code BENCH-0} to {@code BENCH-<n-1>}.
+     */
+    public static final int PRODUCTS = 100;
+
+    private ApplicationState() {
+    }
+
+    /**
+     * Starts the application with the given additional properties and seeds every benchmark product with
+     * effectively unlimited stock.
+     *
+     * @param properties additional properties in {@code name=value} form.
+     * @return the started application context.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        SpringApplication application = new SpringApplication(OrderMicroserviceApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        List<String> args = new ArrayList<>(List.of(
+                "--inventory.concurrency.strategy=CONDITIONAL_UPDATE",
+                "--logging.level.root=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        ConfigurableApplicationContext context = application.run(args.toArray(String[]::new));
+
+        List<Inventory> inventories = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setProductId(productId(i));
+            inventory.setQuantity(Integer.MAX_VALUE);
+            inventories.add(inventory);
+        }
+        context.getBean(InventoryRepository.class).saveAll(inventories);
+        return context;
+    }
+
+    /**
+     * Returns the product ID of the benchmark product with the given index.
+     *
+     * @param index the index of the product.
+     * @return the product ID.
+     */
+    public static String productId(int index) {
+        return "BENCH-" + Math.floorMod(index, PRODUCTS);
+    }
+}
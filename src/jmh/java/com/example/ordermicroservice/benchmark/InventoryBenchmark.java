@@ -0,0 +1,95 @@
+package com.example.ordermicroservice.benchmark;
+
+import com.example.ordermicroservice.service.InventoryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code InventoryBenchmark} class measures {@link InventoryService#checkInventory(String, int)} and
+ * {@link InventoryService#updateInventory(String, int)} against the H2 database with 1, 4 and 16 threads.
+ *
+ * <p>The {@code spread} benchmarks pick a random product out of {@link ApplicationState#PRODUCTS} per call, while the
+ * {@code hot} benchmarks make every thread update the same product to measure row contention.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryService
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ApplicationState.start();
+        inventoryService = context.getBean(InventoryService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static String randomProductId() {
+        return ApplicationState.productId(ThreadLocalRandom.current().nextInt(ApplicationState.PRODUCTS));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean checkInventory_1Thread() {
+        return inventoryService.checkInventory(randomProductId(), 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean checkInventory_4Threads() {
+        return inventoryService.checkInventory(randomProductId(), 1);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean checkInventory_16Threads() {
+        return inventoryService.checkInventory(randomProductId(), 1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void updateInventory_spread_1Thread() {
+        inventoryService.updateInventory(randomProductId(), 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void updateInventory_spread_4Threads() {
+        inventoryService.updateInventory(randomProductId(), 1);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void updateInventory_spread_16Threads() {
+        inventoryService.updateInventory(randomProductId(), 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void updateInventory_hot_4Threads() {
+        inventoryService.updateInventory(ApplicationState.productId(0), 1);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void updateInventory_hot_16Threads() {
+        inventoryService.updateInventory(ApplicationState.productId(0), 1);
+    }
+}
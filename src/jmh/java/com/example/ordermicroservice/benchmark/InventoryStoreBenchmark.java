@@ -0,0 +1,111 @@
+package com.example.ordermicroservice.benchmark;
+
+import com.example.ordermicroservice.service.InventoryService;
+import com.example.ordermicroservice.service.InventoryStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code InventoryStoreBenchmark} class compares {@link InventoryService#checkInventory(String, int)} and
+ * {@link InventoryService#updateInventory(String, int)} on the {@code jpa}, the {@code memory} and the {@code ring}
+ * {@link InventoryStore}, with a random product out of a large catalog per call.
+ *
+ * <p>The catalog has a million products by default; pass {@code -p products=10000000} in {@code jmh.args} for ten
+ * million, with a heap large enough for the H2 table. The JPA catalog is inserted into the table with JDBC batches,
+ * the others are restocked through the store, which the ring store also writes to the table behind its writer. Run with {@code -prof gc} to compare the allocation rates as well.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryStore
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryStoreBenchmark {
+
+    private static final String INSERT_INVENTORY = "INSERT INTO inventory (id, product_id, quantity, version) "
+            + "VALUES (NEXT VALUE FOR inventory_seq, ?, ?, 0)";
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"jpa", "memory", "ring"})
+    public String store;
+
+    @Param({"1000000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private String[] productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ApplicationState.start("inventory.store=" + store);
+        inventoryService = context.getBean(InventoryService.class);
+        productIds = new String[products];
+        for (int i = 0; i < products; i++) {
+            productIds[i] = "SKU-%08d".formatted(i);
+        }
+        if (!store.equals("jpa")) {
+            InventoryStore inventoryStore = context.getBean(InventoryStore.class);
+            for (String productId : productIds) {
+                inventoryStore.restock(productId, Integer.MAX_VALUE);
+            }
+        } else {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (String productId : productIds) {
+                batch.add(new Object[]{productId, Integer.MAX_VALUE});
+                if (batch.size() == BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_INVENTORY, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_INVENTORY, batch);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String randomProductId() {
+        return productIds[ThreadLocalRandom.current().nextInt(products)];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean checkInventory_1Thread() {
+        return inventoryService.checkInventory(randomProductId(), 1);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean checkInventory_16Threads() {
+        return inventoryService.checkInventory(randomProductId(), 1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void updateInventory_1Thread() {
+        inventoryService.updateInventory(randomProductId(), 1);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void updateInventory_16Threads() {
+        inventoryService.updateInventory(randomProductId(), 1);
+    }
+}
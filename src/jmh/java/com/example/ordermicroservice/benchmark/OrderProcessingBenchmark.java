@@ -0,0 +1,53 @@
+package com.example.ordermicroservice.benchmark;
+
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.service.Orchestrator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code OrderProcessingBenchmark} class measures {@link Orchestrator#processOrder(Order)} end to end against
+ * the H2 database, in both orchestration modes.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Orchestrator
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderProcessingBenchmark {
+
+    @Param({"SEQUENTIAL", "PARALLEL"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private Orchestrator orchestrator;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ApplicationState.start("orchestrator.mode=" + mode);
+        orchestrator = context.getBean(Orchestrator.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String processOrder() {
+        Order order = new Order();
+        order.setProductId(ApplicationState.productId(next++));
+        order.setQuantity(1);
+        order.setAmount(10.0);
+        return orchestrator.processOrder(order);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.ordermicroservice.benchmark;
+
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code OrderSerializationBenchmark} class measures the Jackson serialization and deserialization of an
+ * {@link Order} and an {@link OrderResult}, as done for every request and response of the orders API, in each
+ * encoding the API negotiates: JSON, CBOR and Smile. The payload size of each encoding is printed once per trial.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Order
+ * @see OrderResult
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderSerializationBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private Order order;
+    private OrderResult result;
+    private byte[] encodedOrder;
+    private byte[] encodedResult;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "CBOR" -> new ObjectMapper(new CBORFactory());
+            case "SMILE" -> new ObjectMapper(new SmileFactory());
+            default -> new ObjectMapper();
+        };
+        order = new Order();
+        order.setId(123456789L);
+        order.setProductId("PROD-0001234");
+        order.setQuantity(3);
+        order.setAmount(149.97);
+        order.setStatus("CREATED");
+        result = new OrderResult(123456789L, "CREATED", "Order processed successfully");
+        encodedOrder = objectMapper.writeValueAsBytes(order);
+        encodedResult = objectMapper.writeValueAsBytes(result);
+        System.out.printf("%n%s payload: order %d bytes, result %d bytes%n", format, encodedOrder.length, encodedResult.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public Order deserialize() throws IOException {
+        return objectMapper.readValue(encodedOrder, Order.class);
+    }
+
+    @Benchmark
+    public byte[] serializeResult() throws IOException {
+        return objectMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public OrderResult deserializeResult() throws IOException {
+        return objectMapper.readValue(encodedResult, OrderResult.class);
+    }
+}
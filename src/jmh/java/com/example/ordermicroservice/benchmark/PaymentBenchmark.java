@@ -0,0 +1,48 @@
+package com.example.ordermicroservice.benchmark;
+
+import com.example.ordermicroservice.model.Payment;
+import com.example.ordermicroservice.service.PaymentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code PaymentBenchmark} class measures {@link PaymentService#processPayment(Payment)} against the H2 database.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see PaymentService
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ApplicationState.start();
+        paymentService = context.getBean(PaymentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean processPayment() {
+        Payment payment = new Payment();
+        payment.setOrderId(Long.toString(next++));
+        payment.setAmount(10.0);
+        return paymentService.processPayment(payment);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ordermicroservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * The {@code AsyncOrderConfig} class is a Spring configuration class that defines the bounded worker pool used
+ * to process orders accepted through the asynchronous order endpoint, and the pool that runs orchestration steps
+ * in parallel.
+ *
+ * <p>The pool size and the capacity of its queue are configured with the {@code orders.async.*} properties.
+ * When both the workers and the queue are full, new submissions are rejected instead of queuing without bound,
+ * so that a burst of orders cannot exhaust memory or the request threads.
+ *
+ * <p>When {@code spring.threads.virtual.enabled} is {@code true}, the workers are virtual threads. The queue stays
+ * bounded, but the pool can then be sized for the number of orders in flight rather than for the cost of
+ * platform threads, since the real concurrency limit is the JDBC connection pool.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see ThreadPoolTaskExecutor
+ */
+@Configuration
+public class AsyncOrderConfig {
+
+    /**
+     * Creates the {@link ThreadPoolTaskExecutor} that runs the orchestration of asynchronously accepted orders.
+     *
+     * @param corePoolSize  the number of worker threads kept alive.
+     * @param maxPoolSize   the maximum number of worker threads, used once the queue is full.
+     * @param queueCapacity the maximum number of accepted orders waiting for a worker.
+     * @param virtualThreads whether the workers should be virtual threads.
+     * @return the configured executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor orderProcessingExecutor(
+            @Value("${orders.async.core-pool-size:8}") int corePoolSize,
+            @Value("${orders.async.max-pool-size:16}") int maxPoolSize,
+            @Value("${orders.async.queue-capacity:1000}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("order-worker-", 0).factory());
+        }
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Creates the {@link ThreadPoolTaskExecutor} that runs the payment step of the parallel orchestration mode while
+     * the calling thread reserves the inventory.
+     *
+     * <p>When the pool and its queue are full, the step runs on the calling thread, so the order degrades to sequential
+     * processing instead of failing.
+     *
+     * @param poolSize       the number of worker threads.
+     * @param queueCapacity  the maximum number of steps waiting for a worker.
+     * @param virtualThreads whether the workers should be virtual threads.
+     * @return the configured executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor orchestrationExecutor(
+            @Value("${orchestrator.parallel.pool-size:32}") int poolSize,
+            @Value("${orchestrator.parallel.queue-capacity:1000}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("orchestration-", 0).factory());
+        }
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("orchestration-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.ordermicroservice.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * The {@code CodecConfig} class is a Spring configuration class that defines the binary message converters of the
+ * orders API, so that service-to-service callers can exchange orders in CBOR ({@code application/cbor}) or Smile
+ * ({@code application/x-jackson-smile}) instead of JSON.
+ *
+ * <p>Both encodings are binary forms of the JSON data model, so the same Jackson annotations and the same
+ * {@link Jackson2ObjectMapperBuilder} settings apply as for JSON, but numbers are written in binary and field
+ * names are not repeated as text, which makes payloads smaller and cheaper to parse and format. The encoding is
+ * chosen by the {@code Content-Type} and {@code Accept} headers of each request; JSON stays the default.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see MappingJackson2CborHttpMessageConverter
+ * @see MappingJackson2SmileHttpMessageConverter
+ */
+@Configuration
+public class CodecConfig {
+
+    /**
+     * Creates the message converter for {@code application/cbor}.
+     *
+     * @param builder the builder configured by Spring Boot from the {@code spring.jackson.*} properties.
+     * @return the CBOR message converter.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Creates the message converter for {@code application/x-jackson-smile}.
+     *
+     * @param builder the builder configured by Spring Boot from the {@code spring.jackson.*} properties.
+     * @return the Smile message converter.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ordermicroservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * The {@code DataSourceRoutingConfig} class is a Spring configuration class that splits database access between a
+ * primary and a replica database: read-only transactions, such as availability checks and order lookups, are served
+ * by the replica pool, and read-write transactions by the primary pool, see {@link ReadWriteRoutingDataSource}.
+ *
+ * <p>The primary pool is configured with the usual {@code spring.datasource.*} and {@code spring.datasource.hikari.*}
+ * properties, and the replica pool with the Hikari properties under {@code datasource.replica.*}, such as
+ * {@code datasource.replica.jdbc-url}. The data source used by JPA, the {@code JdbcTemplate} and the transaction
+ * manager routes between them. When a local H2 database stands in for the replica, the
+ * {@link LocalReplicaSynchronizer} keeps it in sync.
+ *
+ * <p>This class is only registered when the {@code datasource.routing.enabled} property is {@code true}, and not in
+ * the {@code reactive} profile, which defines its own data source.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see ReadWriteRoutingDataSource
+ * @see ReplicaLagMonitor
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    /**
+     * Creates the Hikari pool of the primary database that Spring Boot would create without routing.
+     *
+     * @param properties the {@code spring.datasource.*} properties.
+     * @return the primary data source.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Creates the Hikari pool of the replica database.
+     *
+     * @return the replica data source, configured with the {@code datasource.replica.*} properties.
+     */
+    @Bean
+    @ConfigurationProperties("datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    /**
+     * Creates the {@link ReadWriteRoutingDataSource} that chooses the pool of every connection.
+     *
+     * @param primaryDataSource   the primary data source.
+     * @param replicaDataSource   the replica data source.
+     * @param replicaLagMonitor   the monitor of the staleness policy.
+     * @param meterRegistry       the registry to which the routed connections are published.
+     * @param primaryAfterWriteMs how long a thread reads from the primary after it wrote.
+     * @return the routing data source.
+     */
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.routing.primary-after-write-ms:5000}") long primaryAfterWriteMs) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor, meterRegistry,
+                primaryAfterWriteMs);
+    }
+
+    /**
+     * Creates the data source used by the application, which defers the choice of the pool until the first statement
+     * of a transaction, when its read-only flag is known.
+     *
+     * @param routingDataSource the routing data source.
+     * @return the lazy data source.
+     */
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Creates the filter that scopes the read-your-writes pin of {@link ReadWriteRoutingDataSource} to one request.
+     *
+     * @return the filter.
+     */
+    @Bean
+    public OncePerRequestFilter primaryAfterWriteFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                ReadWriteRoutingDataSource.beginRequest();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    ReadWriteRoutingDataSource.endRequest();
+                }
+            }
+        };
+    }
+}
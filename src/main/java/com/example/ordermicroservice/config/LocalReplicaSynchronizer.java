@@ -0,0 +1,300 @@
+package com.example.ordermicroservice.config;
+
+import jakarta.annotation.PostConstruct;
+import org.h2.api.Trigger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code LocalReplicaSynchronizer} class keeps a second local H2 database in sync with the primary, so that it can
+ * stand in for a replica in tests and local development, where there is no database replication. It is not meant for
+ * production, which replicates with the database itself, and is off unless
+ * {@code datasource.routing.local-replica-sync.enabled} is {@code true}.
+ *
+ * <p>On the first run the schema of the primary is copied to the replica with H2's {@code SCRIPT NODATA}, a trigger is
+ * installed on every table of the primary that logs the primary key of each inserted, updated or deleted row to the
+ * {@code replica_change_log} table, and all rows are copied once. Then, every
+ * {@code datasource.routing.local-replica-sync.interval-ms} milliseconds, only the rows logged since the previous run
+ * are copied, up to 10,000 changes per run in a single replica transaction, so the cost of a run follows the number
+ * of changes rather than the size of the tables. A table without a single-column primary key is copied whole whenever
+ * it changed. The replica lags by up to one interval plus the duration of a copy, as measured by the
+ * {@link ReplicaLagMonitor} through the replicated heartbeat.
+ *
+ * <p>This class is only registered when both the {@code datasource.routing.enabled} and the
+ * {@code datasource.routing.local-replica-sync.enabled} properties are {@code true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see ReplicaLagMonitor
+ * @see DataSourceRoutingConfig
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = {"datasource.routing.enabled", "datasource.routing.local-replica-sync.enabled"},
+        havingValue = "true")
+public class LocalReplicaSynchronizer {
+
+    private static final String CHANGE_LOG = "REPLICA_CHANGE_LOG";
+    private static final String SELECT_TABLES = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+            + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' AND TABLE_NAME <> '" + CHANGE_LOG + "'";
+    private static final String SCRIPT_SCHEMA = "SCRIPT NODATA NOPASSWORDS NOSETTINGS";
+    private static final String CREATE_CHANGE_LOG = "CREATE TABLE IF NOT EXISTS " + table(CHANGE_LOG)
+            + " (SEQ BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY, TABLE_NAME VARCHAR(255) NOT NULL, "
+            + "ROW_KEY VARCHAR(1000))";
+    private static final String INSERT_CHANGE = "INSERT INTO " + table(CHANGE_LOG)
+            + " (TABLE_NAME, ROW_KEY) VALUES (?, ?)";
+    private static final String SELECT_CHANGES = "SELECT SEQ, TABLE_NAME, ROW_KEY FROM " + table(CHANGE_LOG)
+            + " ORDER BY SEQ FETCH FIRST 10000 ROWS ONLY";
+    private static final String DELETE_CHANGE = "DELETE FROM " + table(CHANGE_LOG) + " WHERE SEQ = ?";
+
+    /**
+     * The largest number of rows selected or deleted by key with one statement.
+     */
+    private static final int KEYS_PER_STATEMENT = 1000;
+
+    private static final RowMapper<Object[]> ROW = (resultSet, rowNum) -> {
+        Object[] row = new Object[resultSet.getMetaData().getColumnCount()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = resultSet.getObject(i + 1);
+        }
+        return row;
+    };
+
+    /**
+     * The primary {@link DataSource}, from which the tables are copied.
+     */
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    /**
+     * The replica {@link DataSource}, into which the tables are copied.
+     */
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    /**
+     * Held while the replica is synchronized, so that runs do not overlap.
+     */
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    /**
+     * The primary key column of every table that has a single-column one, keyed by table name.
+     */
+    private final Map<String, String> keyColumns = new HashMap<>();
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private TransactionTemplate replicaTransaction;
+    private boolean started;
+
+    /**
+     * Creates the templates used to read the primary and to write the replica in one transaction.
+     */
+    @PostConstruct
+    public void init() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replicaTransaction = new TransactionTemplate(new DataSourceTransactionManager(replicaDataSource));
+    }
+
+    /**
+     * Copies the rows changed on the primary since the previous run into the replica, creating the schema of the
+     * replica, installing the change triggers and copying every row on the first run.
+     */
+    @Scheduled(fixedDelayString = "${datasource.routing.local-replica-sync.interval-ms:100}")
+    public void sync() {
+        syncLock.lock();
+        try {
+            if (started) {
+                copyChanges();
+            } else {
+                start();
+                started = true;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Copies the schema, installs the triggers before the first copy so that no change made during it is missed,
+     * and copies every table.
+     */
+    private void start() {
+        for (String statement : primary.queryForList(SCRIPT_SCHEMA, String.class)) {
+            if (!statement.startsWith("--") && !statement.contains(CHANGE_LOG)
+                    && !statement.contains(ChangeTrigger.class.getName())) {
+                replica.execute(statement);
+            }
+        }
+        primary.execute(CREATE_CHANGE_LOG);
+        List<String> tables = primary.queryForList(SELECT_TABLES, String.class);
+        for (String table : tables) {
+            String keyColumn = primary.execute((ConnectionCallback<String>) connection ->
+                    keyColumn(connection, "PUBLIC", table));
+            if (keyColumn != null) {
+                keyColumns.put(table, keyColumn);
+            }
+            primary.execute("CREATE TRIGGER IF NOT EXISTS " + table(CHANGE_LOG + "_" + table)
+                    + " AFTER INSERT, UPDATE, DELETE ON " + table(table)
+                    + " FOR EACH ROW CALL '" + ChangeTrigger.class.getName() + "'");
+        }
+        replicaTransaction.executeWithoutResult(status -> tables.forEach(this::copyTable));
+    }
+
+    /**
+     * Copies the current state of every logged row, then removes the copied entries from the log. Entries are removed
+     * by sequence number, so that an entry of a transaction that commits during the copy is kept for the next run.
+     */
+    private void copyChanges() {
+        List<Object[]> changes = primary.query(SELECT_CHANGES, ROW);
+        if (changes.isEmpty()) {
+            return;
+        }
+        Set<String> wholeTables = new HashSet<>();
+        Map<String, Set<String>> changedKeys = new HashMap<>();
+        for (Object[] change : changes) {
+            String table = (String) change[1];
+            String key = (String) change[2];
+            if (key == null || !keyColumns.containsKey(table)) {
+                wholeTables.add(table);
+            } else {
+                changedKeys.computeIfAbsent(table, name -> new LinkedHashSet<>()).add(key);
+            }
+        }
+        replicaTransaction.executeWithoutResult(status -> {
+            wholeTables.forEach(this::copyTable);
+            changedKeys.forEach((table, keys) -> {
+                if (!wholeTables.contains(table)) {
+                    copyRows(table, new ArrayList<>(keys));
+                }
+            });
+        });
+        primary.batchUpdate(DELETE_CHANGE, changes.stream().map(change -> new Object[]{change[0]}).toList());
+    }
+
+    private void copyTable(String table) {
+        List<Object[]> rows = primary.query("SELECT * FROM " + table(table), ROW);
+        replica.update("DELETE FROM " + table(table));
+        insert(table, rows);
+    }
+
+    /**
+     * Replaces the rows of the given keys in the replica with their current state on the primary; a row deleted on
+     * the primary is only deleted.
+     */
+    private void copyRows(String table, List<String> keys) {
+        String keyColumn = "\"" + keyColumns.get(table) + "\"";
+        for (int from = 0; from < keys.size(); from += KEYS_PER_STATEMENT) {
+            Object[] chunk = keys.subList(from, Math.min(from + KEYS_PER_STATEMENT, keys.size())).toArray();
+            String inKeys = " WHERE " + keyColumn + " IN (" + "?, ".repeat(chunk.length - 1) + "?)";
+            List<Object[]> rows = primary.query("SELECT * FROM " + table(table) + inKeys, ROW, chunk);
+            replica.update("DELETE FROM " + table(table) + inKeys, chunk);
+            insert(table, rows);
+        }
+    }
+
+    private void insert(String table, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            String placeholders = "?, ".repeat(rows.get(0).length - 1) + "?";
+            replica.batchUpdate("INSERT INTO " + table(table) + " VALUES (" + placeholders + ")", rows);
+        }
+    }
+
+    private static String table(String name) {
+        return "\"PUBLIC\".\"" + name + "\"";
+    }
+
+    /**
+     * Returns the name of the primary key column of a table, or {@code null} if its primary key does not consist of
+     * exactly one column.
+     */
+    static String keyColumn(Connection connection, String schema, String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (ResultSet primaryKeys = connection.getMetaData().getPrimaryKeys(null, schema, table)) {
+            while (primaryKeys.next()) {
+                columns.add(primaryKeys.getString("COLUMN_NAME"));
+            }
+        }
+        return columns.size() == 1 ? columns.get(0) : null;
+    }
+
+    /**
+     * The H2 trigger that logs the primary key of every row inserted, updated or deleted in a table of the primary to
+     * the change log, or no key if the table has no single-column primary key. It runs in the transaction of the
+     * change, so a rolled back change is not logged.
+     */
+    public static class ChangeTrigger implements Trigger {
+
+        private String table;
+
+        /**
+         * The index of the primary key column in a row, or {@code -1} if the table has no single-column primary key.
+         */
+        private int keyIndex = -1;
+
+        @Override
+        public void init(Connection connection, String schemaName, String triggerName, String tableName,
+                         boolean before, int type) throws SQLException {
+            table = tableName;
+            String keyColumn = keyColumn(connection, schemaName, tableName);
+            if (keyColumn == null) {
+                return;
+            }
+            try (ResultSet columns = connection.getMetaData().getColumns(null, schemaName, tableName, null)) {
+                while (columns.next()) {
+                    if (keyColumn.equals(columns.getString("COLUMN_NAME"))) {
+                        keyIndex = columns.getInt("ORDINAL_POSITION") - 1;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            String oldKey = key(oldRow);
+            String newKey = key(newRow);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_CHANGE)) {
+                insert.setString(1, table);
+                insert.setString(2, newRow != null ? newKey : oldKey);
+                insert.executeUpdate();
+                // An update that changes the key also removes the row of the old key from the replica
+                if (oldRow != null && newRow != null && !Objects.equals(oldKey, newKey)) {
+                    insert.setString(2, oldKey);
+                    insert.executeUpdate();
+                }
+            }
+        }
+
+        private String key(Object[] row) {
+            return row == null || keyIndex < 0 ? null : String.valueOf(row[keyIndex]);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ordermicroservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * The {@code ReactiveConfig} class is a Spring configuration class for the {@code reactive} profile, in which
+ * orders are served by WebFlux on a few event-loop threads and stored through R2DBC.
+ *
+ * <p>Requests are served by Netty rather than by Tomcat, which Spring Boot would prefer since the blocking stack puts
+ * it on the classpath, so that they are handled by a few event-loop threads.
+ *
+ * <p>Spring Boot does not configure a JDBC {@code DataSource} once an R2DBC {@code ConnectionFactory} is present, so
+ * this class defines it from the usual {@code spring.datasource.*} and {@code spring.datasource.hikari.*}
+ * properties. The JDBC side still creates the schema through Hibernate and backs the components that are shared with
+ * the blocking stack, while the R2DBC connection factory configured with {@code spring.r2dbc.*} serves the orders.
+ * Both point at the same database.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see NettyReactiveWebServerFactory
+ * @see DataSourceProperties
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    /**
+     * Creates the Hikari {@code DataSource} that Spring Boot would create without R2DBC.
+     *
+     * @param properties the {@code spring.datasource.*} properties.
+     * @return the configured data source.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Creates the Netty server factory, which takes precedence over the Tomcat one that Spring Boot would create.
+     *
+     * @return the server factory, customized with the usual {@code server.*} properties.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.ordermicroservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * The {@code ReadWriteRoutingDataSource} class is a {@code DataSource} that hands out connections of the replica
+ * pool to read-only transactions and connections of the primary pool to everything else, so that read-heavy
+ * availability checks and order lookups can be scaled separately from the write path.
+ *
+ * <p>A read-only transaction still uses the primary when:
+ * <ul>
+ *     <li>the replica lags by more than the {@link ReplicaLagMonitor} allows, or its lag is unknown;</li>
+ *     <li>the current thread wrote within the last {@code datasource.routing.primary-after-write-ms} milliseconds
+ *     of the current HTTP request, so that a request reads its own writes; a value of {@code 0} disables this;</li>
+ *     <li>the current thread, outside an HTTP request, is running a read-write transaction, for example a read-only
+ *     transaction nested in it;</li>
+ *     <li>the current thread has been pinned to the primary with {@link #forcePrimary()}.</li>
+ * </ul>
+ * Connections obtained outside a transaction always come from the primary. The pin of a write is cleared at the end
+ * of the request, see {@link #beginRequest()}, or when its transaction completes on a thread that is not serving a
+ * request, so that pooled executor threads never carry a stale pin into their next task.
+ *
+ * <p>The routing decision is made when a connection is obtained, so this data source must be wrapped in a
+ * {@link LazyConnectionDataSourceProxy}: a transaction manager obtains its connection before the read-only flag of the
+ * transaction is visible, and the proxy defers the choice to the first statement. The number of connections routed to
+ * each pool is published as the {@code datasource.routing.connections} counter, tagged with the {@code target}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see DataSourceRoutingConfig
+ * @see ReplicaLagMonitor
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * The pool a connection is obtained from.
+     */
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    /**
+     * The time in epoch milliseconds until which the current thread reads from the primary.
+     */
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+
+    /**
+     * Whether the current thread is serving an HTTP request, between {@link #beginRequest()} and {@link #endRequest()}.
+     */
+    private static final ThreadLocal<Boolean> IN_REQUEST = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final long primaryAfterWriteMs;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    /**
+     * Creates a data source routing between the given pools.
+     *
+     * @param primary the primary {@link DataSource}, used for writes.
+     * @param replica the replica {@link DataSource}, used for read-only transactions.
+     * @param replicaLagMonitor the {@link ReplicaLagMonitor} that tells whether the replica is fresh enough.
+     * @param meterRegistry the {@link MeterRegistry} to which the routed connections are published.
+     * @param primaryAfterWriteMs how long a thread reads from the primary after it wrote, or {@code 0} for never.
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor replicaLagMonitor,
+                                      MeterRegistry meterRegistry, long primaryAfterWriteMs) {
+        setTargetDataSources(Map.<Object, Object>of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.primaryAfterWriteMs = primaryAfterWriteMs;
+        this.primaryConnections = connectionCounter(meterRegistry, Target.PRIMARY);
+        this.replicaConnections = connectionCounter(meterRegistry, Target.REPLICA);
+    }
+
+    /**
+     * Sends the reads of the current thread to the primary until {@link #clearPrimary()} is called, for example
+     * when a request must see a write made by another instance.
+     */
+    public static void forcePrimary() {
+        PRIMARY_UNTIL.set(Long.MAX_VALUE);
+    }
+
+    /**
+     * Lets the reads of the current thread go to the replica again, undoing {@link #forcePrimary()} and the pin of an
+     * earlier write.
+     */
+    public static void clearPrimary() {
+        PRIMARY_UNTIL.remove();
+    }
+
+    /**
+     * Marks the current thread as serving an HTTP request, in which the pin of a write lasts until
+     * {@link #endRequest()}, clearing any earlier pin.
+     */
+    public static void beginRequest() {
+        PRIMARY_UNTIL.remove();
+        IN_REQUEST.set(Boolean.TRUE);
+    }
+
+    /**
+     * Clears the pin of the current thread at the end of an HTTP request.
+     */
+    public static void endRequest() {
+        PRIMARY_UNTIL.remove();
+        IN_REQUEST.remove();
+    }
+
+    /**
+     * Returns whether the reads of the current thread go to the primary regardless of the lag of the replica.
+     *
+     * @return {@code true} if the thread is pinned to the primary.
+     */
+    public static boolean isPrimaryForced() {
+        Long until = PRIMARY_UNTIL.get();
+        return until != null && System.currentTimeMillis() < until;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = route();
+        (target == Target.REPLICA ? replicaConnections : primaryConnections).increment();
+        return target;
+    }
+
+    private Target route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (primaryAfterWriteMs > 0) {
+                pinAfterWrite();
+            }
+            return Target.PRIMARY;
+        }
+        return isPrimaryForced() || !replicaLagMonitor.isReplicaFresh() ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    /**
+     * Pins the current thread to the primary after a write, until the end of the request or, outside a request, until
+     * the write transaction completes. A pin set with {@link #forcePrimary()} is left in place.
+     */
+    private void pinAfterWrite() {
+        Long current = PRIMARY_UNTIL.get();
+        if (current != null && current == Long.MAX_VALUE) {
+            return;
+        }
+        long until = System.currentTimeMillis() + primaryAfterWriteMs;
+        if (current == null || current < until) {
+            PRIMARY_UNTIL.set(until);
+        }
+        if (IN_REQUEST.get() == null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    Long pinned = PRIMARY_UNTIL.get();
+                    if (pinned != null && pinned != Long.MAX_VALUE) {
+                        PRIMARY_UNTIL.remove();
+                    }
+                }
+            });
+        }
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, Target target) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Number of connections obtained from the primary or the replica pool")
+                .tag("target", target.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.ordermicroservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * The {@code ReplicaLagMonitor} class measures how far the replica database lags behind the primary, which is the
+ * staleness policy of the {@link ReadWriteRoutingDataSource}: read-only transactions only go to the replica while its
+ * lag is at most {@code datasource.routing.max-replica-lag-ms} milliseconds.
+ *
+ * <p>Every {@code datasource.routing.heartbeat-interval-ms} milliseconds the current time is written to the single row
+ * of the {@code replica_heartbeat} table on the primary, and the time replicated so far is read back from the replica.
+ * The difference is the lag, to within one heartbeat interval. Until the first heartbeat has been replicated, or
+ * while the replica cannot be read, the lag is unknown and every read goes to the primary. The lag is published as
+ * the {@code datasource.replica.lag} gauge.
+ *
+ * <p>This class is only registered when the {@code datasource.routing.enabled} property is {@code true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see ReadWriteRoutingDataSource
+ * @see DataSourceRoutingConfig
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    private static final String CREATE_HEARTBEAT = "CREATE TABLE IF NOT EXISTS replica_heartbeat "
+            + "(id INT PRIMARY KEY, beat_at BIGINT NOT NULL)";
+    private static final String WRITE_HEARTBEAT = "MERGE INTO replica_heartbeat (id, beat_at) KEY (id) VALUES (1, ?)";
+    private static final String READ_HEARTBEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+
+    /**
+     * The primary {@link DataSource}, to which the heartbeat is written.
+     */
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    /**
+     * The replica {@link DataSource}, from which the replicated heartbeat is read.
+     */
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    /**
+     * The {@link MeterRegistry} to which the lag is published.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The maximum lag in milliseconds at which the replica still serves reads.
+     * Configured with the {@code datasource.routing.max-replica-lag-ms} property.
+     */
+    @Value("${datasource.routing.max-replica-lag-ms:1000}")
+    private long maxLagMs = 1000;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    /**
+     * The lag measured by the last heartbeat in milliseconds, or {@link Long#MAX_VALUE} if it is unknown.
+     */
+    private volatile long lagMs = Long.MAX_VALUE;
+
+    /**
+     * Creates the heartbeat table on the primary and registers the gauge.
+     */
+    @PostConstruct
+    public void init() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        primary.execute(CREATE_HEARTBEAT);
+        Gauge.builder("datasource.replica.lag", this, ReplicaLagMonitor::getLagMs)
+                .description("Lag of the replica database behind the primary, as of the last heartbeat")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes a heartbeat to the primary and measures the lag of the replica.
+     */
+    @Scheduled(fixedDelayString = "${datasource.routing.heartbeat-interval-ms:200}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        primary.update(WRITE_HEARTBEAT, now);
+        try {
+            Long replicated = replica.queryForObject(READ_HEARTBEAT, Long.class);
+            lagMs = replicated == null ? Long.MAX_VALUE : Math.max(0, now - replicated);
+        } catch (DataAccessException ex) {
+            // The replica has no heartbeat yet or cannot be reached
+            lagMs = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns whether the replica is recent enough to serve reads under the staleness policy.
+     *
+     * @return {@code true} if the last measured lag is at most the configured maximum.
+     */
+    public boolean isReplicaFresh() {
+        return lagMs <= maxLagMs;
+    }
+
+    /**
+     * Returns the lag of the replica measured by the last heartbeat.
+     *
+     * @return the lag in milliseconds, or {@link Long#MAX_VALUE} if it is unknown.
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+}
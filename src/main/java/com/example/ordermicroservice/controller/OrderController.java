@@ -1,17 +1,39 @@
 package com.example.ordermicroservice.controller;
 
+import com.example.ordermicroservice.exception.ConcurrencyLimitExceededException;
+import com.example.ordermicroservice.exception.IdempotencyKeyMismatchException;
+import com.example.ordermicroservice.exception.ResourceNotFoundException;
 import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderImportResult;
+import com.example.ordermicroservice.model.OrderPage;
+import com.example.ordermicroservice.model.OrderResult;
+import com.example.ordermicroservice.model.OrderStatusResponse;
+import com.example.ordermicroservice.service.AdaptiveConcurrencyLimiter;
+import com.example.ordermicroservice.service.IdempotencyStore;
 import com.example.ordermicroservice.service.Orchestrator;
+import com.example.ordermicroservice.service.OrderImportService;
+import com.example.ordermicroservice.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * The {@code OrderController} class is a REST controller responsible for handling HTTP requests
- * related to order processing. It exposes an endpoint for placing orders and delegates the
- * order processing logic to the {@link Orchestrator} service.
+ * related to order processing. It exposes endpoints for placing single orders and batches of orders,
+ * for accepting orders asynchronously and for polling their status, and delegates the order processing
+ * logic to the {@link Orchestrator} service.
  *
  * <p>This class is annotated with {@link RestController} to indicate that it is a Spring MVC controller
  * with RESTful endpoints. It uses dependency injection to autowire the {@link Orchestrator} service.
+ * In the {@code reactive} profile it is replaced by the {@link ReactiveOrderController}.
  *
  * @author Your Name
  * @version 1.0
@@ -22,6 +44,7 @@ import org.springframework.web.bind.annotation.*;
  */
 @RestController
 @RequestMapping("/orders")
+@Profile("!reactive")
 public class OrderController {
 
     /**
@@ -31,22 +54,195 @@ public class OrderController {
     @Autowired
     private Orchestrator orchestrator;
 
+    /**
+     * The {@link OrderService} instance used to look up the status of orders.
+     * This field is autowired by Spring to inject the service dependency.
+     */
+    @Autowired
+    private OrderService orderService;
+
+    /**
+     * The {@link IdempotencyStore} instance used to run each order sent with an {@code Idempotency-Key} only once.
+     * This field is autowired by Spring to inject the service dependency.
+     */
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    /**
+     * The {@link AdaptiveConcurrencyLimiter} instance used to shed orders when too many are in flight.
+     * This field is autowired by Spring to inject the service dependency.
+     */
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * The {@link OrderImportService} instance used to import streams of orders.
+     * This field is autowired by Spring to inject the service dependency.
+     */
+    @Autowired
+    private OrderImportService orderImportService;
+
     /**
      * Handles HTTP POST requests to place a new order.
      *
      * <p>This method accepts an {@link Order} object in the request body, delegates the order processing
      * to the {@link Orchestrator}, and returns a message indicating the result of the order processing.
      *
+     * <p>If the request carries an {@code Idempotency-Key} header, the order is processed only once per key: a retry
+     * with the same key returns the result of the first attempt, waiting for it if it is still running.
+     *
+     * <p>Orders are processed through the {@link AdaptiveConcurrencyLimiter}, which rejects an order at once when too
+     * many are already in flight, so that an overloaded service answers quickly instead of queueing every request.
+     *
      * @param order the {@link Order} object to be processed, provided in the request body (must not be {@code null}).
+     * @param idempotencyKey the value of the optional {@code Idempotency-Key} header, or {@code null}.
      * @return a message indicating the result of the order processing, such as "Order processed successfully"
      *         or "Order failed: Insufficient inventory".
      * @throws IllegalArgumentException if the provided order is {@code null}.
+     * @throws IdempotencyKeyMismatchException if the key was first sent with a different order.
+     * @throws ConcurrencyLimitExceededException if too many orders are in flight.
      */
     @PostMapping
-    public String placeOrder(@RequestBody Order order) {
+    public String placeOrder(@RequestBody Order order,
+                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return processOrder(order, idempotencyKey).getMessage();
+    }
+
+    /**
+     * Handles HTTP POST requests to place an order from callers that accept a binary encoding.
+     *
+     * <p>This method is selected instead of {@link #placeOrder(Order, String)} when the {@code Accept} header asks
+     * for CBOR ({@code application/cbor}) or Smile ({@code application/x-jackson-smile}). The order may be sent in
+     * either encoding or in JSON, and is processed in the same way, including idempotency keys and the concurrency
+     * limit, but the result is returned as a structured {@link OrderResult}.
+     *
+     * @param order the {@link Order} object to be processed, provided in the request body (must not be {@code null}).
+     * @param idempotencyKey the value of the optional {@code Idempotency-Key} header, or {@code null}.
+     * @return the {@link OrderResult} with the ID of the created order, its status and a message.
+     * @throws IllegalArgumentException if the provided order is {@code null}.
+     * @throws IdempotencyKeyMismatchException if the key was first sent with a different order.
+     * @throws ConcurrencyLimitExceededException if too many orders are in flight.
+     */
+    @PostMapping(produces = {"application/cbor", "application/x-jackson-smile"})
+    public OrderResult placeOrderBinary(@RequestBody Order order,
+                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return processOrder(order, idempotencyKey);
+    }
+
+    /**
+     * Handles HTTP POST requests to place a batch of orders.
+     *
+     * <p>This method accepts a list of {@link Order} objects in the request body and delegates them to
+     * {@link Orchestrator#processOrders(List)}, which reads inventory and writes payments, orders and
+     * inventory updates in batches rather than once per order.
+     *
+     * @param orders the {@link Order} objects to be processed, provided in the request body (must not be {@code null}).
+     * @return one message per order, in request order, indicating the result of processing that order.
+     * @throws IllegalArgumentException if the provided order list is {@code null}.
+     */
+    @PostMapping("/batch")
+    public List<String> placeOrders(@RequestBody List<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders cannot be null");
+        }
+        return orchestrator.processOrders(orders);
+    }
+
+    /**
+     * Handles HTTP POST requests to import a stream of orders in newline-delimited JSON (NDJSON).
+     *
+     * <p>The request body holds one order per line. It is parsed incrementally and processed in fixed-size chunks by
+     * the {@link OrderImportService}, and one {@link OrderImportResult} per order is streamed back as NDJSON while
+     * the import is running, so that neither the request nor the response is held in memory.
+     *
+     * @param body the raw request body.
+     * @return a streaming NDJSON response with one result per imported order.
+     */
+    @PostMapping(value = "/import", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importOrders(InputStream body) {
+        StreamingResponseBody results = output -> orderImportService.importOrders(body, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results);
+    }
+
+    /**
+     * Handles HTTP POST requests to accept an order for asynchronous processing.
+     *
+     * <p>This method validates the order, persists it with the status "PENDING" and returns immediately with
+     * HTTP status 202 (Accepted). The order is processed by a bounded worker pool; its progress can be polled
+     * with {@link #getOrderStatus(Long)}.
+     *
+     * @param order the {@link Order} object to be accepted, provided in the request body (must not be {@code null}).
+     * @return the ID of the accepted order and its status "PENDING".
+     * @throws IllegalArgumentException if the order is {@code null}, has no product ID or has a non-positive quantity.
+     */
+    @PostMapping("/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public OrderStatusResponse placeOrderAsync(@RequestBody Order order) {
         if (order == null) {
             throw new IllegalArgumentException("Order cannot be null");
         }
-        return orchestrator.processOrder(order);
+        if (order.getProductId() == null || order.getProductId().isEmpty()) {
+            throw new IllegalArgumentException("Product ID cannot be null or empty");
+        }
+        if (order.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        Order accepted = orchestrator.acceptOrder(order);
+        return new OrderStatusResponse(accepted.getId(), accepted.getStatus());
+    }
+
+    /**
+     * Handles HTTP GET requests to list orders, optionally filtered by product ID and status.
+     *
+     * <p>The orders are returned in pages in ascending order of their ID. To read the next page, pass the
+     * {@code nextAfterId} of the current page as {@code after}; it is {@code null} on the last page.
+     *
+     * @param productId the ID of the product to filter by, if any.
+     * @param status the status to filter by, if any.
+     * @param after the ID after which the page starts, if any.
+     * @param limit the maximum number of orders in the page, {@code 50} by default.
+     * @return the {@link OrderPage} with the orders found.
+     */
+    @GetMapping
+    public OrderPage listOrders(@RequestParam(required = false) String productId,
+                                @RequestParam(required = false) String status,
+                                @RequestParam(required = false) Long after,
+                                @RequestParam(defaultValue = "50") int limit) {
+        return orderService.findOrders(productId, status, after, limit);
+    }
+
+    /**
+     * Processes a single order through the concurrency limit, at most once per idempotency key if one is given,
+     * and returns its result.
+     */
+    private OrderResult processOrder(Order order, String idempotencyKey) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        Supplier<OrderResult> action = () -> concurrencyLimiter.execute(() -> {
+            String message = orchestrator.processOrder(order);
+            boolean created = "CREATED".equals(order.getStatus());
+            return new OrderResult(created ? order.getId() : null, created ? "CREATED" : "FAILED", message);
+        });
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        String fingerprint = order.getProductId() + ":" + order.getQuantity() + ":" + order.getAmount();
+        return idempotencyStore.execute(idempotencyKey, fingerprint, action);
+    }
+
+    /**
+     * Handles HTTP GET requests for the processing status of an order.
+     *
+     * @param id the ID of the order, provided in the request path.
+     * @return the ID of the order and its current status.
+     * @throws ResourceNotFoundException if no order exists with the given ID.
+     */
+    @GetMapping("/{id}/status")
+    public OrderStatusResponse getOrderStatus(@PathVariable Long id) {
+        Order order = orderService.getOrder(id);
+        return new OrderStatusResponse(order.getId(), order.getStatus());
     }
-}
\ No newline at end of file
+}
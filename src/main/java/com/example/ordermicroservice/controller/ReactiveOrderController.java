@@ -0,0 +1,102 @@
+package com.example.ordermicroservice.controller;
+
+import com.example.ordermicroservice.exception.ErrorDetails;
+import com.example.ordermicroservice.exception.ResourceNotFoundException;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderStatusResponse;
+import com.example.ordermicroservice.service.ReactiveOrchestrator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * The {@code ReactiveOrderController} class is the WebFlux counterpart of {@link OrderController}: it serves the
+ * order endpoints on the event-loop threads of the {@code reactive} profile and delegates to the
+ * {@link ReactiveOrchestrator}, so that no request holds a thread while it waits for the database.
+ *
+ * <p>It offers the endpoints needed to place orders and poll their status, with the same paths, bodies and messages
+ * as the blocking controller. Idempotency keys, the adaptive concurrency limit, batches, imports and order listings
+ * remain specific to the blocking stack.
+ *
+ * <p>This class is only registered in the {@code reactive} profile.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see OrderController
+ * @see ReactiveOrchestrator
+ */
+@RestController
+@RequestMapping("/orders")
+@Profile("reactive")
+public class ReactiveOrderController {
+
+    /**
+     * The {@link ReactiveOrchestrator} instance used to process orders.
+     * This field is autowired by Spring to inject the service dependency.
+     */
+    @Autowired
+    private ReactiveOrchestrator orchestrator;
+
+    /**
+     * Handles HTTP POST requests to place a new order.
+     *
+     * @param order the {@link Order} object containing order details, provided in the request body.
+     * @return a {@link Mono} emitting the same message as {@link OrderController#placeOrder(Order, String)}.
+     * @throws IllegalArgumentException if the provided order is {@code null}.
+     */
+    @PostMapping
+    public Mono<String> placeOrder(@RequestBody Order order) {
+        return orchestrator.processOrder(order);
+    }
+
+    /**
+     * Handles HTTP GET requests for the processing status of an order.
+     *
+     * @param id the ID of the order, provided in the request path.
+     * @return a {@link Mono} emitting the ID of the order and its current status, or a
+     *         {@link ResourceNotFoundException} if no order exists with the given ID.
+     */
+    @GetMapping("/{id}/status")
+    public Mono<OrderStatusResponse> getOrderStatus(@PathVariable Long id) {
+        return orchestrator.getOrder(id).map(order -> new OrderStatusResponse(order.getId(), order.getStatus()));
+    }
+
+    /**
+     * Handles {@link ResourceNotFoundException} like the blocking stack does, with a {@code 404 Not Found}.
+     *
+     * @param ex the exception.
+     * @param request the request that failed.
+     * @return the error details.
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorDetails> handleResourceNotFoundException(ResourceNotFoundException ex,
+                                                                        ServerHttpRequest request) {
+        return new ResponseEntity<>(errorDetails(ex, request), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles all other exceptions like the blocking stack does, with a {@code 500 Internal Server Error}.
+     *
+     * @param ex the exception.
+     * @param request the request that failed.
+     * @return the error details.
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorDetails> handleGlobalException(Exception ex, ServerHttpRequest request) {
+        return new ResponseEntity<>(errorDetails(ex, request), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    /**
+     * Builds the error details with the same description as {@code WebRequest.getDescription(false)}.
+     */
+    private ErrorDetails errorDetails(Exception ex, ServerHttpRequest request) {
+        return new ErrorDetails(LocalDateTime.now(), ex.getMessage(), "uri=" + request.getPath().value());
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ordermicroservice.exception;
+
+/**
+ * The {@code ConcurrencyLimitExceededException} class is a custom runtime exception used to indicate that a request
+ * was shed because the number of orders in flight reached the current adaptive concurrency limit.
+ *
+ * <p>The request is rejected before any work is done, so the client can safely retry it after a short delay.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @see RuntimeException
+ * @since 2023-10-01
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code ConcurrencyLimitExceededException} with the specified error message.
+     *
+     * @param message the detail message describing the reason for the exception.
+     */
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.ordermicroservice.exception;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,18 +16,21 @@ import java.time.LocalDateTime;
  * across the application. It uses Spring's {@link ControllerAdvice} to intercept exceptions thrown by controllers
  * and return consistent error responses.
  *
- * <p>This class provides methods to handle specific exceptions, such as {@link ResourceNotFoundException},
- * as well as a fallback method to handle all other exceptions.
+ * <p>This class provides methods to handle specific exceptions, such as {@link ResourceNotFoundException} and
+ * {@link InsufficientInventoryException}, as well as a fallback method to handle all other exceptions.
+ * It handles the Spring MVC controllers only and is not registered in the {@code reactive} profile.
  *
  * @author Your Name
  * @version 1.0
  * @see ControllerAdvice
  * @see ExceptionHandler
  * @see ResourceNotFoundException
+ * @see InsufficientInventoryException
  * @see ErrorDetails
  * @since 2023-10-01
  */
 @ControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
 
     /**
@@ -43,6 +49,74 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles {@link InsufficientInventoryException} by returning a structured error response with HTTP status 409 (Conflict).
+     *
+     * <p>This exception reaches the handler when a batch of orders lost a race for stock against concurrent orders
+     * and was rolled back, so the client can retry the batch.
+     *
+     * @param ex      the {@link InsufficientInventoryException} instance that was thrown.
+     * @param request the {@link WebRequest} object containing details about the request that caused the exception.
+     * @return a {@link ResponseEntity} containing the error details and HTTP status 409 (Conflict).
+     */
+    @ExceptionHandler(InsufficientInventoryException.class)
+    public ResponseEntity<ErrorDetails> handleInsufficientInventoryException(InsufficientInventoryException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles {@link IdempotencyKeyMismatchException} by returning a structured error response with HTTP status 422
+     * (Unprocessable Entity).
+     *
+     * <p>This exception is thrown when a client reuses an {@code Idempotency-Key} for a different order.
+     *
+     * @param ex      the {@link IdempotencyKeyMismatchException} instance that was thrown.
+     * @param request the {@link WebRequest} object containing details about the request that caused the exception.
+     * @return a {@link ResponseEntity} containing the error details and HTTP status 422 (Unprocessable Entity).
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorDetails> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles {@link ConcurrencyLimitExceededException} by returning a structured error response with HTTP status 429
+     * (Too Many Requests) and a {@code Retry-After} header.
+     *
+     * <p>This exception is thrown when an order is shed because the adaptive concurrency limit has been reached.
+     *
+     * @param ex      the {@link ConcurrencyLimitExceededException} instance that was thrown.
+     * @param request the {@link WebRequest} object containing details about the request that caused the exception.
+     * @return a {@link ResponseEntity} containing the error details and HTTP status 429 (Too Many Requests).
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorDetails> handleConcurrencyLimitExceededException(ConcurrencyLimitExceededException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorDetails);
+    }
+
+    /**
+     * Handles {@link TaskRejectedException} by returning a structured error response with HTTP status 503
+     * (Service Unavailable) and a {@code Retry-After} header.
+     *
+     * <p>This exception is thrown when the bounded worker queue for asynchronously accepted orders is full.
+     *
+     * @param ex      the {@link TaskRejectedException} instance that was thrown.
+     * @param request the {@link WebRequest} object containing details about the request that caused the exception.
+     * @return a {@link ResponseEntity} containing the error details and HTTP status 503 (Service Unavailable).
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ErrorDetails> handleTaskRejectedException(TaskRejectedException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), "Order queue is full", request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorDetails);
+    }
+
     /**
      * Handles all other exceptions by returning a structured error response with HTTP status 500 (Internal Server Error).
      *
@@ -0,0 +1,25 @@
+package com.example.ordermicroservice.exception;
+
+/**
+ * The {@code IdempotencyKeyMismatchException} class is a custom runtime exception used to indicate that an
+ * {@code Idempotency-Key} was reused for a request that differs from the one it was first sent with.
+ *
+ * <p>Replaying the stored response would hide the changed request from the client, and executing the request would
+ * break the idempotency guarantee of the key, so the request is rejected instead.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @see RuntimeException
+ * @since 2023-10-01
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code IdempotencyKeyMismatchException} with the specified error message.
+     *
+     * @param message the detail message describing the reason for the exception.
+     */
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
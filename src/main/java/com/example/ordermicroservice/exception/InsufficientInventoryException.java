@@ -0,0 +1,25 @@
+package com.example.ordermicroservice.exception;
+
+/**
+ * The {@code InsufficientInventoryException} class is a custom runtime exception used to indicate that
+ * an inventory decrement was rejected because the product no longer has enough stock.
+ *
+ * <p>This exception is thrown by the guarded inventory update when a concurrent order consumed the stock
+ * between the inventory check and the update, so that the caller can compensate instead of overselling.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @see RuntimeException
+ * @since 2023-10-01
+ */
+public class InsufficientInventoryException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code InsufficientInventoryException} with the specified error message.
+     *
+     * @param message the detail message describing the reason for the exception.
+     */
+    public InsufficientInventoryException(String message) {
+        super(message);
+    }
+}
@@ -9,6 +9,9 @@ import lombok.Data;
  * It is annotated as a JPA entity and is mapped to a database table.
  * The Lombok @Data annotation generates boilerplate code for getters, setters,
  * equals(), hashCode(), and toString() methods automatically.
+ * Each product has at most one inventory record, which is enforced by a unique index on the product ID.
+ * The stock of a hot product can additionally be split across several {@link InventoryBucket} rows.
+ * The Spring Data annotation on its ID lets the R2DBC repositories of the reactive profile map the same table.
  *
  * @author Your Name
  * @version 1.0
@@ -16,25 +19,54 @@ import lombok.Data;
  */
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_inventory_product_id", columnList = "productId", unique = true),
+        @Index(name = "ux_inventory_product_key", columnList = "productKey", unique = true)
+})
 public class Inventory {
 
     /**
      * Unique identifier for the inventory item.
-     * This field is mapped to the primary key of the inventory in the database.
+     * This field is mapped to the primary key of the inventory in the database. IDs are drawn from the
+     * {@code inventory_seq} sequence in blocks of 50 by Hibernate's pooled optimizer, so inserts can be batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_seq")
+    @SequenceGenerator(name = "inventory_seq", sequenceName = "inventory_seq", allocationSize = 50)
     private Long id;
 
     /**
      * ID of the product associated with the inventory item.
      * This field stores the product identifier for the inventory.
      */
+    @Column(nullable = false)
     private String productId;
 
+    /**
+     * Dense integer surrogate key of the product, assigned by the {@code ProductKeyDictionary}.
+     * This field is {@code null} unless the dictionary is enabled with {@code inventory.product-keys.enabled}.
+     */
+    private Integer productKey;
+
+    /**
+     * The number of {@link InventoryBucket} rows across which the stock of the product is split, set by
+     * {@code InventoryService#splitInventory}. This field is {@code null} for a product whose stock is held in this
+     * record alone. While the stock is split, {@link #quantity} only holds stock that has not yet been moved into
+     * the buckets, and the available quantity is the sum of both.
+     */
+    private Integer bucketCount;
+
     /**
      * The quantity of the product available in inventory.
      * This field stores the number of units of the product in stock.
      */
     private int quantity;
+
+    /**
+     * Version of the inventory record used for optimistic locking.
+     * This field is incremented on every update so that concurrent read-modify-write cycles are detected.
+     */
+    @Version
+    private Long version;
 }
@@ -0,0 +1,54 @@
+package com.example.ordermicroservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Represents one bucket of the split stock of a product in the order management system.
+ * The stock of a hot product can be split across several bucket rows, so that concurrent decrements update, and
+ * lock, different rows instead of all queueing for the single {@link Inventory} row of the product.
+ * The Lombok @Data annotation generates boilerplate code for getters, setters,
+ * equals(), hashCode(), and toString() methods automatically.
+ * Each product has at most one row per bucket number, which is enforced by a unique index.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-03-05
+ */
+@Data
+@Entity
+@Table(indexes = @Index(name = "ux_inventory_bucket_product_id_bucket", columnList = "productId, bucket", unique = true))
+public class InventoryBucket {
+
+    /**
+     * Unique identifier for the bucket.
+     * IDs are drawn from the {@code inventory_bucket_seq} sequence in blocks of 50 by Hibernate's pooled optimizer.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_bucket_seq")
+    @SequenceGenerator(name = "inventory_bucket_seq", sequenceName = "inventory_bucket_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * ID of the product whose stock the bucket holds.
+     */
+    @Column(nullable = false)
+    private String productId;
+
+    /**
+     * The number of the bucket, from {@code 0} to the bucket count of the product minus one.
+     */
+    private int bucket;
+
+    /**
+     * The part of the product's stock held in this bucket.
+     */
+    private int quantity;
+
+    /**
+     * Version of the bucket used for optimistic locking.
+     * This field is incremented on every update so that concurrent read-modify-write cycles are detected.
+     */
+    @Version
+    private Long version;
+}
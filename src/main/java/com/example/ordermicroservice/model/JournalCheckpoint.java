@@ -0,0 +1,32 @@
+package com.example.ordermicroservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+/**
+ * Represents how far a journal has been projected into the relational tables of the order management system.
+ * The checkpoint is saved in the same transaction as the rows it covers, so that after a crash the projection
+ * resumes exactly after the last record whose rows were committed.
+ * The Lombok @Data annotation generates boilerplate code for getters, setters,
+ * equals(), hashCode(), and toString() methods automatically.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-03-05
+ */
+@Data
+@Entity
+public class JournalCheckpoint {
+
+    /**
+     * The name of the journal, which identifies the checkpoint.
+     */
+    @Id
+    private String name;
+
+    /**
+     * The sequence number of the last record projected into the tables.
+     */
+    private long sequence;
+}
@@ -1,5 +1,7 @@
 package com.example.ordermicroservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -9,6 +11,10 @@ import lombok.Data;
  * It is annotated as a JPA entity and is mapped to a database table.
  * The Lombok @Data annotation generates boilerplate code for getters, setters,
  * equals(), hashCode(), and toString() methods automatically.
+ * The entity is mapped to the "orders" table because ORDER is a reserved SQL keyword.
+ * The {@code (productId, id)} and {@code (status, id)} indexes serve the keyset-paginated order queries, which
+ * filter on the first column and seek and sort on the second.
+ * The Spring Data Relational annotations map the same table for the R2DBC repositories of the reactive profile.
  *
  * @author Your Name
  * @version 1.0
@@ -16,14 +22,21 @@ import lombok.Data;
  */
 @Data
 @Entity
+@Table(name = "orders", indexes = {
+        @Index(name = "ix_orders_product_key", columnList = "productKey"),
+        @Index(name = "ix_orders_product_id_id", columnList = "productId, id"),
+        @Index(name = "ix_orders_status_id", columnList = "status, id")
+})
+@org.springframework.data.relational.core.mapping.Table("orders")
 public class Order {
 
     /**
      * Unique identifier for the order.
-     * This field is mapped to the primary key of the order in the database.
+     * This field is mapped to the primary key of the order in the database. IDs are assigned in-process by the
+     * {@code SnowflakeIdGenerator} before the order is saved, so that they are known before any insert.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
     private Long id;
 
     /**
@@ -32,6 +45,13 @@ public class Order {
      */
     private String productId;
 
+    /**
+     * Dense integer surrogate key of the product, assigned by the {@code ProductKeyDictionary}.
+     * This field is {@code null} unless the dictionary is enabled, and is never read from a request.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer productKey;
+
     /**
      * The quantity of the product ordered.
      * This field stores the number of units of the product in the order.
@@ -49,4 +69,13 @@ public class Order {
      * This field indicates the current state of the order (e.g., "Pending", "Shipped", "Delivered").
      */
     private String status;
+
+    /**
+     * Version of the order record used for optimistic locking.
+     * This field is {@code null} until the order is first saved, which tells Spring Data that an order with an
+     * assigned ID is new and must be inserted rather than merged.
+     */
+    @Version
+    @JsonIgnore
+    private Long version;
 }
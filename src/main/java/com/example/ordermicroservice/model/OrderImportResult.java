@@ -0,0 +1,37 @@
+package com.example.ordermicroservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The {@code OrderImportResult} class represents the outcome of one line of a bulk order import, as streamed back
+ * by the import endpoint.
+ *
+ * <p>The Lombok {@code @Data} annotation generates getters, setters, {@code toString}, {@code equals}, and
+ * {@code hashCode} methods automatically.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderImportResult {
+
+    /**
+     * The number of the line of the request body that held the order, starting at 1.
+     */
+    private long line;
+
+    /**
+     * The ID of the created order, or {@code null} if no order was created.
+     */
+    private Long orderId;
+
+    /**
+     * The result of processing the order, such as "Order processed successfully", or the reason it was rejected.
+     */
+    private String result;
+}
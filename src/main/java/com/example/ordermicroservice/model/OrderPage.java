@@ -0,0 +1,35 @@
+package com.example.ordermicroservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The {@code OrderPage} class represents one page of orders as returned by the order query API.
+ *
+ * <p>Pages are addressed by keyset rather than by offset: the next page is requested with the ID of the last order
+ * of this page, which is returned as {@code nextAfterId}. The Lombok {@code @Data} annotation generates getters,
+ * setters, {@code toString}, {@code equals}, and {@code hashCode} methods automatically.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see OrderSummary
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPage {
+
+    /**
+     * The orders of this page, in ascending order of their ID.
+     */
+    private List<OrderSummary> orders;
+
+    /**
+     * The ID to pass as {@code after} to read the next page, or {@code null} if this is the last page.
+     */
+    private Long nextAfterId;
+}
@@ -0,0 +1,38 @@
+package com.example.ordermicroservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The {@code OrderResult} class represents the outcome of placing an order as returned to callers that ask for a
+ * structured response, for example in one of the binary CBOR or Smile encodings.
+ *
+ * <p>The Lombok {@code @Data} annotation generates getters, setters, {@code toString}, {@code equals}, and
+ * {@code hashCode} methods automatically.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderResult {
+
+    /**
+     * The unique identifier of the created order, or {@code null} if the order was not created.
+     */
+    private Long orderId;
+
+    /**
+     * The status of the order: "CREATED" if it was created, otherwise "FAILED".
+     */
+    private String status;
+
+    /**
+     * A message describing the outcome, such as "Order processed successfully" or
+     * "Order failed: Insufficient inventory".
+     */
+    private String message;
+}
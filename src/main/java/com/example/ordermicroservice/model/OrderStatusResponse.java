@@ -0,0 +1,32 @@
+package com.example.ordermicroservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The {@code OrderStatusResponse} class represents the processing status of an order as returned by the
+ * asynchronous order endpoints.
+ *
+ * <p>The Lombok {@code @Data} annotation generates getters, setters, {@code toString}, {@code equals}, and
+ * {@code hashCode} methods automatically.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusResponse {
+
+    /**
+     * The unique identifier of the order.
+     */
+    private Long orderId;
+
+    /**
+     * The current status of the order (e.g., "PENDING", "CREATED", "FAILED").
+     */
+    private String status;
+}
@@ -0,0 +1,22 @@
+package com.example.ordermicroservice.model;
+
+/**
+ * The {@code OrderSummary} record is a read-only projection of an {@link Order} as returned by the order query API.
+ *
+ * <p>It is selected directly with a constructor expression, so that pages of orders are read without creating
+ * managed entities: the persistence context stays empty and nothing has to be dirty-checked, however many pages a
+ * client reads.
+ *
+ * @param id the unique identifier of the order.
+ * @param productId the ID of the product associated with the order.
+ * @param quantity the quantity of the product ordered.
+ * @param amount the total amount of the order.
+ * @param status the status of the order.
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Order
+ * @see OrderPage
+ */
+public record OrderSummary(Long id, String productId, int quantity, double amount, String status) {
+}
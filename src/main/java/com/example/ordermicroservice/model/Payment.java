@@ -10,7 +10,8 @@ import lombok.Data;
  *
  * <p>This class is annotated with {@code @Entity} to indicate that it is a JPA entity,
  * and {@code @Data} from Lombok to automatically generate getters, setters, toString,
- * equals, and hashCode methods.
+ * equals, and hashCode methods. The Spring Data annotation on its ID lets the R2DBC
+ * repositories of the reactive profile map the same table.
  *
  * @author Your Name
  * @version 1.0
@@ -22,10 +23,11 @@ public class Payment {
 
     /**
      * The unique identifier for the payment.
-     * This field is automatically generated by the database using an identity column.
+     * IDs are assigned in-process by the {@code SnowflakeIdGenerator} before the payment is saved,
+     * so that they are known before any insert.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
     private Long id;
 
     /**
@@ -45,4 +47,12 @@ public class Payment {
      * This field indicates the current state of the payment (e.g., "Pending", "Completed", "Failed").
      */
     private String status;
+
+    /**
+     * Version of the payment record used for optimistic locking.
+     * This field is {@code null} until the payment is first saved, which tells Spring Data that a payment with an
+     * assigned ID is new and must be inserted rather than merged.
+     */
+    @Version
+    private Long version;
 }
\ No newline at end of file
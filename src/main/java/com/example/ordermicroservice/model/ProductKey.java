@@ -0,0 +1,35 @@
+package com.example.ordermicroservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Represents an entry of the product key dictionary in the order management system.
+ * This class maps a product ID string to a dense integer surrogate key, so that inventory records and orders
+ * can be looked up and joined on a fixed-width integer instead of a variable-length string.
+ * The Lombok @Data annotation generates boilerplate code for getters, setters,
+ * equals(), hashCode(), and toString() methods automatically.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-03-05
+ */
+@Data
+@Entity
+@Table(indexes = @Index(name = "ux_product_key_product_id", columnList = "productId", unique = true))
+public class ProductKey {
+
+    /**
+     * The integer surrogate key of the product.
+     * Keys are assigned in insertion order, so they stay dense.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * ID of the product that the key stands for.
+     */
+    @Column(nullable = false)
+    private String productId;
+}
@@ -0,0 +1,79 @@
+package com.example.ordermicroservice.repository;
+
+import com.example.ordermicroservice.model.InventoryBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * The {@code InventoryBucketRepository} interface is a Spring Data JPA repository for managing
+ * {@link InventoryBucket} entities, the rows across which the stock of a hot product is split.
+ *
+ * <p>Decrements and increments address a single bucket with one atomic {@code UPDATE}, so that concurrent writers
+ * of the same product only contend when they pick the same bucket.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see JpaRepository
+ * @see InventoryBucket
+ */
+public interface InventoryBucketRepository extends JpaRepository<InventoryBucket, Long> {
+
+    /**
+     * Retrieves all buckets of a product in bucket order and locks them with a {@code SELECT ... FOR UPDATE} until
+     * the surrounding transaction ends.
+     *
+     * <p>The buckets are always locked in bucket order, so that concurrent rebalances cannot deadlock each other.
+     *
+     * @param productId the product ID whose buckets are read (must not be {@code null}).
+     * @return the locked buckets of the product, or an empty list if its stock is not split.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<InventoryBucket> findForUpdateByProductIdOrderByBucket(String productId);
+
+    /**
+     * Returns the total stock held in the buckets of a product.
+     *
+     * @param productId the product ID whose buckets are summed (must not be {@code null}).
+     * @return the sum of the quantities of the buckets, or {@code 0} if the product has none.
+     */
+    @Query("select coalesce(sum(b.quantity), 0) from InventoryBucket b where b.productId = :productId")
+    long sumQuantity(@Param("productId") String productId);
+
+    /**
+     * Atomically decrements the quantity of one bucket of a product if, and only if, the bucket holds enough stock.
+     *
+     * @param productId the product ID of the bucket (must not be {@code null}).
+     * @param bucket the number of the bucket.
+     * @param quantity the quantity to deduct from the bucket.
+     * @return the number of updated rows: {@code 1} if the stock was decremented, otherwise {@code 0}.
+     */
+    @Transactional
+    @Modifying
+    @Query("update InventoryBucket b set b.quantity = b.quantity - :quantity, b.version = b.version + 1 "
+            + "where b.productId = :productId and b.bucket = :bucket and b.quantity >= :quantity")
+    int decrementQuantity(@Param("productId") String productId, @Param("bucket") int bucket,
+                          @Param("quantity") int quantity);
+
+    /**
+     * Atomically increments the quantity of one bucket of a product.
+     *
+     * @param productId the product ID of the bucket (must not be {@code null}).
+     * @param bucket the number of the bucket.
+     * @param quantity the quantity to add to the bucket.
+     * @return the number of updated rows: {@code 1} if the bucket exists, otherwise {@code 0}.
+     */
+    @Transactional
+    @Modifying
+    @Query("update InventoryBucket b set b.quantity = b.quantity + :quantity, b.version = b.version + 1 "
+            + "where b.productId = :productId and b.bucket = :bucket")
+    int incrementQuantity(@Param("productId") String productId, @Param("bucket") int bucket,
+                          @Param("quantity") int quantity);
+}
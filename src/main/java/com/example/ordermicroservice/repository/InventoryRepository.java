@@ -1,7 +1,16 @@
 package com.example.ordermicroservice.repository;
 
 import com.example.ordermicroservice.model.Inventory;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * The {@code InventoryRepository} interface is a Spring Data JPA repository for managing {@link Inventory} entities.
@@ -12,7 +21,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * {@link Long} as the type of the entity's primary key.
  *
  * <p>In addition to the standard CRUD operations, this repository provides a custom method
- * {@link #findByProductId(String)} to retrieve an {@code Inventory} entity by its associated product ID.
+ * {@link #findByProductId(String)} to retrieve an {@code Inventory} entity by its associated product ID, and
+ * {@link #findForUpdateByProductIdInOrderByProductId(Collection)} to lock the inventory records of many products
+ * with a single query. The locking and conditional-update methods back the {@code InventoryConcurrencyStrategy} options.
+ * The {@code ...ByProductKey} variants look records up by the integer surrogate key of the product instead, when
+ * the {@code ProductKeyDictionary} is enabled.
  *
  * @author Your Name
  * @version 1.0
@@ -33,4 +46,118 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
      * @return the {@code Inventory} entity associated with the given product ID, or {@code null} if no match is found.
      */
     Inventory findByProductId(String productId);
-}
\ No newline at end of file
+
+    /**
+     * Retrieves an {@link Inventory} entity by the integer surrogate key of its product.
+     *
+     * @param productKey the key assigned to the product by the {@code ProductKeyDictionary} (must not be {@code null}).
+     * @return the {@code Inventory} entity with the given product key, or {@code null} if no match is found.
+     */
+    Inventory findByProductKey(Integer productKey);
+
+    /**
+     * Retrieves an {@link Inventory} entity by the integer surrogate key of its product and locks it with a
+     * {@code SELECT ... FOR UPDATE} until the surrounding transaction ends.
+     *
+     * @param productKey the key assigned to the product by the {@code ProductKeyDictionary} (must not be {@code null}).
+     * @return the locked {@code Inventory} entity, or {@code null} if no match is found.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Inventory findForUpdateByProductKey(Integer productKey);
+
+    /**
+     * Retrieves the {@link Inventory} entities associated with any of the given product IDs and locks them
+     * with a {@code SELECT ... FOR UPDATE} until the surrounding transaction ends.
+     *
+     * <p>This method is used by the batch order path to load the inventory of all distinct products in a batch
+     * with a single {@code IN} query instead of one query per order. The rows are read in product ID order so
+     * that concurrent batches acquire their locks in the same order and cannot deadlock each other.
+     *
+     * @param productIds the product IDs to look up and lock (must not be {@code null}).
+     * @return the matching {@code Inventory} entities; products without an inventory record are omitted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Inventory> findForUpdateByProductIdInOrderByProductId(Collection<String> productIds);
+
+    /**
+     * Retrieves an {@link Inventory} entity by its associated product ID and locks it with a
+     * {@code SELECT ... FOR UPDATE} until the surrounding transaction ends.
+     *
+     * @param productId the product ID associated with the inventory record (must not be {@code null}).
+     * @return the locked {@code Inventory} entity, or {@code null} if no match is found.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Inventory findForUpdateByProductId(String productId);
+
+    /**
+     * Atomically decrements the quantity of a product if, and only if, enough stock is available.
+     *
+     * <p>The check and the decrement are a single {@code UPDATE} statement, so two concurrent callers can never
+     * both succeed when there is only enough stock for one of them. The version column is incremented as well
+     * so that optimistic readers notice the change.
+     *
+     * @param productId the product ID associated with the inventory record (must not be {@code null}).
+     * @param quantity the quantity to deduct from the inventory.
+     * @return the number of updated rows: {@code 1} if the stock was decremented, otherwise {@code 0}.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Inventory i set i.quantity = i.quantity - :quantity, i.version = i.version + 1 "
+            + "where i.productId = :productId and i.quantity >= :quantity")
+    int decrementQuantity(@Param("productId") String productId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically decrements the quantity of a product, identified by its integer surrogate key, if, and only if,
+     * enough stock is available.
+     *
+     * @param productKey the key assigned to the product by the {@code ProductKeyDictionary} (must not be {@code null}).
+     * @param quantity the quantity to deduct from the inventory.
+     * @return the number of updated rows: {@code 1} if the stock was decremented, otherwise {@code 0}.
+     * @see #decrementQuantity(String, int)
+     */
+    @Transactional
+    @Modifying
+    @Query("update Inventory i set i.quantity = i.quantity - :quantity, i.version = i.version + 1 "
+            + "where i.productKey = :productKey and i.quantity >= :quantity")
+    int decrementQuantityByProductKey(@Param("productKey") Integer productKey, @Param("quantity") int quantity);
+
+    /**
+     * Atomically increments the quantity of a product, for example to release stock reserved by an order that
+     * could not be completed.
+     *
+     * @param productId the product ID associated with the inventory record (must not be {@code null}).
+     * @param quantity the quantity to add back to the inventory.
+     * @return the number of updated rows: {@code 1} if the product exists, otherwise {@code 0}.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Inventory i set i.quantity = i.quantity + :quantity, i.version = i.version + 1 "
+            + "where i.productId = :productId")
+    int incrementQuantity(@Param("productId") String productId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically increments the quantity of a product, identified by its integer surrogate key.
+     *
+     * @param productKey the key assigned to the product by the {@code ProductKeyDictionary} (must not be {@code null}).
+     * @param quantity the quantity to add back to the inventory.
+     * @return the number of updated rows: {@code 1} if the product exists, otherwise {@code 0}.
+     * @see #incrementQuantity(String, int)
+     */
+    @Transactional
+    @Modifying
+    @Query("update Inventory i set i.quantity = i.quantity + :quantity, i.version = i.version + 1 "
+            + "where i.productKey = :productKey")
+    int incrementQuantityByProductKey(@Param("productKey") Integer productKey, @Param("quantity") int quantity);
+
+    /**
+     * Stamps the integer surrogate key of a product on its inventory record, if the record does not have one yet.
+     *
+     * @param productId the product ID associated with the inventory record (must not be {@code null}).
+     * @param productKey the key assigned to the product by the {@code ProductKeyDictionary} (must not be {@code null}).
+     * @return the number of updated rows: {@code 1} if the record was stamped, otherwise {@code 0}.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Inventory i set i.productKey = :productKey where i.productId = :productId and i.productKey is null")
+    int assignProductKey(@Param("productId") String productId, @Param("productKey") Integer productKey);
+}
@@ -0,0 +1,18 @@
+package com.example.ordermicroservice.repository;
+
+import com.example.ordermicroservice.model.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * The {@code JournalCheckpointRepository} interface is a Spring Data JPA repository for managing
+ * {@link JournalCheckpoint} entities, which record how far the order journal has been projected into the
+ * {@code orders} and {@code payment} tables.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see JpaRepository
+ * @see JournalCheckpoint
+ */
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
@@ -1,8 +1,12 @@
 package com.example.ordermicroservice.repository;
 
 import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 /**
  * The {@code OrderRepository} interface is a Spring Data JPA repository for managing {@link Order} entities.
  * It provides CRUD (Create, Read, Update, Delete) operations and other common database interactions
@@ -12,6 +16,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * pagination, and sorting. The {@code OrderRepository} works with the {@code Order} entity and uses
  * {@link Long} as the type of the entity's primary key.
  *
+ * <p>The {@code find...IdGreaterThan...} queries read pages of orders by keyset: each page starts after the
+ * last ID of the previous one and is ordered by ID, so the database seeks into the {@code (productId, id)},
+ * {@code (status, id)} or primary key index instead of counting past an offset, and every page costs the same
+ * however deep it is. They return {@link OrderSummary} projections rather than managed entities.
+ *
  * @author Your Name
  * @version 1.0
  * @since 2023-10-01
@@ -19,4 +28,46 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @see Order
  */
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Finds the orders with an ID greater than the given one, in ascending order of their ID.
+     *
+     * @param afterId the ID after which the page starts.
+     * @param limit the maximum number of orders to return.
+     * @return the orders of the page.
+     */
+    List<OrderSummary> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Finds the orders of a product with an ID greater than the given one, in ascending order of their ID.
+     *
+     * @param productId the ID of the product.
+     * @param afterId the ID after which the page starts.
+     * @param limit the maximum number of orders to return.
+     * @return the orders of the page.
+     */
+    List<OrderSummary> findByProductIdAndIdGreaterThanOrderByIdAsc(String productId, Long afterId, Limit limit);
+
+    /**
+     * Finds the orders with a status and an ID greater than the given one, in ascending order of their ID.
+     *
+     * @param status the status of the orders.
+     * @param afterId the ID after which the page starts.
+     * @param limit the maximum number of orders to return.
+     * @return the orders of the page.
+     */
+    List<OrderSummary> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long afterId, Limit limit);
+
+    /**
+     * Finds the orders of a product with a status and an ID greater than the given one, in ascending order of
+     * their ID. The {@code (productId, id)} index is used, since a product has far fewer orders than a status.
+     *
+     * @param productId the ID of the product.
+     * @param status the status of the orders.
+     * @param afterId the ID after which the page starts.
+     * @param limit the maximum number of orders to return.
+     * @return the orders of the page.
+     */
+    List<OrderSummary> findByProductIdAndStatusAndIdGreaterThanOrderByIdAsc(String productId, String status,
+                                                                           Long afterId, Limit limit);
 }
\ No newline at end of file
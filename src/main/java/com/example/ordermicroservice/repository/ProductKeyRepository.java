@@ -0,0 +1,25 @@
+package com.example.ordermicroservice.repository;
+
+import com.example.ordermicroservice.model.ProductKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * The {@code ProductKeyRepository} interface is a Spring Data JPA repository for managing {@link ProductKey} entities.
+ * It provides CRUD (Create, Read, Update, Delete) operations and a lookup of the key assigned to a product ID.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see JpaRepository
+ * @see ProductKey
+ */
+public interface ProductKeyRepository extends JpaRepository<ProductKey, Integer> {
+
+    /**
+     * Retrieves the {@link ProductKey} entry of a product ID.
+     *
+     * @param productId the product ID to look up (must not be {@code null}).
+     * @return the {@code ProductKey} entry of the product, or {@code null} if no key has been assigned yet.
+     */
+    ProductKey findByProductId(String productId);
+}
@@ -0,0 +1,66 @@
+package com.example.ordermicroservice.repository;
+
+import com.example.ordermicroservice.model.Inventory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+/**
+ * The {@code ReactiveInventoryRepository} class reads and decrements {@link Inventory} records through R2DBC
+ * without blocking the calling thread. It maps the same table as {@link InventoryRepository}.
+ *
+ * <p>Like {@link ReactiveOrderRepository}, it is built on {@link R2dbcEntityTemplate} because {@code Inventory} is
+ * also a JPA entity.
+ *
+ * <p>This repository is only created in the {@code reactive} profile.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see R2dbcEntityTemplate
+ * @see Inventory
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveInventoryRepository {
+
+    /**
+     * The {@link R2dbcEntityTemplate} used to run the statements.
+     */
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    /**
+     * Finds the inventory record associated with the given product ID.
+     *
+     * @param productId the product ID associated with the inventory record (must not be {@code null}).
+     * @return a {@link Mono} emitting the inventory record, or completing empty if none is found.
+     */
+    public Mono<Inventory> findByProductId(String productId) {
+        return template.selectOne(query(where("productId").is(productId)), Inventory.class);
+    }
+
+    /**
+     * Atomically decrements the quantity of a product if, and only if, enough stock is available, like
+     * {@link InventoryRepository#decrementQuantity(String, int)}.
+     *
+     * @param productId the product ID associated with the inventory record (must not be {@code null}).
+     * @param quantity the quantity to deduct from the inventory.
+     * @return a {@link Mono} emitting the number of updated rows: {@code 1} if the stock was decremented,
+     *         otherwise {@code 0}.
+     */
+    public Mono<Long> decrementQuantity(String productId, int quantity) {
+        return template.getDatabaseClient()
+                .sql("UPDATE inventory SET quantity = quantity - :quantity, version = version + 1 "
+                        + "WHERE product_id = :productId AND quantity >= :quantity")
+                .bind("productId", productId)
+                .bind("quantity", quantity)
+                .fetch()
+                .rowsUpdated();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ordermicroservice.repository;
+
+import com.example.ordermicroservice.model.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+/**
+ * The {@code ReactiveOrderRepository} class stores {@link Order} entities through R2DBC without blocking the calling
+ * thread. It maps the same {@code orders} table as {@link OrderRepository}.
+ *
+ * <p>It is built on {@link R2dbcEntityTemplate} rather than declared as a Spring Data repository interface, since
+ * {@code Order} is also a JPA entity and Spring Data would assign such an interface to JPA. Orders are inserted
+ * explicitly because their ID is assigned before they are first saved, and after that only their status changes.
+ *
+ * <p>This repository is only created in the {@code reactive} profile.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see R2dbcEntityTemplate
+ * @see Order
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveOrderRepository {
+
+    /**
+     * The {@link R2dbcEntityTemplate} used to run the statements.
+     */
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    /**
+     * Inserts a new order with an assigned ID. Its version is set to {@code 0}, as Hibernate does when it persists
+     * a order.
+     *
+     * @param order the {@link Order} to insert (must not be {@code null}).
+     * @return a {@link Mono} emitting the inserted order.
+     */
+    public Mono<Order> insert(Order order) {
+        return Mono.defer(() -> {
+            if (order.getVersion() == null) {
+                order.setVersion(0L);
+            }
+            return template.insert(order);
+        });
+    }
+
+    /**
+     * Sets the status of a saved order and increments its version, so that JPA readers holding the order notice
+     * the change.
+     *
+     * @param order the {@link Order} with its new status (must not be {@code null}).
+     * @return a {@link Mono} emitting the number of updated rows: {@code 1} if the order exists, otherwise
+     *         {@code 0}.
+     */
+    public Mono<Long> updateStatus(Order order) {
+        return template.getDatabaseClient()
+                .sql("UPDATE orders SET status = :status, version = version + 1 WHERE id = :id")
+                .bind("status", order.getStatus())
+                .bind("id", order.getId())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Finds an order by its ID.
+     *
+     * @param id the ID of the order (must not be {@code null}).
+     * @return a {@link Mono} emitting the order, or completing empty if none is found.
+     */
+    public Mono<Order> findById(Long id) {
+        return template.selectOne(query(where("id").is(id)), Order.class);
+    }
+}
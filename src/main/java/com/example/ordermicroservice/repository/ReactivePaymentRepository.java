@@ -0,0 +1,67 @@
+package com.example.ordermicroservice.repository;
+
+import com.example.ordermicroservice.model.Payment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code ReactivePaymentRepository} class stores {@link Payment} entities through R2DBC without blocking the
+ * calling thread. It maps the same table as {@link PaymentRepository}.
+ *
+ * <p>Like {@link ReactiveOrderRepository}, it is built on {@link R2dbcEntityTemplate} because {@code Payment} is
+ * also a JPA entity, and it inserts payments explicitly because their IDs are assigned before they are first saved.
+ *
+ * <p>This repository is only created in the {@code reactive} profile.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see R2dbcEntityTemplate
+ * @see Payment
+ */
+@Repository
+@Profile("reactive")
+public class ReactivePaymentRepository {
+
+    /**
+     * The {@link R2dbcEntityTemplate} used to run the statements.
+     */
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    /**
+     * Inserts a new payment with an assigned ID. Its version is set to {@code 0}, as Hibernate does when it persists
+     * a payment.
+     *
+     * @param payment the {@link Payment} to insert (must not be {@code null}).
+     * @return a {@link Mono} emitting the inserted payment.
+     */
+    public Mono<Payment> insert(Payment payment) {
+        return Mono.defer(() -> {
+            if (payment.getVersion() == null) {
+                payment.setVersion(0L);
+            }
+            return template.insert(payment);
+        });
+    }
+
+    /**
+     * Sets the status of a saved payment and increments its version, so that JPA readers holding the payment notice
+     * the change.
+     *
+     * @param payment the {@link Payment} with its new status (must not be {@code null}).
+     * @return a {@link Mono} emitting the number of updated rows: {@code 1} if the payment exists, otherwise
+     *         {@code 0}.
+     */
+    public Mono<Long> updateStatus(Payment payment) {
+        return template.getDatabaseClient()
+                .sql("UPDATE payment SET status = :status, version = version + 1 WHERE id = :id")
+                .bind("status", payment.getStatus())
+                .bind("id", payment.getId())
+                .fetch()
+                .rowsUpdated();
+    }
+}
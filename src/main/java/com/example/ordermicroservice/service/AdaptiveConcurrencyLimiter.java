@@ -0,0 +1,181 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The {@code AdaptiveConcurrencyLimiter} class bounds the number of orders processed at the same time and adapts the
+ * bound to the observed latency, so that an overloaded database or payment step leads to fast rejections instead of
+ * a growing queue of blocked request threads.
+ *
+ * <p>The limit follows the gradient algorithm: every completed request adds its latency to a short-term and a
+ * long-term moving average. While the short-term latency stays within {@code orders.limiter.rtt-tolerance} times the
+ * long-term latency, the limit grows by about its square root per sample; once queueing makes the short-term latency
+ * rise above that, the limit shrinks in proportion, by at most half per sample. Changes are smoothed with
+ * {@code orders.limiter.smoothing} and kept between {@code orders.limiter.min-limit} and
+ * {@code orders.limiter.max-limit}. The limit only grows while at least half of it is in use, so that an idle
+ * service does not drift to the maximum.
+ *
+ * <p>A request that arrives while the number of requests in flight has reached the limit is rejected at once with a
+ * {@link ConcurrencyLimitExceededException}. The current limit and in-flight count are published as the
+ * {@code orders.limiter.limit} and {@code orders.limiter.in-flight} gauges, and every request is counted in
+ * {@code orders.limiter.requests}, tagged with {@code outcome=accepted} or {@code outcome=rejected}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Orchestrator
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * The number of samples over which the long-term latency is averaged.
+     */
+    private static final int LONG_WINDOW = 600;
+
+    /**
+     * The number of samples over which the short-term latency is averaged.
+     */
+    private static final int SHORT_WINDOW = 10;
+
+    /**
+     * The {@link MeterRegistry} to which the limit, in-flight count and request outcomes are published.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The limit used until enough latency samples have been observed.
+     * Configured with the {@code orders.limiter.initial-limit} property.
+     */
+    @Value("${orders.limiter.initial-limit:20}")
+    private int initialLimit = 20;
+
+    /**
+     * The lowest value of the limit. Configured with the {@code orders.limiter.min-limit} property.
+     */
+    @Value("${orders.limiter.min-limit:4}")
+    private int minLimit = 4;
+
+    /**
+     * The highest value of the limit. Configured with the {@code orders.limiter.max-limit} property.
+     */
+    @Value("${orders.limiter.max-limit:200}")
+    private int maxLimit = 200;
+
+    /**
+     * The factor by which the short-term latency may exceed the long-term latency before the limit shrinks.
+     * Configured with the {@code orders.limiter.rtt-tolerance} property.
+     */
+    @Value("${orders.limiter.rtt-tolerance:1.5}")
+    private double rttTolerance = 1.5;
+
+    /**
+     * The weight of a new limit estimate against the current limit, between {@code 0} and {@code 1}.
+     * Configured with the {@code orders.limiter.smoothing} property.
+     */
+    @Value("${orders.limiter.smoothing:0.2}")
+    private double smoothing = 0.2;
+
+    /**
+     * The number of requests currently in flight.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * The current limit, read without locking by {@link #execute(Supplier)}.
+     */
+    private volatile double limit;
+
+    private double longRtt;
+    private double shortRtt;
+
+    private Counter accepted;
+    private Counter rejected;
+
+    /**
+     * Sets the initial limit and registers the metrics.
+     */
+    @PostConstruct
+    public void init() {
+        limit = initialLimit;
+        Gauge.builder("orders.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("orders.limiter.in-flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        accepted = meterRegistry.counter("orders.limiter.requests", "outcome", "accepted");
+        rejected = meterRegistry.counter("orders.limiter.requests", "outcome", "rejected");
+    }
+
+    /**
+     * Runs an action if the number of actions in flight is below the current limit, and records its latency.
+     *
+     * @param action the action to run (must not be {@code null}).
+     * @param <T> the type of the result of the action.
+     * @return the result of the action.
+     * @throws ConcurrencyLimitExceededException if the limit has been reached.
+     */
+    public <T> T execute(Supplier<T> action) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                throw new ConcurrencyLimitExceededException("Too many orders in flight, limit is " + (int) limit);
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        accepted.increment();
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - start, current + 1);
+        }
+    }
+
+    /**
+     * Returns the current limit, rounded down.
+     *
+     * @return the maximum number of actions that may be in flight at the same time.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Updates the latency averages and the limit with the latency of a completed action.
+     *
+     * @param rttNanos the latency of the action in nanoseconds.
+     * @param inFlightAtStart the number of actions in flight when the action started, including itself.
+     */
+    synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+        longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+        // After a period of overload, let the baseline recover quickly once latency falls
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        if (estimate > limit && inFlightAtStart < limit / 2) {
+            return;
+        }
+        estimate = limit * (1 - smoothing) + estimate * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, estimate));
+    }
+}
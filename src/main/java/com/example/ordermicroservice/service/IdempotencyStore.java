@@ -0,0 +1,132 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.IdempotencyKeyMismatchException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * The {@code IdempotencyStore} class remembers the requests that were sent with an {@code Idempotency-Key} header and
+ * their responses, so that a client retrying a request after a timeout gets the original response instead of a second
+ * payment, a second order and a second inventory decrement.
+ *
+ * <p>Each key maps to the single execution of its request, held as a {@link CompletableFuture}. The first request
+ * with a key registers its execution atomically and runs it on the calling thread. A duplicate that arrives while the
+ * execution is in flight waits for it, and a duplicate that arrives afterwards gets the stored response straight from
+ * memory. A request whose execution throws is forgotten, so that a retry runs it again. A key that is reused for a
+ * different request, as told by its fingerprint, is rejected.
+ *
+ * <p>The store is a Caffeine cache bounded to {@code orders.idempotency.maximum-size} keys, each kept for
+ * {@code orders.idempotency.ttl-seconds} seconds. Hits, misses and evictions are published as the {@code cache.*}
+ * meters tagged {@code cache=idempotency}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Orchestrator
+ */
+@Component
+public class IdempotencyStore {
+
+    /**
+     * The {@link MeterRegistry} to which the statistics of the store are published.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The maximum number of keys held in the store.
+     * Configured with the {@code orders.idempotency.maximum-size} property.
+     */
+    @Value("${orders.idempotency.maximum-size:100000}")
+    private long maximumSize = 100000;
+
+    /**
+     * The number of seconds for which a key and its response are kept.
+     * Configured with the {@code orders.idempotency.ttl-seconds} property.
+     */
+    @Value("${orders.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds = 86400;
+
+    /**
+     * The execution of every remembered request, keyed by its idempotency key.
+     */
+    private Cache<String, Execution> executions;
+
+    /**
+     * Builds the store from the configured size and time to live and registers its metrics.
+     */
+    @PostConstruct
+    public void init() {
+        executions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, executions, "idempotency");
+    }
+
+    /**
+     * Runs a request at most once per idempotency key and returns its response.
+     *
+     * @param key the idempotency key sent by the client (must not be {@code null} or empty).
+     * @param fingerprint a value that identifies the content of the request, such as its product, quantity and amount
+     *                    (must not be {@code null}).
+     * @param action the request to run if the key has not been seen before (must not be {@code null}).
+     * @param <T> the type of the response; all requests sent with the same key must have the same response type.
+     * @return the response of the first execution of the request with this key.
+     * @throws IllegalArgumentException if the key is {@code null} or empty.
+     * @throws IdempotencyKeyMismatchException if the key was first sent with a request of a different fingerprint.
+     * @throws RuntimeException the exception thrown by the first execution, if it failed.
+     */
+    public <T> T execute(String key, String fingerprint, Supplier<T> action) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key cannot be null or empty");
+        }
+        Execution execution = new Execution(fingerprint, new CompletableFuture<>());
+        Execution existing = executions.asMap().putIfAbsent(key, execution);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyMismatchException("Idempotency key " + key + " was used for a different request");
+            }
+            return await(existing);
+        }
+        try {
+            T response = action.get();
+            execution.response().complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            executions.asMap().remove(key, execution);
+            execution.response().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T await(Execution execution) {
+        try {
+            return (T) execution.response().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * The fingerprint of a request and the future of its response.
+     */
+    private record Execution(String fingerprint, CompletableFuture<Object> response) {
+    }
+}
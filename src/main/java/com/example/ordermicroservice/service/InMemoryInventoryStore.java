@@ -0,0 +1,484 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code InMemoryInventoryStore} class is an {@link InventoryStore} that keeps the available quantity of every
+ * product in primitive arrays on the heap, without an object per product, so that catalogs of tens of millions of
+ * products fit in a fraction of the memory their entities would take and checks take nanoseconds.
+ *
+ * <p>Every product is assigned a dense index when it is first restocked. Its ID is appended to a shared
+ * {@code char[]}, preceded by its length, and the offset of the ID and the quantity of the product are stored next
+ * to each other at its index in pages of {@code int[]}. An open-addressing table of {@code long[]} slots with linear
+ * probing maps the hash of a product ID to its index, holding the hash next to the index so that most probes are
+ * rejected without reading the entry. A lookup therefore touches three cache lines, and compares the characters of
+ * the requested ID in place, so checks, decrements and increments allocate nothing. Quantities are changed with
+ * compare-and-set, so a decrement never takes more than is available.
+ *
+ * <p>New products are added under a lock; lookups never wait for it. When the table or the ID characters run out of
+ * room, they are copied into larger arrays and published together, while the entry pages are shared between the
+ * old and the new arrays, so that a change made through the old arrays during the copy is not lost.
+ *
+ * <p>The store is not persistent. On startup it is loaded from the {@code inventory} table, after the
+ * {@link InventorySnapshots} have restored the table if they are enabled; changes are then only kept in memory, so
+ * snapshots should be enabled to keep them across restarts. The {@link InventoryReservationLedger} and the
+ * {@link InventoryBuckets} keep the stock in the table, so startup fails if either is enabled. The number of
+ * products and the bytes used by the arrays are published as the {@code inventory.store.memory.products} and
+ * {@code inventory.store.memory.bytes} gauges.
+ *
+ * <p>This class is only registered when the {@code inventory.store} property is {@code memory}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryStore
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.store", havingValue = "memory")
+public class InMemoryInventoryStore implements InventoryStore {
+
+    /**
+     * The number of entries per page is {@code 2^PAGE_BITS}; every entry takes two {@code int}s.
+     */
+    static final int PAGE_BITS = 15;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_KEY_CHARS = 16 * INITIAL_CAPACITY;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * The result of {@link #tryDecrement(String, int)} for a product that is not in the store.
+     */
+    static final int NOT_FOUND = -1;
+
+    /**
+     * The result of {@link #tryDecrement(String, int)} for a product that does not have enough stock left.
+     */
+    static final int INSUFFICIENT = -2;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final String SELECT_AVAILABLE = "SELECT i.product_id, i.quantity + COALESCE((SELECT SUM(b.quantity) "
+            + "FROM inventory_bucket b WHERE b.product_id = i.product_id), 0) FROM inventory i";
+
+    /**
+     * The {@link JdbcTemplate} used to load the {@code inventory} table on startup.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The {@link MeterRegistry} to which the size of the store is published.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The {@link InventorySnapshots} when {@code inventory.snapshot.enabled} is {@code true}; {@code null}
+     * otherwise. It is only injected so that the table has been restored before it is loaded.
+     */
+    @Autowired(required = false)
+    private InventorySnapshots inventorySnapshots;
+
+    /**
+     * Whether the {@link InventoryReservationLedger} is enabled, which cannot be combined with this store.
+     * Configured with the {@code inventory.ledger.enabled} property.
+     */
+    @Value("${inventory.ledger.enabled:false}")
+    private boolean ledgerEnabled;
+
+    /**
+     * Whether the {@link InventoryBuckets} are enabled, which cannot be combined with this store.
+     * Configured with the {@code inventory.buckets.enabled} property.
+     */
+    @Value("${inventory.buckets.enabled:false}")
+    private boolean bucketsEnabled;
+
+    /**
+     * Held while a product is added.
+     */
+    private final ReentrantLock insertLock = new ReentrantLock();
+
+    /**
+     * The current arrays, replaced as a whole when they grow.
+     */
+    private volatile Table table = new Table(INITIAL_CAPACITY, INITIAL_KEY_CHARS, new int[1][]);
+
+    /**
+     * Loads the quantities of the {@code inventory} table, including split stock, and registers the gauges.
+     *
+     * @throws IllegalStateException if the reservation ledger or the inventory buckets are enabled.
+     */
+    @PostConstruct
+    public void init() {
+        if (ledgerEnabled || bucketsEnabled) {
+            throw new IllegalStateException(
+                    "inventory.store=memory cannot be combined with inventory.ledger.enabled or inventory.buckets.enabled");
+        }
+        load(jdbcTemplate);
+        Gauge.builder("inventory.store.memory.products", this, InMemoryInventoryStore::size)
+                .description("Number of products in the in-memory inventory store")
+                .register(meterRegistry);
+        Gauge.builder("inventory.store.memory.bytes", this, InMemoryInventoryStore::getFootprintBytes)
+                .description("Bytes used by the arrays of the in-memory inventory store")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restocks the store with the quantities of the {@code inventory} table, including split stock.
+     *
+     * @param jdbcTemplate the {@link JdbcTemplate} used to read the table.
+     */
+    void load(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.query(SELECT_AVAILABLE,
+                (RowCallbackHandler) resultSet -> restock(resultSet.getString(1), resultSet.getInt(2)));
+    }
+
+    @Override
+    public int getAvailable(String productId) {
+        Table current = table;
+        int index = current.find(productId, hash(productId));
+        return index < 0 ? -1 : (int) INTS.getVolatile(current.page(index), quantityOffset(index));
+    }
+
+    @Override
+    public void decrement(String productId, int quantity) {
+        int remaining = tryDecrement(productId, quantity);
+        if (remaining == NOT_FOUND) {
+            throw new IllegalStateException("Inventory record not found for product ID: " + productId);
+        }
+        if (remaining == INSUFFICIENT) {
+            throw new InsufficientInventoryException("Insufficient inventory for product ID: " + productId);
+        }
+    }
+
+    /**
+     * Reduces the available quantity of a product, unless it is lower than the given quantity, without throwing an
+     * exception when the decrement is rejected.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param quantity the quantity to deduct.
+     * @return the remaining quantity, {@link #NOT_FOUND} if the product is not in the store, or
+     * {@link #INSUFFICIENT} if it does not have enough stock left.
+     */
+    int tryDecrement(String productId, int quantity) {
+        Table current = table;
+        int index = current.find(productId, hash(productId));
+        if (index < 0) {
+            return NOT_FOUND;
+        }
+        int[] page = current.page(index);
+        int offset = quantityOffset(index);
+        int available;
+        do {
+            available = (int) INTS.getVolatile(page, offset);
+            if (available < quantity) {
+                return INSUFFICIENT;
+            }
+        } while (!INTS.compareAndSet(page, offset, available, available - quantity));
+        return available - quantity;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ArithmeticException if the quantity would overflow an {@code int}.
+     */
+    @Override
+    public boolean increment(String productId, int quantity) {
+        Table current = table;
+        int index = current.find(productId, hash(productId));
+        if (index < 0) {
+            return false;
+        }
+        add(current.page(index), quantityOffset(index), quantity);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ArithmeticException if the quantity would overflow an {@code int}.
+     * @throws IllegalArgumentException if the product ID is longer than 65,535 characters.
+     * @throws IllegalStateException if the arrays of the store cannot grow any further.
+     */
+    @Override
+    public void restock(String productId, int quantity) {
+        if (increment(productId, quantity)) {
+            return;
+        }
+        if (productId.length() > Character.MAX_VALUE) {
+            throw new IllegalArgumentException("Product ID exceeds 65535 characters");
+        }
+        insertLock.lock();
+        try {
+            int hash = hash(productId);
+            Table current = table;
+            int index = current.find(productId, hash);
+            if (index >= 0) {
+                add(current.page(index), quantityOffset(index), quantity);
+                return;
+            }
+            if (current.size == current.capacity || current.keyChars.length - current.charCount <= productId.length()) {
+                current = current.grow(productId.length());
+                table = current;
+            }
+            current.insert(productId, hash, quantity);
+        } finally {
+            insertLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException always, since buckets are rows of the {@code inventory_bucket} table.
+     */
+    @Override
+    public void split(String productId, int buckets) {
+        throw new IllegalStateException("Inventory buckets require the jpa inventory store");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The records are detached copies holding the current quantities, which are not locked.
+     */
+    @Override
+    public Map<String, Inventory> findInventories(Collection<String> productIds) {
+        Map<String, Inventory> inventories = HashMap.newHashMap(productIds.size());
+        for (String productId : productIds) {
+            int available = getAvailable(productId);
+            if (available >= 0) {
+                Inventory inventory = new Inventory();
+                inventory.setProductId(productId);
+                inventory.setQuantity(available);
+                inventories.put(productId, inventory);
+            }
+        }
+        return inventories;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The quantities are decremented one product at a time. If a concurrent order took the stock of a product in
+     * the meantime, the deductions made so far are added back before the exception is thrown. The quantities are not
+     * transactional, so if the caller's transaction rolls back, the deductions are added back then as well, as the
+     * {@link InventorySnapshots} only log them once it commits.
+     */
+    @Override
+    public void deductInventories(Map<String, Inventory> inventories, Map<String, Integer> deductions) {
+        Map<String, Integer> deducted = HashMap.newHashMap(deductions.size());
+        for (Map.Entry<String, Integer> deduction : deductions.entrySet()) {
+            try {
+                decrement(deduction.getKey(), deduction.getValue());
+            } catch (RuntimeException ex) {
+                deducted.forEach(this::increment);
+                throw ex;
+            }
+            deducted.put(deduction.getKey(), deduction.getValue());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        deducted.forEach(InMemoryInventoryStore.this::increment);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of products in the store.
+     *
+     * @return the number of products.
+     */
+    public int size() {
+        return table.size;
+    }
+
+    /**
+     * Returns the number of bytes used by the arrays of the store, excluding their object headers.
+     *
+     * @return the footprint of the store in bytes.
+     */
+    public long getFootprintBytes() {
+        Table current = table;
+        return 8L * current.slots.length + 2L * current.keyChars.length + 8L * PAGE_SIZE * current.entries.length;
+    }
+
+    /**
+     * Returns the offset of the quantity of an entry in its page.
+     */
+    private static int quantityOffset(int index) {
+        return ((index & PAGE_MASK) << 1) + 1;
+    }
+
+    private static void add(int[] page, int offset, int quantity) {
+        int available;
+        do {
+            available = (int) INTS.getVolatile(page, offset);
+        } while (!INTS.compareAndSet(page, offset, available, Math.addExact(available, quantity)));
+    }
+
+    /**
+     * Spreads the hash code of a product ID over all bits, since the table is indexed by its lowest bits.
+     */
+    private static int hash(String productId) {
+        int hash = productId.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * The arrays of the store. Entries are only added under the insert lock; an entry becomes visible to lookups
+     * when its slot is written, after everything else about it.
+     */
+    private static final class Table {
+
+        /**
+         * The hash of the ID of an entry in the upper half and its index plus one in the lower half, or {@code 0}
+         * for an empty slot. The length is a power of two, twice the capacity, so that probe sequences stay short.
+         */
+        final long[] slots;
+
+        /**
+         * The offset of the ID in {@link #keyChars} and the quantity of every entry, in pages shared with the
+         * tables this one grows into.
+         */
+        final int[][] entries;
+
+        /**
+         * The ID of every entry, preceded by its length.
+         */
+        final char[] keyChars;
+        final int capacity;
+        int size;
+        int charCount;
+
+        Table(int capacity, int keyCharCapacity, int[][] entries) {
+            this.capacity = capacity;
+            this.slots = new long[capacity * 2];
+            this.keyChars = new char[keyCharCapacity];
+            this.entries = entries;
+            for (int page = 0; page < entries.length; page++) {
+                if (entries[page] == null) {
+                    entries[page] = new int[2 * PAGE_SIZE];
+                }
+            }
+        }
+
+        int[] page(int index) {
+            return entries[index >>> PAGE_BITS];
+        }
+
+        /**
+         * Returns the index of a product, or {@code -1} if it is not in the table.
+         */
+        int find(String productId, int hash) {
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                long entry = (long) LONGS.getAcquire(slots, slot);
+                if (entry == 0) {
+                    return -1;
+                }
+                if ((int) (entry >>> 32) == hash && keyEquals((int) entry - 1, productId)) {
+                    return (int) entry - 1;
+                }
+            }
+        }
+
+        private boolean keyEquals(int index, String productId) {
+            int start = page(index)[(index & PAGE_MASK) << 1];
+            int length = productId.length();
+            char[] chars = keyChars;
+            if (chars[start] != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (chars[start + 1 + i] != productId.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Adds a product that is not in the table yet. The caller holds the insert lock and has made sure that there
+         * is room for it.
+         */
+        void insert(String productId, int hash, int quantity) {
+            int index = size;
+            int start = charCount;
+            keyChars[start] = (char) productId.length();
+            productId.getChars(0, productId.length(), keyChars, start + 1);
+            charCount = start + 1 + productId.length();
+            int[] page = page(index);
+            page[(index & PAGE_MASK) << 1] = start;
+            INTS.setVolatile(page, quantityOffset(index), quantity);
+            size = index + 1;
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            LONGS.setRelease(slots, slot, (long) hash << 32 | (index + 1));
+        }
+
+        /**
+         * Copies the entries into larger arrays with room for at least one more product with an ID of the given
+         * length. The entry pages are shared with this table.
+         */
+        Table grow(int keyLength) {
+            long grownCapacity = size == capacity ? 2L * capacity : capacity;
+            long keyCharCapacity = keyChars.length;
+            while (keyCharCapacity - charCount <= keyLength) {
+                keyCharCapacity *= 2;
+            }
+            if (2 * grownCapacity > MAX_ARRAY_LENGTH || keyCharCapacity > MAX_ARRAY_LENGTH) {
+                throw new IllegalStateException("In-memory inventory store is full");
+            }
+            int pages = (int) ((grownCapacity + PAGE_SIZE - 1) >>> PAGE_BITS);
+            Table grown = new Table((int) grownCapacity, (int) keyCharCapacity, Arrays.copyOf(entries, pages));
+            System.arraycopy(keyChars, 0, grown.keyChars, 0, charCount);
+            int mask = grown.slots.length - 1;
+            for (long entry : slots) {
+                if (entry != 0) {
+                    int slot = (int) (entry >>> 32) & mask;
+                    while (grown.slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    grown.slots[slot] = entry;
+                }
+            }
+            grown.size = size;
+            grown.charCount = charCount;
+            return grown;
+        }
+    }
+}
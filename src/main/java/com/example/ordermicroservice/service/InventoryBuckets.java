@@ -0,0 +1,240 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.model.InventoryBucket;
+import com.example.ordermicroservice.repository.InventoryBucketRepository;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The {@code InventoryBuckets} class splits the stock of hot products across several {@link InventoryBucket} rows,
+ * so that concurrent decrements of one product update different rows instead of all serializing on the row lock of
+ * its single {@link Inventory} record.
+ *
+ * <p>The number of buckets is chosen per product with {@link #split(String, int)} and recorded in
+ * {@link Inventory#getBucketCount()}. A decrement starts at a random bucket and takes the stock from the first
+ * bucket that holds enough, each attempt being a single conditional {@code UPDATE}. Only when no bucket holds
+ * enough on its own is the product rebalanced: its inventory record and all its buckets are locked, the quantity is
+ * taken from their total and the rest is spread evenly across the buckets again. The available quantity is the
+ * stock left in the inventory record plus the sum of the buckets, so stock that another instance added to the
+ * record before it learned about the split is not lost; the next rebalance moves it into the buckets.
+ *
+ * <p>The bucket counts of split products are kept in memory and refreshed whenever an inventory record is read, so
+ * that decrements of products that are not split never pay for a bucket lookup. The
+ * {@link InventoryService} hides the buckets from its callers. Buckets are not used while the
+ * {@link InventoryReservationLedger} is enabled, which already keeps decrements off the database.
+ *
+ * <p>This class is only registered when the {@code inventory.buckets.enabled} property is {@code true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryService
+ * @see InventoryBucketRepository
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.buckets.enabled", havingValue = "true")
+public class InventoryBuckets {
+
+    /**
+     * The largest number of buckets the stock of a product can be split across.
+     */
+    public static final int MAX_BUCKETS = 64;
+
+    /**
+     * The {@link InventoryRepository} instance used to lock and update the inventory record of a product.
+     */
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * The {@link InventoryBucketRepository} instance used to read and update the buckets of a product.
+     */
+    @Autowired
+    private InventoryBucketRepository bucketRepository;
+
+    /**
+     * The {@link TransactionTemplate} used to split and rebalance the stock of a product in one transaction.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The bucket count of every product known to be split, keyed by product ID.
+     */
+    private final Map<String, Integer> bucketCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Returns whether the stock of a product is known to be split.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @return {@code true} if the product is split across buckets.
+     */
+    public boolean isSplit(String productId) {
+        return bucketCounts.containsKey(productId);
+    }
+
+    /**
+     * Returns whether the stock of a product is split, according to its inventory record, and remembers the answer
+     * for {@link #isSplit(String)}.
+     *
+     * @param inventory the inventory record of the product (must not be {@code null}).
+     * @return {@code true} if the product is split across buckets.
+     */
+    public boolean isSplit(Inventory inventory) {
+        Integer bucketCount = inventory.getBucketCount();
+        if (bucketCount != null && bucketCount > 1) {
+            bucketCounts.put(inventory.getProductId(), bucketCount);
+            return true;
+        }
+        bucketCounts.remove(inventory.getProductId());
+        return false;
+    }
+
+    /**
+     * Returns the available quantity of a split product.
+     *
+     * @param inventory the inventory record of the product (must not be {@code null}).
+     * @return the stock left in the inventory record plus the stock of all buckets.
+     */
+    public int getAvailable(Inventory inventory) {
+        return inventory.getQuantity() + Math.toIntExact(bucketRepository.sumQuantity(inventory.getProductId()));
+    }
+
+    /**
+     * Locks the buckets of a split product for the rest of the caller's transaction and returns a detached copy of
+     * its inventory record that holds the whole available quantity, for the batch order path.
+     *
+     * @param inventory the locked inventory record of the product (must not be {@code null}).
+     * @return a copy of the record whose quantity is the available quantity of the product.
+     */
+    public Inventory lockTotal(Inventory inventory) {
+        List<InventoryBucket> buckets = bucketRepository.findForUpdateByProductIdOrderByBucket(inventory.getProductId());
+        Inventory total = new Inventory();
+        total.setId(inventory.getId());
+        total.setProductId(inventory.getProductId());
+        total.setProductKey(inventory.getProductKey());
+        total.setBucketCount(inventory.getBucketCount());
+        total.setVersion(inventory.getVersion());
+        total.setQuantity(inventory.getQuantity() + sum(buckets));
+        return total;
+    }
+
+    /**
+     * Decrements the stock of a split product, taking it from a single bucket if one holds enough and rebalancing
+     * the product otherwise.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param quantity the quantity to deduct.
+     * @throws IllegalStateException if the inventory record for the product ID is not found.
+     * @throws InsufficientInventoryException if the product does not have enough stock left.
+     */
+    public void decrement(String productId, int quantity) {
+        Integer bucketCount = bucketCounts.get(productId);
+        if (bucketCount != null) {
+            int start = ThreadLocalRandom.current().nextInt(bucketCount);
+            for (int i = 0; i < bucketCount; i++) {
+                if (bucketRepository.decrementQuantity(productId, (start + i) % bucketCount, quantity) == 1) {
+                    return;
+                }
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Inventory inventory = lockInventory(productId);
+            List<InventoryBucket> buckets = bucketRepository.findForUpdateByProductIdOrderByBucket(productId);
+            int total = inventory.getQuantity() + sum(buckets);
+            if (total < quantity) {
+                throw new InsufficientInventoryException("Insufficient inventory for product ID: " + productId);
+            }
+            distribute(inventory, buckets, total - quantity);
+        });
+    }
+
+    /**
+     * Adds stock to a random bucket of a split product.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param quantity the quantity to add.
+     * @return {@code true} if the stock was added, {@code false} if the product is no longer split and the caller
+     *         has to add the stock to the inventory record instead.
+     */
+    public boolean increment(String productId, int quantity) {
+        Integer bucketCount = bucketCounts.get(productId);
+        return bucketCount != null && bucketRepository.incrementQuantity(productId,
+                ThreadLocalRandom.current().nextInt(bucketCount), quantity) == 1;
+    }
+
+    /**
+     * Splits the stock of a product evenly across the given number of buckets, creating or removing buckets as
+     * needed. Splitting into a single bucket moves the whole stock back into the inventory record.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param bucketCount the number of buckets, between {@code 1} and {@link #MAX_BUCKETS}.
+     * @throws IllegalArgumentException if the bucket count is out of range.
+     * @throws IllegalStateException if the inventory record for the product ID is not found.
+     */
+    public void split(String productId, int bucketCount) {
+        if (bucketCount < 1 || bucketCount > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Bucket count must be between 1 and " + MAX_BUCKETS);
+        }
+        Inventory split = transactionTemplate.execute(status -> {
+            Inventory inventory = lockInventory(productId);
+            List<InventoryBucket> buckets = new ArrayList<>(bucketRepository.findForUpdateByProductIdOrderByBucket(productId));
+            int total = inventory.getQuantity() + sum(buckets);
+            int target = bucketCount > 1 ? bucketCount : 0;
+            List<InventoryBucket> removed = buckets.stream().filter(bucket -> bucket.getBucket() >= target).toList();
+            buckets.removeAll(removed);
+            bucketRepository.deleteAll(removed);
+            for (int number = buckets.size(); number < target; number++) {
+                InventoryBucket bucket = new InventoryBucket();
+                bucket.setProductId(productId);
+                bucket.setBucket(number);
+                buckets.add(bucket);
+            }
+            inventory.setBucketCount(target > 0 ? target : null);
+            distribute(inventory, buckets, total);
+            return inventory;
+        });
+        isSplit(split);
+    }
+
+    private Inventory lockInventory(String productId) {
+        Inventory inventory = inventoryRepository.findForUpdateByProductId(productId);
+        if (inventory == null) {
+            throw new IllegalStateException("Inventory record not found for product ID: " + productId);
+        }
+        isSplit(inventory);
+        return inventory;
+    }
+
+    /**
+     * Spreads a quantity evenly across the buckets of a product, or puts it into the inventory record if the product
+     * has no buckets, and saves them.
+     */
+    private void distribute(Inventory inventory, List<InventoryBucket> buckets, int quantity) {
+        if (buckets.isEmpty()) {
+            inventory.setQuantity(quantity);
+        } else {
+            inventory.setQuantity(0);
+            for (int i = 0; i < buckets.size(); i++) {
+                buckets.get(i).setQuantity(quantity / buckets.size() + (i < quantity % buckets.size() ? 1 : 0));
+            }
+            bucketRepository.saveAll(buckets);
+        }
+        inventoryRepository.save(inventory);
+    }
+
+    private static int sum(List<InventoryBucket> buckets) {
+        return buckets.stream().mapToInt(InventoryBucket::getQuantity).sum();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.ordermicroservice.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * The {@code InventoryCache} class is a bounded, read-through cache of the available quantity of each product,
+ * keyed by product ID. It serves {@link InventoryService#checkInventory(String, int)} so that repeated checks for
+ * the same products do not need a database round trip. Quantities are loaded from the configured
+ * {@link InventoryStore}, so the cache answers from the same stock as the decrements whichever store is selected.
+ *
+ * <p>The cache is backed by Caffeine, which evicts with its W-TinyLFU policy once
+ * {@code inventory.cache.maximum-size} entries are held, and expires every entry
+ * {@code inventory.cache.expire-after-write-ms} milliseconds after it was loaded. Hits, misses and evictions are
+ * published to the {@link MeterRegistry} as the {@code cache.*} meters tagged {@code cache=inventory}.
+ *
+ * <p><b>Consistency.</b> The cache is advisory: it only answers the early availability check, never the decrement.
+ * Every {@link InventoryService#updateInventory(String, int)} still runs the configured
+ * {@link InventoryConcurrencyStrategy} against the store, which stays authoritative, so a stale "available"
+ * answer can at most let an order proceed to the guarded decrement, where it is rejected with an
+ * {@code InsufficientInventoryException} and compensated; it can never turn into an oversell. A stale
+ * "unavailable" answer can reject an order that would have succeeded, for at most the expiry interval.
+ * To keep both windows short, every write path invalidates the product's entry, and writes inside a transaction
+ * invalidate it again when the transaction completes so that a reader cannot re-cache the pre-commit quantity.
+ *
+ * <p>This class is only registered when the {@code inventory.cache.enabled} property is {@code true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryService
+ * @see InventoryStore
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.cache.enabled", havingValue = "true")
+public class InventoryCache {
+
+    /**
+     * The quantity cached for a product that has no inventory record, since Caffeine does not cache {@code null}.
+     */
+    private static final int MISSING = -1;
+
+    /**
+     * The {@link InventoryStore} used to load quantities on a cache miss.
+     */
+    @Autowired
+    private InventoryStore inventoryStore;
+
+    /**
+     * The {@link MeterRegistry} to which the hit, miss and eviction statistics of the cache are published.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The maximum number of products held in the cache.
+     * Configured with the {@code inventory.cache.maximum-size} property.
+     */
+    @Value("${inventory.cache.maximum-size:10000}")
+    private long maximumSize = 10000;
+
+    /**
+     * The number of milliseconds after which a cached quantity expires.
+     * Configured with the {@code inventory.cache.expire-after-write-ms} property.
+     */
+    @Value("${inventory.cache.expire-after-write-ms:1000}")
+    private long expireAfterWriteMs = 1000;
+
+    /**
+     * The available quantity of every cached product, keyed by product ID.
+     */
+    private LoadingCache<String, Integer> quantities;
+
+    /**
+     * Builds the cache from the configured size and expiry and registers its metrics.
+     */
+    @PostConstruct
+    public void init() {
+        quantities = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, quantities, "inventory");
+    }
+
+    /**
+     * Returns the available quantity of a product, loading it from the store on a cache miss.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @return the available quantity, or {@code -1} if the product has no inventory record.
+     */
+    public int getAvailable(String productId) {
+        return quantities.get(productId);
+    }
+
+    /**
+     * Removes the cached quantity of a product after its inventory record was written, so that the next check
+     * reads it again. If a transaction is active, the entry is removed again once it completes.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     */
+    public void invalidate(String productId) {
+        quantities.invalidate(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    quantities.invalidate(productId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads the quantity of a product from the store, which already sums the buckets of a split product.
+     */
+    private Integer load(String productId) {
+        int available = inventoryStore.getAvailable(productId);
+        return available < 0 ? MISSING : available;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ordermicroservice.service;
+
+/**
+ * The {@code InventoryConcurrencyStrategy} enum lists the concurrency-control strategies that
+ * {@link InventoryService#updateInventory(String, int)} can use to decrement stock without overselling
+ * or losing updates when several orders for the same product run at the same time.
+ *
+ * <p>The strategy is selected with the {@code inventory.concurrency.strategy} property.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryService
+ */
+public enum InventoryConcurrencyStrategy {
+
+    /**
+     * A single conditional {@code UPDATE ... SET quantity = quantity - ? WHERE product_id = ? AND quantity >= ?}.
+     * The check and the decrement happen atomically in one statement.
+     */
+    CONDITIONAL_UPDATE,
+
+    /**
+     * Read, decrement and save guarded by the {@code @Version} column of the inventory record.
+     * A conflicting concurrent update is detected on save and the whole read-modify-write is retried
+     * up to {@code inventory.concurrency.max-retries} times.
+     */
+    OPTIMISTIC,
+
+    /**
+     * Read the inventory record with a {@code SELECT ... FOR UPDATE} row lock, then decrement and save it
+     * in the same transaction.
+     */
+    PESSIMISTIC
+}
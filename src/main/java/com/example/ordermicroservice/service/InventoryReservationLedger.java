@@ -0,0 +1,267 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code InventoryReservationLedger} class is an in-memory, write-behind inventory layer that sits in front of
+ * the {@link InventoryRepository}. When it is enabled, it holds the authoritative available quantity of every product
+ * that has been touched since startup, so that checks and decrements do not need a database round trip.
+ *
+ * <p>Each product has its own {@link AtomicInteger} counter that is decremented with a compare-and-set loop, so
+ * reservations for different products never contend and reservations for the same product never oversell.
+ * Every change is also added to a per-product pending delta. A background flusher thread writes the pending deltas
+ * to the {@code Inventory} table in one batched transaction every {@code inventory.ledger.flush-interval-ms}
+ * milliseconds, and is woken early once {@code inventory.ledger.max-pending} changes have accumulated, which bounds
+ * the flush lag. Reservations never wait for a flush and never see its failures: the deltas of a failed flush are
+ * kept and retried by the next one.
+ *
+ * <p>Counters are loaded lazily from the {@code Inventory} table on first access, which is also the recovery path
+ * after a restart: pending deltas are flushed on a graceful shutdown, so the table holds the latest quantities when
+ * the ledger is rebuilt. After a crash, at most the unflushed changes of the last flush window are lost.
+ * While the ledger is enabled, all inventory writes must go through it, so it requires the {@link JpaInventoryStore}:
+ * the stores that keep the stock in memory fail to start next to it.
+ *
+ * <p>This class is only registered when the {@code inventory.ledger.enabled} property is {@code true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryService
+ * @see InventoryRepository
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.ledger.enabled", havingValue = "true")
+public class InventoryReservationLedger {
+
+    /**
+     * The {@link InventoryRepository} instance used to load counters and flush pending deltas.
+     */
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * The {@link TransactionTemplate} used to lock and update all flushed inventory records in one transaction.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The number of milliseconds between two flushes.
+     * Configured with the {@code inventory.ledger.flush-interval-ms} property.
+     */
+    @Value("${inventory.ledger.flush-interval-ms:100}")
+    private long flushIntervalMs = 100;
+
+    /**
+     * The number of pending changes after which a reservation wakes the flusher without waiting for the next interval.
+     * Configured with the {@code inventory.ledger.max-pending} property.
+     */
+    @Value("${inventory.ledger.max-pending:1000}")
+    private int maxPending = 1000;
+
+    /**
+     * The available quantity of every loaded product, keyed by product ID.
+     */
+    private final Map<String, AtomicInteger> available = new ConcurrentHashMap<>();
+
+    /**
+     * The net quantity change of every product that has not been written to the database yet, keyed by product ID.
+     */
+    private final Map<String, AtomicInteger> pendingDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * The number of changes recorded since the last flush.
+     */
+    private final AtomicInteger pendingChanges = new AtomicInteger();
+
+    /**
+     * Ensures that only one flush runs at a time.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    /**
+     * Starts the flusher thread.
+     */
+    @PostConstruct
+    public void init() {
+        running = true;
+        flusher = Thread.ofPlatform().name("inventory-ledger-flusher").daemon().start(this::runFlusher);
+    }
+
+    /**
+     * Returns the available quantity of a product.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @return the available quantity, or {@code -1} if the product has no inventory record.
+     */
+    public int getAvailable(String productId) {
+        AtomicInteger counter = counter(productId);
+        return counter == null ? -1 : counter.get();
+    }
+
+    /**
+     * Reserves stock for a product by decrementing its counter if enough stock is available.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param quantity the quantity to reserve.
+     * @return {@code true} if the stock was reserved, {@code false} if not enough stock is available.
+     * @throws IllegalStateException if the product has no inventory record.
+     */
+    public boolean reserve(String productId, int quantity) {
+        AtomicInteger counter = counter(productId);
+        if (counter == null) {
+            throw new IllegalStateException("Inventory record not found for product ID: " + productId);
+        }
+        int current;
+        do {
+            current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - quantity));
+        recordDelta(productId, -quantity);
+        return true;
+    }
+
+    /**
+     * Returns previously reserved stock of a product to its counter.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param quantity the quantity to release.
+     * @throws IllegalStateException if the product has no inventory record.
+     */
+    public void release(String productId, int quantity) {
+        AtomicInteger counter = counter(productId);
+        if (counter == null) {
+            throw new IllegalStateException("Inventory record not found for product ID: " + productId);
+        }
+        counter.addAndGet(quantity);
+        recordDelta(productId, quantity);
+    }
+
+    /**
+     * Writes all pending deltas to the {@code Inventory} table in a single transaction.
+     *
+     * <p>The affected rows are locked and read with one query, adjusted by their deltas and saved with one batched
+     * update. If the transaction fails, the deltas are put back so that the next flush retries them. A flush that is
+     * requested while another one is running is skipped.
+     *
+     * @throws RuntimeException if the transaction fails.
+     */
+    public void flush() {
+        if (flushLock.tryLock()) {
+            try {
+                flushPendingDeltas();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Stops the flusher thread and flushes all pending deltas before the application shuts down.
+     *
+     * @throws InterruptedException if interrupted while waiting for the flusher thread to stop.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            flusher.join();
+        }
+        flushLock.lock();
+        try {
+            flushPendingDeltas();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the pending deltas every interval, or as soon as a reservation wakes the thread.
+     */
+    private void runFlusher() {
+        while (running) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            try {
+                flush();
+            } catch (RuntimeException ex) {
+                // The deltas have been put back and are retried by the next flush
+            }
+        }
+    }
+
+    private void flushPendingDeltas() {
+        pendingChanges.set(0);
+        Map<String, Integer> deltas = new HashMap<>();
+        pendingDeltas.forEach((productId, delta) -> {
+            int value = delta.getAndSet(0);
+            if (value != 0) {
+                deltas.put(productId, value);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Inventory> inventories = inventoryRepository.findForUpdateByProductIdInOrderByProductId(deltas.keySet());
+                for (Inventory inventory : inventories) {
+                    inventory.setQuantity(inventory.getQuantity() + deltas.get(inventory.getProductId()));
+                }
+                inventoryRepository.saveAll(inventories);
+            });
+        } catch (RuntimeException ex) {
+            deltas.forEach((productId, delta) ->
+                    pendingDeltas.computeIfAbsent(productId, key -> new AtomicInteger()).addAndGet(delta));
+            throw ex;
+        }
+    }
+
+    private void recordDelta(String productId, int delta) {
+        pendingDeltas.computeIfAbsent(productId, key -> new AtomicInteger()).addAndGet(delta);
+        if (pendingChanges.incrementAndGet() == maxPending && flusher != null) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /**
+     * Returns the counter of a product, loading it from the database on first access. The load runs outside
+     * {@code computeIfAbsent} so that no map lock is held during the JDBC call, which would pin a virtual thread;
+     * if two threads load the same product concurrently, the first counter stored wins.
+     */
+    private AtomicInteger counter(String productId) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        Inventory inventory = inventoryRepository.findByProductId(productId);
+        if (inventory == null) {
+            return null;
+        }
+        AtomicInteger loaded = new AtomicInteger(inventory.getQuantity());
+        counter = available.putIfAbsent(productId, loaded);
+        return counter == null ? loaded : counter;
+    }
+}
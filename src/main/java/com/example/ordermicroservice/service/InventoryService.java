@@ -1,40 +1,72 @@
 package com.example.ordermicroservice.service;
 
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
 import com.example.ordermicroservice.model.Inventory;
-import com.example.ordermicroservice.repository.InventoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The {@code InventoryService} class is a service layer component responsible for handling business logic
- * related to {@link Inventory} entities. It interacts with the {@link InventoryRepository} to perform
- * database operations such as checking and updating inventory levels.
+ * related to {@link Inventory} entities. It delegates to an {@link InventoryStore} to perform
+ * storage operations such as checking and updating inventory levels.
  *
  * <p>This class is annotated with {@link Service} to indicate that it is a Spring-managed service
- * component. It uses dependency injection to autowire the {@link InventoryRepository} for database interactions.
+ * component. It uses dependency injection to autowire the {@link InventoryStore} that holds the stock.
  *
  * @author Your Name
  * @version 1.0
  * @since 2023-10-01
  * @see Service
  * @see Inventory
- * @see InventoryRepository
+ * @see InventoryStore
  */
 @Service
 public class InventoryService {
 
     /**
-     * The {@link InventoryRepository} instance used to interact with the database.
-     * This field is autowired by Spring to inject the repository dependency.
+     * The {@link InventoryStore} that holds the available quantities, selected with the {@code inventory.store}
+     * property.
      */
     @Autowired
-    private InventoryRepository inventoryRepository;
+    private InventoryStore inventoryStore;
+
+    /**
+     * The in-memory {@link InventoryReservationLedger} that serves checks and decrements when
+     * {@code inventory.ledger.enabled} is {@code true}; {@code null} otherwise.
+     */
+    @Autowired(required = false)
+    private InventoryReservationLedger reservationLedger;
+
+    /**
+     * The read-through {@link InventoryCache} that serves checks when {@code inventory.cache.enabled} is
+     * {@code true}; {@code null} otherwise. Decrements always go to the database, which stays authoritative.
+     */
+    @Autowired(required = false)
+    private InventoryCache inventoryCache;
+
+    /**
+     * The {@link InventorySnapshots} whose delta log records every change of an available quantity when
+     * {@code inventory.snapshot.enabled} is {@code true}; {@code null} otherwise.
+     */
+    @Autowired(required = false)
+    private InventorySnapshots inventorySnapshots;
 
     /**
      * Checks if the inventory has sufficient quantity for a given product.
      *
      * <p>This method retrieves the inventory record for the specified product ID and checks if the
-     * available quantity is greater than or equal to the requested quantity.
+     * available quantity is greater than or equal to the requested quantity. When the reservation ledger is
+     * enabled, the in-memory counter is checked instead; otherwise, when the inventory cache is enabled, the
+     * cached quantity is checked. A cached answer may be stale, which {@link #updateInventory(String, int)}
+     * detects because it always decrements against the database. The quantity of a product whose stock is split
+     * across buckets is the sum of its buckets.
      *
      * @param productId the ID of the product to check (must not be {@code null} or empty).
      * @param quantity the required quantity to check against the inventory.
@@ -45,30 +77,239 @@ public class InventoryService {
         if (productId == null || productId.isEmpty()) {
             throw new IllegalArgumentException("Product ID cannot be null or empty");
         }
-        Inventory inventory = inventoryRepository.findByProductId(productId);
-        return inventory != null && inventory.getQuantity() >= quantity;
+        if (reservationLedger != null) {
+            return reservationLedger.getAvailable(productId) >= quantity;
+        }
+        if (inventoryCache != null) {
+            return inventoryCache.getAvailable(productId) >= quantity;
+        }
+        return inventoryStore.getAvailable(productId) >= quantity;
     }
 
     /**
      * Updates the inventory for a given product by reducing its quantity.
      *
-     * <p>This method retrieves the inventory record for the specified product ID and reduces the
-     * available quantity by the specified amount. The updated inventory is then saved back to the database.
+     * <p>The decrement is guarded by the configured {@link InventoryConcurrencyStrategy}, so that two concurrent
+     * orders for the same product cannot both pass the earlier {@link #checkInventory(String, int)} and then
+     * drive the quantity below zero or overwrite each other's update. If the remaining stock is no longer
+     * sufficient when the update runs, an {@link InsufficientInventoryException} is thrown and nothing is changed.
+     * When the reservation ledger is enabled, the in-memory counter is decremented and the change is written
+     * to the database later. When the stock of the product is split across buckets, the quantity is taken from one
+     * of its buckets instead, see {@link InventoryBuckets}. The cached quantity of the product is invalidated whether
+     * or not the update succeeds, since a failed update means the cached answer was stale. A successful update is
+     * recorded in the delta log of the {@link InventorySnapshots} when they are enabled, as are the changes made by
+     * the other write methods.
      *
      * @param productId the ID of the product to update (must not be {@code null} or empty).
      * @param quantity the quantity to deduct from the inventory.
      * @throws IllegalArgumentException if the product ID is {@code null} or empty.
      * @throws IllegalStateException if the inventory record for the product ID is not found.
+     * @throws InsufficientInventoryException if the product does not have enough stock left.
+     * @throws ObjectOptimisticLockingFailureException if the optimistic strategy runs out of retries.
      */
     public void updateInventory(String productId, int quantity) {
         if (productId == null || productId.isEmpty()) {
             throw new IllegalArgumentException("Product ID cannot be null or empty");
         }
-        Inventory inventory = inventoryRepository.findByProductId(productId);
-        if (inventory == null) {
+        if (reservationLedger != null) {
+            if (!reservationLedger.reserve(productId, quantity)) {
+                throw new InsufficientInventoryException("Insufficient inventory for product ID: " + productId);
+            }
+            recordDelta(productId, -quantity);
+            return;
+        }
+        try {
+            inventoryStore.decrement(productId, quantity);
+            recordDelta(productId, -quantity);
+        } finally {
+            invalidateCache(productId);
+        }
+    }
+
+    /**
+     * Releases stock that was previously deducted by {@link #updateInventory(String, int)} for an order that could
+     * not be completed.
+     *
+     * <p>The quantity is added back with a single atomic {@code UPDATE}, or to the in-memory counter when the
+     * reservation ledger is enabled. The cached quantity of the product is invalidated.
+     *
+     * @param productId the ID of the product to update (must not be {@code null} or empty).
+     * @param quantity the quantity to add back to the inventory.
+     * @throws IllegalArgumentException if the product ID is {@code null} or empty.
+     * @throws IllegalStateException if the inventory record for the product ID is not found.
+     */
+    public void releaseInventory(String productId, int quantity) {
+        if (productId == null || productId.isEmpty()) {
+            throw new IllegalArgumentException("Product ID cannot be null or empty");
+        }
+        if (reservationLedger != null) {
+            reservationLedger.release(productId, quantity);
+            recordDelta(productId, quantity);
+            return;
+        }
+        if (!inventoryStore.increment(productId, quantity)) {
             throw new IllegalStateException("Inventory record not found for product ID: " + productId);
         }
-        inventory.setQuantity(inventory.getQuantity() - quantity);
-        inventoryRepository.save(inventory);
+        recordDelta(productId, quantity);
+        invalidateCache(productId);
+    }
+
+    /**
+     * Adds newly received stock to the inventory of a product, creating its inventory record if it does not
+     * exist yet.
+     *
+     * <p>Existing records are incremented with a single atomic {@code UPDATE}, so a restock never overwrites a
+     * concurrent decrement. If two restocks create the same record concurrently, the unique index on the product
+     * ID rejects the second insert, which is then retried as an increment. The cached quantity of the product is
+     * invalidated.
+     *
+     * @param productId the ID of the product to restock (must not be {@code null} or empty).
+     * @param quantity the quantity to add to the inventory (must be positive).
+     * @throws IllegalArgumentException if the product ID is {@code null} or empty, or the quantity is not positive.
+     */
+    public void restockInventory(String productId, int quantity) {
+        if (productId == null || productId.isEmpty()) {
+            throw new IllegalArgumentException("Product ID cannot be null or empty");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        if (reservationLedger != null) {
+            if (reservationLedger.getAvailable(productId) >= 0) {
+                reservationLedger.release(productId, quantity);
+                recordDelta(productId, quantity);
+                return;
+            }
+        }
+        inventoryStore.restock(productId, quantity);
+        recordDelta(productId, quantity);
+        invalidateCache(productId);
+    }
+
+    /**
+     * Splits the stock of a hot product across the given number of bucket rows, so that concurrent decrements of the
+     * product update different rows instead of all waiting for the lock of its inventory record. Splitting into a
+     * single bucket moves the stock back into the inventory record. The available quantity is not changed.
+     *
+     * @param productId the ID of the product to split (must not be {@code null} or empty).
+     * @param buckets the number of buckets, between {@code 1} and {@link InventoryBuckets#MAX_BUCKETS}.
+     * @throws IllegalArgumentException if the product ID is {@code null} or empty, or the bucket count is out of range.
+     * @throws IllegalStateException if inventory buckets are not enabled, the reservation ledger is enabled, or the
+     *         inventory record for the product ID is not found.
+     */
+    public void splitInventory(String productId, int buckets) {
+        if (productId == null || productId.isEmpty()) {
+            throw new IllegalArgumentException("Product ID cannot be null or empty");
+        }
+        if (reservationLedger != null) {
+            throw new IllegalStateException("Inventory buckets require inventory.buckets.enabled without the ledger");
+        }
+        try {
+            inventoryStore.split(productId, buckets);
+        } finally {
+            invalidateCache(productId);
+        }
+    }
+
+    /**
+     * Retrieves the inventory records for a set of products with a single query.
+     *
+     * <p>This method is used by the batch order path so that the inventory of every distinct product
+     * in a batch is read in one round trip. Products without an inventory record are absent from the
+     * returned map. The records are locked with {@code SELECT ... FOR UPDATE} for the rest of the caller's
+     * transaction, so that concurrent single orders cannot change them before the batch writes them back.
+     * When the reservation ledger is enabled, the records are built from the in-memory counters instead and
+     * are not locked. The record of a product whose stock is split is a detached copy holding the sum of its
+     * buckets, which are locked as well.
+     *
+     * @param productIds the IDs of the products to look up (must not be {@code null}).
+     * @return a map from product ID to its {@link Inventory} record.
+     * @throws IllegalArgumentException if the product ID collection is {@code null}.
+     */
+    public Map<String, Inventory> findInventories(Collection<String> productIds) {
+        if (productIds == null) {
+            throw new IllegalArgumentException("Product IDs cannot be null");
+        }
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        if (reservationLedger != null) {
+            Map<String, Inventory> inventories = new HashMap<>();
+            for (String productId : productIds) {
+                int available = reservationLedger.getAvailable(productId);
+                if (available >= 0) {
+                    Inventory inventory = new Inventory();
+                    inventory.setProductId(productId);
+                    inventory.setQuantity(available);
+                    inventories.put(productId, inventory);
+                }
+            }
+            return inventories;
+        }
+        return inventoryStore.findInventories(productIds);
+    }
+
+    /**
+     * Deducts the given quantities from inventory records previously returned by {@link #findInventories(Collection)}.
+     *
+     * <p>The records are written with a single {@code saveAll} call so that Hibernate can send the updates to the
+     * database as one JDBC batch, and their cached quantities are invalidated. When the reservation ledger is
+     * enabled, the quantities are reserved in the ledger instead; if a concurrent order took the stock in the
+     * meantime, the reservations made so far are released and an {@link InsufficientInventoryException} is thrown.
+     * Since the ledger is not transactional, the reservations are also released if the caller's transaction rolls
+     * back, so that the flusher does not write stock taken by orders that were never saved.
+     *
+     * @param inventories the inventory records, keyed by product ID (must not be {@code null}).
+     * @param deductions the total quantity to deduct per product ID (must not be {@code null}).
+     * @throws IllegalArgumentException if either map is {@code null}.
+     * @throws InsufficientInventoryException if the ledger no longer has enough stock for a product.
+     */
+    public void deductInventories(Map<String, Inventory> inventories, Map<String, Integer> deductions) {
+        if (inventories == null || deductions == null) {
+            throw new IllegalArgumentException("Inventories and deductions cannot be null");
+        }
+        if (reservationLedger != null) {
+            Map<String, Integer> reserved = new HashMap<>();
+            for (Map.Entry<String, Integer> deduction : deductions.entrySet()) {
+                if (!reservationLedger.reserve(deduction.getKey(), deduction.getValue())) {
+                    reserved.forEach(reservationLedger::release);
+                    throw new InsufficientInventoryException("Insufficient inventory for product ID: " + deduction.getKey());
+                }
+                reserved.put(deduction.getKey(), deduction.getValue());
+            }
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_ROLLED_BACK) {
+                            reserved.forEach(reservationLedger::release);
+                        }
+                    }
+                });
+            }
+            deductions.forEach((productId, quantity) -> recordDelta(productId, -quantity));
+            return;
+        }
+        inventoryStore.deductInventories(inventories, deductions);
+        deductions.forEach((productId, quantity) -> recordDelta(productId, -quantity));
+        deductions.keySet().forEach(this::invalidateCache);
+    }
+
+    /**
+     * Records a change of the available quantity of a product in the delta log, if inventory snapshots are enabled.
+     */
+    private void recordDelta(String productId, int delta) {
+        if (inventorySnapshots != null) {
+            inventorySnapshots.recordDelta(productId, delta);
+        }
+    }
+
+    /**
+     * Removes the cached quantity of a product after a write, if the inventory cache is enabled.
+     */
+    private void invalidateCache(String productId) {
+        if (inventoryCache != null) {
+            inventoryCache.invalidate(productId);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,490 @@
+package com.example.ordermicroservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The {@code InventorySnapshots} class keeps a compact binary copy of the available quantity of every product on
+ * disk, so that an application whose database starts empty, such as the in-memory H2 database, gets its whole
+ * catalog back in seconds instead of rebuilding it row by row.
+ *
+ * <p>The state is kept as a snapshot file, mapping every product ID to its quantity, and a delta log of the changes
+ * made by {@link InventoryService} since that snapshot. Both belong to a generation: snapshot {@code g} holds the state
+ * at the start of delta log {@code g}. Every {@code inventory.snapshot.interval-ms} milliseconds the delta log is
+ * closed and a new one opened, and the closed log is folded into the previous snapshot to write the snapshot of the
+ * next generation, after which the files of the old generation are deleted. Since deltas are additive, concurrent
+ * changes can be logged in any order, and compacting never reads the database.
+ *
+ * <p>On startup the latest snapshot is loaded with memory-mapped I/O and every delta log from its generation on is
+ * replayed. If the {@code inventory} table is empty, the recovered quantities are inserted into it with batched
+ * inserts; otherwise the table is authoritative and its quantities are read instead. With the
+ * {@link InMemoryInventoryStore}, which never writes the table, the files are authoritative whenever there are any:
+ * the recovered quantities are merged into the table, overwriting its rows, before the store loads it. A snapshot
+ * of the resulting state then starts a new generation. The duration of this restore is published as the
+ * {@code inventory.snapshot.restore} timer, tagged with the source of the quantities.
+ *
+ * <p>A delta is appended to the log once the change it records is committed, so deltas of a transaction that rolls
+ * back are never logged. Deltas are written to the operating system as they happen and forced to disk when the log is
+ * closed; while snapshots are enabled, all inventory writes must go through {@link InventoryService}.
+ *
+ * <p>This class is only registered when the {@code inventory.snapshot.enabled} property is {@code true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryService
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.snapshot.enabled", havingValue = "true")
+public class InventorySnapshots {
+
+    /**
+     * The magic number at the start of every snapshot file, {@code "INVS"} in ASCII.
+     */
+    private static final int MAGIC = 0x494E5653;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+
+    private static final Pattern FILE_NAME = Pattern.compile("inventory-(\\d{20})\\.(snapshot|delta)");
+
+    private static final String INSERT_INVENTORY = "INSERT INTO inventory (id, product_id, quantity, version) "
+            + "VALUES (NEXT VALUE FOR inventory_seq, ?, ?, 0)";
+    private static final String MERGE_INVENTORY = "MERGE INTO inventory i USING (VALUES (CAST(? AS VARCHAR), "
+            + "CAST(? AS INTEGER))) AS v (product_id, quantity) ON i.product_id = v.product_id "
+            + "WHEN MATCHED THEN UPDATE SET quantity = v.quantity, version = i.version + 1 "
+            + "WHEN NOT MATCHED THEN INSERT (id, product_id, quantity, version) "
+            + "VALUES (NEXT VALUE FOR inventory_seq, v.product_id, v.quantity, 0)";
+    private static final String COUNT_INVENTORY = "SELECT COUNT(*) FROM inventory";
+    private static final String SELECT_AVAILABLE = "SELECT i.product_id, i.quantity + COALESCE((SELECT SUM(b.quantity) "
+            + "FROM inventory_bucket b WHERE b.product_id = i.product_id), 0) FROM inventory i";
+
+    /**
+     * The {@link JdbcTemplate} used to insert or read the whole catalog on startup.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The {@link TransactionTemplate} used to insert each batch of restored records in one transaction.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The {@link MeterRegistry} to which the restore duration is published.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The directory holding the snapshot files and delta logs.
+     * Configured with the {@code inventory.snapshot.directory} property.
+     */
+    @Value("${inventory.snapshot.directory:snapshots}")
+    private Path directory = Path.of("snapshots");
+
+    /**
+     * The selected {@link InventoryStore}; with {@code memory}, the snapshot files take precedence over the table.
+     * Configured with the {@code inventory.store} property.
+     */
+    @Value("${inventory.store:jpa}")
+    private String store = "jpa";
+
+    /**
+     * The number of restored records inserted per transaction.
+     * Configured with the {@code inventory.snapshot.restore-batch-size} property.
+     */
+    @Value("${inventory.snapshot.restore-batch-size:10000}")
+    private int restoreBatchSize = 10_000;
+
+    /**
+     * Held for reading while a delta is appended and for writing while the delta log is swapped.
+     */
+    private final ReentrantReadWriteLock logLock = new ReentrantReadWriteLock();
+
+    /**
+     * Ensures that only one snapshot or restore runs at a time.
+     */
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private long generation;
+    private FileChannel deltaLog;
+
+    /**
+     * Restores the inventory when the application starts.
+     *
+     * @throws IllegalArgumentException if the restore batch size is not positive.
+     */
+    @PostConstruct
+    public void init() {
+        if (restoreBatchSize < 1) {
+            throw new IllegalArgumentException("Restore batch size must be positive");
+        }
+        restore();
+    }
+
+    /**
+     * Takes a final snapshot and closes the delta log before the application shuts down, so that the next startup
+     * has no deltas to replay.
+     */
+    @PreDestroy
+    public void shutdown() {
+        snapshotLock.lock();
+        try {
+            compact();
+            logLock.writeLock().lock();
+            try {
+                deltaLog.close();
+            } finally {
+                logLock.writeLock().unlock();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Loads the latest snapshot, replays the delta logs that follow it, and inserts the result into the
+     * {@code inventory} table if it is empty. The recovered state is then written as the snapshot of a new generation.
+     *
+     * @return the number of products in the restored state.
+     * @throws UncheckedIOException if the snapshot files cannot be read or written.
+     */
+    public int restore() {
+        snapshotLock.lock();
+        try {
+            long start = System.nanoTime();
+            Files.createDirectories(directory);
+            TreeMap<Long, Path> snapshots = new TreeMap<>();
+            TreeMap<Long, Path> deltas = new TreeMap<>();
+            List<Path> stale = new ArrayList<>();
+            try (var files = Files.list(directory)) {
+                files.forEach(path -> {
+                    String name = path.getFileName().toString();
+                    Matcher matcher = FILE_NAME.matcher(name);
+                    if (matcher.matches()) {
+                        long fileGeneration = Long.parseLong(matcher.group(1));
+                        (matcher.group(2).equals("snapshot") ? snapshots : deltas).put(fileGeneration, path);
+                    }
+                    // Files of older generations and unfinished snapshots are deleted once the new snapshot is written
+                    if (matcher.matches() || name.startsWith("inventory-") && name.endsWith(".tmp")) {
+                        stale.add(path);
+                    }
+                });
+            }
+
+            Map<String, Integer> state = new HashMap<>();
+            long base = 0;
+            for (Map.Entry<Long, Path> snapshot : snapshots.descendingMap().entrySet()) {
+                Map<String, Integer> loaded = readSnapshot(snapshot.getValue());
+                if (loaded != null) {
+                    state = loaded;
+                    base = snapshot.getKey();
+                    break;
+                }
+            }
+            for (Path log : deltas.tailMap(base, true).values()) {
+                replay(log, state);
+            }
+
+            String source;
+            Integer rows = jdbcTemplate.queryForObject(COUNT_INVENTORY, Integer.class);
+            if (rows == null || rows == 0) {
+                write(INSERT_INVENTORY, state);
+                source = "files";
+            } else if (store.equals("memory") && !(snapshots.isEmpty() && deltas.isEmpty())) {
+                // The memory store never writes the table, so its rows are older than the files
+                write(MERGE_INVENTORY, state);
+                state = readTable();
+                source = "files";
+            } else {
+                state = readTable();
+                source = "database";
+            }
+
+            logLock.writeLock().lock();
+            try {
+                if (deltaLog != null) {
+                    deltaLog.close();
+                }
+                long last = Math.max(snapshots.isEmpty() ? 0 : snapshots.lastKey(), deltas.isEmpty() ? 0 : deltas.lastKey());
+                generation = Math.max(last, generation) + 1;
+                writeSnapshot(generation, state);
+                deltaLog = openLog(generation);
+            } finally {
+                logLock.writeLock().unlock();
+            }
+            for (Path path : stale) {
+                Files.deleteIfExists(path);
+            }
+            Timer.builder("inventory.snapshot.restore")
+                    .description("Time to restore the inventory on startup")
+                    .tag("source", source)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return state.size();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Records a committed change of the available quantity of a product in the delta log. Inside a transaction, the
+     * change is recorded once the transaction commits.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param delta the change of the available quantity, negative for a decrement.
+     * @throws IllegalArgumentException if the product ID is {@code null} or longer than 65,535 UTF-8 bytes.
+     * @throws UncheckedIOException if the delta cannot be written.
+     */
+    public void recordDelta(String productId, int delta) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        byte[] bytes = productId.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Product ID exceeds 65535 bytes");
+        }
+        if (delta == 0) {
+            return;
+        }
+        ByteBuffer record = ByteBuffer.allocate(2 + bytes.length + 4)
+                .putShort((short) bytes.length)
+                .put(bytes)
+                .putInt(delta)
+                .flip();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(record);
+                }
+            });
+        } else {
+            append(record);
+        }
+    }
+
+    /**
+     * Folds the changes logged since the last snapshot into a new snapshot. A snapshot that is requested while
+     * another one is running is skipped.
+     *
+     * @throws UncheckedIOException if the snapshot cannot be written.
+     */
+    @Scheduled(fixedDelayString = "${inventory.snapshot.interval-ms:60000}")
+    public void snapshot() {
+        if (snapshotLock.tryLock()) {
+            try {
+                compact();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } finally {
+                snapshotLock.unlock();
+            }
+        }
+    }
+
+    private void append(ByteBuffer record) {
+        logLock.readLock().lock();
+        try {
+            while (record.hasRemaining()) {
+                deltaLog.write(record);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            logLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Swaps the delta log for a new one and writes the snapshot of the new generation from the previous snapshot and
+     * the closed log.
+     */
+    private void compact() throws IOException {
+        long closed;
+        logLock.writeLock().lock();
+        try {
+            if (deltaLog.size() == 0) {
+                return;
+            }
+            deltaLog.force(false);
+            deltaLog.close();
+            closed = generation;
+            generation++;
+            deltaLog = openLog(generation);
+        } finally {
+            logLock.writeLock().unlock();
+        }
+        Map<String, Integer> state = readSnapshot(path(closed, "snapshot"));
+        if (state == null) {
+            throw new IllegalStateException("Inventory snapshot " + closed + " cannot be read");
+        }
+        replay(path(closed, "delta"), state);
+        writeSnapshot(closed + 1, state);
+        Files.delete(path(closed, "snapshot"));
+        Files.delete(path(closed, "delta"));
+    }
+
+    /**
+     * Reads a snapshot file through a memory mapping, or returns {@code null} if it is incomplete or corrupt.
+     *
+     * <p>Layout: magic number, format version, generation (long), product count, then for every product the length
+     * of its UTF-8 ID (unsigned short), the ID and its quantity, followed by the CRC32C of everything before it.
+     */
+    private Map<String, Integer> readSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + 4 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, (int) size - 4));
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION
+                    || buffer.getInt((int) size - 4) != (int) crc.getValue()) {
+                return null;
+            }
+            int count = buffer.getInt(16);
+            Map<String, Integer> state = HashMap.newHashMap(count);
+            buffer.position(HEADER_SIZE).limit((int) size - 4);
+            byte[] bytes = new byte[0xFFFF];
+            for (int i = 0; i < count; i++) {
+                int length = Short.toUnsignedInt(buffer.getShort());
+                buffer.get(bytes, 0, length);
+                state.put(new String(bytes, 0, length, StandardCharsets.UTF_8), buffer.getInt());
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Writes a snapshot to a temporary file, forces it to disk and moves it into place, so that a snapshot file is
+     * always complete.
+     */
+    private void writeSnapshot(long snapshotGeneration, Map<String, Integer> state) throws IOException {
+        Path target = path(snapshotGeneration, "snapshot");
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(snapshotGeneration);
+            out.writeInt(state.size());
+            for (Map.Entry<String, Integer> entry : state.entrySet()) {
+                byte[] bytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+                out.writeInt(entry.getValue());
+            }
+            out.flush();
+            channel.write(ByteBuffer.allocate(4).putInt(0, (int) crc.getValue()));
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Adds the deltas of a log to the state. A record cut off by a crash at the end of the log is ignored.
+     */
+    private void replay(Path log, Map<String, Integer> state) throws IOException {
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] bytes = new byte[0xFFFF];
+            while (buffer.remaining() >= 2) {
+                int length = Short.toUnsignedInt(buffer.getShort());
+                if (buffer.remaining() < length + 4) {
+                    break;
+                }
+                buffer.get(bytes, 0, length);
+                state.merge(new String(bytes, 0, length, StandardCharsets.UTF_8), buffer.getInt(), Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Inserts or merges the restored quantities into the {@code inventory} table, one batch per transaction. Every new
+     * record takes its ID from the sequence, so that IDs allocated by Hibernate afterwards never collide with it.
+     */
+    private void write(String sql, Map<String, Integer> state) {
+        List<Object[]> batch = new ArrayList<>(Math.min(state.size(), restoreBatchSize));
+        for (Map.Entry<String, Integer> entry : state.entrySet()) {
+            batch.add(new Object[]{entry.getKey(), entry.getValue()});
+            if (batch.size() == restoreBatchSize) {
+                writeBatch(sql, batch);
+                batch = new ArrayList<>(restoreBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(sql, batch);
+        }
+    }
+
+    private void writeBatch(String sql, List<Object[]> batch) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+    }
+
+    /**
+     * Reads the available quantity of every product from the {@code inventory} table, including split stock.
+     */
+    private Map<String, Integer> readTable() {
+        Map<String, Integer> state = new HashMap<>();
+        jdbcTemplate.query(SELECT_AVAILABLE,
+                (RowCallbackHandler) resultSet -> state.put(resultSet.getString(1), resultSet.getInt(2)));
+        return state;
+    }
+
+    private FileChannel openLog(long logGeneration) throws IOException {
+        return FileChannel.open(path(logGeneration, "delta"), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path path(long fileGeneration, String extension) {
+        return directory.resolve("inventory-%020d.%s".formatted(fileGeneration, extension));
+    }
+}
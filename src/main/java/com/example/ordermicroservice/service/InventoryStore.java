@@ -0,0 +1,92 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The {@code InventoryStore} interface is the storage engine behind {@link InventoryService}: it holds the available
+ * quantity of every product and applies checks and changes to it. {@link InventoryService} validates its arguments
+ * and coordinates the reservation ledger, the cache and the snapshots, and leaves everything else to the store.
+ *
+ * <p>Three implementations are provided, selected with the {@code inventory.store} property:
+ * {@link JpaInventoryStore} ({@code jpa}, the default) keeps the stock in the {@code inventory} table,
+ * {@link InMemoryInventoryStore} ({@code memory}) keeps it in primitive arrays on the heap, and
+ * {@link RingBufferInventoryStore} ({@code ring}) has a single writer thread apply every command to such arrays and
+ * writes the changes to the table behind it.
+ *
+ * <p>Implementations must be safe for concurrent use, and no change may ever drive a quantity below zero.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryService
+ */
+public interface InventoryStore {
+
+    /**
+     * Returns the available quantity of a product.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @return the available quantity, or {@code -1} if the product has no inventory record.
+     */
+    int getAvailable(String productId);
+
+    /**
+     * Reduces the available quantity of a product, unless it is lower than the given quantity.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param quantity the quantity to deduct.
+     * @throws IllegalStateException if the product has no inventory record.
+     * @throws InsufficientInventoryException if the product does not have enough stock left.
+     */
+    void decrement(String productId, int quantity);
+
+    /**
+     * Adds to the available quantity of a product that has an inventory record.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param quantity the quantity to add.
+     * @return {@code true} if the quantity was added, or {@code false} if the product has no inventory record.
+     */
+    boolean increment(String productId, int quantity);
+
+    /**
+     * Adds to the available quantity of a product, creating its inventory record if it does not exist yet.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param quantity the quantity to add.
+     */
+    void restock(String productId, int quantity);
+
+    /**
+     * Splits the stock of a product across the given number of buckets, see {@link InventoryBuckets}.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @param buckets the number of buckets.
+     * @throws IllegalStateException if the store does not support buckets, or they are not enabled.
+     */
+    void split(String productId, int buckets);
+
+    /**
+     * Retrieves the inventory records of a set of products for a batch of orders, see
+     * {@link InventoryService#findInventories(Collection)}.
+     *
+     * @param productIds the IDs of the products (must not be {@code null} or empty).
+     * @return a map from product ID to its {@link Inventory} record, without the products that have none.
+     */
+    Map<String, Inventory> findInventories(Collection<String> productIds);
+
+    /**
+     * Deducts the given quantities from inventory records previously returned by
+     * {@link #findInventories(Collection)}, see {@link InventoryService#deductInventories(Map, Map)}. If the caller's
+     * transaction rolls back, the deductions must be undone with it.
+     *
+     * @param inventories the inventory records, keyed by product ID (must not be {@code null}).
+     * @param deductions the total quantity to deduct per product ID (must not be {@code null}).
+     * @throws InsufficientInventoryException if a product no longer has enough stock.
+     */
+    void deductInventories(Map<String, Inventory> inventories, Map<String, Integer> deductions);
+}
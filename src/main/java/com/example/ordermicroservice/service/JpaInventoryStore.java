@@ -0,0 +1,316 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code JpaInventoryStore} class is the {@link InventoryStore} that keeps the stock in the {@code inventory}
+ * table through the {@link InventoryRepository}.
+ *
+ * <p>Decrements are guarded by the configured {@link InventoryConcurrencyStrategy}, so that two concurrent orders
+ * for the same product cannot drive the quantity below zero or overwrite each other's update. Increments are single
+ * atomic {@code UPDATE}s. Records are looked up by the integer keys of the {@link ProductKeyDictionary} when it is
+ * enabled, and the stock of hot products can be split across the rows of the {@link InventoryBuckets}.
+ *
+ * <p>This class is registered unless the {@code inventory.store} property selects another store.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryStore
+ * @see InventoryRepository
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaInventoryStore implements InventoryStore {
+
+    /**
+     * The {@link InventoryRepository} instance used to interact with the database.
+     * This field is autowired by Spring to inject the repository dependency.
+     */
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * The {@link TransactionTemplate} used to hold the row lock of the pessimistic strategy
+     * for the duration of the read-modify-write.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The strategy used to guard inventory decrements against concurrent updates.
+     * Configured with the {@code inventory.concurrency.strategy} property.
+     */
+    @Value("${inventory.concurrency.strategy:OPTIMISTIC}")
+    private InventoryConcurrencyStrategy concurrencyStrategy = InventoryConcurrencyStrategy.OPTIMISTIC;
+
+    /**
+     * The maximum number of attempts of the optimistic strategy before the conflict is reported to the caller.
+     * Configured with the {@code inventory.concurrency.max-retries} property.
+     */
+    @Value("${inventory.concurrency.max-retries:5}")
+    private int maxRetries = 5;
+
+    /**
+     * The {@link ProductKeyDictionary} whose integer keys are used to look up inventory records when
+     * {@code inventory.product-keys.enabled} is {@code true}; {@code null} otherwise. Records are looked up by
+     * product ID when a product has no key yet, or its record has not been stamped with it.
+     */
+    @Autowired(required = false)
+    private ProductKeyDictionary productKeyDictionary;
+
+    /**
+     * The {@link InventoryBuckets} across which the stock of hot products can be split when
+     * {@code inventory.buckets.enabled} is {@code true}; {@code null} otherwise. Products that have not been split
+     * keep their stock in their inventory record alone.
+     */
+    @Autowired(required = false)
+    private InventoryBuckets inventoryBuckets;
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The quantity of a product whose stock is split across buckets is the sum of its buckets. The record and its
+     * buckets are read in one read-only transaction, which is served by the replica when read/write routing is enabled.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public int getAvailable(String productId) {
+        Inventory inventory = findInventory(productId);
+        return inventory == null ? -1 : available(inventory);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>When the stock of the product is split across buckets, the quantity is taken from one of its buckets.
+     *
+     * @throws ObjectOptimisticLockingFailureException if the optimistic strategy runs out of retries.
+     */
+    @Override
+    public void decrement(String productId, int quantity) {
+        if (inventoryBuckets != null && inventoryBuckets.isSplit(productId)) {
+            inventoryBuckets.decrement(productId, quantity);
+            return;
+        }
+        switch (concurrencyStrategy) {
+            case CONDITIONAL_UPDATE -> decrementConditionally(productId, quantity);
+            case PESSIMISTIC -> transactionTemplate.executeWithoutResult(status ->
+                    decrement(findInventoryForUpdate(productId), productId, quantity));
+            default -> decrementOptimistically(productId, quantity);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The quantity is added with a single atomic {@code UPDATE}, or to one of the buckets of a split product.
+     */
+    @Override
+    public boolean increment(String productId, int quantity) {
+        return incrementQuantity(productId, quantity) > 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If two restocks create the same record concurrently, the unique index on the product ID rejects the second
+     * insert, which is then retried as an increment.
+     */
+    @Override
+    public void restock(String productId, int quantity) {
+        if (incrementQuantity(productId, quantity) > 0) {
+            return;
+        }
+        Inventory inventory = new Inventory();
+        inventory.setProductId(productId);
+        inventory.setQuantity(quantity);
+        if (productKeyDictionary != null) {
+            inventory.setProductKey(productKeyDictionary.keyOf(productId));
+        }
+        try {
+            inventoryRepository.save(inventory);
+        } catch (DataIntegrityViolationException ex) {
+            restock(productId, quantity);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if inventory buckets are not enabled, or the inventory record is not found.
+     */
+    @Override
+    public void split(String productId, int buckets) {
+        if (inventoryBuckets == null) {
+            throw new IllegalStateException("Inventory buckets require inventory.buckets.enabled without the ledger");
+        }
+        inventoryBuckets.split(productId, buckets);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The records are read with a single query and locked with {@code SELECT ... FOR UPDATE} for the rest of the
+     * caller's transaction. The record of a product whose stock is split is a detached copy holding the sum of its
+     * buckets, which are locked as well.
+     */
+    @Override
+    public Map<String, Inventory> findInventories(Collection<String> productIds) {
+        return inventoryRepository.findForUpdateByProductIdInOrderByProductId(productIds).stream()
+                .map(inventory -> isSplit(inventory) ? inventoryBuckets.lockTotal(inventory) : inventory)
+                .collect(Collectors.toMap(Inventory::getProductId, Function.identity(), (first, second) -> first));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The records are written with a single {@code saveAll} call so that Hibernate can send the updates to the
+     * database as one JDBC batch.
+     */
+    @Override
+    public void deductInventories(Map<String, Inventory> inventories, Map<String, Integer> deductions) {
+        List<Inventory> updated = new ArrayList<>(deductions.size());
+        deductions.forEach((productId, quantity) -> {
+            Inventory inventory = inventories.get(productId);
+            if (isSplit(inventory)) {
+                inventoryBuckets.decrement(productId, quantity);
+                return;
+            }
+            inventory.setQuantity(inventory.getQuantity() - quantity);
+            updated.add(inventory);
+        });
+        inventoryRepository.saveAll(updated);
+    }
+
+    /**
+     * Decrements the stock with a single conditional {@code UPDATE} by the integer key of the product, or by its
+     * product ID when it has no key or its record has not been stamped with it yet. When no update matched, the
+     * record is read only to tell a missing product apart from insufficient stock; it is never written, so the
+     * strategy cannot fail with an optimistic locking conflict. The stock of a split product is decremented in its
+     * buckets.
+     */
+    private void decrementConditionally(String productId, int quantity) {
+        Integer productKey = productKey(productId);
+        int updated = productKey == null ? 0 : inventoryRepository.decrementQuantityByProductKey(productKey, quantity);
+        if (updated == 0) {
+            updated = inventoryRepository.decrementQuantity(productId, quantity);
+        }
+        if (updated > 0) {
+            return;
+        }
+        Inventory inventory = findInventory(productId);
+        if (inventory == null) {
+            throw new IllegalStateException("Inventory record not found for product ID: " + productId);
+        }
+        if (isSplit(inventory)) {
+            inventoryBuckets.decrement(productId, quantity);
+            return;
+        }
+        throw new InsufficientInventoryException("Insufficient inventory for product ID: " + productId);
+    }
+
+    /**
+     * Decrements the stock with a versioned read-modify-write, retrying when a concurrent update wins the race.
+     */
+    private void decrementOptimistically(String productId, int quantity) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                decrement(findInventory(productId), productId, quantity);
+                return;
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                if (attempt >= maxRetries) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates the given inventory record and saves it with its quantity reduced. If the record shows that the
+     * stock of the product has been split since this instance last read it, the buckets are decremented instead.
+     */
+    private void decrement(Inventory inventory, String productId, int quantity) {
+        if (inventory == null) {
+            throw new IllegalStateException("Inventory record not found for product ID: " + productId);
+        }
+        if (isSplit(inventory)) {
+            inventoryBuckets.decrement(productId, quantity);
+            return;
+        }
+        if (inventory.getQuantity() < quantity) {
+            throw new InsufficientInventoryException("Insufficient inventory for product ID: " + productId);
+        }
+        inventory.setQuantity(inventory.getQuantity() - quantity);
+        inventoryRepository.save(inventory);
+    }
+
+    /**
+     * Returns the integer key of a product if the product key dictionary is enabled and has assigned one.
+     */
+    private Integer productKey(String productId) {
+        return productKeyDictionary == null ? null : productKeyDictionary.find(productId);
+    }
+
+    /**
+     * Reads the inventory record of a product by its integer key, falling back to the product ID.
+     */
+    private Inventory findInventory(String productId) {
+        Integer productKey = productKey(productId);
+        Inventory inventory = productKey == null ? null : inventoryRepository.findByProductKey(productKey);
+        return inventory != null ? inventory : inventoryRepository.findByProductId(productId);
+    }
+
+    /**
+     * Reads and locks the inventory record of a product by its integer key, falling back to the product ID.
+     */
+    private Inventory findInventoryForUpdate(String productId) {
+        Integer productKey = productKey(productId);
+        Inventory inventory = productKey == null ? null : inventoryRepository.findForUpdateByProductKey(productKey);
+        return inventory != null ? inventory : inventoryRepository.findForUpdateByProductId(productId);
+    }
+
+    /**
+     * Increments the stock of a product in one of its buckets if it is split, otherwise by its integer key, falling
+     * back to the product ID.
+     */
+    private int incrementQuantity(String productId, int quantity) {
+        if (inventoryBuckets != null && inventoryBuckets.isSplit(productId) && inventoryBuckets.increment(productId, quantity)) {
+            return 1;
+        }
+        Integer productKey = productKey(productId);
+        int updated = productKey == null ? 0 : inventoryRepository.incrementQuantityByProductKey(productKey, quantity);
+        return updated > 0 ? updated : inventoryRepository.incrementQuantity(productId, quantity);
+    }
+
+    /**
+     * Returns whether the stock of a product is split across buckets, according to its inventory record.
+     */
+    private boolean isSplit(Inventory inventory) {
+        return inventoryBuckets != null && inventoryBuckets.isSplit(inventory);
+    }
+
+    /**
+     * Returns the available quantity of a product, summing its buckets if its stock is split.
+     */
+    private int available(Inventory inventory) {
+        return isSplit(inventory) ? inventoryBuckets.getAvailable(inventory) : inventory.getQuantity();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.ordermicroservice.service;
+
+/**
+ * The {@code OrchestrationMode} enum lists the ways in which {@link Orchestrator#processOrder} can run the steps
+ * of the order processing workflow.
+ *
+ * <p>The mode is selected with the {@code orchestrator.mode} property.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Orchestrator
+ */
+public enum OrchestrationMode {
+
+    /**
+     * Check inventory, process the payment, create the order and update the inventory strictly one after another.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Reserve the inventory and process the payment at the same time, then create the order. If only one of the two
+     * succeeds, it is compensated: the reservation is released or the payment is refunded.
+     */
+    PARALLEL
+}
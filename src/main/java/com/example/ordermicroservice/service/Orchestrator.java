@@ -1,9 +1,27 @@
 package com.example.ordermicroservice.service;
 
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
 import com.example.ordermicroservice.model.Order;
 import com.example.ordermicroservice.model.Payment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * The {@code Orchestrator} class is a service layer component responsible for coordinating the order processing workflow.
@@ -24,6 +42,13 @@ import org.springframework.stereotype.Service;
 @Service
 public class Orchestrator {
 
+    private static final String SUCCESS = "Order processed successfully";
+    private static final String INSUFFICIENT_INVENTORY = "Order failed: Insufficient inventory";
+    private static final String PAYMENT_FAILED = "Order failed: Payment processing failed";
+
+    private static final String STEP_TIMER = "orchestrator.step";
+    private static final String FAILURE_COUNTER = "orchestrator.failures";
+
     /**
      * The {@link OrderService} instance used to create and manage orders.
      * This field is autowired by Spring to inject the service dependency.
@@ -45,6 +70,50 @@ public class Orchestrator {
     @Autowired
     private PaymentService paymentService;
 
+    /**
+     * The bounded {@link TaskExecutor} that processes asynchronously accepted orders.
+     * This field is autowired by Spring with the {@code orderProcessingExecutor} bean.
+     */
+    @Autowired
+    private TaskExecutor orderProcessingExecutor;
+
+    /**
+     * The {@link TaskExecutor} that runs the payment step in the parallel orchestration mode.
+     * This field is autowired by Spring with the {@code orchestrationExecutor} bean.
+     */
+    @Autowired
+    private TaskExecutor orchestrationExecutor;
+
+    /**
+     * The mode in which {@link #processOrder(Order)} runs the workflow steps.
+     * Configured with the {@code orchestrator.mode} property.
+     */
+    @Value("${orchestrator.mode:SEQUENTIAL}")
+    private OrchestrationMode mode = OrchestrationMode.SEQUENTIAL;
+
+    /**
+     * The {@link MeterRegistry} that records the latency of every workflow step in the {@code orchestrator.step}
+     * timer and every failed order in the {@code orchestrator.failures} counter.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer inventoryCheckTimer;
+    private Timer paymentTimer;
+    private Timer orderCreateTimer;
+    private Timer inventoryUpdateTimer;
+
+    /**
+     * Registers the timer of every workflow step once, so that recording a step does not look it up in the registry.
+     */
+    @PostConstruct
+    public void init() {
+        inventoryCheckTimer = stepTimer("inventory.check");
+        paymentTimer = stepTimer("payment");
+        orderCreateTimer = stepTimer("order.create");
+        inventoryUpdateTimer = stepTimer("inventory.update");
+    }
+
     /**
      * Processes an order by coordinating the following steps:
      * <ol>
@@ -55,6 +124,18 @@ public class Orchestrator {
      * </ol>
      *
      * <p>If any step fails, the order processing is aborted, and an appropriate failure message is returned.
+     * If the order cannot be created, the payment is refunded and the exception rethrown.
+     * The inventory update is guarded against concurrent orders; if it fails, the order is cancelled and the
+     * payment refunded.
+     * An order without an ID is assigned one by {@link OrderService#assignId(Order)} before the first step, so that
+     * the payment can reference the order before the order has been saved.
+     *
+     * <p>In the {@link OrchestrationMode#PARALLEL} mode, the inventory is reserved and the payment processed at the
+     * same time, so the latency of the two steps is their maximum instead of their sum. See
+     * {@link #processOrderInParallel(Order)}.
+     *
+     * <p>The latency of each step is recorded in the {@code orchestrator.step} timer, tagged with the step name, and
+     * each failed order is counted in the {@code orchestrator.failures} counter, tagged with the failure reason.
      *
      * @param order the {@link Order} object to be processed (must not be {@code null}).
      * @return a message indicating the result of the order processing, such as "Order processed successfully"
@@ -65,26 +146,272 @@ public class Orchestrator {
         if (order == null) {
             throw new IllegalArgumentException("Order cannot be null");
         }
+        // The ID is generated in-process, so the payment can reference the order before the order is saved
+        orderService.assignId(order);
+        if (mode == OrchestrationMode.PARALLEL) {
+            return processOrderInParallel(order);
+        }
 
         // Step 1: Check inventory
-        if (!inventoryService.checkInventory(order.getProductId(), order.getQuantity())) {
-            return "Order failed: Insufficient inventory";
+        if (!inventoryCheckTimer.record(
+                () -> inventoryService.checkInventory(order.getProductId(), order.getQuantity()))) {
+            return failed(INSUFFICIENT_INVENTORY);
         }
 
         // Step 2: Process payment
         Payment payment = new Payment();
         payment.setOrderId(order.getId().toString());
         payment.setAmount(order.getAmount());
-        if (!paymentService.processPayment(payment)) {
-            return "Order failed: Payment processing failed";
+        if (!paymentTimer.record(() -> paymentService.processPayment(payment))) {
+            return failed(PAYMENT_FAILED);
+        }
+
+        // Step 3: Create order, refunding the payment if the order cannot be saved
+        try {
+            orderCreateTimer.record(() -> orderService.createOrder(order));
+        } catch (RuntimeException ex) {
+            paymentService.refundPayment(payment);
+            throw ex;
         }
 
-        // Step 3: Create order
-        orderService.createOrder(order);
+        // Step 4: Update inventory, compensating if the stock was taken by a concurrent order
+        try {
+            inventoryUpdateTimer.record(
+                    () -> inventoryService.updateInventory(order.getProductId(), order.getQuantity()));
+        } catch (RuntimeException ex) {
+            orderService.cancelOrder(order);
+            paymentService.refundPayment(payment);
+            if (ex instanceof InsufficientInventoryException) {
+                return failed(INSUFFICIENT_INVENTORY);
+            }
+            throw ex;
+        }
 
-        // Step 4: Update inventory
-        inventoryService.updateInventory(order.getProductId(), order.getQuantity());
+        return SUCCESS;
+    }
 
-        return "Order processed successfully";
+    /**
+     * Processes an order with the inventory reservation and the payment running concurrently.
+     *
+     * <p>The payment is processed on the {@code orchestrationExecutor} while the calling thread reserves the
+     * inventory with the guarded {@link InventoryService#updateInventory(String, int)}. The order is created only
+     * if both succeed. If the reservation fails, a successful payment is refunded; if the payment fails, a successful
+     * reservation is released; if the order cannot be created, the reservation is released, the payment refunded and
+     * the exception rethrown. If both steps throw, the exception of the payment is rethrown with that of the reservation
+     * added as suppressed.
+     *
+     * @param order the {@link Order} object to be processed.
+     * @return a message indicating the result of the order processing, using the same messages as the sequential mode.
+     */
+    private String processOrderInParallel(Order order) {
+        Payment payment = new Payment();
+        payment.setOrderId(order.getId().toString());
+        payment.setAmount(order.getAmount());
+        CompletableFuture<Boolean> paid = CompletableFuture.supplyAsync(
+                () -> paymentTimer.record(() -> paymentService.processPayment(payment)), orchestrationExecutor);
+
+        boolean reserved;
+        RuntimeException reservationFailure = null;
+        try {
+            inventoryUpdateTimer.record(
+                    () -> inventoryService.updateInventory(order.getProductId(), order.getQuantity()));
+            reserved = true;
+        } catch (InsufficientInventoryException ex) {
+            reserved = false;
+        } catch (RuntimeException ex) {
+            reserved = false;
+            reservationFailure = ex;
+        }
+
+        boolean paymentSucceeded;
+        try {
+            paymentSucceeded = paid.join();
+        } catch (CompletionException ex) {
+            if (reserved) {
+                inventoryService.releaseInventory(order.getProductId(), order.getQuantity());
+            }
+            RuntimeException failure = ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            if (reservationFailure != null && reservationFailure != failure) {
+                failure.addSuppressed(reservationFailure);
+            }
+            throw failure;
+        }
+
+        if (!reserved) {
+            if (paymentSucceeded) {
+                paymentService.refundPayment(payment);
+            }
+            if (reservationFailure != null) {
+                throw reservationFailure;
+            }
+            return failed(INSUFFICIENT_INVENTORY);
+        }
+        if (!paymentSucceeded) {
+            inventoryService.releaseInventory(order.getProductId(), order.getQuantity());
+            return failed(PAYMENT_FAILED);
+        }
+
+        try {
+            orderCreateTimer.record(() -> orderService.createOrder(order));
+        } catch (RuntimeException ex) {
+            inventoryService.releaseInventory(order.getProductId(), order.getQuantity());
+            paymentService.refundPayment(payment);
+            throw ex;
+        }
+        return SUCCESS;
+    }
+
+    /**
+     * Registers the timer of a workflow step with a percentile histogram.
+     */
+    private Timer stepTimer(String step) {
+        return Timer.builder(STEP_TIMER)
+                .tag("step", step)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a failed order, tagged with its failure reason, and returns the failure message.
+     */
+    private String failed(String result) {
+        String reason = result.equals(INSUFFICIENT_INVENTORY) ? "insufficient_inventory" : "payment_failed";
+        meterRegistry.counter(FAILURE_COUNTER, "reason", reason).increment();
+        return result;
+    }
+
+    /**
+     * Processes a batch of orders with a fixed number of database round trips, independent of the batch size.
+     *
+     * <p>The batch is processed in the following steps:
+     * <ol>
+     *   <li>Load the inventory for all distinct products in the batch with a single query, after assigning the keys
+     *   of products that have none, which must happen before their inventory records are locked.</li>
+     *   <li>Reserve stock for each order in batch order; orders that exceed the remaining stock are rejected.</li>
+     *   <li>Create all accepted orders with one batched write, assigning each its in-process ID.</li>
+     *   <li>Process the payments for all accepted orders with one batched write.</li>
+     *   <li>Update the inventory of all affected products with one batched write.</li>
+     * </ol>
+     *
+     * <p>Order IDs are generated in-process, so the payments could be written first; the orders are created first so
+     * that, if the payment batch fails, the accepted orders are kept as a record of the attempt and marked as "FAILED",
+     * and the inventory is left unchanged. All writes run in a single transaction.
+     *
+     * @param orders the {@link Order} objects to be processed (must not be {@code null}).
+     * @return one message per order, in the same order as the input, using the same messages as
+     *         {@link #processOrder(Order)}.
+     * @throws IllegalArgumentException if the order list, any order in it, or any product ID is {@code null}.
+     */
+    @Transactional
+    public List<String> processOrders(List<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders cannot be null");
+        }
+        Set<String> productIds = new LinkedHashSet<>();
+        for (Order order : orders) {
+            if (order == null) {
+                throw new IllegalArgumentException("Order cannot be null");
+            }
+            if (order.getProductId() == null || order.getProductId().isEmpty()) {
+                throw new IllegalArgumentException("Product ID cannot be null or empty");
+            }
+            productIds.add(order.getProductId());
+        }
+
+        // Step 1: Load inventory for every distinct product, assigning missing product keys before the rows are locked
+        orderService.assignProductKeys(productIds);
+        Map<String, Inventory> inventories = inventoryService.findInventories(productIds);
+
+        // Step 2: Reserve stock in memory, in batch order
+        Map<String, Integer> remaining = new HashMap<>();
+        inventories.forEach((productId, inventory) -> remaining.put(productId, inventory.getQuantity()));
+        List<String> results = new ArrayList<>(orders.size());
+        List<Order> accepted = new ArrayList<>();
+        for (Order order : orders) {
+            Integer available = remaining.get(order.getProductId());
+            if (available == null || available < order.getQuantity()) {
+                results.add(INSUFFICIENT_INVENTORY);
+                continue;
+            }
+            remaining.put(order.getProductId(), available - order.getQuantity());
+            accepted.add(order);
+            results.add(SUCCESS);
+        }
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        // Step 3: Create orders
+        orderService.createOrders(accepted);
+
+        // Step 4: Process payments
+        List<Payment> payments = new ArrayList<>(accepted.size());
+        for (Order order : accepted) {
+            Payment payment = new Payment();
+            payment.setOrderId(order.getId().toString());
+            payment.setAmount(order.getAmount());
+            payments.add(payment);
+        }
+        if (!paymentService.processPayments(payments)) {
+            for (int i = 0; i < orders.size(); i++) {
+                if (SUCCESS.equals(results.get(i))) {
+                    orders.get(i).setStatus("FAILED");
+                    results.set(i, PAYMENT_FAILED);
+                }
+            }
+            return results;
+        }
+
+        // Step 5: Update inventory
+        Map<String, Integer> deductions = new HashMap<>();
+        for (Order order : accepted) {
+            deductions.merge(order.getProductId(), order.getQuantity(), Integer::sum);
+        }
+        inventoryService.deductInventories(inventories, deductions);
+
+        return results;
+    }
+
+    /**
+     * Accepts an order for asynchronous processing.
+     *
+     * <p>The order is persisted with the status "PENDING" and its processing is handed to the bounded
+     * {@code orderProcessingExecutor}, so that the caller does not wait for payment and inventory. Once processed,
+     * the status of the order becomes "CREATED" on success or "FAILED" otherwise. If the worker queue is full,
+     * the order is marked "REJECTED" and the {@link TaskRejectedException} is rethrown.
+     *
+     * @param order the {@link Order} object to be accepted (must not be {@code null}).
+     * @return the persisted {@link Order} with its ID and the status "PENDING".
+     * @throws IllegalArgumentException if the provided order is {@code null}.
+     * @throws TaskRejectedException if the worker queue is full.
+     */
+    public Order acceptOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        Order pending = orderService.createPendingOrder(order);
+        try {
+            orderProcessingExecutor.execute(() -> processAcceptedOrder(pending));
+        } catch (TaskRejectedException ex) {
+            orderService.updateStatus(pending, "REJECTED");
+            throw ex;
+        }
+        return pending;
+    }
+
+    /**
+     * Runs the order processing workflow for an accepted order and records a failure in its status.
+     * On success, the order has already been saved with the status "CREATED" by {@link #processOrder(Order)}.
+     */
+    private void processAcceptedOrder(Order order) {
+        String result;
+        try {
+            result = processOrder(order);
+        } catch (RuntimeException ex) {
+            result = ex.getMessage();
+        }
+        if (!SUCCESS.equals(result)) {
+            orderService.updateStatus(order, "FAILED");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderImportResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code OrderImportService} class imports a stream of orders in newline-delimited JSON (NDJSON), one order per
+ * line, and writes one NDJSON result per order back to an output stream.
+ *
+ * <p>The input is read with Jackson's streaming {@link JsonParser}, one order at a time, and the orders are handed to
+ * {@link Orchestrator#processOrders(List)} in chunks of {@code orders.import.chunk-size}, so that each chunk is
+ * processed in one transaction with batched writes. The results of a chunk are written and flushed as soon as the
+ * chunk is done. At most one chunk of orders is held in memory at any time, so the memory use does not depend on the
+ * size of the import.
+ *
+ * <p>An order without a product ID or with a non-positive quantity is rejected on its own line. If a whole chunk
+ * fails, for example because a concurrent order took the stock it reserved, every order of the chunk is reported with
+ * the error and the import continues with the next chunk. Malformed JSON ends the import, since the parser cannot
+ * find the start of the next order; the orders read before it are still processed and reported.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Orchestrator
+ * @see OrderImportResult
+ */
+@Service
+public class OrderImportService {
+
+    /**
+     * The {@link Orchestrator} instance used to process each chunk of orders.
+     */
+    @Autowired
+    private Orchestrator orchestrator;
+
+    /**
+     * The {@link ObjectMapper} used to read orders and write results.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * The number of orders processed in one transaction.
+     * Configured with the {@code orders.import.chunk-size} property.
+     */
+    @Value("${orders.import.chunk-size:500}")
+    private int chunkSize = 500;
+
+    /**
+     * Imports all orders of an NDJSON input stream and writes one NDJSON result per order to an output stream.
+     *
+     * @param input the NDJSON orders (must not be {@code null}); it is not closed.
+     * @param output the stream to which the results are written (must not be {@code null}); it is not closed.
+     * @return the number of orders read.
+     * @throws IllegalArgumentException if either stream is {@code null}.
+     * @throws IOException if reading the input or writing the output fails.
+     */
+    public long importOrders(InputStream input, OutputStream output) throws IOException {
+        if (input == null || output == null) {
+            throw new IllegalArgumentException("Input and output cannot be null");
+        }
+        ObjectReader orderReader = objectMapper.readerFor(Order.class);
+        ObjectWriter resultWriter = objectMapper.writerFor(OrderImportResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long lines = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(input).disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            // Results are separated by the newline written after each of them, not by Jackson's default space
+            generator.setRootValueSeparator(null);
+            List<Order> chunk = new ArrayList<>(chunkSize);
+            List<Long> chunkLines = new ArrayList<>(chunkSize);
+            while (true) {
+                Order order;
+                long line;
+                try {
+                    if (parser.nextToken() == null) {
+                        break;
+                    }
+                    line = parser.currentLocation().getLineNr();
+                    order = orderReader.readValue(parser);
+                } catch (JsonProcessingException ex) {
+                    processChunk(chunk, chunkLines, resultWriter, generator);
+                    write(resultWriter, generator, new OrderImportResult(ex.getLocation() == null ? lines + 1
+                            : ex.getLocation().getLineNr(), null, "Import aborted: malformed JSON: " + ex.getOriginalMessage()));
+                    generator.flush();
+                    return lines;
+                }
+                lines++;
+                String invalid = validate(order);
+                if (invalid != null) {
+                    write(resultWriter, generator, new OrderImportResult(line, null, invalid));
+                    continue;
+                }
+                chunk.add(order);
+                chunkLines.add(line);
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, chunkLines, resultWriter, generator);
+                }
+            }
+            processChunk(chunk, chunkLines, resultWriter, generator);
+        }
+        return lines;
+    }
+
+    /**
+     * Processes a chunk of orders in one transaction, writes and flushes their results and empties the chunk.
+     */
+    private void processChunk(List<Order> chunk, List<Long> chunkLines, ObjectWriter resultWriter,
+                              JsonGenerator generator) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> results = orchestrator.processOrders(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                Long orderId = "CREATED".equals(chunk.get(i).getStatus()) ? chunk.get(i).getId() : null;
+                write(resultWriter, generator, new OrderImportResult(chunkLines.get(i), orderId, results.get(i)));
+            }
+        } catch (RuntimeException ex) {
+            for (Long line : chunkLines) {
+                write(resultWriter, generator, new OrderImportResult(line, null, "Order failed: " + ex.getMessage()));
+            }
+        }
+        generator.flush();
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private void write(ObjectWriter resultWriter, JsonGenerator generator, OrderImportResult result) throws IOException {
+        resultWriter.writeValue(generator, result);
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Returns the reason an order cannot be processed, or {@code null} if it is valid.
+     */
+    private String validate(Order order) {
+        if (order == null) {
+            return "Order cannot be null";
+        }
+        if (order.getProductId() == null || order.getProductId().isEmpty()) {
+            return "Product ID cannot be null or empty";
+        }
+        if (order.getQuantity() <= 0) {
+            return "Quantity must be positive";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,653 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.Payment;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ * The {@code OrderJournal} class is an append-only, memory-mapped journal of order and payment writes. When it is
+ * enabled, {@link OrderService} and {@link PaymentService} append every order and payment they save to the journal
+ * instead of inserting or updating a row, so that accepting an order costs one sequential append and no index
+ * maintenance. The {@link OrderJournalProjector} loads the journal into the {@code orders} and {@code payment} tables
+ * in the background.
+ *
+ * <p>Every write is one fixed-layout record of {@value #RECORD_SIZE} bytes that holds the full state of the order or
+ * payment, its sequence number and a CRC32C checksum. The journal is split into segment files of
+ * {@code orders.journal.segment-size-bytes} bytes, named after the sequence number of their first record. Only the
+ * last segment is mapped for writing; once it is full it is forced to disk and the next one is created.
+ *
+ * <p>Appends are made durable in groups: a single flusher thread forces the mapped segment as soon as
+ * {@code orders.journal.fsync-batch-size} records are pending, or {@code orders.journal.fsync-interval-ms}
+ * milliseconds after the first of them, and every caller returns once its own record is on disk. The number of
+ * records forced together is published as the {@code orders.journal.fsync.batch-size} distribution summary.
+ *
+ * <p>On startup the segments are replayed in order and the journal is recovered to its last valid record: the first
+ * record that is missing, out of sequence or fails its checksum marks the end of the journal, since it can only be
+ * the torn tail of an append that was never acknowledged. The rest of that segment is zeroed and later segments are
+ * deleted, and appending continues from there. The projector then loads every record after its checkpoint.
+ *
+ * <p>This class is only registered when the {@code orders.journal.enabled} property is {@code true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see OrderJournalProjector
+ * @see OrderService
+ * @see PaymentService
+ */
+@Component
+@ConditionalOnProperty(name = "orders.journal.enabled", havingValue = "true")
+public class OrderJournal {
+
+    /**
+     * The size in bytes of every journal record.
+     */
+    public static final int RECORD_SIZE = 128;
+
+    /**
+     * The largest number of UTF-8 bytes in a status.
+     */
+    public static final int MAX_STATUS_BYTES = 23;
+
+    /**
+     * The largest number of UTF-8 bytes in the product ID of an order or the order ID of a payment.
+     */
+    public static final int MAX_KEY_BYTES = 55;
+
+    private static final int TYPE_ORDER = 1;
+    private static final int TYPE_PAYMENT = 2;
+
+    // Record layout: the checksum covers every byte from the sequence number to the end of the record
+    private static final int TYPE_OFFSET = 0;
+    private static final int CRC_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int ID_OFFSET = 16;
+    private static final int VERSION_OFFSET = 24;
+    private static final int AMOUNT_OFFSET = 32;
+    private static final int QUANTITY_OFFSET = 40;
+    private static final int PRODUCT_KEY_OFFSET = 44;
+    private static final int STATUS_OFFSET = 48;
+    private static final int KEY_OFFSET = 72;
+
+    static {
+        // Every string is a length byte followed by its padded bytes, and must end within the record
+        if (STATUS_OFFSET + 1 + MAX_STATUS_BYTES > KEY_OFFSET || KEY_OFFSET + 1 + MAX_KEY_BYTES > RECORD_SIZE) {
+            throw new IllegalStateException("Journal record layout exceeds " + RECORD_SIZE + " bytes");
+        }
+    }
+
+    private static final int NULL_PRODUCT_KEY = Integer.MIN_VALUE;
+    private static final int NULL_STRING = 0xFF;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{20})\\.log");
+
+    /**
+     * The interval in milliseconds at which an idle flusher thread checks whether it has been stopped.
+     */
+    private static final long IDLE_POLL_MS = 100;
+
+    /**
+     * The {@link MeterRegistry} to which the fsync batch sizes are published.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The directory holding the segment files.
+     * Configured with the {@code orders.journal.directory} property.
+     */
+    @Value("${orders.journal.directory:journal}")
+    private Path directory = Path.of("journal");
+
+    /**
+     * The size in bytes of a new segment file, rounded down to a whole number of records.
+     * Configured with the {@code orders.journal.segment-size-bytes} property.
+     */
+    @Value("${orders.journal.segment-size-bytes:67108864}")
+    private long segmentSizeBytes = 64L * 1024 * 1024;
+
+    /**
+     * The number of milliseconds the flusher waits for more records after the first pending one; {@code 0} forces
+     * every group of records as soon as the previous force completes.
+     * Configured with the {@code orders.journal.fsync-interval-ms} property.
+     */
+    @Value("${orders.journal.fsync-interval-ms:2}")
+    private long fsyncIntervalMs = 2;
+
+    /**
+     * The number of pending records at which the flusher forces the segment without waiting for the interval.
+     * Configured with the {@code orders.journal.fsync-batch-size} property.
+     */
+    @Value("${orders.journal.fsync-batch-size:256}")
+    private int fsyncBatchSize = 256;
+
+    /**
+     * Guards the segments, the sequence numbers and the encoding buffer.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when records are appended, so that the flusher thread forces them.
+     */
+    private final Condition appended = lock.newCondition();
+
+    /**
+     * Signalled when records have been forced to disk, so that their callers return.
+     */
+    private final Condition forced = lock.newCondition();
+
+    /**
+     * The path of every segment file, keyed by the sequence number of its first record.
+     */
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    /**
+     * The buffer in which a record is encoded before it is copied into the mapped segment.
+     */
+    private final ByteBuffer encoded = ByteBuffer.allocate(RECORD_SIZE);
+
+    private final CRC32C crc = new CRC32C();
+
+    private Segment active;
+    private long nextSequence = 1;
+    private long durableSequence;
+    private DistributionSummary fsyncBatch;
+    private Thread flusher;
+    private volatile boolean running;
+
+    /**
+     * Recovers the journal from its segment files, registers the metrics and starts the flusher thread.
+     *
+     * @throws IllegalArgumentException if the segment size, the fsync interval or the fsync batch size is out of
+     *         range.
+     * @throws UncheckedIOException if the journal cannot be read or repaired.
+     */
+    @PostConstruct
+    public void init() {
+        if (segmentSizeBytes < RECORD_SIZE || segmentSizeBytes > Integer.MAX_VALUE || fsyncIntervalMs < 0
+                || fsyncBatchSize < 1) {
+            throw new IllegalArgumentException("Journal segments must hold a record and fit in 2 GB, the fsync "
+                    + "interval must not be negative and the fsync batch size must be positive");
+        }
+        recover();
+        fsyncBatch = DistributionSummary.builder("orders.journal.fsync.batch-size")
+                .description("Number of journal records forced to disk together")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        running = true;
+        flusher = Thread.ofPlatform().name("order-journal-fsync").daemon().start(this::run);
+    }
+
+    /**
+     * Stops the flusher thread and forces the records that are still pending, so that their callers return.
+     *
+     * @throws InterruptedException if interrupted while waiting for the flusher thread to stop.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.join();
+        lock.lock();
+        try {
+            if (active != null) {
+                active.buffer().force();
+                active.channel().close();
+                active = null;
+            }
+            durableSequence = nextSequence - 1;
+            forced.signalAll();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the current state of an order and waits until the record is on disk. The version of the order is
+     * advanced as Hibernate would when saving it: set to {@code 0} for a new order and incremented afterwards.
+     *
+     * @param order the {@link Order} to append, with its ID assigned (must not be {@code null}).
+     * @return the sequence number of the record.
+     * @throws IllegalArgumentException if the order or its ID is {@code null}, or its product ID or status is
+     *         too long for the record layout.
+     * @throws IllegalStateException if the journal has been shut down.
+     */
+    public long append(Order order) {
+        if (order == null || order.getId() == null) {
+            throw new IllegalArgumentException("Order and its ID cannot be null");
+        }
+        long version = nextVersion(order.getVersion());
+        long sequence = write(TYPE_ORDER, order.getId(), version, order.getAmount(), order.getQuantity(),
+                order.getProductKey(), order.getStatus(), order.getProductId());
+        order.setVersion(version);
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Appends the current state of a payment and waits until the record is on disk. The version of the payment is
+     * advanced like that of an order.
+     *
+     * @param payment the {@link Payment} to append, with its ID assigned (must not be {@code null}).
+     * @return the sequence number of the record.
+     * @throws IllegalArgumentException if the payment or its ID is {@code null}, or its order ID or status is too
+     *         long for the record layout.
+     * @throws IllegalStateException if the journal has been shut down.
+     * @see #append(Order)
+     */
+    public long append(Payment payment) {
+        if (payment == null || payment.getId() == null) {
+            throw new IllegalArgumentException("Payment and its ID cannot be null");
+        }
+        long version = nextVersion(payment.getVersion());
+        long sequence = write(TYPE_PAYMENT, payment.getId(), version, payment.getAmount(), 0, null,
+                payment.getStatus(), payment.getOrderId());
+        payment.setVersion(version);
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Reads the durable records that follow a given sequence number, in sequence order.
+     *
+     * @param afterSequence the sequence number after which to start reading, {@code 0} for the whole journal.
+     * @param maxRecords the largest number of records to return.
+     * @return the records read, which may be fewer than requested if the end of the journal is reached. Records
+     *         that have been released are skipped.
+     * @throws UncheckedIOException if a segment cannot be read.
+     */
+    public List<Entry> read(long afterSequence, int maxRecords) {
+        List<Entry> entries = new ArrayList<>();
+        long sequence = afterSequence + 1;
+        while (entries.size() < maxRecords) {
+            long first;
+            long last;
+            Path path;
+            ByteBuffer mapped = null;
+            lock.lock();
+            try {
+                if (!segments.isEmpty()) {
+                    sequence = Math.max(sequence, segments.firstKey());
+                }
+                Map.Entry<Long, Path> segment = segments.floorEntry(sequence);
+                if (segment == null || sequence > durableSequence) {
+                    break;
+                }
+                first = segment.getKey();
+                path = segment.getValue();
+                Long next = segments.higherKey(first);
+                last = Math.min(durableSequence, next == null ? Long.MAX_VALUE : next - 1);
+                if (active != null && active.firstSequence() == first) {
+                    mapped = active.buffer().duplicate();
+                }
+            } finally {
+                lock.unlock();
+            }
+            int count = (int) Math.min(maxRecords - entries.size(), last - sequence + 1);
+            ByteBuffer records = mapped != null ? mapped : ByteBuffer.allocate(count * RECORD_SIZE);
+            long position = (sequence - first) * RECORD_SIZE;
+            if (mapped == null) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    while (records.hasRemaining() && channel.read(records, position + records.position()) >= 0) {
+                        // Read until the buffer is full
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                position = 0;
+            }
+            for (int i = 0; i < count; i++) {
+                entries.add(decode(records, (int) position + i * RECORD_SIZE));
+            }
+            sequence += count;
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes the closed segments whose records all have a sequence number up to the given one, once they are no
+     * longer needed to recover the data, for example because it has been projected into a durable database.
+     *
+     * @param upToSequence the sequence number up to which records may be discarded.
+     * @return the number of segment files deleted.
+     * @throws UncheckedIOException if a segment file cannot be deleted.
+     */
+    public int release(long upToSequence) {
+        List<Path> released = new ArrayList<>();
+        lock.lock();
+        try {
+            while (segments.size() > 1) {
+                Map.Entry<Long, Path> oldest = segments.firstEntry();
+                if (segments.higherKey(oldest.getKey()) - 1 > upToSequence) {
+                    break;
+                }
+                released.add(segments.pollFirstEntry().getValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            for (Path path : released) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return released.size();
+    }
+
+    /**
+     * Returns the sequence number of the last record that is on disk.
+     *
+     * @return the last durable sequence number, or {@code 0} if the journal is empty.
+     */
+    public long getDurableSequence() {
+        lock.lock();
+        try {
+            return durableSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replays the segment files to find the last valid record, repairs the tail of the journal after it and opens
+     * the last segment for appending.
+     */
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            TreeMap<Long, Path> found = new TreeMap<>();
+            try (var files = Files.list(directory)) {
+                files.forEach(path -> {
+                    Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                    if (matcher.matches()) {
+                        found.put(Long.parseLong(matcher.group(1)), path);
+                    }
+                });
+            }
+            boolean ended = false;
+            for (Map.Entry<Long, Path> segment : found.entrySet()) {
+                if (ended || (!segments.isEmpty() && segment.getKey() != nextSequence)) {
+                    ended = true;
+                    Files.delete(segment.getValue());
+                    continue;
+                }
+                if (segments.isEmpty()) {
+                    nextSequence = segment.getKey();
+                }
+                if (active != null) {
+                    active.channel().close();
+                }
+                active = open(segment.getKey(), segment.getValue(), Files.size(segment.getValue()));
+                segments.put(segment.getKey(), segment.getValue());
+                int valid = 0;
+                while (valid < active.capacity() && isValid(active.buffer(), valid, nextSequence)) {
+                    valid++;
+                    nextSequence++;
+                }
+                if (valid < active.capacity()) {
+                    // Zero the torn tail so that the next recovery stops at the same record
+                    ByteBuffer zeros = ByteBuffer.allocate(RECORD_SIZE);
+                    for (int i = valid; i < active.capacity(); i++) {
+                        active.buffer().put(i * RECORD_SIZE, zeros, 0, RECORD_SIZE);
+                    }
+                    active.buffer().force();
+                    ended = true;
+                }
+            }
+            if (segments.isEmpty()) {
+                nextSequence = 1;
+            }
+            durableSequence = nextSequence - 1;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long target;
+            MappedByteBuffer buffer;
+            lock.lock();
+            try {
+                if (nextSequence - 1 == durableSequence) {
+                    appended.await(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs);
+                long remaining;
+                while (running && nextSequence - 1 - durableSequence < fsyncBatchSize
+                        && (remaining = deadline - System.nanoTime()) > 0) {
+                    appended.awaitNanos(remaining);
+                }
+                target = nextSequence - 1;
+                buffer = active.buffer();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+                return;
+            } finally {
+                lock.unlock();
+            }
+            // Appends continue into the mapped segment while it is forced
+            buffer.force();
+            lock.lock();
+            try {
+                if (target > durableSequence) {
+                    fsyncBatch.record(target - durableSequence);
+                    durableSequence = target;
+                    forced.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Encodes a record into the active segment, rolling to a new segment first if it is full.
+     */
+    private long write(int type, long id, long version, double amount, int quantity, Integer productKey,
+                       String status, String key) {
+        byte[] statusBytes = bytes(status, MAX_STATUS_BYTES, "Status");
+        byte[] keyBytes = bytes(key, MAX_KEY_BYTES, type == TYPE_ORDER ? "Product ID" : "Order ID");
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Order journal has been shut down");
+            }
+            if (active == null || nextSequence - active.firstSequence() == active.capacity()) {
+                roll();
+            }
+            long sequence = nextSequence;
+            encoded.clear();
+            encoded.putInt(TYPE_OFFSET, type)
+                    .putLong(SEQUENCE_OFFSET, sequence)
+                    .putLong(ID_OFFSET, id)
+                    .putLong(VERSION_OFFSET, version)
+                    .putDouble(AMOUNT_OFFSET, amount)
+                    .putInt(QUANTITY_OFFSET, quantity)
+                    .putInt(PRODUCT_KEY_OFFSET, productKey == null ? NULL_PRODUCT_KEY : productKey);
+            putString(encoded, STATUS_OFFSET, statusBytes, MAX_STATUS_BYTES);
+            putString(encoded, KEY_OFFSET, keyBytes, MAX_KEY_BYTES);
+            encoded.putInt(CRC_OFFSET, checksum(encoded, 0));
+            active.buffer().put((int) (sequence - active.firstSequence()) * RECORD_SIZE, encoded, 0, RECORD_SIZE);
+            nextSequence++;
+            // Wake the flusher when it is idle or when the batch is full
+            long pending = nextSequence - 1 - durableSequence;
+            if (pending == 1 || pending >= fsyncBatchSize) {
+                appended.signal();
+            }
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces and closes the full segment and creates the next one.
+     */
+    private void roll() {
+        try {
+            if (active != null) {
+                active.buffer().force();
+                active.channel().close();
+                if (nextSequence - 1 > durableSequence) {
+                    fsyncBatch.record(nextSequence - 1 - durableSequence);
+                    durableSequence = nextSequence - 1;
+                    forced.signalAll();
+                }
+            }
+            Path path = directory.resolve("journal-%020d.log".formatted(nextSequence));
+            long size = segmentSizeBytes / RECORD_SIZE * RECORD_SIZE;
+            active = open(nextSequence, path, size);
+            segments.put(nextSequence, path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            // Records appended before a shutdown are forced by the shutdown itself
+            while (durableSequence < sequence) {
+                forced.await();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the order journal", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment open(long firstSequence, Path path, long size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return new Segment(firstSequence, channel, buffer, (int) (size / RECORD_SIZE));
+    }
+
+    private boolean isValid(ByteBuffer buffer, int index, long expectedSequence) {
+        int offset = index * RECORD_SIZE;
+        int type = buffer.getInt(offset + TYPE_OFFSET);
+        return (type == TYPE_ORDER || type == TYPE_PAYMENT)
+                && buffer.getLong(offset + SEQUENCE_OFFSET) == expectedSequence
+                && buffer.getInt(offset + CRC_OFFSET) == checksum(buffer, offset);
+    }
+
+    private int checksum(ByteBuffer buffer, int offset) {
+        crc.reset();
+        crc.update(buffer.slice(offset + SEQUENCE_OFFSET, RECORD_SIZE - SEQUENCE_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private Entry decode(ByteBuffer buffer, int offset) {
+        long sequence = buffer.getLong(offset + SEQUENCE_OFFSET);
+        String status = getString(buffer, offset + STATUS_OFFSET);
+        String key = getString(buffer, offset + KEY_OFFSET);
+        if (buffer.getInt(offset + TYPE_OFFSET) == TYPE_ORDER) {
+            Order order = new Order();
+            order.setId(buffer.getLong(offset + ID_OFFSET));
+            order.setVersion(buffer.getLong(offset + VERSION_OFFSET));
+            order.setAmount(buffer.getDouble(offset + AMOUNT_OFFSET));
+            order.setQuantity(buffer.getInt(offset + QUANTITY_OFFSET));
+            int productKey = buffer.getInt(offset + PRODUCT_KEY_OFFSET);
+            order.setProductKey(productKey == NULL_PRODUCT_KEY ? null : productKey);
+            order.setStatus(status);
+            order.setProductId(key);
+            return new Entry(sequence, order, null);
+        }
+        Payment payment = new Payment();
+        payment.setId(buffer.getLong(offset + ID_OFFSET));
+        payment.setVersion(buffer.getLong(offset + VERSION_OFFSET));
+        payment.setAmount(buffer.getDouble(offset + AMOUNT_OFFSET));
+        payment.setStatus(status);
+        payment.setOrderId(key);
+        return new Entry(sequence, null, payment);
+    }
+
+    private static long nextVersion(Long version) {
+        return version == null ? 0 : version + 1;
+    }
+
+    private static byte[] bytes(String value, int maxBytes, String name) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            throw new IllegalArgumentException(name + " exceeds " + maxBytes + " bytes: " + value);
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes a string as a length byte followed by its UTF-8 bytes, padded with zeros to its fixed width.
+     */
+    private static void putString(ByteBuffer buffer, int offset, byte[] bytes, int maxBytes) {
+        buffer.put(offset, (byte) (bytes == null ? NULL_STRING : bytes.length));
+        byte[] padded = new byte[maxBytes];
+        if (bytes != null) {
+            System.arraycopy(bytes, 0, padded, 0, bytes.length);
+        }
+        buffer.put(offset + 1, padded);
+    }
+
+    private static String getString(ByteBuffer buffer, int offset) {
+        int length = Byte.toUnsignedInt(buffer.get(offset));
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A record read back from the journal: the state of exactly one order or one payment, the other being
+     * {@code null}.
+     *
+     * @param sequence the sequence number of the record.
+     * @param order the order written by the record, or {@code null} if it holds a payment.
+     * @param payment the payment written by the record, or {@code null} if it holds an order.
+     */
+    public record Entry(long sequence, Order order, Payment payment) {
+    }
+
+    /**
+     * A segment file with its mapping and the number of records it can hold.
+     */
+    private record Segment(long firstSequence, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.JournalCheckpoint;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.Payment;
+import com.example.ordermicroservice.repository.JournalCheckpointRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code OrderJournalProjector} class loads the records of the {@link OrderJournal} into the {@code orders} and
+ * {@code payment} tables, so that orders and payments written to the journal can be queried like any others.
+ *
+ * <p>Every {@code orders.journal.projector.interval-ms} milliseconds, the durable records after the checkpoint are
+ * read in batches of {@code orders.journal.projector.batch-size} records. Each batch is written with one JDBC batch of
+ * {@code MERGE} statements per table, which insert new rows and overwrite existing ones with the state and version of
+ * the record, and the {@link JournalCheckpoint} is advanced in the same transaction. A crash therefore never loses or
+ * repeats part of a batch: on startup the projection resumes after the last committed record, which replays into the
+ * tables whatever the crash left unprojected. Orders and payments appear in the tables, and in every query, once their
+ * batch has been projected.
+ *
+ * <p>If the database has been emptied, as an in-memory database is on every restart, the checkpoint is gone too and
+ * the whole journal is replayed. Segments are therefore only deleted once projected when
+ * {@code orders.journal.projector.release-segments} is {@code true}, which is safe with a durable database only.
+ *
+ * <p>The number of durable records that have not been projected yet is published as the
+ * {@code orders.journal.projector.lag} gauge.
+ *
+ * <p>This class is only registered when the {@code orders.journal.enabled} property is {@code true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see OrderJournal
+ * @see JournalCheckpoint
+ */
+@Component
+@ConditionalOnProperty(name = "orders.journal.enabled", havingValue = "true")
+public class OrderJournalProjector {
+
+    /**
+     * The name of the checkpoint of the order journal.
+     */
+    static final String CHECKPOINT = "orders";
+
+    private static final String MERGE_ORDER = "MERGE INTO orders (id, product_id, product_key, quantity, amount, "
+            + "status, version) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_PAYMENT = "MERGE INTO payment (id, order_id, amount, status, version) "
+            + "KEY (id) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * The {@link OrderJournal} whose records are projected.
+     */
+    @Autowired
+    private OrderJournal journal;
+
+    /**
+     * The {@link JdbcTemplate} used to write each batch of rows with one JDBC batch per table.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The {@link JournalCheckpointRepository} instance used to load and advance the checkpoint.
+     */
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    /**
+     * The {@link TransactionTemplate} used to write each batch and its checkpoint in one transaction.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The {@link MeterRegistry} to which the projection lag is published.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The largest number of records projected in one transaction.
+     * Configured with the {@code orders.journal.projector.batch-size} property.
+     */
+    @Value("${orders.journal.projector.batch-size:1000}")
+    private int batchSize = 1000;
+
+    /**
+     * Whether projected segments are deleted from the journal.
+     * Configured with the {@code orders.journal.projector.release-segments} property.
+     */
+    @Value("${orders.journal.projector.release-segments:false}")
+    private boolean releaseSegments;
+
+    /**
+     * Ensures that only one projection runs at a time.
+     */
+    private final ReentrantLock projectLock = new ReentrantLock();
+
+    /**
+     * The sequence number of the last projected record.
+     */
+    private volatile long checkpoint;
+
+    /**
+     * Loads the checkpoint and registers the lag gauge.
+     *
+     * @throws IllegalArgumentException if the batch size is not positive.
+     */
+    @PostConstruct
+    public void init() {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Projector batch size must be positive");
+        }
+        checkpoint = checkpointRepository.findById(CHECKPOINT).map(JournalCheckpoint::getSequence).orElse(0L);
+        Gauge.builder("orders.journal.projector.lag", this, OrderJournalProjector::getLag)
+                .description("Number of durable journal records not yet projected into the tables")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Projects every durable record after the checkpoint. A projection that is requested while another one is
+     * running is skipped.
+     */
+    @Scheduled(fixedDelayString = "${orders.journal.projector.interval-ms:100}")
+    public void project() {
+        if (projectLock.tryLock()) {
+            try {
+                projectAll();
+            } finally {
+                projectLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Projects the remaining records before the application shuts down, waiting for a running projection to complete.
+     */
+    @PreDestroy
+    public void shutdown() {
+        projectLock.lock();
+        try {
+            projectAll();
+        } finally {
+            projectLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of durable records that have not been projected yet.
+     *
+     * @return the projection lag in records.
+     */
+    public long getLag() {
+        return Math.max(0, journal.getDurableSequence() - checkpoint);
+    }
+
+    private void projectAll() {
+        List<OrderJournal.Entry> entries;
+        do {
+            entries = journal.read(checkpoint, batchSize);
+            if (!entries.isEmpty()) {
+                projectBatch(entries);
+            }
+        } while (entries.size() == batchSize);
+        if (releaseSegments) {
+            journal.release(checkpoint);
+        }
+    }
+
+    private void projectBatch(List<OrderJournal.Entry> entries) {
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> payments = new ArrayList<>();
+        for (OrderJournal.Entry entry : entries) {
+            if (entry.order() != null) {
+                Order order = entry.order();
+                orders.add(new Object[]{order.getId(), order.getProductId(), order.getProductKey(),
+                        order.getQuantity(), order.getAmount(), order.getStatus(), order.getVersion()});
+            } else {
+                Payment payment = entry.payment();
+                payments.add(new Object[]{payment.getId(), payment.getOrderId(), payment.getAmount(),
+                        payment.getStatus(), payment.getVersion()});
+            }
+        }
+        long last = entries.get(entries.size() - 1).sequence();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Rows are merged in sequence order, so that the last record of an order or payment wins
+            if (!orders.isEmpty()) {
+                jdbcTemplate.batchUpdate(MERGE_ORDER, orders, new int[]{Types.BIGINT, Types.VARCHAR, Types.INTEGER,
+                        Types.INTEGER, Types.DOUBLE, Types.VARCHAR, Types.BIGINT});
+            }
+            if (!payments.isEmpty()) {
+                jdbcTemplate.batchUpdate(MERGE_PAYMENT, payments, new int[]{Types.BIGINT, Types.VARCHAR,
+                        Types.DOUBLE, Types.VARCHAR, Types.BIGINT});
+            }
+            JournalCheckpoint journalCheckpoint = new JournalCheckpoint();
+            journalCheckpoint.setName(CHECKPOINT);
+            journalCheckpoint.setSequence(last);
+            checkpointRepository.save(journalCheckpoint);
+        });
+        checkpoint = last;
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.ordermicroservice.service;
 
+import com.example.ordermicroservice.exception.ResourceNotFoundException;
 import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderPage;
+import com.example.ordermicroservice.model.OrderSummary;
 import com.example.ordermicroservice.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * The {@code OrderService} class is a service layer component responsible for handling business logic
@@ -13,6 +22,11 @@ import org.springframework.stereotype.Service;
  * <p>This class is annotated with {@link Service} to indicate that it is a Spring-managed service
  * component. It uses dependency injection to autowire the {@link OrderRepository} for database interactions.
  *
+ * <p>When the {@link OrderJournal} is enabled, single orders saved outside a transaction are appended to the journal
+ * instead, and reach the {@code orders} table, and {@link #getOrder(Long)} and {@link #findOrders}, once the
+ * {@link OrderJournalProjector} has projected them. Orders saved inside a transaction, such as batches and imports,
+ * are still saved directly so that they stay part of that transaction.
+ *
  * @author Your Name
  * @version 1.0
  * @since 2023-10-01
@@ -23,6 +37,11 @@ import org.springframework.stereotype.Service;
 @Service
 public class OrderService {
 
+    /**
+     * The largest number of orders that can be requested in one page.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
     /**
      * The {@link OrderRepository} instance used to interact with the database.
      * This field is autowired by Spring to inject the repository dependency.
@@ -30,11 +49,31 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    /**
+     * The {@link SnowflakeIdGenerator} that assigns the ID of every new order before it is saved.
+     */
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    /**
+     * The {@link ProductKeyDictionary} that stamps new orders with the integer key of their product when
+     * {@code inventory.product-keys.enabled} is {@code true}; {@code null} otherwise.
+     */
+    @Autowired(required = false)
+    private ProductKeyDictionary productKeyDictionary;
+
+    /**
+     * The {@link OrderJournal} to which orders are appended when {@code orders.journal.enabled} is {@code true};
+     * {@code null} otherwise.
+     */
+    @Autowired(required = false)
+    private OrderJournal orderJournal;
+
     /**
      * Creates a new order and saves it to the database.
      *
-     * <p>This method sets the status of the order to "CREATED" and then uses the {@link OrderRepository}
-     * to persist the order in the database.
+     * <p>This method sets the status of the order to "CREATED", assigns it an ID if it does not have one yet,
+     * and then uses the {@link OrderRepository} to persist the order in the database.
      *
      * @param order the {@link Order} object to be created (must not be {@code null}).
      * @return the saved {@link Order} entity with updated fields (e.g., ID, status).
@@ -45,6 +84,193 @@ public class OrderService {
             throw new IllegalArgumentException("Order cannot be null");
         }
         order.setStatus("CREATED");
+        assignId(order);
+        assignProductKey(order);
+        return save(order);
+    }
+
+    /**
+     * Creates a batch of orders and saves them to the database together.
+     *
+     * <p>This method sets the status of every order to "CREATED" and persists them with a single
+     * {@code saveAll} call so that Hibernate can send the inserts to the database as one JDBC batch.
+     *
+     * @param orders the {@link Order} objects to be created (must not be {@code null}).
+     * @return the saved {@link Order} entities with updated fields (e.g., ID, status).
+     * @throws IllegalArgumentException if the order list or any order in it is {@code null}.
+     */
+    public List<Order> createOrders(List<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders cannot be null");
+        }
+        for (Order order : orders) {
+            if (order == null) {
+                throw new IllegalArgumentException("Order cannot be null");
+            }
+            order.setStatus("CREATED");
+            assignId(order);
+            assignProductKey(order);
+        }
+        return orderRepository.saveAll(orders);
+    }
+
+    /**
+     * Assigns the integer keys of the given products, if the product key dictionary is enabled.
+     *
+     * <p>A key is assigned, and stamped on the inventory record of its product, in a transaction of its own. A caller
+     * that locks inventory records must therefore call this method before taking the locks, or the assignment would
+     * wait on a record locked by the caller's own transaction.
+     *
+     * @param productIds the IDs of the products (must not be {@code null}).
+     */
+    public void assignProductKeys(Collection<String> productIds) {
+        if (productKeyDictionary != null) {
+            productIds.forEach(productKeyDictionary::keyOf);
+        }
+    }
+
+    /**
+     * Cancels an order that was created but could not be completed.
+     *
+     * <p>This method sets the status of the order to "CANCELLED" and saves it. It is used to compensate
+     * for an order whose inventory update failed after the order had already been created.
+     *
+     * @param order the {@link Order} object to be cancelled (must not be {@code null}).
+     * @return the saved {@link Order} entity with its status set to "CANCELLED".
+     * @throws IllegalArgumentException if the provided order is {@code null}.
+     */
+    public Order cancelOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        order.setStatus("CANCELLED");
+        return save(order);
+    }
+
+    /**
+     * Persists a new order with the status "PENDING" so that it can be processed asynchronously.
+     *
+     * @param order the {@link Order} object to be accepted (must not be {@code null}).
+     * @return the saved {@link Order} entity with its generated ID and the status "PENDING".
+     * @throws IllegalArgumentException if the provided order is {@code null}.
+     */
+    public Order createPendingOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        order.setStatus("PENDING");
+        assignId(order);
+        assignProductKey(order);
+        return save(order);
+    }
+
+    /**
+     * Updates the status of an existing order and saves it.
+     *
+     * @param order the {@link Order} object to be updated (must not be {@code null}).
+     * @param status the new status of the order.
+     * @return the saved {@link Order} entity with its updated status.
+     * @throws IllegalArgumentException if the provided order is {@code null}.
+     */
+    public Order updateStatus(Order order, String status) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        order.setStatus(status);
+        return save(order);
+    }
+
+    /**
+     * Retrieves an order by its ID, in a read-only transaction.
+     *
+     * @param id the ID of the order (must not be {@code null}).
+     * @return the {@link Order} entity with the given ID.
+     * @throws IllegalArgumentException if the provided ID is {@code null}.
+     * @throws ResourceNotFoundException if no order exists with the given ID.
+     */
+    @Transactional(readOnly = true)
+    public Order getOrder(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Order ID cannot be null");
+        }
+        return orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
+    }
+
+    /**
+     * Finds one page of orders, optionally filtered by product ID and status, in ascending order of their ID.
+     *
+     * <p>Pages are read by keyset: a page starts after the ID passed as {@code afterId}, which is the
+     * {@code nextAfterId} of the previous page, so each page is a bounded index seek no matter how many orders
+     * precede it. One order more than requested is read to tell whether another page follows.
+     *
+     * @param productId the ID of the product to filter by, or {@code null} for all products.
+     * @param status the status to filter by, or {@code null} for all statuses.
+     * @param afterId the ID after which the page starts, or {@code null} for the first page.
+     * @param limit the maximum number of orders in the page, between {@code 1} and {@link #MAX_PAGE_SIZE}.
+     * @return the {@link OrderPage} with the orders found and the ID after which the next page starts.
+     * @throws IllegalArgumentException if the limit is out of range.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage findOrders(String productId, String status, Long afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long after = afterId == null ? Long.MIN_VALUE : afterId;
+        Limit window = Limit.of(limit + 1);
+        List<OrderSummary> orders;
+        if (productId != null && status != null) {
+            orders = orderRepository.findByProductIdAndStatusAndIdGreaterThanOrderByIdAsc(productId, status, after, window);
+        } else if (productId != null) {
+            orders = orderRepository.findByProductIdAndIdGreaterThanOrderByIdAsc(productId, after, window);
+        } else if (status != null) {
+            orders = orderRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, after, window);
+        } else {
+            orders = orderRepository.findByIdGreaterThanOrderByIdAsc(after, window);
+        }
+        if (orders.size() <= limit) {
+            return new OrderPage(orders, null);
+        }
+        List<OrderSummary> page = orders.subList(0, limit);
+        return new OrderPage(page, page.get(limit - 1).id());
+    }
+
+    /**
+     * Assigns an ID to an order that does not have one yet, so that its payment can reference it before the order
+     * is saved.
+     *
+     * @param order the {@link Order} object to assign an ID to (must not be {@code null}).
+     * @return the same order, with its ID set.
+     * @throws IllegalArgumentException if the provided order is {@code null}.
+     */
+    public Order assignId(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        if (order.getId() == null) {
+            order.setId(idGenerator.nextId());
+        }
+        return order;
+    }
+
+    /**
+     * Appends an order to the journal if it is enabled and the caller is not in a transaction, and saves it to the
+     * database otherwise.
+     */
+    private Order save(Order order) {
+        if (orderJournal != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            orderJournal.append(order);
+            return order;
+        }
         return orderRepository.save(order);
     }
-}
\ No newline at end of file
+
+    /**
+     * Stamps an order with the integer key of its product, if the product key dictionary is enabled.
+     */
+    private void assignProductKey(Order order) {
+        if (productKeyDictionary != null && order.getProductKey() == null && order.getProductId() != null) {
+            order.setProductKey(productKeyDictionary.keyOf(order.getProductId()));
+        }
+    }
+}
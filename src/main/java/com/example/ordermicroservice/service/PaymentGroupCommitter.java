@@ -0,0 +1,236 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Payment;
+import com.example.ordermicroservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code PaymentGroupCommitter} class writes the payments of concurrent callers together, so that the cost of a
+ * commit, and of the log flush behind it, is shared by many payments instead of being paid by each of them.
+ *
+ * <p>Callers of {@link #save(Payment)} put their payment on a queue and wait for it. A single flusher thread takes
+ * the first waiting payment, collects the ones that arrive within the next {@code payments.group-commit.window-ms}
+ * milliseconds, up to {@code payments.group-commit.max-batch-size} payments, and saves them with one batched
+ * {@code saveAll} in one transaction. Every caller then returns once its own payment is committed. If the batch
+ * fails, its payments are saved again one by one, each in its own transaction, so that one bad payment only fails its
+ * own caller.
+ *
+ * <p>The size of every batch is published as the {@code payments.group-commit.batch-size} distribution summary, and
+ * the time from enqueueing a payment to its commit as the {@code payments.group-commit.wait} timer.
+ *
+ * <p>This class is only registered when the {@code payments.group-commit.enabled} property is {@code true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see PaymentService
+ * @see PaymentRepository
+ */
+@Component
+@ConditionalOnProperty(name = "payments.group-commit.enabled", havingValue = "true")
+public class PaymentGroupCommitter {
+
+    /**
+     * The interval in milliseconds at which an idle flusher thread checks whether it has been stopped.
+     */
+    private static final long IDLE_POLL_MS = 100;
+
+    /**
+     * The {@link PaymentRepository} instance used to save each batch.
+     */
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    /**
+     * The {@link TransactionTemplate} used to save each batch in one transaction.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The {@link MeterRegistry} to which the batch sizes and wait times are published.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The number of milliseconds the flusher waits for more payments after the first one of a batch.
+     * Configured with the {@code payments.group-commit.window-ms} property.
+     */
+    @Value("${payments.group-commit.window-ms:2}")
+    private long windowMs = 2;
+
+    /**
+     * The largest number of payments saved in one transaction.
+     * Configured with the {@code payments.group-commit.max-batch-size} property.
+     */
+    @Value("${payments.group-commit.max-batch-size:100}")
+    private int maxBatchSize = 100;
+
+    /**
+     * The payments waiting to be saved. It holds at most one payment per waiting caller.
+     */
+    private final BlockingQueue<PendingPayment> queue = new LinkedBlockingQueue<>();
+
+    private DistributionSummary batchSize;
+    private Timer waitTimer;
+    private Thread flusher;
+    private volatile boolean running;
+
+    /**
+     * Registers the metrics and starts the flusher thread.
+     *
+     * @throws IllegalArgumentException if the window is negative or the maximum batch size is not positive.
+     */
+    @PostConstruct
+    public void init() {
+        if (windowMs < 0 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Group commit window must not be negative and batch size must be positive");
+        }
+        batchSize = DistributionSummary.builder("payments.group-commit.batch-size")
+                .description("Number of payments saved in one group commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        waitTimer = Timer.builder("payments.group-commit.wait")
+                .description("Time from enqueueing a payment to its commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        running = true;
+        flusher = Thread.ofPlatform().name("payment-group-commit").daemon().start(this::run);
+    }
+
+    /**
+     * Stops the flusher thread after it has saved the payments it already collected, then saves the payments that
+     * are still queued.
+     *
+     * @throws InterruptedException if interrupted while waiting for the flusher thread to stop.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.join();
+        List<PendingPayment> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, maxBatchSize) > 0) {
+            commit(remaining);
+            remaining.clear();
+        }
+    }
+
+    /**
+     * Saves a payment with the next group commit and waits until it is committed.
+     *
+     * @param payment the {@link Payment} to save (must not be {@code null}).
+     * @throws IllegalArgumentException if the provided payment is {@code null}.
+     * @throws IllegalStateException if the committer has been shut down.
+     * @throws RuntimeException the exception with which saving the payment failed.
+     */
+    public void save(Payment payment) {
+        if (payment == null) {
+            throw new IllegalArgumentException("Payment cannot be null");
+        }
+        if (!running) {
+            throw new IllegalStateException("Payment group commit has been shut down");
+        }
+        PendingPayment pending = new PendingPayment(payment, new CompletableFuture<>(), System.nanoTime());
+        queue.add(pending);
+        // A payment enqueued after the shutdown drained the queue is taken back, since nothing would save it
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException("Payment group commit has been shut down");
+        }
+        try {
+            pending.committed().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void run() {
+        List<PendingPayment> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingPayment first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingPayment next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Saves a batch of payments in one transaction and completes their callers, falling back to one transaction per
+     * payment if the batch fails.
+     */
+    private void commit(List<PendingPayment> batch) {
+        batchSize.record(batch.size());
+        List<Payment> payments = batch.stream().map(PendingPayment::payment).toList();
+        List<Long> versions = payments.stream().map(Payment::getVersion).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> paymentRepository.saveAll(payments));
+            batch.forEach(this::complete);
+        } catch (RuntimeException batchFailure) {
+            for (int i = 0; i < batch.size(); i++) {
+                PendingPayment pending = batch.get(i);
+                // Hibernate seeds the version of a new payment when it is persisted, so the rolled-back
+                // version is reset for the payment to be inserted again rather than merged
+                pending.payment().setVersion(versions.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> paymentRepository.save(pending.payment()));
+                    complete(pending);
+                } catch (RuntimeException ex) {
+                    pending.committed().completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    private void complete(PendingPayment pending) {
+        waitTimer.record(System.nanoTime() - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        pending.committed().complete(null);
+    }
+
+    /**
+     * A payment waiting for its group commit, with the future its caller waits on and the time it was enqueued.
+     */
+    private record PendingPayment(Payment payment, CompletableFuture<Void> committed, long enqueuedAt) {
+    }
+}
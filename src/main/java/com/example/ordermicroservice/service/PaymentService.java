@@ -4,6 +4,9 @@ import com.example.ordermicroservice.model.Payment;
 import com.example.ordermicroservice.repository.PaymentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
 
 /**
  * The {@code PaymentService} class is a service layer component responsible for handling business logic
@@ -30,6 +33,26 @@ public class PaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    /**
+     * The {@link SnowflakeIdGenerator} that assigns the ID of every new payment before it is saved.
+     */
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    /**
+     * The {@link PaymentGroupCommitter} that saves the payments of concurrent callers in shared transactions when
+     * {@code payments.group-commit.enabled} is {@code true}; {@code null} otherwise.
+     */
+    @Autowired(required = false)
+    private PaymentGroupCommitter groupCommitter;
+
+    /**
+     * The {@link OrderJournal} to which payments are appended when {@code orders.journal.enabled} is {@code true};
+     * {@code null} otherwise. It takes precedence over group commit, since it already forces its appends in groups.
+     */
+    @Autowired(required = false)
+    private OrderJournal orderJournal;
+
     /**
      * Processes a payment by setting its status to "SUCCESS" and saving it to the database.
      *
@@ -37,6 +60,12 @@ public class PaymentService {
      * using the {@link PaymentRepository}. It assumes that the payment processing is always successful
      * and returns {@code true} to indicate success.
      *
+     * <p>If group commit is enabled and the caller is not in a transaction, the payment is saved by the
+     * {@link PaymentGroupCommitter} together with the payments of concurrent callers, and this method returns once it
+     * is committed. If the {@link OrderJournal} is enabled, the payment is appended to it instead, and this method
+     * returns once the record is on disk. Inside a transaction the payment is saved directly, so that it stays part of
+     * that transaction.
+     *
      * @param payment the {@link Payment} object to be processed (must not be {@code null}).
      * @return {@code true} to indicate that the payment was processed successfully.
      * @throws IllegalArgumentException if the provided payment is {@code null}.
@@ -46,7 +75,72 @@ public class PaymentService {
             throw new IllegalArgumentException("Payment cannot be null");
         }
         payment.setStatus("SUCCESS");
-        paymentRepository.save(payment);
+        assignId(payment);
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        if (orderJournal != null && !inTransaction) {
+            orderJournal.append(payment);
+        } else if (groupCommitter != null && !inTransaction) {
+            groupCommitter.save(payment);
+        } else {
+            paymentRepository.save(payment);
+        }
+        return true;
+    }
+
+    /**
+     * Processes a batch of payments by setting each status to "SUCCESS" and saving them together.
+     *
+     * <p>All payments are written with a single {@code saveAll} call so that Hibernate can send the
+     * inserts to the database as one JDBC batch. Like {@link #processPayment(Payment)}, this method
+     * assumes that payment processing is always successful.
+     *
+     * @param payments the {@link Payment} objects to be processed (must not be {@code null}).
+     * @return {@code true} to indicate that the payments were processed successfully.
+     * @throws IllegalArgumentException if the payment list or any payment in it is {@code null}.
+     */
+    public boolean processPayments(List<Payment> payments) {
+        if (payments == null) {
+            throw new IllegalArgumentException("Payments cannot be null");
+        }
+        for (Payment payment : payments) {
+            if (payment == null) {
+                throw new IllegalArgumentException("Payment cannot be null");
+            }
+            payment.setStatus("SUCCESS");
+            assignId(payment);
+        }
+        paymentRepository.saveAll(payments);
         return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Refunds a previously processed payment by setting its status to "REFUNDED" and saving it.
+     *
+     * <p>This method is used to compensate for a payment whose order could not be completed. Like
+     * {@link #processPayment(Payment)}, it appends the payment to the {@link OrderJournal} when it is enabled and the
+     * caller is not in a transaction.
+     *
+     * @param payment the {@link Payment} object to be refunded (must not be {@code null}).
+     * @throws IllegalArgumentException if the provided payment is {@code null}.
+     */
+    public void refundPayment(Payment payment) {
+        if (payment == null) {
+            throw new IllegalArgumentException("Payment cannot be null");
+        }
+        payment.setStatus("REFUNDED");
+        if (orderJournal != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            orderJournal.append(payment);
+        } else {
+            paymentRepository.save(payment);
+        }
+    }
+
+    /**
+     * Assigns an ID to a payment that does not have one yet.
+     */
+    private void assignId(Payment payment) {
+        if (payment.getId() == null) {
+            payment.setId(idGenerator.nextId());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.ProductKey;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import com.example.ordermicroservice.repository.ProductKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code ProductKeyDictionary} class maps product ID strings to dense integer surrogate keys, so that the
+ * inventory lookup path can compare fixed-width integers instead of variable-length strings and the
+ * {@code orders} and {@code inventory} rows and indexes shrink.
+ *
+ * <p>Keys are stored in the {@code product_key} table and assigned in insertion order the first time a product is
+ * ordered or restocked. Assignment runs in its own transaction, so a key is never rolled back together with the
+ * order that caused it and a cached key always exists in the table. When a key is assigned, it is also stamped on
+ * the product's inventory record. Every key that has been read or assigned is cached for the lifetime of the
+ * application, which is bounded by the size of the catalog.
+ *
+ * <p>Lookups through {@link #find(String)} never assign a key, so that checks for unknown products do not grow the
+ * dictionary; callers fall back to the product ID when no key is known. Products found without a key are remembered
+ * in a bounded Caffeine cache of {@code inventory.product-keys.miss-cache-size} entries for
+ * {@code inventory.product-keys.miss-expire-after-write-ms} milliseconds, so that their lookups do not query the
+ * {@code product_key} table every time. A key assigned by another instance in the meantime is only picked up once the
+ * entry expires, which is safe since the product ID still finds the record.
+ *
+ * <p>This class is only registered when the {@code inventory.product-keys.enabled} property is {@code true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see ProductKey
+ * @see InventoryService
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.product-keys.enabled", havingValue = "true")
+public class ProductKeyDictionary {
+
+    /**
+     * The {@link ProductKeyRepository} instance used to read and assign keys.
+     */
+    @Autowired
+    private ProductKeyRepository productKeyRepository;
+
+    /**
+     * The {@link InventoryRepository} instance used to stamp newly assigned keys on inventory records.
+     */
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * The {@link PlatformTransactionManager} from which the independent assignment transaction is created.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * The maximum number of products without a key that are remembered.
+     * Configured with the {@code inventory.product-keys.miss-cache-size} property.
+     */
+    @Value("${inventory.product-keys.miss-cache-size:10000}")
+    private long missCacheSize = 10000;
+
+    /**
+     * The number of milliseconds for which a product without a key is remembered.
+     * Configured with the {@code inventory.product-keys.miss-expire-after-write-ms} property.
+     */
+    @Value("${inventory.product-keys.miss-expire-after-write-ms:60000}")
+    private long missExpireAfterWriteMs = 60000;
+
+    /**
+     * The products found without a key, whose lookups are answered without a query until they expire.
+     */
+    private Cache<String, Boolean> misses;
+
+    /**
+     * The {@link TransactionTemplate} that assigns keys in a new transaction, independent of the caller's.
+     */
+    private TransactionTemplate assignmentTemplate;
+
+    /**
+     * The key of every product that has been read or assigned, keyed by product ID.
+     */
+    private final Map<String, Integer> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the template of the independent assignment transaction and the cache of products without a key.
+     */
+    @PostConstruct
+    public void init() {
+        misses = Caffeine.newBuilder()
+                .maximumSize(missCacheSize)
+                .expireAfterWrite(Duration.ofMillis(missExpireAfterWriteMs))
+                .build();
+        assignmentTemplate = new TransactionTemplate(transactionManager);
+        assignmentTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the key of a product without assigning one.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @return the key of the product, or {@code null} if no key has been assigned yet.
+     */
+    public Integer find(String productId) {
+        Integer key = keys.get(productId);
+        if (key != null || misses.getIfPresent(productId) != null) {
+            return key;
+        }
+        ProductKey entry = productKeyRepository.findByProductId(productId);
+        if (entry == null) {
+            misses.put(productId, Boolean.TRUE);
+            return null;
+        }
+        return cache(productId, entry.getId());
+    }
+
+    /**
+     * Returns the key of a product, assigning the next key if the product does not have one yet.
+     *
+     * <p>If two callers assign a key to the same product concurrently, the unique index on the product ID rejects
+     * the second insert and the second caller reads the key of the first.
+     *
+     * @param productId the ID of the product (must not be {@code null}).
+     * @return the key of the product.
+     */
+    public int keyOf(String productId) {
+        Integer key = find(productId);
+        if (key != null) {
+            return key;
+        }
+        try {
+            key = assignmentTemplate.execute(status -> {
+                ProductKey entry = new ProductKey();
+                entry.setProductId(productId);
+                Integer assigned = productKeyRepository.save(entry).getId();
+                inventoryRepository.assignProductKey(productId, assigned);
+                return assigned;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            key = assignmentTemplate.execute(status -> productKeyRepository.findByProductId(productId).getId());
+        }
+        return cache(productId, key);
+    }
+
+    private Integer cache(String productId, Integer key) {
+        misses.invalidate(productId);
+        Integer existing = keys.putIfAbsent(productId, key);
+        return existing == null ? key : existing;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.ResourceNotFoundException;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.Payment;
+import com.example.ordermicroservice.repository.ReactiveInventoryRepository;
+import com.example.ordermicroservice.repository.ReactiveOrderRepository;
+import com.example.ordermicroservice.repository.ReactivePaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code ReactiveOrchestrator} class is the non-blocking counterpart of {@link Orchestrator}: it runs the same
+ * order processing workflow, but every step is a {@link Mono} over R2DBC, so that no thread waits for the database
+ * and a few event-loop threads can keep many orders in flight.
+ *
+ * <p>The workflow and its results are those of {@link Orchestrator#processOrder(Order)} in the sequential mode: the
+ * inventory is checked, the payment saved, the order created and the stock decremented with a single conditional
+ * {@code UPDATE}, as with the {@link InventoryConcurrencyStrategy#CONDITIONAL_UPDATE} strategy. If a concurrent order
+ * took the stock in the meantime, the order is cancelled and the payment refunded; if the order cannot be created,
+ * the payment is refunded and the error emitted. The step latencies and failures
+ * are recorded in the same {@code orchestrator.step} timer and {@code orchestrator.failures} counter, so that both
+ * stacks can be compared on the same dashboards.
+ *
+ * <p>The optional components of the blocking stack, such as the reservation ledger, the inventory cache, bucketed
+ * stock and payment group commit, are not used.
+ *
+ * <p>This class is only registered in the {@code reactive} profile.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Orchestrator
+ * @see ReactiveOrderRepository
+ * @see ReactivePaymentRepository
+ * @see ReactiveInventoryRepository
+ */
+@Service
+@Profile("reactive")
+public class ReactiveOrchestrator {
+
+    private static final String SUCCESS = "Order processed successfully";
+    private static final String INSUFFICIENT_INVENTORY = "Order failed: Insufficient inventory";
+
+    private static final String STEP_TIMER = "orchestrator.step";
+    private static final String FAILURE_COUNTER = "orchestrator.failures";
+
+    /**
+     * The {@link ReactiveOrderRepository} instance used to create and cancel orders.
+     */
+    @Autowired
+    private ReactiveOrderRepository orderRepository;
+
+    /**
+     * The {@link ReactivePaymentRepository} instance used to save and refund payments.
+     */
+    @Autowired
+    private ReactivePaymentRepository paymentRepository;
+
+    /**
+     * The {@link ReactiveInventoryRepository} instance used to check and decrement inventory levels.
+     */
+    @Autowired
+    private ReactiveInventoryRepository inventoryRepository;
+
+    /**
+     * The {@link SnowflakeIdGenerator} that assigns the IDs of orders and payments.
+     */
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    /**
+     * The {@link MeterRegistry} that records the latency of every workflow step and every failed order.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer inventoryCheckTimer;
+    private Timer paymentTimer;
+    private Timer orderCreateTimer;
+    private Timer inventoryUpdateTimer;
+
+    /**
+     * Registers the timer of every workflow step once, so that recording a step does not look it up in the registry.
+     */
+    @PostConstruct
+    public void init() {
+        inventoryCheckTimer = stepTimer("inventory.check");
+        paymentTimer = stepTimer("payment");
+        orderCreateTimer = stepTimer("order.create");
+        inventoryUpdateTimer = stepTimer("inventory.update");
+    }
+
+    /**
+     * Processes an order by checking the inventory, saving the payment, creating the order and decrementing the
+     * inventory, each step starting when the previous one completes.
+     *
+     * <p>Nothing happens until the returned {@link Mono} is subscribed to. An order without an ID is assigned one
+     * first, so that the payment can reference the order before the order has been saved.
+     *
+     * @param order the {@link Order} object to be processed (must not be {@code null}).
+     * @return a {@link Mono} emitting the same messages as {@link Orchestrator#processOrder(Order)}, such as
+     *         "Order processed successfully" or "Order failed: Insufficient inventory".
+     * @throws IllegalArgumentException if the provided order is {@code null}.
+     */
+    public Mono<String> processOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        if (order.getProductId() == null || order.getProductId().isEmpty()) {
+            throw new IllegalArgumentException("Product ID cannot be null or empty");
+        }
+        return Mono.defer(() -> {
+            if (order.getId() == null) {
+                order.setId(idGenerator.nextId());
+            }
+            Payment payment = new Payment();
+            payment.setOrderId(order.getId().toString());
+            payment.setAmount(order.getAmount());
+
+            // Step 1: Check inventory
+            return timed(inventoryCheckTimer, inventoryRepository.findByProductId(order.getProductId())
+                    .map(inventory -> inventory.getQuantity() >= order.getQuantity())
+                    .defaultIfEmpty(false))
+                    .flatMap(available -> available
+                            ? placeOrder(order, payment)
+                            : Mono.fromSupplier(() -> failed(INSUFFICIENT_INVENTORY)));
+        });
+    }
+
+    /**
+     * Retrieves an order by its ID.
+     *
+     * @param id the ID of the order (must not be {@code null}).
+     * @return a {@link Mono} emitting the order, or a {@link ResourceNotFoundException} if no order exists with the
+     *         given ID.
+     * @throws IllegalArgumentException if the provided ID is {@code null}.
+     */
+    public Mono<Order> getOrder(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Order ID cannot be null");
+        }
+        return orderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Order not found with ID: " + id)));
+    }
+
+    /**
+     * Runs the steps that follow a successful inventory check.
+     */
+    private Mono<String> placeOrder(Order order, Payment payment) {
+        // Step 2: Process payment
+        return timed(paymentTimer, Mono.defer(() -> {
+                    payment.setId(idGenerator.nextId());
+                    payment.setStatus("SUCCESS");
+                    return paymentRepository.insert(payment);
+                }))
+                // Step 3: Create order, refunding the payment if the order cannot be saved
+                .then(timed(orderCreateTimer, Mono.defer(() -> {
+                    order.setStatus("CREATED");
+                    return orderRepository.insert(order);
+                })).onErrorResume(ex -> refund(payment).then(Mono.error(ex))))
+                // Step 4: Update inventory, compensating if the stock was taken by a concurrent order
+                .then(timed(inventoryUpdateTimer,
+                        inventoryRepository.decrementQuantity(order.getProductId(), order.getQuantity())))
+                .flatMap(updated -> updated == 1 ? Mono.just(SUCCESS) : compensate(order, payment));
+    }
+
+    /**
+     * Cancels an order and refunds its payment after its stock was taken by a concurrent order.
+     */
+    private Mono<String> compensate(Order order, Payment payment) {
+        order.setStatus("CANCELLED");
+        return orderRepository.updateStatus(order)
+                .then(refund(payment))
+                .then(Mono.fromSupplier(() -> failed(INSUFFICIENT_INVENTORY)));
+    }
+
+    /**
+     * Sets the status of a saved payment to "REFUNDED".
+     */
+    private Mono<Long> refund(Payment payment) {
+        return Mono.defer(() -> {
+            payment.setStatus("REFUNDED");
+            return paymentRepository.updateStatus(payment);
+        });
+    }
+
+    /**
+     * Records the time from subscribing to a step until it terminates in the timer of the step.
+     */
+    private <T> Mono<T> timed(Timer timer, Mono<T> action) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return action.doFinally(signal -> sample.stop(timer));
+        });
+    }
+
+    /**
+     * Registers the timer of a workflow step with a percentile histogram.
+     */
+    private Timer stepTimer(String step) {
+        return Timer.builder(STEP_TIMER)
+                .tag("step", step)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a failed order, tagged with its failure reason, and returns the failure message.
+     */
+    private String failed(String result) {
+        String reason = result.equals(INSUFFICIENT_INVENTORY) ? "insufficient_inventory" : "payment_failed";
+        meterRegistry.counter(FAILURE_COUNTER, "reason", reason).increment();
+        return result;
+    }
+}
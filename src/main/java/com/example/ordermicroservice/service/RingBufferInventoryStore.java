@@ -0,0 +1,600 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code RingBufferInventoryStore} class is an {@link InventoryStore} in which a single writer thread owns the
+ * stock of every product, so that checks and changes are applied one after another without locks and without
+ * contention, however many callers order the same hot product.
+ *
+ * <p>Callers do not touch the stock. Every check, decrement, increment, restock and batch deduction is written into
+ * the next slot of a ring of pre-allocated commands and published by its sequence number; the caller then waits on a
+ * {@link CompletableFuture} that the writer completes with the result. The writer applies the published commands in
+ * sequence to an {@link InMemoryInventoryStore} that only it uses, and records the change each command made in its
+ * slot. A second thread follows the writer through the ring, adds up the changes per product and writes them to the
+ * {@code inventory} table through the {@link InventoryRepository}, one batched transaction for everything the writer
+ * applied since the previous one. A slot is reused once this thread has passed it, so when persistence falls behind by
+ * a whole ring, callers wait for it.
+ *
+ * <p>Producers claim sequence numbers with a compare-and-set on a shared counter. The writer waits for work by
+ * spinning, then yielding, then parking until the next producer unparks it, the persister parks for a few
+ * microseconds instead, and callers spin and yield briefly on their result before they park, so that a busy store
+ * never makes a system call per command. Rejected decrements are reported to
+ * the caller as result codes, so the writer does not create an exception for every sold-out order.
+ *
+ * <p>On startup the stock is loaded from the {@code inventory} table, after the {@link InventorySnapshots} have
+ * restored the table if they are enabled. The table lags the stock by the batch being persisted; on a graceful
+ * shutdown every command published before it is applied and persisted. A failed batch is retried every
+ * {@code inventory.ring.persist-retry-ms} milliseconds, or dropped if the shutdown has begun, and counted by the
+ * {@code inventory.store.ring.persist.failures} counter, and the number of products per batch is published as the {@code inventory.store.ring.persist.batch-size}
+ * distribution summary. While this store is used, all inventory writes must go through it, so startup fails if the
+ * {@link InventoryReservationLedger} or the {@link InventoryBuckets}, which write the table themselves, are enabled.
+ *
+ * <p>This class is only registered when the {@code inventory.store} property is {@code ring}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryStore
+ * @see InMemoryInventoryStore
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.store", havingValue = "ring")
+public class RingBufferInventoryStore implements InventoryStore {
+
+    private static final int CHECK = 0;
+    private static final int DECREMENT = 1;
+    private static final int INCREMENT = 2;
+    private static final int RESTOCK = 3;
+    private static final int DEDUCT = 4;
+
+    /**
+     * The value of the claim counter once the store has been shut down.
+     */
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long WRITER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * The {@link InventoryRepository} instance used to persist the changes.
+     */
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * The {@link TransactionTemplate} used to lock and update all records of a persisted batch in one transaction.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The {@link JdbcTemplate} used to load the {@code inventory} table on startup.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The {@link MeterRegistry} to which the persisted batches are published.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The {@link InventorySnapshots} when {@code inventory.snapshot.enabled} is {@code true}; {@code null}
+     * otherwise. It is only injected so that the table has been restored before it is loaded.
+     */
+    @Autowired(required = false)
+    private InventorySnapshots inventorySnapshots;
+
+    /**
+     * The number of slots in the ring, a power of two.
+     * Configured with the {@code inventory.ring.buffer-size} property.
+     */
+    @Value("${inventory.ring.buffer-size:65536}")
+    private int bufferSize = 65536;
+
+    /**
+     * The maximum number of products written to the table in one transaction.
+     * Configured with the {@code inventory.ring.persist-batch-size} property.
+     */
+    @Value("${inventory.ring.persist-batch-size:10000}")
+    private int persistBatchSize = 10_000;
+
+    /**
+     * The delay in milliseconds before a failed batch is written again.
+     * Configured with the {@code inventory.ring.persist-retry-ms} property.
+     */
+    @Value("${inventory.ring.persist-retry-ms:1000}")
+    private long persistRetryMs = 1000;
+
+    /**
+     * Whether the {@link InventoryReservationLedger} is enabled, which cannot be combined with this store.
+     * Configured with the {@code inventory.ledger.enabled} property.
+     */
+    @Value("${inventory.ledger.enabled:false}")
+    private boolean ledgerEnabled;
+
+    /**
+     * Whether the {@link InventoryBuckets} are enabled, which cannot be combined with this store.
+     * Configured with the {@code inventory.buckets.enabled} property.
+     */
+    @Value("${inventory.buckets.enabled:false}")
+    private boolean bucketsEnabled;
+
+    /**
+     * The stock, only read and changed by the writer thread once it has started.
+     */
+    private final InMemoryInventoryStore state = new InMemoryInventoryStore();
+
+    /**
+     * The number of sequence numbers claimed by producers, or {@link #CLOSED} after the shutdown.
+     */
+    private final AtomicLong claimed = new AtomicLong();
+
+    /**
+     * The number of sequence numbers claimed before the shutdown, or {@code -1} while the store is running.
+     */
+    private volatile long end = -1;
+
+    /**
+     * Whether the writer has run out of commands and is about to park, so that the next producer unparks it.
+     */
+    private volatile boolean writerParked;
+
+    /**
+     * The sequence number of the last command applied by the writer.
+     */
+    private volatile long appliedSequence = -1;
+
+    /**
+     * The sequence number of the last command whose change has been collected by the persister.
+     */
+    private volatile long persistedSequence = -1;
+
+    private Command[] ring;
+
+    /**
+     * The sequence number of the command last published in every slot, or {@code -1} for a slot never used.
+     */
+    private long[] published;
+    private int mask;
+    private Thread writer;
+    private Thread persister;
+    private DistributionSummary persistBatch;
+    private Counter persistFailures;
+
+    /**
+     * Allocates the ring, loads the quantities of the {@code inventory} table, including split stock, and starts the
+     * writer and persister threads.
+     *
+     * @throws IllegalArgumentException if the buffer size is not a power of two or the batch size is not positive.
+     * @throws IllegalStateException if the reservation ledger or the inventory buckets are enabled.
+     */
+    @PostConstruct
+    public void init() {
+        if (ledgerEnabled || bucketsEnabled) {
+            throw new IllegalStateException(
+                    "inventory.store=ring cannot be combined with inventory.ledger.enabled or inventory.buckets.enabled");
+        }
+        if (Integer.bitCount(bufferSize) != 1 || persistBatchSize < 1) {
+            throw new IllegalArgumentException("Ring buffer size must be a power of two and batch size must be positive");
+        }
+        ring = new Command[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            ring[i] = new Command();
+        }
+        published = new long[bufferSize];
+        Arrays.fill(published, -1);
+        mask = bufferSize - 1;
+        state.load(jdbcTemplate);
+        persistBatch = DistributionSummary.builder("inventory.store.ring.persist.batch-size")
+                .description("Number of products written to the inventory table in one batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        persistFailures = Counter.builder("inventory.store.ring.persist.failures")
+                .description("Number of batches that failed to be written to the inventory table")
+                .register(meterRegistry);
+        writer = Thread.ofPlatform().name("inventory-ring-writer").daemon().start(this::runWriter);
+        persister = Thread.ofPlatform().name("inventory-ring-persister").daemon().start(this::runPersister);
+    }
+
+    /**
+     * Rejects new commands, then waits until every command published before has been applied and persisted.
+     *
+     * @throws InterruptedException if interrupted while waiting for the writer or persister thread to stop.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        long count = claimed.getAndSet(CLOSED);
+        if (count == CLOSED) {
+            return;
+        }
+        end = count;
+        LockSupport.unpark(writer);
+        writer.join();
+        persister.join();
+    }
+
+    @Override
+    public int getAvailable(String productId) {
+        return await(publish(CHECK, productId, 0, null));
+    }
+
+    @Override
+    public void decrement(String productId, int quantity) {
+        int remaining = await(publish(DECREMENT, productId, quantity, null));
+        if (remaining == InMemoryInventoryStore.NOT_FOUND) {
+            throw new IllegalStateException("Inventory record not found for product ID: " + productId);
+        }
+        if (remaining == InMemoryInventoryStore.INSUFFICIENT) {
+            throw new InsufficientInventoryException("Insufficient inventory for product ID: " + productId);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ArithmeticException if the quantity would overflow an {@code int}.
+     */
+    @Override
+    public boolean increment(String productId, int quantity) {
+        return await(publish(INCREMENT, productId, quantity, null)) != InMemoryInventoryStore.NOT_FOUND;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ArithmeticException if the quantity would overflow an {@code int}.
+     * @throws IllegalArgumentException if the product ID is longer than 65,535 characters.
+     */
+    @Override
+    public void restock(String productId, int quantity) {
+        await(publish(RESTOCK, productId, quantity, null));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException always, since buckets are rows of the {@code inventory_bucket} table.
+     */
+    @Override
+    public void split(String productId, int buckets) {
+        throw new IllegalStateException("Inventory buckets require the jpa inventory store");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The records are detached copies holding the current quantities, which are not locked.
+     */
+    @Override
+    public Map<String, Inventory> findInventories(Collection<String> productIds) {
+        Map<String, Inventory> inventories = HashMap.newHashMap(productIds.size());
+        for (String productId : productIds) {
+            int available = getAvailable(productId);
+            if (available >= 0) {
+                Inventory inventory = new Inventory();
+                inventory.setProductId(productId);
+                inventory.setQuantity(available);
+                inventories.put(productId, inventory);
+            }
+        }
+        return inventories;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>All deductions are applied by a single command, so either every product has enough stock and all of them
+     * are deducted, or none is. If the caller's transaction rolls back, the deductions are added back by one increment
+     * command per product, which is persisted like any other change.
+     *
+     * @throws IllegalStateException if a product is no longer in the store.
+     */
+    @Override
+    public void deductInventories(Map<String, Inventory> inventories, Map<String, Integer> deductions) {
+        Map<String, Integer> deducted = Map.copyOf(deductions);
+        await(publish(DEDUCT, null, 0, deducted));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        deducted.forEach(RingBufferInventoryStore.this::increment);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Claims the next slot of the ring, waiting while it still holds a command that has not been persisted, and
+     * publishes a command in it.
+     */
+    private CompletableFuture<Integer> publish(int type, String productId, int quantity, Map<String, Integer> deductions) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence == CLOSED) {
+                throw new IllegalStateException("Ring inventory store has been shut down");
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        for (int idle = 0; sequence - ring.length > persistedSequence; ) {
+            idle = backOff(idle);
+        }
+        int index = (int) sequence & mask;
+        Command command = ring[index];
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        command.type = type;
+        command.productId = productId;
+        command.quantity = quantity;
+        command.deductions = deductions;
+        command.result = result;
+        command.applied = false;
+        command.delta = 0;
+        LONGS.setVolatile(published, index, sequence);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for the result of a command, spinning and yielding briefly before parking since most commands are
+     * applied within microseconds.
+     */
+    private static int await(CompletableFuture<Integer> result) {
+        for (int idle = 0; idle < SPIN_TRIES + YIELD_TRIES && !result.isDone(); ) {
+            idle = backOff(idle);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void runWriter() {
+        long next = 0;
+        int idle = 0;
+        while (true) {
+            long sequence = next;
+            while ((long) LONGS.getAcquire(published, (int) sequence & mask) == sequence) {
+                apply(ring[(int) sequence & mask]);
+                sequence++;
+            }
+            if (sequence > next) {
+                appliedSequence = sequence - 1;
+                next = sequence;
+                idle = 0;
+            } else if (next == end) {
+                return;
+            } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+                idle = backOff(idle);
+            } else {
+                park(next);
+            }
+        }
+    }
+
+    /**
+     * Parks the writer until a producer publishes the given sequence number. The flag is raised before the slot is
+     * checked again, and producers check the flag after publishing, so a command published meanwhile is either seen
+     * here or unparks the writer; the timeout is only a safety net.
+     */
+    private void park(long sequence) {
+        writerParked = true;
+        if ((long) LONGS.getVolatile(published, (int) sequence & mask) != sequence && end < 0) {
+            LockSupport.parkNanos(this, WRITER_PARK_NANOS);
+        }
+        writerParked = false;
+    }
+
+    /**
+     * Applies a command to the stock, records the change it made for the persister and completes its caller.
+     */
+    private void apply(Command command) {
+        try {
+            command.result.complete(execute(command));
+        } catch (RuntimeException ex) {
+            command.result.completeExceptionally(ex);
+        }
+    }
+
+    private int execute(Command command) {
+        switch (command.type) {
+            case CHECK:
+                return state.getAvailable(command.productId);
+            case DECREMENT: {
+                int remaining = state.tryDecrement(command.productId, command.quantity);
+                if (remaining >= 0) {
+                    command.delta = -command.quantity;
+                    command.applied = true;
+                }
+                return remaining;
+            }
+            case INCREMENT:
+                if (!state.increment(command.productId, command.quantity)) {
+                    return InMemoryInventoryStore.NOT_FOUND;
+                }
+                command.delta = command.quantity;
+                command.applied = true;
+                return 0;
+            case RESTOCK:
+                state.restock(command.productId, command.quantity);
+                command.delta = command.quantity;
+                command.applied = true;
+                return 0;
+            default: {
+                // Nothing else writes to the stock, so the checks still hold when the deductions are made
+                for (Map.Entry<String, Integer> deduction : command.deductions.entrySet()) {
+                    int available = state.getAvailable(deduction.getKey());
+                    if (available < 0) {
+                        throw new IllegalStateException("Inventory record not found for product ID: " + deduction.getKey());
+                    }
+                    if (available < deduction.getValue()) {
+                        throw new InsufficientInventoryException("Insufficient inventory for product ID: " + deduction.getKey());
+                    }
+                }
+                command.deductions.forEach(state::tryDecrement);
+                command.applied = true;
+                return 0;
+            }
+        }
+    }
+
+    private void runPersister() {
+        Map<String, Integer> deltas = new HashMap<>();
+        long next = 0;
+        long retryAt = System.nanoTime();
+        int idle = 0;
+        while (true) {
+            long applied = appliedSequence;
+            boolean collected = next <= applied;
+            while (next <= applied && deltas.size() < persistBatchSize) {
+                collect(ring[(int) next & mask], deltas);
+                next++;
+            }
+            if (collected) {
+                persistedSequence = next - 1;
+                idle = 0;
+            }
+            boolean stopping = end >= 0;
+            if (!deltas.isEmpty() && (stopping || System.nanoTime() - retryAt >= 0)) {
+                // Changes that cannot be written during the shutdown are lost, like those of a crash
+                if (persist(deltas) || stopping) {
+                    deltas.clear();
+                } else {
+                    retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(persistRetryMs);
+                }
+            } else if (next == end) {
+                return;
+            } else if (!collected) {
+                idle = backOff(idle);
+            }
+        }
+    }
+
+    /**
+     * Adds the change made by a command to the pending deltas, and releases the references held by its slot.
+     */
+    private static void collect(Command command, Map<String, Integer> deltas) {
+        if (command.applied) {
+            if (command.type == DEDUCT) {
+                command.deductions.forEach((productId, quantity) -> deltas.merge(productId, -quantity, Integer::sum));
+            } else {
+                deltas.merge(command.productId, command.delta, Integer::sum);
+            }
+        }
+        command.productId = null;
+        command.deductions = null;
+        command.result = null;
+    }
+
+    /**
+     * Writes the pending deltas to the {@code inventory} table in a single transaction, creating the records of
+     * products that were restocked for the first time.
+     *
+     * @return {@code true} if the transaction committed.
+     */
+    private boolean persist(Map<String, Integer> deltas) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Inventory> inventories = new ArrayList<>(
+                        inventoryRepository.findForUpdateByProductIdInOrderByProductId(deltas.keySet()));
+                Set<String> missing = new HashSet<>(deltas.keySet());
+                for (Inventory inventory : inventories) {
+                    inventory.setQuantity(inventory.getQuantity() + deltas.get(inventory.getProductId()));
+                    missing.remove(inventory.getProductId());
+                }
+                for (String productId : missing) {
+                    Inventory inventory = new Inventory();
+                    inventory.setProductId(productId);
+                    inventory.setQuantity(deltas.get(productId));
+                    inventories.add(inventory);
+                }
+                inventoryRepository.saveAll(inventories);
+            });
+            persistBatch.record(deltas.size());
+            return true;
+        } catch (RuntimeException ex) {
+            persistFailures.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Waits a little longer the more often it is called in a row: it spins first, then yields, then parks.
+     *
+     * @return the number of calls in a row to pass to the next call.
+     */
+    private static int backOff(int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+            return idle;
+        }
+        return idle + 1;
+    }
+
+    /**
+     * A slot of the ring. Its fields are written by the producer before the slot is published, the result of the
+     * change by the writer before it advances past it, and the references are released by the persister before the
+     * slot can be claimed again.
+     */
+    private static final class Command {
+        int type;
+        String productId;
+        int quantity;
+        Map<String, Integer> deductions;
+        CompletableFuture<Integer> result;
+
+        /**
+         * Whether the command changed the stock; {@link #delta} holds the change of a single-product command.
+         */
+        boolean applied;
+        int delta;
+    }
+}
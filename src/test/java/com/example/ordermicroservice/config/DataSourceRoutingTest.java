@@ -0,0 +1,156 @@
+package com.example.ordermicroservice.config;
+
+import com.example.ordermicroservice.service.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code DataSourceRoutingTest} class is an integration test of the {@link DataSourceRoutingConfig}, with a
+ * second in-memory H2 database kept in sync by the {@link LocalReplicaSynchronizer} as the replica.
+ *
+ * <p>The replica is synchronized and the lag measured explicitly by each test, since the scheduled runs are set an
+ * hour apart. After a synchronization, a quantity is changed in the replica alone, so that every availability check
+ * shows which database served it.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see DataSourceRoutingConfig
+ * @see ReadWriteRoutingDataSource
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimary",
+        "datasource.replica.jdbc-url=jdbc:h2:mem:routingreplica",
+        "datasource.routing.enabled=true",
+        "datasource.routing.local-replica-sync.enabled=true",
+        "datasource.routing.local-replica-sync.interval-ms=3600000",
+        "datasource.routing.heartbeat-interval-ms=3600000",
+        "datasource.routing.max-replica-lag-ms=60000"
+})
+public class DataSourceRoutingTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private LocalReplicaSynchronizer localReplicaSynchronizer;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    /**
+     * Restocks a product on the primary, replicates it, and then gives it a lower quantity in the replica alone.
+     */
+    @BeforeEach
+    void setUp() {
+        inventoryService.restockInventory("ROUTE-1", 10);
+        replicaLagMonitor.heartbeat();
+        localReplicaSynchronizer.sync();
+        replicaLagMonitor.heartbeat();
+        ReadWriteRoutingDataSource.clearPrimary();
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("UPDATE inventory SET quantity = 3 WHERE product_id = ?", "ROUTE-1");
+    }
+
+    /**
+     * Clears the pin of the test thread after each test case, as the end of a request would.
+     */
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.endRequest();
+    }
+
+    /**
+     * Tests that availability checks are served by a fresh replica, and by the primary when forced.
+     */
+    @Test
+    void testCheckInventory_ReadsReplica() {
+        // Act & Assert
+        assertTrue(replicaLagMonitor.isReplicaFresh());
+        assertFalse(inventoryService.checkInventory("ROUTE-1", 5));
+        ReadWriteRoutingDataSource.forcePrimary();
+        assertTrue(inventoryService.checkInventory("ROUTE-1", 5));
+    }
+
+    /**
+     * Tests that a thread reads from the primary after it wrote within a request.
+     */
+    @Test
+    void testCheckInventory_ReadsPrimaryAfterWrite() {
+        // Arrange
+        ReadWriteRoutingDataSource.beginRequest();
+
+        // Act
+        inventoryService.restockInventory("ROUTE-2", 1);
+
+        // Assert
+        assertTrue(inventoryService.checkInventory("ROUTE-1", 5));
+    }
+
+    /**
+     * Tests that a write outside a request does not pin the thread once its transaction completed.
+     */
+    @Test
+    void testCheckInventory_WriteOutsideRequestNotPinned() {
+        // Act
+        inventoryService.restockInventory("ROUTE-2", 1);
+
+        // Assert
+        assertFalse(ReadWriteRoutingDataSource.isPrimaryForced());
+        assertFalse(inventoryService.checkInventory("ROUTE-1", 5));
+    }
+
+    /**
+     * Tests that a synchronization copies only the rows changed on the primary since the previous one.
+     */
+    @Test
+    void testSync_CopiesOnlyChangedRows() {
+        // Arrange
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        inventoryService.restockInventory("ROUTE-3", 7);
+
+        // Act
+        localReplicaSynchronizer.sync();
+
+        // Assert
+        assertEquals(3, replica.queryForObject(
+                "SELECT quantity FROM inventory WHERE product_id = ?", Integer.class, "ROUTE-1"));
+        assertEquals(primary.queryForObject(
+                        "SELECT quantity FROM inventory WHERE product_id = ?", Integer.class, "ROUTE-3"),
+                replica.queryForObject("SELECT quantity FROM inventory WHERE product_id = ?", Integer.class,
+                        "ROUTE-3"));
+    }
+
+    /**
+     * Tests that availability checks are served by the primary once the replica lags too far behind.
+     */
+    @Test
+    void testCheckInventory_StaleReplicaReadsPrimary() {
+        // Arrange
+        replica.update("UPDATE replica_heartbeat SET beat_at = 0");
+        replicaLagMonitor.heartbeat();
+
+        // Act & Assert
+        assertFalse(replicaLagMonitor.isReplicaFresh());
+        assertTrue(inventoryService.checkInventory("ROUTE-1", 5));
+    }
+}
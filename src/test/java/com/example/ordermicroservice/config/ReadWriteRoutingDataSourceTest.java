@@ -0,0 +1,172 @@
+package com.example.ordermicroservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code ReadWriteRoutingDataSourceTest} class is a JUnit 5 test class for the {@link ReadWriteRoutingDataSource}
+ * class. It tests which pool is chosen for connections obtained outside transactions, in read-write and read-only
+ * transactions, with a fresh and a stale replica, and after the current thread wrote or was pinned to the primary.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see ReadWriteRoutingDataSource
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    /**
+     * The mocked {@link ReplicaLagMonitor} that decides whether the replica is fresh.
+     */
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    /**
+     * The registry to which the routed connections are published.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * The {@link ReadWriteRoutingDataSource} instance being tested.
+     */
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    /**
+     * Creates a routing data source with a fresh replica and a pin of one minute after writes before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        replicaLagMonitor = mock(ReplicaLagMonitor.class);
+        when(replicaLagMonitor.isReplicaFresh()).thenReturn(true);
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReadWriteRoutingDataSource(mock(DataSource.class), mock(DataSource.class),
+                replicaLagMonitor, meterRegistry, 60_000);
+    }
+
+    /**
+     * Clears the transaction state and the pin of the current thread after each test case.
+     */
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        ReadWriteRoutingDataSource.endRequest();
+    }
+
+    /**
+     * Tests that connections obtained outside a transaction and in read-write transactions come from the primary,
+     * and connections of read-only transactions from the replica.
+     */
+    @Test
+    void testRouting_ByTransaction() {
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        inTransaction(true);
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routingDataSource.determineCurrentLookupKey());
+        inTransaction(false);
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        assertEquals(1.0, meterRegistry.get("datasource.routing.connections").tag("target", "replica").counter().count());
+        assertEquals(2.0, meterRegistry.get("datasource.routing.connections").tag("target", "primary").counter().count());
+    }
+
+    /**
+     * Tests that read-only transactions use the primary while the replica is stale.
+     */
+    @Test
+    void testRouting_StaleReplica() {
+        // Arrange
+        when(replicaLagMonitor.isReplicaFresh()).thenReturn(false);
+        inTransaction(true);
+
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Tests that a read-write transaction pins the reads of the thread to the primary until the pin is cleared.
+     */
+    @Test
+    void testRouting_PrimaryAfterWrite() {
+        // Arrange
+        inTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+        inTransaction(true);
+
+        // Act & Assert
+        assertTrue(ReadWriteRoutingDataSource.isPrimaryForced());
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        ReadWriteRoutingDataSource.clearPrimary();
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Tests that, outside a request, the pin of a write is cleared when its transaction completes, so that a pooled
+     * thread does not carry it into its next task, and that within a request it lasts until the end of the request.
+     */
+    @Test
+    void testRouting_PinClearedAfterTransactionOutsideRequest() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        inTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+
+        // Act
+        completeTransaction();
+
+        // Assert
+        assertFalse(ReadWriteRoutingDataSource.isPrimaryForced());
+
+        // Arrange
+        ReadWriteRoutingDataSource.beginRequest();
+        TransactionSynchronizationManager.initSynchronization();
+        inTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+
+        // Act
+        completeTransaction();
+
+        // Assert
+        assertTrue(ReadWriteRoutingDataSource.isPrimaryForced());
+        ReadWriteRoutingDataSource.endRequest();
+        assertFalse(ReadWriteRoutingDataSource.isPrimaryForced());
+    }
+
+    /**
+     * Tests that writes do not pin the thread when the pin is disabled, and that the thread can still be pinned
+     * explicitly.
+     */
+    @Test
+    void testRouting_ForcePrimary() {
+        // Arrange
+        routingDataSource = new ReadWriteRoutingDataSource(mock(DataSource.class), mock(DataSource.class),
+                replicaLagMonitor, meterRegistry, 0);
+        inTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+        inTransaction(true);
+
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routingDataSource.determineCurrentLookupKey());
+        ReadWriteRoutingDataSource.forcePrimary();
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clear();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static void inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
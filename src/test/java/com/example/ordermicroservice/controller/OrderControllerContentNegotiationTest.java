@@ -0,0 +1,145 @@
+package com.example.ordermicroservice.controller;
+
+import com.example.ordermicroservice.config.CodecConfig;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderResult;
+import com.example.ordermicroservice.service.AdaptiveConcurrencyLimiter;
+import com.example.ordermicroservice.service.IdempotencyStore;
+import com.example.ordermicroservice.service.Orchestrator;
+import com.example.ordermicroservice.service.OrderImportService;
+import com.example.ordermicroservice.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The {@code OrderControllerContentNegotiationTest} class tests the content negotiation of the orders API through
+ * the Spring MVC stack, with the {@link OrderController} dependencies mocked.
+ *
+ * <p>It verifies that JSON stays the default and that callers asking for CBOR or Smile get a structured
+ * {@link OrderResult} in that encoding, whichever encoding they send the order in.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see OrderController
+ * @see CodecConfig
+ */
+@WebMvcTest(OrderController.class)
+@Import(CodecConfig.class)
+public class OrderControllerContentNegotiationTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private Orchestrator orchestrator;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockitoBean
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @MockitoBean
+    private OrderImportService orderImportService;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+    /**
+     * Lets every order through the concurrency limit and creates it with ID 42.
+     */
+    @BeforeEach
+    void setUp() {
+        when(concurrencyLimiter.execute(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(orchestrator.processOrder(any())).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(42L);
+            order.setStatus("CREATED");
+            return "Order processed successfully";
+        });
+    }
+
+    /**
+     * Tests that a JSON order without a binary {@code Accept} header gets the plain message, as before.
+     */
+    @Test
+    void testPlaceOrder_JsonIsDefault() throws Exception {
+        for (String accept : new String[]{"*/*", "application/json", "text/plain"}) {
+            MvcResult result = mockMvc.perform(post("/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(accept)
+                            .content(json.writeValueAsBytes(order())))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            assertEquals("Order processed successfully", result.getResponse().getContentAsString(), accept);
+        }
+    }
+
+    /**
+     * Tests that a CBOR order sent by a caller that accepts CBOR gets a CBOR {@link OrderResult}.
+     */
+    @Test
+    void testPlaceOrder_Cbor() throws Exception {
+        MvcResult result = mockMvc.perform(post("/orders")
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(cbor.writeValueAsBytes(order())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn();
+
+        assertEquals(new OrderResult(42L, "CREATED", "Order processed successfully"),
+                cbor.readValue(result.getResponse().getContentAsByteArray(), OrderResult.class));
+    }
+
+    /**
+     * Tests that a JSON order sent by a caller that accepts Smile gets a Smile {@link OrderResult}.
+     */
+    @Test
+    void testPlaceOrder_Smile() throws Exception {
+        MvcResult result = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(SMILE)
+                        .content(json.writeValueAsBytes(order())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn();
+
+        assertEquals(new OrderResult(42L, "CREATED", "Order processed successfully"),
+                smile.readValue(result.getResponse().getContentAsByteArray(), OrderResult.class));
+    }
+
+    private Order order() {
+        Order order = new Order();
+        order.setProductId("PROD123");
+        order.setQuantity(2);
+        order.setAmount(100.0);
+        return order;
+    }
+}
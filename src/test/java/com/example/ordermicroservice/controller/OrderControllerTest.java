@@ -1,13 +1,36 @@
 package com.example.ordermicroservice.controller;
 
+import com.example.ordermicroservice.exception.ConcurrencyLimitExceededException;
 import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderPage;
+import com.example.ordermicroservice.model.OrderResult;
+import com.example.ordermicroservice.model.OrderSummary;
+import com.example.ordermicroservice.model.OrderStatusResponse;
+import com.example.ordermicroservice.service.AdaptiveConcurrencyLimiter;
+import com.example.ordermicroservice.service.IdempotencyStore;
 import com.example.ordermicroservice.service.Orchestrator;
+import com.example.ordermicroservice.service.OrderImportService;
+import com.example.ordermicroservice.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import java.util.List;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -40,6 +63,30 @@ public class OrderControllerTest {
     @Mock
     private Orchestrator orchestrator;
 
+    /**
+     * A mock instance of {@link OrderService} used to simulate order status lookups.
+     */
+    @Mock
+    private OrderService orderService;
+
+    /**
+     * A mock instance of {@link IdempotencyStore} used to simulate the deduplication of retried orders.
+     */
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    /**
+     * A mock instance of {@link OrderImportService} used to simulate bulk order imports.
+     */
+    @Mock
+    private OrderImportService orderImportService;
+
+    /**
+     * A real {@link AdaptiveConcurrencyLimiter} that lets orders through unless a test makes it reject them.
+     */
+    @Spy
+    private AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter();
+
     /**
      * The {@link OrderController} instance being tested, with mocked dependencies injected.
      */
@@ -63,10 +110,13 @@ public class OrderControllerTest {
         order.setProductId("PROD123");
         order.setQuantity(2);
         order.setAmount(100.0);
+
+        ReflectionTestUtils.setField(concurrencyLimiter, "meterRegistry", new SimpleMeterRegistry());
+        concurrencyLimiter.init();
     }
 
     /**
-     * Tests the {@link OrderController#placeOrder(Order)} method when the order is processed successfully.
+     * Tests the {@link OrderController#placeOrder(Order, String)} method when the order is processed successfully.
      *
      * <p>This test verifies that the method returns the message "Order processed successfully" when the
      * order processing is successful.
@@ -77,7 +127,7 @@ public class OrderControllerTest {
         when(orchestrator.processOrder(order)).thenReturn("Order processed successfully");
 
         // Act
-        String result = orderController.placeOrder(order);
+        String result = orderController.placeOrder(order, null);
 
         // Assert
         assertEquals("Order processed successfully", result);
@@ -85,7 +135,46 @@ public class OrderControllerTest {
     }
 
     /**
-     * Tests the {@link OrderController#placeOrder(Order)} method when the order processing fails due to
+     * Tests the {@link OrderController#placeOrderBinary(Order, String)} method when the order is processed
+     * successfully.
+     *
+     * <p>This test verifies that the method returns a structured result with the ID of the created order.
+     */
+    @Test
+    void testPlaceOrderBinary_Success() {
+        // Arrange
+        when(orchestrator.processOrder(order)).thenAnswer(invocation -> {
+            order.setId(42L);
+            order.setStatus("CREATED");
+            return "Order processed successfully";
+        });
+
+        // Act
+        OrderResult result = orderController.placeOrderBinary(order, null);
+
+        // Assert
+        assertEquals(new OrderResult(42L, "CREATED", "Order processed successfully"), result);
+    }
+
+    /**
+     * Tests the {@link OrderController#placeOrderBinary(Order, String)} method when the order processing fails.
+     *
+     * <p>This test verifies that the result carries no order ID and the failure message.
+     */
+    @Test
+    void testPlaceOrderBinary_Failed() {
+        // Arrange
+        when(orchestrator.processOrder(order)).thenReturn("Order failed: Insufficient inventory");
+
+        // Act
+        OrderResult result = orderController.placeOrderBinary(order, null);
+
+        // Assert
+        assertEquals(new OrderResult(null, "FAILED", "Order failed: Insufficient inventory"), result);
+    }
+
+    /**
+     * Tests the {@link OrderController#placeOrder(Order, String)} method when the order processing fails due to
      * insufficient inventory.
      *
      * <p>This test verifies that the method returns the message "Order failed: Insufficient inventory" when
@@ -97,7 +186,7 @@ public class OrderControllerTest {
         when(orchestrator.processOrder(order)).thenReturn("Order failed: Insufficient inventory");
 
         // Act
-        String result = orderController.placeOrder(order);
+        String result = orderController.placeOrder(order, null);
 
         // Assert
         assertEquals("Order failed: Insufficient inventory", result);
@@ -105,7 +194,7 @@ public class OrderControllerTest {
     }
 
     /**
-     * Tests the {@link OrderController#placeOrder(Order)} method when the order processing fails due to
+     * Tests the {@link OrderController#placeOrder(Order, String)} method when the order processing fails due to
      * payment processing failure.
      *
      * <p>This test verifies that the method returns the message "Order failed: Payment processing failed" when
@@ -117,7 +206,7 @@ public class OrderControllerTest {
         when(orchestrator.processOrder(order)).thenReturn("Order failed: Payment processing failed");
 
         // Act
-        String result = orderController.placeOrder(order);
+        String result = orderController.placeOrder(order, null);
 
         // Assert
         assertEquals("Order failed: Payment processing failed", result);
@@ -125,7 +214,7 @@ public class OrderControllerTest {
     }
 
     /**
-     * Tests the {@link OrderController#placeOrder(Order)} method when the provided order is {@code null}.
+     * Tests the {@link OrderController#placeOrder(Order, String)} method when the provided order is {@code null}.
      *
      * <p>This test verifies that the method throws an {@link IllegalArgumentException} when the provided
      * order is {@code null}.
@@ -137,11 +226,186 @@ public class OrderControllerTest {
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            orderController.placeOrder(nullOrder);
+            orderController.placeOrder(nullOrder, null);
         });
 
         // Assert
         assertEquals("Order cannot be null", exception.getMessage());
         verify(orchestrator, never()).processOrder(any(Order.class));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the {@link OrderController#placeOrders(List)} method when a batch of orders is processed.
+     *
+     * <p>This test verifies that the batch is delegated to {@link Orchestrator#processOrders(List)} and that
+     * the per-order results are returned unchanged.
+     */
+    @Test
+    void testPlaceOrders_Success() {
+        // Arrange
+        List<Order> orders = List.of(order);
+        when(orchestrator.processOrders(orders)).thenReturn(List.of("Order processed successfully"));
+
+        // Act
+        List<String> result = orderController.placeOrders(orders);
+
+        // Assert
+        assertEquals(List.of("Order processed successfully"), result);
+        verify(orchestrator, times(1)).processOrders(orders);
+        verify(orchestrator, never()).processOrder(any(Order.class));
+    }
+
+    /**
+     * Tests the {@link OrderController#placeOrders(List)} method when the provided order list is {@code null}.
+     */
+    @Test
+    void testPlaceOrders_NullOrders() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            orderController.placeOrders(null);
+        });
+
+        // Assert
+        assertEquals("Orders cannot be null", exception.getMessage());
+        verify(orchestrator, never()).processOrders(any());
+    }
+
+    /**
+     * Tests the {@link OrderController#placeOrderAsync(Order)} method when the order is accepted.
+     *
+     * <p>This test verifies that the order is handed to {@link Orchestrator#acceptOrder(Order)} and that the ID and
+     * "PENDING" status of the accepted order are returned without processing it synchronously.
+     */
+    @Test
+    void testPlaceOrderAsync_Accepted() {
+        // Arrange
+        order.setStatus("PENDING");
+        when(orchestrator.acceptOrder(order)).thenReturn(order);
+
+        // Act
+        OrderStatusResponse result = orderController.placeOrderAsync(order);
+
+        // Assert
+        assertEquals(1L, result.getOrderId());
+        assertEquals("PENDING", result.getStatus());
+        verify(orchestrator, never()).processOrder(any(Order.class));
+    }
+
+    /**
+     * Tests the {@link OrderController#placeOrderAsync(Order)} method when the order has no valid quantity.
+     *
+     * <p>This test verifies that the order is rejected before it is persisted.
+     */
+    @Test
+    void testPlaceOrderAsync_InvalidQuantity() {
+        // Arrange
+        order.setQuantity(0);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            orderController.placeOrderAsync(order);
+        });
+
+        // Assert
+        assertEquals("Quantity must be positive", exception.getMessage());
+        verify(orchestrator, never()).acceptOrder(any(Order.class));
+    }
+
+    /**
+     * Tests the {@link OrderController#getOrderStatus(Long)} method for an existing order.
+     */
+    @Test
+    void testGetOrderStatus() {
+        // Arrange
+        order.setStatus("CREATED");
+        when(orderService.getOrder(1L)).thenReturn(order);
+
+        // Act
+        OrderStatusResponse result = orderController.getOrderStatus(1L);
+
+        // Assert
+        assertEquals(1L, result.getOrderId());
+        assertEquals("CREATED", result.getStatus());
+    }
+
+    /**
+     * Tests the {@link OrderController#placeOrder(Order, String)} method when the request carries an
+     * {@code Idempotency-Key} header.
+     *
+     * <p>This test verifies that the order is processed through the {@link IdempotencyStore} under the given key and
+     * a fingerprint of the order's content.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPlaceOrder_WithIdempotencyKey() {
+        // Arrange
+        when(idempotencyStore.execute(eq("key-1"), eq("PROD123:2:100.0"), any())).thenAnswer(invocation ->
+                ((Supplier<OrderResult>) invocation.getArgument(2)).get());
+        when(orchestrator.processOrder(order)).thenReturn("Order processed successfully");
+
+        // Act
+        String result = orderController.placeOrder(order, "key-1");
+
+        // Assert
+        assertEquals("Order processed successfully", result);
+        verify(idempotencyStore, times(1)).execute(eq("key-1"), eq("PROD123:2:100.0"), any());
+    }
+
+    /**
+     * Tests the {@link OrderController#placeOrder(Order, String)} method when the concurrency limit has been reached.
+     *
+     * <p>This test verifies that the order is rejected without being processed.
+     */
+    @Test
+    void testPlaceOrder_ConcurrencyLimitExceeded() {
+        // Arrange
+        doThrow(new ConcurrencyLimitExceededException("Too many orders in flight, limit is 20"))
+                .when(concurrencyLimiter).execute(any());
+
+        // Act & Assert
+        assertThrows(ConcurrencyLimitExceededException.class, () -> orderController.placeOrder(order, null));
+        verify(orchestrator, never()).processOrder(any());
+    }
+
+    /**
+     * Tests the {@link OrderController#importOrders(InputStream)} method.
+     *
+     * <p>This test verifies that the response is streamed as NDJSON and that the request body is imported only when
+     * the response is written.
+     */
+    @Test
+    void testImportOrders() throws Exception {
+        // Arrange
+        InputStream body = new ByteArrayInputStream("{\"productId\":\"PROD123\",\"quantity\":2}\n".getBytes());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = orderController.importOrders(body);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        verify(orderImportService, never()).importOrders(any(), any());
+        response.getBody().writeTo(output);
+        verify(orderImportService, times(1)).importOrders(body, output);
+    }
+
+    /**
+     * Tests the {@link OrderController#listOrders(String, String, Long, int)} method.
+     *
+     * <p>This test verifies that the filters and the keyset are passed to the {@link OrderService}.
+     */
+    @Test
+    void testListOrders() {
+        // Arrange
+        OrderPage page = new OrderPage(List.of(new OrderSummary(2L, "PROD123", 2, 100.0, "CREATED")), 2L);
+        when(orderService.findOrders("PROD123", "CREATED", 1L, 1)).thenReturn(page);
+
+        // Act
+        OrderPage result = orderController.listOrders("PROD123", "CREATED", 1L, 1);
+
+        // Assert
+        assertEquals(page, result);
+        verify(orderService, times(1)).findOrders("PROD123", "CREATED", 1L, 1);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.ordermicroservice.controller;
+
+import com.example.ordermicroservice.OrderMicroserviceApplication;
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code ReactiveStackBenchmarkTest} class compares the blocking stack (Spring MVC on Tomcat, JPA) with the
+ * {@code reactive} profile (WebFlux on Netty, R2DBC) under 1,000 to 10,000 concurrent connections placing orders
+ * over HTTP against the H2 database.
+ *
+ * <p>Each stack is started in turn as the application would be started, with the blocking stack using the same
+ * conditional-update inventory strategy as the reactive one and both using a pool of 50 database connections. The
+ * adaptive concurrency limit of the blocking stack is raised out of the way, so that both stacks accept every order.
+ * For each level the benchmark prints the throughput, the p50 and p99 latency measured from the moment all requests
+ * are released, the number of failed requests, and the peak number of live threads in the JVM during the run.
+ *
+ * <p>The benchmark is slow and only runs when the {@code benchmark} system property is {@code true}:
+ * {@code mvn test -Dtest=ReactiveStackBenchmarkTest -Dbenchmark=true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see OrderController
+ * @see ReactiveOrderController
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ReactiveStackBenchmarkTest {
+
+    private static final int[] IN_FLIGHT_LEVELS = {1_000, 5_000, 10_000};
+    private static final int PRODUCTS = 1_000;
+
+    /**
+     * Runs every in-flight level against the blocking and the reactive stack and prints the results.
+     */
+    @Test
+    void testBlockingVersusReactiveStack() {
+        System.out.printf("%-10s %9s %10s %9s %9s %7s %8s%n",
+                "stack", "in-flight", "orders/s", "p50 ms", "p99 ms", "errors", "threads");
+        for (String profile : new String[]{"default", "reactive"}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderMicroserviceApplication.class)
+                    .profiles(profile)
+                    .run("--server.port=0",
+                            "--server.tomcat.max-connections=20000",
+                            "--server.tomcat.accept-count=10000",
+                            "--spring.datasource.hikari.maximum-pool-size=50",
+                            "--spring.r2dbc.pool.max-size=50",
+                            "--inventory.concurrency.strategy=CONDITIONAL_UPDATE",
+                            "--orders.limiter.initial-limit=20000",
+                            "--orders.limiter.min-limit=20000",
+                            "--orders.limiter.max-limit=20000")) {
+                seed(context.getBean(InventoryRepository.class));
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                // Warm up the JIT, the connection pools and the H2 caches
+                run(baseUrl, 1_000);
+                for (int inFlight : IN_FLIGHT_LEVELS) {
+                    print(profile.equals("default") ? "blocking" : profile, inFlight, run(baseUrl, inFlight));
+                }
+            }
+        }
+    }
+
+    /**
+     * Seeds enough stock across many products that no order fails and contention on single rows stays low.
+     */
+    private void seed(InventoryRepository inventoryRepository) {
+        List<Inventory> inventories = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setProductId("STACK-BENCH-" + i);
+            inventory.setQuantity(Integer.MAX_VALUE);
+            inventories.add(inventory);
+        }
+        inventoryRepository.saveAll(inventories);
+    }
+
+    /**
+     * Opens one connection per order, sends all orders at once, waits for them to complete and returns the wall
+     * time followed by the sorted per-order latencies, all in nanoseconds, then the number of failed orders and the
+     * peak number of live threads.
+     */
+    private long[] run(String baseUrl, int inFlight) {
+        ConnectionProvider connections = ConnectionProvider.builder("stack-benchmark")
+                .maxConnections(inFlight)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        AtomicInteger errors = new AtomicInteger();
+        long begin = System.nanoTime();
+        long[] latencies = Flux.range(0, inFlight)
+                .flatMap(i -> client.post().uri("/orders")
+                        .bodyValue(order(i))
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .filter("Order processed successfully"::equals)
+                        .switchIfEmpty(Mono.fromRunnable(errors::incrementAndGet))
+                        .onErrorResume(ex -> Mono.fromRunnable(errors::incrementAndGet))
+                        .then(Mono.fromSupplier(() -> System.nanoTime() - begin)), inFlight)
+                .collectList()
+                .block(Duration.ofMinutes(5))
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        long wall = System.nanoTime() - begin;
+        connections.dispose();
+        Arrays.sort(latencies);
+        long[] result = new long[inFlight + 3];
+        result[0] = wall;
+        System.arraycopy(latencies, 0, result, 1, inFlight);
+        result[inFlight + 1] = errors.get();
+        result[inFlight + 2] = threads.getPeakThreadCount();
+        return result;
+    }
+
+    private Order order(int i) {
+        Order order = new Order();
+        order.setProductId("STACK-BENCH-" + (i % PRODUCTS));
+        order.setQuantity(1);
+        order.setAmount(10.0);
+        return order;
+    }
+
+    private void print(String stack, int inFlight, long[] result) {
+        double throughput = inFlight / (result[0] / 1_000_000_000.0);
+        double p50 = result[1 + (int) (inFlight * 0.50)] / 1_000_000.0;
+        double p99 = result[1 + (int) (inFlight * 0.99)] / 1_000_000.0;
+        System.out.printf("%-10s %9d %10.0f %9.1f %9.1f %7d %8d%n",
+                stack, inFlight, throughput, p50, p99, result[inFlight + 1], result[inFlight + 2]);
+    }
+}
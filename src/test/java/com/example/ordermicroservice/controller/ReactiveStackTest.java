@@ -0,0 +1,139 @@
+package com.example.ordermicroservice.controller;
+
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderStatusResponse;
+import com.example.ordermicroservice.model.Payment;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import com.example.ordermicroservice.repository.OrderRepository;
+import com.example.ordermicroservice.repository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code ReactiveStackTest} class tests the {@code reactive} profile end to end: orders are placed over HTTP on
+ * the Netty server, processed by the {@code ReactiveOrchestrator} and stored through R2DBC in the H2 database, whose
+ * schema is created by JPA. The stored rows are read back through the JPA repositories, which verifies that both
+ * stacks map the same tables in the same way.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see ReactiveOrderController
+ */
+// The test context decides on the web server before it reads the profile's properties, so the type is repeated here
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+public class ReactiveStackTest {
+
+    private static final String PRODUCT_ID = "REACTIVE-SKU";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    /**
+     * Seeds the stock of the product.
+     */
+    @BeforeEach
+    void setUp() {
+        Inventory inventory = new Inventory();
+        inventory.setProductId(PRODUCT_ID);
+        inventory.setQuantity(5);
+        inventoryRepository.save(inventory);
+    }
+
+    /**
+     * Removes the stock of the product.
+     */
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.delete(inventoryRepository.findByProductId(PRODUCT_ID));
+    }
+
+    /**
+     * Tests that a placed order is stored with its payment, decrements the stock and can be polled, and that JPA
+     * can still update the rows written through R2DBC.
+     */
+    @Test
+    void testPlaceOrder_Success() {
+        // Act
+        webTestClient.post().uri("/orders").bodyValue(order(2)).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Order processed successfully");
+
+        // Assert
+        Inventory inventory = inventoryRepository.findByProductId(PRODUCT_ID);
+        assertEquals(3, inventory.getQuantity());
+        assertEquals(1L, inventory.getVersion());
+        Order order = orderRepository.findAll().stream()
+                .filter(candidate -> PRODUCT_ID.equals(candidate.getProductId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("CREATED", order.getStatus());
+        assertEquals(0L, order.getVersion());
+        List<Payment> payments = paymentRepository.findAll().stream()
+                .filter(payment -> payment.getOrderId().equals(order.getId().toString()))
+                .toList();
+        assertEquals(1, payments.size());
+        assertEquals("SUCCESS", payments.get(0).getStatus());
+
+        webTestClient.get().uri("/orders/{id}/status", order.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody(OrderStatusResponse.class).isEqualTo(new OrderStatusResponse(order.getId(), "CREATED"));
+
+        order.setStatus("SHIPPED");
+        assertEquals(1L, orderRepository.save(order).getVersion());
+    }
+
+    /**
+     * Tests that an order for more than the available stock fails without storing anything.
+     */
+    @Test
+    void testPlaceOrder_InsufficientInventory() {
+        // Act
+        webTestClient.post().uri("/orders").bodyValue(order(6)).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Order failed: Insufficient inventory");
+
+        // Assert
+        assertEquals(5, inventoryRepository.findByProductId(PRODUCT_ID).getQuantity());
+    }
+
+    /**
+     * Tests that polling an unknown order answers {@code 404 Not Found}.
+     */
+    @Test
+    void testGetOrderStatus_NotFound() {
+        // Act & Assert
+        webTestClient.get().uri("/orders/{id}/status", -1L).exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Order not found with ID: -1");
+    }
+
+    private Order order(int quantity) {
+        Order order = new Order();
+        order.setProductId(PRODUCT_ID);
+        order.setQuantity(quantity);
+        order.setAmount(50.0);
+        return order;
+    }
+}
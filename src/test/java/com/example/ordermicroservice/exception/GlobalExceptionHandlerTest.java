@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.WebRequest;
@@ -90,4 +92,96 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Test request details", response.getBody().getDetails());
         assertTrue(response.getBody().getTimestamp().isBefore(LocalDateTime.now().plusSeconds(1))); // Ensure timestamp is recent
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the {@link GlobalExceptionHandler#handleInsufficientInventoryException(InsufficientInventoryException, WebRequest)}
+     * method when an {@link InsufficientInventoryException} is thrown.
+     *
+     * <p>This test verifies that the method returns a {@link ResponseEntity} with HTTP status 409 (Conflict)
+     * and an {@link ErrorDetails} object containing the exception message and request details.
+     */
+    @Test
+    void testHandleInsufficientInventoryException() {
+        // Arrange
+        InsufficientInventoryException ex = new InsufficientInventoryException("Insufficient inventory for product ID: PROD123");
+        WebRequest request = mock(WebRequest.class);
+        when(request.getDescription(false)).thenReturn("Test request details");
+
+        // Act
+        ResponseEntity<ErrorDetails> response = globalExceptionHandler.handleInsufficientInventoryException(ex, request);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Insufficient inventory for product ID: PROD123", response.getBody().getMessage());
+        assertEquals("Test request details", response.getBody().getDetails());
+    }
+
+    /**
+     * Tests the {@link GlobalExceptionHandler#handleTaskRejectedException(TaskRejectedException, WebRequest)} method
+     * when the asynchronous order queue is full.
+     *
+     * <p>This test verifies that the method returns HTTP status 503 (Service Unavailable) with a {@code Retry-After} header.
+     */
+    @Test
+    void testHandleTaskRejectedException() {
+        // Arrange
+        TaskRejectedException ex = new TaskRejectedException("Executor did not accept task");
+        WebRequest request = mock(WebRequest.class);
+        when(request.getDescription(false)).thenReturn("Test request details");
+
+        // Act
+        ResponseEntity<ErrorDetails> response = globalExceptionHandler.handleTaskRejectedException(ex, request);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals("Order queue is full", response.getBody().getMessage());
+    }
+
+    /**
+     * Tests the {@link GlobalExceptionHandler#handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException, WebRequest)}
+     * method when an idempotency key is reused for a different order.
+     *
+     * <p>This test verifies that the method returns HTTP status 422 (Unprocessable Entity) with the exception message.
+     */
+    @Test
+    void testHandleIdempotencyKeyMismatchException() {
+        // Arrange
+        IdempotencyKeyMismatchException ex = new IdempotencyKeyMismatchException("Idempotency key key-1 was used for a different request");
+        WebRequest request = mock(WebRequest.class);
+        when(request.getDescription(false)).thenReturn("Test request details");
+
+        // Act
+        ResponseEntity<ErrorDetails> response = globalExceptionHandler.handleIdempotencyKeyMismatchException(ex, request);
+
+        // Assert
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Idempotency key key-1 was used for a different request", response.getBody().getMessage());
+    }
+
+    /**
+     * Tests the {@link GlobalExceptionHandler#handleConcurrencyLimitExceededException(ConcurrencyLimitExceededException, WebRequest)}
+     * method when an order is shed by the concurrency limiter.
+     *
+     * <p>This test verifies that the method returns HTTP status 429 (Too Many Requests) with a {@code Retry-After} header.
+     */
+    @Test
+    void testHandleConcurrencyLimitExceededException() {
+        // Arrange
+        ConcurrencyLimitExceededException ex = new ConcurrencyLimitExceededException("Too many orders in flight, limit is 20");
+        WebRequest request = mock(WebRequest.class);
+        when(request.getDescription(false)).thenReturn("Test request details");
+
+        // Act
+        ResponseEntity<ErrorDetails> response = globalExceptionHandler.handleConcurrencyLimitExceededException(ex, request);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals("Too many orders in flight, limit is 20", response.getBody().getMessage());
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.ordermicroservice.repository;
 
 import com.example.ordermicroservice.model.Inventory;
+import jakarta.persistence.PersistenceException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +38,12 @@ public class InventoryRepositoryTest {
     @MockBean
     private InventoryRepository inventoryRepository;
 
+    /**
+     * A {@link TestEntityManager} used to write inventory records to the embedded database directly.
+     */
+    @Autowired
+    private TestEntityManager entityManager;
+
     /**
      * Tests the {@link InventoryRepository#findByProductId(String)} method when the inventory is found for a given product ID.
      *
@@ -78,4 +87,24 @@ public class InventoryRepositoryTest {
         assertNull(result);
         verify(inventoryRepository, times(1)).findByProductId("PROD999");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the database rejects a second inventory record for the same product ID.
+     *
+     * <p>This test verifies that the unique index on the product ID enforces one inventory record per product.
+     */
+    @Test
+    void testProductIdIsUnique() {
+        // Arrange
+        Inventory first = new Inventory();
+        first.setProductId("PROD123");
+        first.setQuantity(10);
+        entityManager.persistAndFlush(first);
+        Inventory duplicate = new Inventory();
+        duplicate.setProductId("PROD123");
+        duplicate.setQuantity(5);
+
+        // Act & Assert
+        assertThrows(PersistenceException.class, () -> entityManager.persistAndFlush(duplicate));
+    }
+}
@@ -1,12 +1,19 @@
 package com.example.ordermicroservice.repository;
 
 import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderSummary;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +45,13 @@ public class OrderRepositoryTest {
     @MockBean
     private OrderRepository orderRepository;
 
+    /**
+     * A {@link TestEntityManager} used to write orders to the embedded database directly and to run the keyset
+     * queries against it.
+     */
+    @Autowired
+    private TestEntityManager entityManager;
+
     /**
      * Tests the {@link OrderRepository#findById(Object)} method when an order is found for a given ID.
      *
@@ -136,4 +150,43 @@ public class OrderRepositoryTest {
         // Assert
         verify(orderRepository, times(1)).delete(order);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the keyset queries of the {@link OrderRepository} against the embedded database.
+     *
+     * <p>This test verifies that consecutive pages of a product's orders are read by seeking past the last ID, that
+     * they are returned as projections without managed entities and that the query is served by the
+     * {@code (productId, id)} index.
+     */
+    @Test
+    void testFindByProductIdAndIdGreaterThan_Keyset() {
+        // Arrange
+        for (long id = 1; id <= 5; id++) {
+            Order order = new Order();
+            order.setId(id);
+            order.setProductId(id % 2 == 0 ? "PROD2" : "PROD1");
+            order.setQuantity(1);
+            order.setAmount(10.0);
+            order.setStatus("CREATED");
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        OrderRepository repository = new JpaRepositoryFactory(entityManager.getEntityManager())
+                .getRepository(OrderRepository.class);
+
+        // Act
+        List<OrderSummary> first = repository.findByProductIdAndIdGreaterThanOrderByIdAsc("PROD1", Long.MIN_VALUE, Limit.of(2));
+        List<OrderSummary> second = repository.findByProductIdAndIdGreaterThanOrderByIdAsc("PROD1", first.get(1).id(), Limit.of(2));
+        String plan = String.valueOf(entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT id FROM orders WHERE product_id = 'PROD1' AND id > 0 ORDER BY id")
+                .getSingleResult());
+
+        // Assert
+        assertEquals(List.of(new OrderSummary(1L, "PROD1", 1, 10.0, "CREATED"),
+                new OrderSummary(3L, "PROD1", 1, 10.0, "CREATED")), first);
+        assertEquals(List.of(new OrderSummary(5L, "PROD1", 1, 10.0, "CREATED")), second);
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+        assertTrue(plan.toUpperCase().contains("IX_ORDERS_PRODUCT_ID_ID"), plan);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code AdaptiveConcurrencyLimiterTest} class is a JUnit 5 test class for the {@link AdaptiveConcurrencyLimiter}
+ * class. It tests that requests beyond the limit are rejected, that the limit adapts to the observed latency, and
+ * that the limiter publishes its metrics.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see AdaptiveConcurrencyLimiter
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLISECOND = 1_000_000L;
+
+    /**
+     * The {@link AdaptiveConcurrencyLimiter} instance being tested.
+     */
+    private AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * A {@link SimpleMeterRegistry} that records the limiter metrics.
+     */
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Initializes a limiter with an initial limit of 10 before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(limiter, "initialLimit", 10);
+        ReflectionTestUtils.setField(limiter, "minLimit", 2);
+        limiter.init();
+    }
+
+    /**
+     * Tests that a request is rejected while the limit is in use, and counted as rejected.
+     */
+    @Test
+    void testExecute_RejectsAboveLimit() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(limiter, "limit", 2.0);
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        for (int i = 0; i < 2; i++) {
+            executor.submit(() -> limiter.execute(() -> {
+                running.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }));
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertThrows(ConcurrencyLimitExceededException.class, () -> limiter.execute(() -> "third"));
+        assertEquals(2, meterRegistry.get("orders.limiter.in-flight").gauge().value());
+        assertEquals(1, meterRegistry.get("orders.limiter.requests").tag("outcome", "rejected").counter().count());
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals("after", limiter.execute(() -> "after"));
+    }
+
+    /**
+     * Tests that the limit grows while latency is stable and the limit is in use.
+     */
+    @Test
+    void testOnSample_GrowsWhileLatencyIsStable() {
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(MILLISECOND, limiter.getLimit());
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() > 10, "Limit is " + limiter.getLimit());
+    }
+
+    /**
+     * Tests that the limit does not grow while most of it is unused.
+     */
+    @Test
+    void testOnSample_DoesNotGrowWhenIdle() {
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(MILLISECOND, 1);
+        }
+
+        // Assert
+        assertEquals(10, limiter.getLimit());
+    }
+
+    /**
+     * Tests that the limit shrinks towards its minimum when latency rises far above its long-term average, and
+     * that the gauge reports it.
+     */
+    @Test
+    void testOnSample_ShrinksWhenLatencyRises() {
+        // Arrange
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(MILLISECOND, limiter.getLimit());
+        }
+        int before = limiter.getLimit();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(20 * MILLISECOND, limiter.getLimit());
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() < before / 2, "Limit fell from " + before + " to " + limiter.getLimit());
+        assertEquals(limiter.getLimit(), (int) meterRegistry.get("orders.limiter.limit").gauge().value());
+    }
+}
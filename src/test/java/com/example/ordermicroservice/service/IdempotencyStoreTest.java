@@ -0,0 +1,143 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code IdempotencyStoreTest} class is a JUnit 5 test class for the {@link IdempotencyStore} class.
+ * It tests that a request is executed once per idempotency key, that concurrent duplicates wait for the first
+ * execution, and that failed executions and mismatched requests are handled.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see IdempotencyStore
+ */
+public class IdempotencyStoreTest {
+
+    /**
+     * The {@link IdempotencyStore} instance being tested.
+     */
+    private IdempotencyStore idempotencyStore;
+
+    /**
+     * Initializes a new store before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore();
+        ReflectionTestUtils.setField(idempotencyStore, "meterRegistry", new SimpleMeterRegistry());
+        idempotencyStore.init();
+    }
+
+    /**
+     * Tests that a retried request returns the stored response without running again.
+     */
+    @Test
+    void testExecute_ReplaysResponse() {
+        // Arrange
+        AtomicInteger executions = new AtomicInteger();
+
+        // Act
+        String first = idempotencyStore.execute("key-1", "PROD123:2:100.0", () -> "result-" + executions.incrementAndGet());
+        String retry = idempotencyStore.execute("key-1", "PROD123:2:100.0", () -> "result-" + executions.incrementAndGet());
+
+        // Assert
+        assertEquals("result-1", first);
+        assertEquals("result-1", retry);
+        assertEquals(1, executions.get());
+    }
+
+    /**
+     * Tests that duplicates that arrive while the first execution is running wait for it instead of running again.
+     */
+    @Test
+    void testExecute_ConcurrentDuplicatesWait() throws Exception {
+        // Arrange
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Future<String> first = executor.submit(() -> idempotencyStore.execute("key-1", "PROD123:2:100.0", () -> {
+            executions.incrementAndGet();
+            running.countDown();
+            await(release);
+            return "result";
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // Act
+        List<Future<String>> duplicates = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            duplicates.add(executor.submit(() -> idempotencyStore.execute("key-1", "PROD123:2:100.0", () -> {
+                executions.incrementAndGet();
+                return "duplicate";
+            })));
+        }
+        release.countDown();
+
+        // Assert
+        assertEquals("result", first.get(5, TimeUnit.SECONDS));
+        for (Future<String> duplicate : duplicates) {
+            assertEquals("result", duplicate.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        executor.shutdown();
+    }
+
+    /**
+     * Tests that a request whose execution failed is run again on retry.
+     */
+    @Test
+    void testExecute_FailureIsNotStored() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("key-1", "PROD123:2:100.0", () -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+        assertEquals("result", idempotencyStore.execute("key-1", "PROD123:2:100.0", () -> "result"));
+    }
+
+    /**
+     * Tests that a key reused for a different request is rejected.
+     */
+    @Test
+    void testExecute_KeyReusedForDifferentRequest() {
+        // Arrange
+        idempotencyStore.execute("key-1", "PROD123:2:100.0", () -> "result");
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> idempotencyStore.execute("key-1", "PROD123:5:250.0", () -> "other"));
+    }
+
+    /**
+     * Tests that an empty key is rejected.
+     */
+    @Test
+    void testExecute_EmptyKey() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> idempotencyStore.execute("", "PROD123:2:100.0", () -> "result"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code InMemoryInventoryStoreTest} class is a JUnit 5 test class for the {@link InMemoryInventoryStore} class.
+ * It tests checks, decrements and restocks against the primitive arrays, their growth while other threads change
+ * quantities, the loading of the {@code inventory} table, and the heap footprint of the store compared with the
+ * {@link Inventory} entities it replaces.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InMemoryInventoryStore
+ */
+public class InMemoryInventoryStoreTest {
+
+    /**
+     * The {@link InMemoryInventoryStore} instance being tested.
+     */
+    private InMemoryInventoryStore store;
+
+    /**
+     * Creates an empty store before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryInventoryStore();
+    }
+
+    /**
+     * Tests that restocked products can be checked, decremented and incremented, and that unknown products are
+     * reported as such.
+     */
+    @Test
+    void testRestockDecrementIncrement() {
+        // Act
+        store.restock("PROD123", 10);
+        store.restock("PROD123", 5);
+        store.decrement("PROD123", 4);
+
+        // Assert
+        assertEquals(11, store.getAvailable("PROD123"));
+        assertTrue(store.increment("PROD123", 1));
+        assertEquals(12, store.getAvailable("PROD123"));
+        assertEquals(-1, store.getAvailable("PROD124"));
+        assertFalse(store.increment("PROD124", 1));
+        assertThrows(IllegalStateException.class, () -> store.decrement("PROD124", 1));
+        assertEquals(1, store.size());
+    }
+
+    /**
+     * Tests that a decrement of more than the available quantity is rejected and changes nothing.
+     */
+    @Test
+    void testDecrement_InsufficientQuantity() {
+        // Arrange
+        store.restock("PROD123", 3);
+
+        // Act & Assert
+        assertThrows(InsufficientInventoryException.class, () -> store.decrement("PROD123", 4));
+        assertEquals(3, store.getAvailable("PROD123"));
+    }
+
+    /**
+     * Tests that every product is still found after the arrays have grown many times, including IDs that collide on
+     * their hash code and non-ASCII IDs.
+     */
+    @Test
+    void testGrowth() {
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            store.restock("SKU-" + i + "-".repeat(i % 40), i + 1);
+        }
+        // "Aa" and "BB" have the same hash code
+        store.restock("Aa", 1);
+        store.restock("BB", 2);
+        store.restock("Ünïcødé", 3);
+
+        // Assert
+        assertEquals(100_003, store.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i + 1, store.getAvailable("SKU-" + i + "-".repeat(i % 40)));
+        }
+        assertEquals(1, store.getAvailable("Aa"));
+        assertEquals(2, store.getAvailable("BB"));
+        assertEquals(3, store.getAvailable("Ünïcødé"));
+        assertEquals(-1, store.getAvailable("SKU-1"));
+    }
+
+    /**
+     * Tests that concurrent decrements of a hot product never oversell and lose no update, while another thread
+     * adds enough products to make the arrays grow underneath them.
+     */
+    @Test
+    void testConcurrentDecrementsDuringGrowth() throws Exception {
+        // Arrange
+        store.restock("HOT", 50_000);
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        AtomicInteger accepted = new AtomicInteger();
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                store.restock("NEW-" + i, 1);
+            }
+        }));
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    try {
+                        store.decrement("HOT", 1);
+                        accepted.incrementAndGet();
+                    } catch (InsufficientInventoryException ex) {
+                        // Sold out
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(50_000, accepted.get());
+        assertEquals(0, store.getAvailable("HOT"));
+        assertEquals(200_001, store.size());
+    }
+
+    /**
+     * Tests that a batch deduction that runs out of stock adds back the deductions it already made.
+     */
+    @Test
+    void testDeductInventories_RollsBackOnInsufficientQuantity() {
+        // Arrange
+        store.restock("PROD1", 5);
+        store.restock("PROD2", 1);
+        Map<String, Integer> deductions = new LinkedHashMap<>();
+        deductions.put("PROD1", 3);
+        deductions.put("PROD2", 2);
+        Map<String, Inventory> inventories = store.findInventories(deductions.keySet());
+
+        // Act & Assert
+        assertEquals(5, inventories.get("PROD1").getQuantity());
+        assertThrows(InsufficientInventoryException.class, () -> store.deductInventories(inventories, deductions));
+        assertEquals(5, store.getAvailable("PROD1"));
+        assertEquals(1, store.getAvailable("PROD2"));
+    }
+
+    /**
+     * Tests that a batch deduction is added back when the caller's transaction rolls back.
+     */
+    @Test
+    void testDeductInventories_AddsBackOnRollback() {
+        // Arrange
+        store.restock("PROD1", 5);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        try {
+            store.deductInventories(store.findInventories(List.of("PROD1")), Map.of("PROD1", 3));
+            assertEquals(2, store.getAvailable("PROD1"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(5, store.getAvailable("PROD1"));
+    }
+
+    /**
+     * Tests that the store is loaded from the {@code inventory} table on startup.
+     */
+    @Test
+    void testInit_LoadsTable() throws Exception {
+        // Arrange
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString(1)).thenReturn("PROD1");
+        when(resultSet.getInt(2)).thenReturn(42);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+
+        // Act
+        store.init();
+
+        // Assert
+        assertEquals(42, store.getAvailable("PROD1"));
+    }
+
+    /**
+     * Tests that the store refuses to start next to the reservation ledger, which keeps the stock in the table.
+     */
+    @Test
+    void testInit_RejectsLedger() {
+        // Arrange
+        ReflectionTestUtils.setField(store, "ledgerEnabled", true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> store.init());
+    }
+
+    /**
+     * Tests that one million products take a fraction of the heap of the same products held as {@link Inventory}
+     * entities keyed by product ID, and prints both footprints.
+     */
+    @Test
+    void testMemoryFootprint() {
+        // Arrange
+        int products = 1_000_000;
+        long baseline = usedHeap();
+
+        // Act
+        for (int i = 0; i < products; i++) {
+            store.restock(productId(i), 100);
+        }
+        long storeHeap = usedHeap() - baseline;
+        Map<String, Inventory> entities = HashMap.newHashMap(products);
+        for (int i = 0; i < products; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setId((long) i + 1);
+            inventory.setProductId(productId(i));
+            inventory.setQuantity(100);
+            inventory.setVersion(0L);
+            entities.put(inventory.getProductId(), inventory);
+        }
+        long entityHeap = usedHeap() - baseline - storeHeap;
+
+        // Assert
+        System.out.printf("%,d products: store %,d bytes (%d/product, arrays %,d bytes), entities %,d bytes (%d/product)%n",
+                products, storeHeap, storeHeap / products, store.getFootprintBytes(), entityHeap, entityHeap / products);
+        assertEquals(products, store.size());
+        assertTrue(store.getFootprintBytes() / products < 64, "store uses too much memory per product");
+        assertTrue(2 * store.getFootprintBytes() < entityHeap, "store is not smaller than the entities");
+        Reference.reachabilityFence(entities);
+    }
+
+    private static String productId(int index) {
+        return "SKU-%07d".formatted(index);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.model.InventoryBucket;
+import com.example.ordermicroservice.repository.InventoryBucketRepository;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code InventoryBucketsTest} class is a JUnit 5 test class for the {@link InventoryBuckets} class.
+ * It uses Mockito to mock the repositories and the {@link TransactionTemplate} and tests decrements from single
+ * buckets, rebalancing, and splitting and merging the stock of a product.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryBuckets
+ * @see InventoryBucketRepository
+ */
+@ExtendWith(MockitoExtension.class)
+public class InventoryBucketsTest {
+
+    /**
+     * A mock instance of {@link InventoryRepository} used to simulate the inventory records.
+     */
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * A mock instance of {@link InventoryBucketRepository} used to simulate the bucket rows.
+     */
+    @Mock
+    private InventoryBucketRepository bucketRepository;
+
+    /**
+     * A mock instance of {@link TransactionTemplate} that runs transaction callbacks directly.
+     */
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The {@link InventoryBuckets} instance being tested, with mocked dependencies injected.
+     */
+    @InjectMocks
+    private InventoryBuckets inventoryBuckets;
+
+    /**
+     * The inventory record of the hot product used for testing.
+     */
+    private Inventory inventory;
+
+    /**
+     * Sets up transactions that run their callbacks directly and a hot product before each test case.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        inventory = new Inventory();
+        inventory.setProductId("HOT");
+        inventory.setQuantity(10);
+        lenient().when(inventoryRepository.findForUpdateByProductId("HOT")).thenReturn(inventory);
+    }
+
+    /**
+     * Tests that splitting a product moves its stock evenly into new buckets and marks it as split.
+     */
+    @Test
+    void testSplit() {
+        // Arrange
+        when(bucketRepository.findForUpdateByProductIdOrderByBucket("HOT")).thenReturn(List.of());
+
+        // Act
+        inventoryBuckets.split("HOT", 4);
+
+        // Assert
+        List<InventoryBucket> buckets = savedBuckets();
+        assertEquals(List.of(3, 3, 2, 2), buckets.stream().map(InventoryBucket::getQuantity).toList());
+        assertEquals(List.of(0, 1, 2, 3), buckets.stream().map(InventoryBucket::getBucket).toList());
+        assertEquals(0, inventory.getQuantity());
+        assertEquals(4, inventory.getBucketCount());
+        assertTrue(inventoryBuckets.isSplit("HOT"));
+    }
+
+    /**
+     * Tests that splitting a product into a single bucket moves its stock back into the inventory record.
+     */
+    @Test
+    void testSplit_Merge() {
+        // Arrange
+        inventory.setQuantity(1);
+        inventory.setBucketCount(2);
+        List<InventoryBucket> buckets = List.of(bucket(0, 4), bucket(1, 5));
+        when(bucketRepository.findForUpdateByProductIdOrderByBucket("HOT")).thenReturn(buckets);
+
+        // Act
+        inventoryBuckets.split("HOT", 1);
+
+        // Assert
+        verify(bucketRepository, times(1)).deleteAll(buckets);
+        assertEquals(10, inventory.getQuantity());
+        assertNull(inventory.getBucketCount());
+        assertFalse(inventoryBuckets.isSplit("HOT"));
+    }
+
+    /**
+     * Tests that bucket counts out of range are rejected.
+     */
+    @Test
+    void testSplit_InvalidBucketCount() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> inventoryBuckets.split("HOT", 0));
+        assertThrows(IllegalArgumentException.class, () -> inventoryBuckets.split("HOT", InventoryBuckets.MAX_BUCKETS + 1));
+    }
+
+    /**
+     * Tests that a decrement is taken from a single bucket with one conditional update, without a transaction.
+     */
+    @Test
+    void testDecrement_SingleBucket() {
+        // Arrange
+        split(4);
+        when(bucketRepository.decrementQuantity(eq("HOT"), anyInt(), eq(2))).thenReturn(1);
+
+        // Act
+        inventoryBuckets.decrement("HOT", 2);
+
+        // Assert
+        verify(bucketRepository, times(1)).decrementQuantity(eq("HOT"), anyInt(), eq(2));
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    /**
+     * Tests that the product is rebalanced when no bucket holds enough stock on its own, and that the rest of the
+     * stock, including stock added to the inventory record, is spread evenly across the buckets again.
+     */
+    @Test
+    void testDecrement_Rebalances() {
+        // Arrange
+        split(4);
+        inventory.setQuantity(1);
+        List<InventoryBucket> buckets = List.of(bucket(0, 0), bucket(1, 1), bucket(2, 0), bucket(3, 3));
+        when(bucketRepository.decrementQuantity(eq("HOT"), anyInt(), eq(3))).thenReturn(0);
+        when(bucketRepository.findForUpdateByProductIdOrderByBucket("HOT")).thenReturn(buckets);
+
+        // Act
+        inventoryBuckets.decrement("HOT", 3);
+
+        // Assert
+        verify(bucketRepository, times(4)).decrementQuantity(eq("HOT"), anyInt(), eq(3));
+        assertEquals(List.of(1, 1, 0, 0), buckets.stream().map(InventoryBucket::getQuantity).toList());
+        assertEquals(0, inventory.getQuantity());
+    }
+
+    /**
+     * Tests that a decrement larger than the total stock of all buckets is rejected without changes.
+     */
+    @Test
+    void testDecrement_Insufficient() {
+        // Arrange
+        split(2);
+        inventory.setQuantity(0);
+        when(bucketRepository.decrementQuantity(eq("HOT"), anyInt(), eq(5))).thenReturn(0);
+        when(bucketRepository.findForUpdateByProductIdOrderByBucket("HOT")).thenReturn(List.of(bucket(0, 2), bucket(1, 2)));
+
+        // Act & Assert
+        assertThrows(InsufficientInventoryException.class, () -> inventoryBuckets.decrement("HOT", 5));
+        verify(bucketRepository, never()).saveAll(any());
+    }
+
+    /**
+     * Tests that stock is added to a bucket of a split product and not to a product that is not split.
+     */
+    @Test
+    void testIncrement() {
+        // Arrange
+        split(4);
+        when(bucketRepository.incrementQuantity(eq("HOT"), anyInt(), eq(3))).thenReturn(1);
+
+        // Act & Assert
+        assertTrue(inventoryBuckets.increment("HOT", 3));
+        assertFalse(inventoryBuckets.increment("COLD", 3));
+    }
+
+    /**
+     * Tests that the available quantity of a split product includes its buckets.
+     */
+    @Test
+    void testGetAvailable() {
+        // Arrange
+        inventory.setQuantity(1);
+        when(bucketRepository.sumQuantity("HOT")).thenReturn(9L);
+
+        // Act & Assert
+        assertEquals(10, inventoryBuckets.getAvailable(inventory));
+    }
+
+    /**
+     * Marks the hot product as split, as reading its inventory record would.
+     */
+    private void split(int bucketCount) {
+        Inventory record = new Inventory();
+        record.setProductId("HOT");
+        record.setBucketCount(bucketCount);
+        assertTrue(inventoryBuckets.isSplit(record));
+        inventory.setBucketCount(bucketCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryBucket> savedBuckets() {
+        ArgumentCaptor<List<InventoryBucket>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bucketRepository).saveAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    private InventoryBucket bucket(int number, int quantity) {
+        InventoryBucket bucket = new InventoryBucket();
+        bucket.setProductId("HOT");
+        bucket.setBucket(number);
+        bucket.setQuantity(quantity);
+        return bucket;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.ordermicroservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code InventoryCacheTest} class is a JUnit 5 test class for the {@link InventoryCache} class.
+ * It uses Mockito to mock the {@link InventoryStore} and tests read-through loading, invalidation,
+ * size-bounded eviction and the published cache metrics.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryCache
+ * @see InventoryStore
+ */
+@ExtendWith(MockitoExtension.class)
+public class InventoryCacheTest {
+
+    /**
+     * A mock instance of {@link InventoryStore} used to simulate the stock the cache loads.
+     */
+    @Mock
+    private InventoryStore inventoryStore;
+
+    /**
+     * The {@link InventoryCache} instance being tested, with mocked dependencies injected.
+     */
+    @InjectMocks
+    private InventoryCache inventoryCache;
+
+    /**
+     * A {@link SimpleMeterRegistry} that records the cache metrics.
+     */
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Initializes a cache that holds at most two products before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(inventoryCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(inventoryCache, "maximumSize", 2L);
+        ReflectionTestUtils.setField(inventoryCache, "expireAfterWriteMs", 60_000L);
+        inventoryCache.init();
+    }
+
+    /**
+     * Tests that a quantity is loaded from the store on the first check only and that the hits and misses are
+     * published as metrics.
+     */
+    @Test
+    void testGetAvailable_ReadThrough() {
+        // Arrange
+        when(inventoryStore.getAvailable("PROD123")).thenReturn(10);
+
+        // Act & Assert
+        assertEquals(10, inventoryCache.getAvailable("PROD123"));
+        assertEquals(10, inventoryCache.getAvailable("PROD123"));
+        verify(inventoryStore, times(1)).getAvailable("PROD123");
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "inventory").tag("result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "inventory").tag("result", "miss").functionCounter().count());
+    }
+
+    /**
+     * Tests that a product without an inventory record is reported as missing.
+     */
+    @Test
+    void testGetAvailable_ProductNotFound() {
+        // Arrange
+        when(inventoryStore.getAvailable("UNKNOWN")).thenReturn(-1);
+
+        // Act & Assert
+        assertEquals(-1, inventoryCache.getAvailable("UNKNOWN"));
+    }
+
+    /**
+     * Tests that an invalidated quantity is loaded again on the next check.
+     */
+    @Test
+    void testInvalidate() {
+        // Arrange
+        when(inventoryStore.getAvailable("PROD123")).thenReturn(10, 4);
+        assertEquals(10, inventoryCache.getAvailable("PROD123"));
+
+        // Act
+        inventoryCache.invalidate("PROD123");
+
+        // Assert
+        assertEquals(4, inventoryCache.getAvailable("PROD123"));
+        verify(inventoryStore, times(2)).getAvailable("PROD123");
+    }
+
+    /**
+     * Tests that the cache evicts entries once it holds more than its maximum size and counts the evictions.
+     */
+    @Test
+    void testEviction() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            when(inventoryStore.getAvailable("PROD" + i)).thenReturn(i);
+        }
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            inventoryCache.getAvailable("PROD" + i);
+        }
+        @SuppressWarnings("unchecked")
+        Cache<String, Integer> quantities =
+                (Cache<String, Integer>) ReflectionTestUtils.getField(inventoryCache, "quantities");
+        quantities.cleanUp();
+
+        // Assert
+        assertTrue(quantities.estimatedSize() <= 2);
+        assertTrue(meterRegistry.get("cache.evictions").tag("cache", "inventory").functionCounter().count() >= 8);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.repository.InventoryBucketRepository;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code InventoryContentionHarnessTest} class is a multi-threaded harness that hammers a single hot product
+ * through {@link InventoryService} against the H2 database, once for every {@link InventoryConcurrencyStrategy}.
+ *
+ * <p>Each worker thread repeats the check-then-update sequence used by {@link Orchestrator#processOrder}.
+ * For every strategy the harness prints the throughput, the number of accepted, rejected and aborted
+ * decrements, and the oversell count, and asserts that no stock was oversold and no update was lost.
+ * A last run splits the hot product across {@link InventoryBuckets} so that the workers decrement different rows.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryService
+ * @see InventoryConcurrencyStrategy
+ */
+@SpringBootTest(properties = "inventory.buckets.enabled=true")
+public class InventoryContentionHarnessTest {
+
+    private static final String HOT_PRODUCT_ID = "HOT-SKU";
+    private static final int INITIAL_STOCK = 200;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final int BUCKETS = 8;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JpaInventoryStore inventoryStore;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryBucketRepository inventoryBucketRepository;
+
+    /**
+     * Removes the hot product and restores the configured strategy after each run.
+     */
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(inventoryStore, "concurrencyStrategy", InventoryConcurrencyStrategy.OPTIMISTIC);
+        Inventory inventory = inventoryRepository.findByProductId(HOT_PRODUCT_ID);
+        if (inventory != null) {
+            if (inventory.getBucketCount() != null) {
+                inventoryService.splitInventory(HOT_PRODUCT_ID, 1);
+                inventory = inventoryRepository.findByProductId(HOT_PRODUCT_ID);
+            }
+            inventoryRepository.delete(inventory);
+        }
+    }
+
+    /**
+     * Runs the harness for every strategy and verifies that none of them oversells or loses an update.
+     */
+    @Test
+    void testHotProductContention() throws Exception {
+        System.out.printf("%-20s %10s %9s %9s %8s %9s%n", "strategy", "ops/s", "accepted", "rejected", "aborted", "oversold");
+        for (InventoryConcurrencyStrategy strategy : InventoryConcurrencyStrategy.values()) {
+            report(strategy.name(), run(strategy, 1));
+        }
+        report(BUCKETS + " buckets", run(InventoryConcurrencyStrategy.CONDITIONAL_UPDATE, BUCKETS));
+    }
+
+    private void report(String name, Result result) {
+        System.out.printf("%-20s %10.0f %9d %9d %8d %9d%n", name, result.throughput(), result.accepted(),
+                result.rejected(), result.aborted(), result.oversold());
+
+        assertEquals(0, result.oversold(), name + " oversold stock");
+        assertEquals(INITIAL_STOCK - result.accepted(), result.finalQuantity(), name + " lost updates");
+        tearDown();
+    }
+
+    /**
+     * Resets the hot product to its initial stock, split across the given number of buckets, and lets all worker
+     * threads compete for it.
+     */
+    private Result run(InventoryConcurrencyStrategy strategy, int buckets) throws Exception {
+        ReflectionTestUtils.setField(inventoryStore, "concurrencyStrategy", strategy);
+        Inventory inventory = new Inventory();
+        inventory.setProductId(HOT_PRODUCT_ID);
+        inventory.setQuantity(INITIAL_STOCK);
+        inventoryRepository.save(inventory);
+        if (buckets > 1) {
+            inventoryService.splitInventory(HOT_PRODUCT_ID, buckets);
+        }
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger aborted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    if (!inventoryService.checkInventory(HOT_PRODUCT_ID, 1)) {
+                        rejected.incrementAndGet();
+                        continue;
+                    }
+                    try {
+                        inventoryService.updateInventory(HOT_PRODUCT_ID, 1);
+                        accepted.incrementAndGet();
+                    } catch (InsufficientInventoryException ex) {
+                        rejected.incrementAndGet();
+                    } catch (ConcurrencyFailureException ex) {
+                        aborted.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executor.shutdown();
+
+        int finalQuantity = inventoryRepository.findByProductId(HOT_PRODUCT_ID).getQuantity()
+                + (int) inventoryBucketRepository.sumQuantity(HOT_PRODUCT_ID);
+        double throughput = THREADS * ATTEMPTS_PER_THREAD / (elapsedNanos / 1_000_000_000.0);
+        return new Result(throughput, accepted.get(), rejected.get(), aborted.get(),
+                Math.max(0, accepted.get() - INITIAL_STOCK), finalQuantity);
+    }
+
+    private record Result(double throughput, int accepted, int rejected, int aborted, int oversold, int finalQuantity) {
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code InventoryReservationLedgerTest} class is a JUnit 5 test class for the {@link InventoryReservationLedger} class.
+ * It uses Mockito to mock the {@link InventoryRepository} and {@link TransactionTemplate} dependencies and tests
+ * reservations against the in-memory counters and the write-behind flush of pending deltas.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventoryReservationLedger
+ * @see InventoryRepository
+ */
+@ExtendWith(MockitoExtension.class)
+public class InventoryReservationLedgerTest {
+
+    /**
+     * A mock instance of {@link InventoryRepository} used to simulate database interactions.
+     */
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * A mock instance of {@link TransactionTemplate} that runs flush callbacks directly.
+     */
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The {@link InventoryReservationLedger} instance being tested, with mocked dependencies injected.
+     */
+    @InjectMocks
+    private InventoryReservationLedger ledger;
+
+    /**
+     * A sample {@link Inventory} record loaded by the ledger.
+     */
+    private Inventory inventory;
+
+    /**
+     * Initializes the test environment before each test case with a product that has 10 units in stock.
+     */
+    @BeforeEach
+    void setUp() {
+        inventory = new Inventory();
+        inventory.setProductId("PROD123");
+        inventory.setQuantity(10);
+        lenient().when(inventoryRepository.findByProductId("PROD123")).thenReturn(inventory);
+    }
+
+    /**
+     * Tests that the counter is loaded from the database once and that reservations never exceed the stock.
+     */
+    @Test
+    void testReserve() {
+        // Act & Assert
+        assertTrue(ledger.reserve("PROD123", 4));
+        assertTrue(ledger.reserve("PROD123", 6));
+        assertFalse(ledger.reserve("PROD123", 1));
+        assertEquals(0, ledger.getAvailable("PROD123"));
+        verify(inventoryRepository, times(1)).findByProductId("PROD123");
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    /**
+     * Tests that a product without an inventory record is reported as missing.
+     */
+    @Test
+    void testUnknownProduct() {
+        // Act & Assert
+        assertEquals(-1, ledger.getAvailable("PROD999"));
+        assertThrows(IllegalStateException.class, () -> ledger.reserve("PROD999", 1));
+    }
+
+    /**
+     * Tests that concurrent reservations for one product hand out exactly the available stock.
+     */
+    @Test
+    void testConcurrentReservations() throws Exception {
+        // Arrange
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            executor.execute(() -> {
+                if (ledger.reserve("PROD123", 1)) {
+                    reserved.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(10, reserved.get());
+        assertEquals(0, ledger.getAvailable("PROD123"));
+    }
+
+    /**
+     * Tests that a flush writes the net delta of all reservations and releases with one batched save.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush() {
+        // Arrange
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(inventoryRepository.findForUpdateByProductIdInOrderByProductId(Set.of("PROD123")))
+                .thenReturn(new ArrayList<>(List.of(inventory)));
+        ledger.reserve("PROD123", 4);
+        ledger.release("PROD123", 1);
+
+        // Act
+        ledger.flush();
+        ledger.flush();
+
+        // Assert
+        assertEquals(7, inventory.getQuantity());
+        verify(inventoryRepository, times(1)).saveAll(List.of(inventory));
+    }
+
+    /**
+     * Tests that the deltas of a failed flush are kept and written by the next flush.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlushRetriesFailedDeltas() {
+        // Arrange
+        doThrow(new IllegalStateException("Database unavailable")).doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(inventoryRepository.findForUpdateByProductIdInOrderByProductId(Set.of("PROD123")))
+                .thenReturn(new ArrayList<>(List.of(inventory)));
+        ledger.reserve("PROD123", 3);
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> ledger.flush());
+        ledger.flush();
+
+        // Assert
+        assertEquals(7, inventory.getQuantity());
+    }
+
+    /**
+     * Tests that a reservation reaching the pending limit wakes the flusher instead of flushing itself, so that a
+     * failed flush neither reaches the caller nor loses the reserved stock.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReserve_WakesFlusherWithoutFailing() throws InterruptedException {
+        // Arrange
+        doThrow(new IllegalStateException("Database unavailable")).doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(inventoryRepository.findForUpdateByProductIdInOrderByProductId(Set.of("PROD123")))
+                .thenReturn(new ArrayList<>(List.of(inventory)));
+        ReflectionTestUtils.setField(ledger, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(ledger, "maxPending", 1);
+        ledger.init();
+
+        // Act
+        assertTrue(ledger.reserve("PROD123", 4));
+        verify(transactionTemplate, timeout(5_000)).executeWithoutResult(any());
+        ledger.shutdown();
+
+        // Assert
+        assertEquals(6, ledger.getAvailable("PROD123"));
+        assertEquals(6, inventory.getQuantity());
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+}
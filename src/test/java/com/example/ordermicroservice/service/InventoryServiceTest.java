@@ -1,5 +1,6 @@
 package com.example.ordermicroservice.service;
 
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
 import com.example.ordermicroservice.model.Inventory;
 import com.example.ordermicroservice.repository.InventoryRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,14 +9,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 /**
  * The {@code InventoryServiceTest} class is a JUnit 5 test class for the {@link InventoryService} class.
- * It uses Mockito to mock the {@link InventoryRepository} dependency and tests the behavior of the
- * {@code InventoryService} methods under various scenarios.
+ * It uses Mockito to mock the {@link InventoryRepository} dependency of the {@link JpaInventoryStore} behind the
+ * service and tests the behavior of the {@code InventoryService} methods under various scenarios.
  *
  * <p>This class is annotated with {@link ExtendWith(MockitoExtension.class)} to enable Mockito support
  * in JUnit 5. It uses {@link Mock} to create mock instances of dependencies and {@link InjectMocks} to
@@ -39,6 +49,12 @@ public class InventoryServiceTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    /**
+     * The {@link JpaInventoryStore} behind the service, with mocked dependencies injected.
+     */
+    @InjectMocks
+    private JpaInventoryStore inventoryStore;
+
     /**
      * The {@link InventoryService} instance being tested, with mocked dependencies injected.
      */
@@ -56,6 +72,7 @@ public class InventoryServiceTest {
      */
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(inventoryService, "inventoryStore", inventoryStore);
         // Initialize a sample inventory object for testing
         inventory = new Inventory();
         inventory.setProductId("PROD123");
@@ -162,4 +179,478 @@ public class InventoryServiceTest {
         verify(inventoryRepository, times(1)).findByProductId("PROD999");
         verify(inventoryRepository, never()).save(any()); // Ensure save is not called
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the {@link InventoryService#findInventories(Collection)} method to ensure that the inventory of
+     * several products is loaded with a single query and keyed by product ID.
+     */
+    @Test
+    void testFindInventories() {
+        // Arrange
+        Inventory other = new Inventory();
+        other.setProductId("PROD456");
+        other.setQuantity(4);
+        List<String> productIds = List.of("PROD123", "PROD456", "PROD999");
+        when(inventoryRepository.findForUpdateByProductIdInOrderByProductId(productIds)).thenReturn(List.of(inventory, other));
+
+        // Act
+        Map<String, Inventory> result = inventoryService.findInventories(productIds);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertSame(inventory, result.get("PROD123"));
+        assertSame(other, result.get("PROD456"));
+        assertNull(result.get("PROD999"));
+        verify(inventoryRepository, times(1)).findForUpdateByProductIdInOrderByProductId(productIds);
+        verify(inventoryRepository, never()).findByProductId(anyString());
+    }
+
+    /**
+     * Tests the {@link InventoryService#findInventories(Collection)} method with no product IDs.
+     *
+     * <p>This test verifies that no query is issued when there is nothing to look up.
+     */
+    @Test
+    void testFindInventories_Empty() {
+        // Act
+        Map<String, Inventory> result = inventoryService.findInventories(List.of());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(inventoryRepository, never()).findForUpdateByProductIdInOrderByProductId(any());
+    }
+
+    /**
+     * Tests the {@link InventoryService#updateInventory(String, int)} method when a concurrent update leaves
+     * too little stock for the requested quantity.
+     *
+     * <p>This test verifies that an {@link InsufficientInventoryException} is thrown and nothing is saved.
+     */
+    @Test
+    void testUpdateInventory_InsufficientQuantity() {
+        // Arrange
+        when(inventoryRepository.findByProductId("PROD123")).thenReturn(inventory);
+
+        // Act & Assert
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.updateInventory("PROD123", 11));
+        assertEquals(10, inventory.getQuantity());
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    /**
+     * Tests the optimistic strategy of {@link InventoryService#updateInventory(String, int)} when the first save
+     * loses a race against a concurrent update.
+     *
+     * <p>This test verifies that the read-modify-write is retried on a fresh read of the inventory record.
+     */
+    @Test
+    void testUpdateInventory_OptimisticRetry() {
+        // Arrange
+        Inventory fresh = new Inventory();
+        fresh.setProductId("PROD123");
+        fresh.setQuantity(8);
+        when(inventoryRepository.findByProductId("PROD123")).thenReturn(inventory, fresh);
+        when(inventoryRepository.save(inventory)).thenThrow(new ObjectOptimisticLockingFailureException(Inventory.class, 1L));
+
+        // Act
+        inventoryService.updateInventory("PROD123", 3);
+
+        // Assert
+        assertEquals(5, fresh.getQuantity());
+        verify(inventoryRepository, times(2)).findByProductId("PROD123");
+        verify(inventoryRepository, times(1)).save(fresh);
+    }
+
+    /**
+     * Tests the conditional-update strategy of {@link InventoryService#updateInventory(String, int)} when enough
+     * stock is available.
+     *
+     * <p>This test verifies that the decrement is a single conditional update and that the record is not read.
+     */
+    @Test
+    void testUpdateInventory_ConditionalUpdate() {
+        // Arrange
+        ReflectionTestUtils.setField(inventoryStore, "concurrencyStrategy", InventoryConcurrencyStrategy.CONDITIONAL_UPDATE);
+        when(inventoryRepository.decrementQuantity("PROD123", 3)).thenReturn(1);
+
+        // Act
+        inventoryService.updateInventory("PROD123", 3);
+
+        // Assert
+        verify(inventoryRepository, times(1)).decrementQuantity("PROD123", 3);
+        verify(inventoryRepository, never()).findByProductId(anyString());
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    /**
+     * Tests the conditional-update strategy of {@link InventoryService#updateInventory(String, int)} when the
+     * conditional update matches no row because the stock is insufficient.
+     */
+    @Test
+    void testUpdateInventory_ConditionalUpdateInsufficientQuantity() {
+        // Arrange
+        ReflectionTestUtils.setField(inventoryStore, "concurrencyStrategy", InventoryConcurrencyStrategy.CONDITIONAL_UPDATE);
+        when(inventoryRepository.decrementQuantity("PROD123", 11)).thenReturn(0);
+        when(inventoryRepository.findByProductId("PROD123")).thenReturn(inventory);
+
+        // Act & Assert
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.updateInventory("PROD123", 11));
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    /**
+     * Tests the conditional-update strategy of {@link InventoryService#updateInventory(String, int)} when the
+     * conditional update matches no row because the product has no inventory record.
+     */
+    @Test
+    void testUpdateInventory_ConditionalUpdateNotFound() {
+        // Arrange
+        ReflectionTestUtils.setField(inventoryStore, "concurrencyStrategy", InventoryConcurrencyStrategy.CONDITIONAL_UPDATE);
+        when(inventoryRepository.decrementQuantity("PROD123", 1)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> inventoryService.updateInventory("PROD123", 1));
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    /**
+     * Tests the {@link InventoryService#deductInventories(Map, Map)} method to ensure that the deductions are applied
+     * to the loaded records and saved with a single {@code saveAll} call.
+     */
+    @Test
+    void testDeductInventories() {
+        // Act
+        inventoryService.deductInventories(Map.of("PROD123", inventory), Map.of("PROD123", 4));
+
+        // Assert
+        assertEquals(6, inventory.getQuantity());
+        verify(inventoryRepository, times(1)).saveAll(List.of(inventory));
+    }
+
+    /**
+     * Tests {@link InventoryService#checkInventory(String, int)} and {@link InventoryService#updateInventory(String, int)}
+     * when the reservation ledger is enabled.
+     *
+     * <p>This test verifies that both methods are served by the ledger without touching the repository.
+     */
+    @Test
+    void testReservationLedger() {
+        // Arrange
+        InventoryReservationLedger ledger = mock(InventoryReservationLedger.class);
+        ReflectionTestUtils.setField(inventoryService, "reservationLedger", ledger);
+        when(ledger.getAvailable("PROD123")).thenReturn(10);
+        when(ledger.reserve("PROD123", 3)).thenReturn(true);
+        when(ledger.reserve("PROD123", 20)).thenReturn(false);
+
+        // Act & Assert
+        assertTrue(inventoryService.checkInventory("PROD123", 10));
+        assertFalse(inventoryService.checkInventory("PROD123", 11));
+        inventoryService.updateInventory("PROD123", 3);
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.updateInventory("PROD123", 20));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    /**
+     * Tests the {@link InventoryService#deductInventories(Map, Map)} method when the reservation ledger is enabled and
+     * a concurrent order took the stock of one of the products.
+     *
+     * <p>This test verifies that the reservations already made for the batch are released again.
+     */
+    @Test
+    void testDeductInventories_ReservationLedgerInsufficient() {
+        // Arrange
+        InventoryReservationLedger ledger = mock(InventoryReservationLedger.class);
+        ReflectionTestUtils.setField(inventoryService, "reservationLedger", ledger);
+        Map<String, Integer> deductions = new LinkedHashMap<>();
+        deductions.put("PROD123", 2);
+        deductions.put("PROD456", 5);
+        when(ledger.reserve("PROD123", 2)).thenReturn(true);
+        when(ledger.reserve("PROD456", 5)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.deductInventories(Map.of(), deductions));
+        verify(ledger, times(1)).release("PROD123", 2);
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    /**
+     * Tests the {@link InventoryService#deductInventories(Map, Map)} method when the reservation ledger is enabled and
+     * the caller's transaction rolls back.
+     *
+     * <p>This test verifies that the reservations are released on rollback and kept on commit.
+     */
+    @Test
+    void testDeductInventories_ReservationLedgerRollback() {
+        // Arrange
+        InventoryReservationLedger ledger = mock(InventoryReservationLedger.class);
+        ReflectionTestUtils.setField(inventoryService, "reservationLedger", ledger);
+        when(ledger.reserve("PROD123", 2)).thenReturn(true);
+
+        // Act
+        complete(TransactionSynchronization.STATUS_COMMITTED,
+                () -> inventoryService.deductInventories(Map.of(), Map.of("PROD123", 2)));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> inventoryService.deductInventories(Map.of(), Map.of("PROD123", 2)));
+
+        // Assert
+        verify(ledger, times(2)).reserve("PROD123", 2);
+        verify(ledger, times(1)).release("PROD123", 2);
+    }
+
+    /**
+     * Tests the {@link InventoryService#releaseInventory(String, int)} method to ensure that the quantity is added
+     * back with a single atomic update.
+     */
+    @Test
+    void testReleaseInventory() {
+        // Arrange
+        when(inventoryRepository.incrementQuantity("PROD123", 3)).thenReturn(1);
+
+        // Act
+        inventoryService.releaseInventory("PROD123", 3);
+
+        // Assert
+        verify(inventoryRepository, times(1)).incrementQuantity("PROD123", 3);
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    /**
+     * Tests {@link InventoryService#checkInventory(String, int)} and {@link InventoryService#updateInventory(String, int)}
+     * when the inventory cache is enabled and its answer is stale.
+     *
+     * <p>This test verifies that the check is served by the cache, that the decrement still goes to the database and
+     * rejects the order, and that the stale entry is invalidated.
+     */
+    @Test
+    void testInventoryCache_StaleAnswerCannotOversell() {
+        // Arrange
+        InventoryCache cache = mock(InventoryCache.class);
+        ReflectionTestUtils.setField(inventoryService, "inventoryCache", cache);
+        when(cache.getAvailable("PROD123")).thenReturn(10);
+        inventory.setQuantity(1);
+        when(inventoryRepository.findByProductId("PROD123")).thenReturn(inventory);
+
+        // Act & Assert
+        assertTrue(inventoryService.checkInventory("PROD123", 5));
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.updateInventory("PROD123", 5));
+        assertEquals(1, inventory.getQuantity());
+        verify(inventoryRepository, never()).save(any());
+        verify(cache, times(1)).invalidate("PROD123");
+    }
+
+    /**
+     * Tests that {@link InventoryService#releaseInventory(String, int)} and
+     * {@link InventoryService#restockInventory(String, int)} invalidate the cached quantity.
+     */
+    @Test
+    void testInventoryCache_InvalidatedOnRestock() {
+        // Arrange
+        InventoryCache cache = mock(InventoryCache.class);
+        ReflectionTestUtils.setField(inventoryService, "inventoryCache", cache);
+        when(inventoryRepository.incrementQuantity("PROD123", 3)).thenReturn(1);
+
+        // Act
+        inventoryService.releaseInventory("PROD123", 3);
+        inventoryService.restockInventory("PROD123", 3);
+
+        // Assert
+        verify(cache, times(2)).invalidate("PROD123");
+    }
+
+    /**
+     * Tests that successful decrements, releases and restocks are recorded in the delta log of the
+     * {@link InventorySnapshots}, and that a failed decrement is not.
+     */
+    @Test
+    void testInventorySnapshots_RecordsDeltas() {
+        // Arrange
+        InventorySnapshots snapshots = mock(InventorySnapshots.class);
+        ReflectionTestUtils.setField(inventoryService, "inventorySnapshots", snapshots);
+        ReflectionTestUtils.setField(inventoryStore, "concurrencyStrategy", InventoryConcurrencyStrategy.CONDITIONAL_UPDATE);
+        when(inventoryRepository.decrementQuantity("PROD123", 3)).thenReturn(1);
+        when(inventoryRepository.decrementQuantity("PROD123", 11)).thenReturn(0);
+        when(inventoryRepository.findByProductId("PROD123")).thenReturn(inventory);
+        when(inventoryRepository.incrementQuantity("PROD123", 2)).thenReturn(1);
+
+        // Act
+        inventoryService.updateInventory("PROD123", 3);
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.updateInventory("PROD123", 11));
+        inventoryService.releaseInventory("PROD123", 2);
+        inventoryService.restockInventory("PROD123", 2);
+
+        // Assert
+        verify(snapshots, times(1)).recordDelta("PROD123", -3);
+        verify(snapshots, never()).recordDelta("PROD123", -11);
+        verify(snapshots, times(2)).recordDelta("PROD123", 2);
+    }
+
+    /**
+     * Tests the {@link InventoryService#restockInventory(String, int)} method for a product without an inventory
+     * record.
+     *
+     * <p>This test verifies that a new record is created with the restocked quantity.
+     */
+    @Test
+    void testRestockInventory_NewProduct() {
+        // Arrange
+        when(inventoryRepository.incrementQuantity("NEW456", 7)).thenReturn(0);
+
+        // Act
+        inventoryService.restockInventory("NEW456", 7);
+
+        // Assert
+        verify(inventoryRepository, times(1)).save(argThat(saved ->
+                saved.getProductId().equals("NEW456") && saved.getQuantity() == 7));
+    }
+
+    /**
+     * Tests the {@link InventoryService#restockInventory(String, int)} method with a non-positive quantity.
+     */
+    @Test
+    void testRestockInventory_InvalidQuantity() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.restockInventory("PROD123", 0));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    /**
+     * Tests {@link InventoryService#updateInventory(String, int)} and {@link InventoryService#checkInventory(String, int)}
+     * when the product key dictionary is enabled.
+     *
+     * <p>This test verifies that records are decremented and read by their integer key instead of the product ID.
+     */
+    @Test
+    void testProductKeyDictionary() {
+        // Arrange
+        ProductKeyDictionary dictionary = mock(ProductKeyDictionary.class);
+        ReflectionTestUtils.setField(inventoryStore, "productKeyDictionary", dictionary);
+        ReflectionTestUtils.setField(inventoryStore, "concurrencyStrategy", InventoryConcurrencyStrategy.CONDITIONAL_UPDATE);
+        when(dictionary.find("PROD123")).thenReturn(7);
+        when(inventoryRepository.decrementQuantityByProductKey(7, 2)).thenReturn(1);
+        when(inventoryRepository.findByProductKey(7)).thenReturn(inventory);
+
+        // Act & Assert
+        inventoryService.updateInventory("PROD123", 2);
+        assertTrue(inventoryService.checkInventory("PROD123", 10));
+        verify(inventoryRepository, never()).decrementQuantity(anyString(), anyInt());
+        verify(inventoryRepository, never()).findByProductId(anyString());
+    }
+
+    /**
+     * Tests the conditional-update strategy when the product key dictionary has a key for a product whose inventory
+     * record has not been stamped with it.
+     *
+     * <p>This test verifies that the conditional update is retried by product ID and that the record is never read
+     * or saved.
+     */
+    @Test
+    void testProductKeyDictionary_ConditionalUpdateFallsBackToProductId() {
+        // Arrange
+        ProductKeyDictionary dictionary = mock(ProductKeyDictionary.class);
+        ReflectionTestUtils.setField(inventoryStore, "productKeyDictionary", dictionary);
+        ReflectionTestUtils.setField(inventoryStore, "concurrencyStrategy", InventoryConcurrencyStrategy.CONDITIONAL_UPDATE);
+        when(dictionary.find("PROD123")).thenReturn(7);
+        when(inventoryRepository.decrementQuantityByProductKey(7, 2)).thenReturn(0);
+        when(inventoryRepository.decrementQuantity("PROD123", 2)).thenReturn(1);
+
+        // Act
+        inventoryService.updateInventory("PROD123", 2);
+
+        // Assert
+        verify(inventoryRepository, never()).findByProductKey(anyInt());
+        verify(inventoryRepository, never()).findByProductId(anyString());
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    /**
+     * Tests {@link InventoryService#checkInventory(String, int)} when the product key dictionary has a key for a
+     * product whose inventory record has not been stamped with it.
+     *
+     * <p>This test verifies that the record is found by its product ID instead.
+     */
+    @Test
+    void testProductKeyDictionary_FallsBackToProductId() {
+        // Arrange
+        ProductKeyDictionary dictionary = mock(ProductKeyDictionary.class);
+        ReflectionTestUtils.setField(inventoryStore, "productKeyDictionary", dictionary);
+        when(dictionary.find("PROD123")).thenReturn(7);
+        when(inventoryRepository.findByProductKey(7)).thenReturn(null);
+        when(inventoryRepository.findByProductId("PROD123")).thenReturn(inventory);
+
+        // Act & Assert
+        assertTrue(inventoryService.checkInventory("PROD123", 10));
+    }
+
+    /**
+     * Tests {@link InventoryService#updateInventory(String, int)} and {@link InventoryService#checkInventory(String, int)}
+     * for a product whose stock is split across buckets.
+     *
+     * <p>This test verifies that the decrement goes to the buckets and that the available quantity is their sum.
+     */
+    @Test
+    void testInventoryBuckets() {
+        // Arrange
+        InventoryBuckets buckets = mock(InventoryBuckets.class);
+        ReflectionTestUtils.setField(inventoryStore, "inventoryBuckets", buckets);
+        inventory.setQuantity(0);
+        inventory.setBucketCount(4);
+        when(buckets.isSplit("PROD123")).thenReturn(true);
+        when(buckets.isSplit(inventory)).thenReturn(true);
+        when(buckets.getAvailable(inventory)).thenReturn(8);
+        when(inventoryRepository.findByProductId("PROD123")).thenReturn(inventory);
+
+        // Act & Assert
+        inventoryService.updateInventory("PROD123", 2);
+        assertTrue(inventoryService.checkInventory("PROD123", 8));
+        verify(buckets, times(1)).decrement("PROD123", 2);
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    /**
+     * Tests {@link InventoryService#updateInventory(String, int)} for a product that was split by another instance.
+     *
+     * <p>This test verifies that the split is noticed when the inventory record is read and that the buckets are
+     * decremented instead of the record.
+     */
+    @Test
+    void testInventoryBuckets_SplitElsewhere() {
+        // Arrange
+        InventoryBuckets buckets = mock(InventoryBuckets.class);
+        ReflectionTestUtils.setField(inventoryStore, "inventoryBuckets", buckets);
+        inventory.setQuantity(0);
+        inventory.setBucketCount(4);
+        when(inventoryRepository.findByProductId("PROD123")).thenReturn(inventory);
+        when(buckets.isSplit("PROD123")).thenReturn(false);
+        when(buckets.isSplit(inventory)).thenReturn(true);
+
+        // Act
+        inventoryService.updateInventory("PROD123", 2);
+
+        // Assert
+        verify(buckets, times(1)).decrement("PROD123", 2);
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    /**
+     * Tests {@link InventoryService#splitInventory(String, int)} when inventory buckets are not enabled.
+     */
+    @Test
+    void testSplitInventory_NotEnabled() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> inventoryService.splitInventory("PROD123", 4));
+    }
+
+    /**
+     * Runs an action in a simulated transaction and completes it with the given status.
+     */
+    static void complete(int status, Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.ordermicroservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code InventorySnapshotBenchmarkTest} class compares the time it takes an application with an empty database
+ * to get its inventory back with and without {@link InventorySnapshots}.
+ *
+ * <p>Without snapshots, the catalog has to be rebuilt record by record through
+ * {@link InventoryService#restockInventory(String, int)}. With snapshots, {@link InventorySnapshots#restore()} loads
+ * the state and inserts it in batches, once from a snapshot of nothing followed by the delta log of the rebuild, as
+ * after a crash, and once from a single compacted snapshot, as after a clean shutdown. The {@code inventory} table is
+ * emptied before every restore, as a restart of the in-memory database would. For each run the benchmark prints the
+ * wall time and the number of products restored per second.
+ *
+ * <p>The benchmark is slow and only runs when the {@code benchmark} system property is {@code true}:
+ * {@code mvn test -Dtest=InventorySnapshotBenchmarkTest -Dbenchmark=true}. The number of products defaults to
+ * 1,000,000 and can be set with the {@code benchmark.products} system property.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventorySnapshots
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshotbenchmark",
+        "inventory.snapshot.enabled=true",
+        "inventory.snapshot.interval-ms=3600000"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class InventorySnapshotBenchmarkTest {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000_000);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventorySnapshots inventorySnapshots;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the snapshot files to a new temporary directory, so that the application starts without any.
+     */
+    @DynamicPropertySource
+    static void snapshotDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("inventory-snapshots");
+        registry.add("inventory.snapshot.directory", directory::toString);
+    }
+
+    /**
+     * Rebuilds the catalog record by record, then restores it from the delta log and from a snapshot, and prints
+     * the results.
+     */
+    @Test
+    void testStartupWithAndWithoutSnapshots() {
+        long start = System.nanoTime();
+        for (int i = 0; i < PRODUCTS; i++) {
+            inventoryService.restockInventory("SNAP-" + i, 100 + i % 100);
+        }
+        long rebuild = System.nanoTime() - start;
+        long expectedTotal = totalQuantity();
+
+        System.out.printf("%-22s %10s %10s %14s%n", "startup", "products", "ms", "products/s");
+        print("without snapshots", rebuild);
+        print("snapshot + deltas", restore(expectedTotal));
+        // The previous restore folded the delta log into a fresh snapshot, so this one reads no deltas
+        print("snapshot only", restore(expectedTotal));
+    }
+
+    /**
+     * Empties the {@code inventory} table, restores it and returns the duration of the restore in nanoseconds.
+     */
+    private long restore(long expectedTotal) {
+        jdbcTemplate.update("DELETE FROM inventory");
+        long start = System.nanoTime();
+        int restored = inventorySnapshots.restore();
+        long elapsed = System.nanoTime() - start;
+        assertEquals(PRODUCTS, restored);
+        assertEquals(expectedTotal, totalQuantity());
+        return elapsed;
+    }
+
+    private long totalQuantity() {
+        Long total = jdbcTemplate.queryForObject("SELECT SUM(quantity) FROM inventory", Long.class);
+        return total == null ? 0 : total;
+    }
+
+    private void print(String startup, long nanos) {
+        System.out.printf("%-22s %10d %10d %14.0f%n", startup, PRODUCTS, nanos / 1_000_000,
+                PRODUCTS / (nanos / 1e9));
+    }
+}
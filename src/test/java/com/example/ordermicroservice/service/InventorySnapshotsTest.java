@@ -0,0 +1,226 @@
+package com.example.ordermicroservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code InventorySnapshotsTest} class is a JUnit 5 test class for the {@link InventorySnapshots} class.
+ * It writes the snapshot files and delta logs to a temporary directory, uses Mockito to mock the
+ * {@link JdbcTemplate}, and tests that a restarted instance inserts the state recovered from the latest snapshot and
+ * the delta logs after it, ignores a torn delta, and takes the state from the table when the table is not empty.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see InventorySnapshots
+ */
+@ExtendWith(MockitoExtension.class)
+public class InventorySnapshotsTest {
+
+    /**
+     * The temporary directory holding the snapshot files and delta logs.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * A mock instance of {@link JdbcTemplate} used to simulate the {@code inventory} table.
+     */
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * A mock instance of {@link TransactionTemplate} that runs transaction callbacks directly.
+     */
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Captures the batches of rows inserted into the {@code inventory} table.
+     */
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batches;
+
+    /**
+     * A {@link SimpleMeterRegistry} that records the restore durations.
+     */
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Sets up transactions that run their callbacks directly and a registry for the metrics before each test case.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    /**
+     * Tests that a restarted instance inserts the state of the latest snapshot plus the deltas logged after it, in
+     * batches, into an empty table.
+     */
+    @Test
+    void testRestore_SnapshotAndDeltas() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+        InventorySnapshots snapshots = start();
+        snapshots.recordDelta("PROD1", 10);
+        snapshots.recordDelta("PROD2", 5);
+        snapshots.recordDelta("PROD1", -3);
+        snapshots.snapshot();
+        snapshots.recordDelta("PROD2", -1);
+        snapshots.recordDelta("PROD3", 8);
+
+        // Act
+        InventorySnapshots restarted = start();
+
+        // Assert
+        assertEquals(Map.of("PROD1", 7, "PROD2", 4, "PROD3", 8), inserted());
+        assertEquals(2, batches.getAllValues().size());
+        assertEquals(2, meterRegistry.get("inventory.snapshot.restore").tag("source", "files").timer().count());
+        restarted.shutdown();
+    }
+
+    /**
+     * Tests that a delta cut off at the end of the log by a crash is ignored.
+     */
+    @Test
+    void testRestore_TornDeltaIgnored() throws IOException {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+        InventorySnapshots snapshots = start();
+        snapshots.recordDelta("PROD1", 10);
+        try (var files = Files.list(directory)) {
+            Path log = files.filter(path -> path.toString().endsWith(".delta")).findFirst().orElseThrow();
+            Files.write(log, new byte[]{0, 5, 'P', 'R', 'O'}, StandardOpenOption.APPEND);
+        }
+
+        // Act
+        InventorySnapshots restarted = start();
+
+        // Assert
+        assertEquals(Map.of("PROD1", 10), inserted());
+        restarted.shutdown();
+    }
+
+    /**
+     * Tests that the quantities of a table that is not empty are read instead of inserted, and that they are the
+     * state snapshotted for the next restart.
+     */
+    @Test
+    void testRestore_TableNotEmpty() throws Exception {
+        // Arrange
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString(1)).thenReturn("PROD1");
+        when(resultSet.getInt(2)).thenReturn(42);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1, 0);
+
+        // Act
+        start();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        InventorySnapshots restarted = start();
+
+        // Assert
+        assertEquals(Map.of("PROD1", 42), inserted());
+        assertEquals(1, meterRegistry.get("inventory.snapshot.restore").tag("source", "database").timer().count());
+        restarted.shutdown();
+    }
+
+    /**
+     * Tests that, with the memory store, the recovered quantities are merged into a table that is not empty instead of
+     * being replaced by its stale rows.
+     */
+    @Test
+    void testRestore_MemoryStoreFilesWin() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0, 1);
+        InventorySnapshots snapshots = start();
+        snapshots.recordDelta("PROD1", 10);
+        snapshots.recordDelta("PROD1", -4);
+        snapshots.shutdown();
+
+        // Act
+        InventorySnapshots restarted = new InventorySnapshots();
+        ReflectionTestUtils.setField(restarted, "store", "memory");
+        init(restarted);
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(startsWith("MERGE INTO inventory"), batches.capture());
+        assertEquals(Map.of("PROD1", 6), inserted());
+        assertEquals(2, meterRegistry.get("inventory.snapshot.restore").tag("source", "files").timer().count());
+        restarted.shutdown();
+    }
+
+    /**
+     * Tests that a product ID too long for the delta log is rejected.
+     */
+    @Test
+    void testRecordDelta_ProductIdTooLong() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+        InventorySnapshots snapshots = start();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> snapshots.recordDelta("P".repeat(0x10000), 1));
+        snapshots.shutdown();
+    }
+
+    private InventorySnapshots start() {
+        return init(new InventorySnapshots());
+    }
+
+    private InventorySnapshots init(InventorySnapshots started) {
+        ReflectionTestUtils.setField(started, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(started, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(started, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(started, "directory", directory);
+        ReflectionTestUtils.setField(started, "restoreBatchSize", 2);
+        started.init();
+        return started;
+    }
+
+    private Map<String, Integer> inserted() {
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), batches.capture());
+        Map<String, Integer> rows = new HashMap<>();
+        for (List<Object[]> batch : batches.getAllValues()) {
+            for (Object[] row : batch) {
+                rows.put((String) row[0], (Integer) row[1]);
+            }
+        }
+        return rows;
+    }
+}
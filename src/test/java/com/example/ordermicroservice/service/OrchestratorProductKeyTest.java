@@ -0,0 +1,98 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code OrchestratorProductKeyTest} class is an integration test of {@link Orchestrator#processOrders(List)}
+ * with the {@link ProductKeyDictionary} enabled, against the H2 database.
+ *
+ * <p>The products are seeded directly through the repository, so they have no key yet when the batch arrives and the
+ * keys are assigned, and stamped on the inventory records, while the batch is processed.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Orchestrator
+ * @see ProductKeyDictionary
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:productkeys",
+        "inventory.product-keys.enabled=true"
+})
+public class OrchestratorProductKeyTest {
+
+    private static final String[] PRODUCT_IDS = {"KEY-A", "KEY-B"};
+
+    @Autowired
+    private Orchestrator orchestrator;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * Seeds two products without keys.
+     */
+    @BeforeEach
+    void setUp() {
+        for (String productId : PRODUCT_IDS) {
+            Inventory inventory = new Inventory();
+            inventory.setProductId(productId);
+            inventory.setQuantity(10);
+            inventoryRepository.save(inventory);
+        }
+    }
+
+    /**
+     * Removes the seeded products.
+     */
+    @AfterEach
+    void tearDown() {
+        for (String productId : PRODUCT_IDS) {
+            inventoryRepository.delete(inventoryRepository.findByProductId(productId));
+        }
+    }
+
+    /**
+     * Tests that a batch of products without keys is processed, and that the orders and the inventory records are
+     * stamped with the assigned keys.
+     */
+    @Test
+    void testProcessOrders_AssignsProductKeys() {
+        // Arrange
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Order order = new Order();
+            order.setProductId(PRODUCT_IDS[i % PRODUCT_IDS.length]);
+            order.setQuantity(2);
+            order.setAmount(10.0);
+            orders.add(order);
+        }
+
+        // Act
+        List<String> results = orchestrator.processOrders(orders);
+
+        // Assert
+        assertEquals(List.of("Order processed successfully", "Order processed successfully",
+                "Order processed successfully", "Order processed successfully"), results);
+        for (String productId : PRODUCT_IDS) {
+            Inventory inventory = inventoryRepository.findByProductId(productId);
+            assertEquals(6, inventory.getQuantity());
+            assertNotNull(inventory.getProductKey());
+            orders.stream()
+                    .filter(order -> order.getProductId().equals(productId))
+                    .forEach(order -> assertEquals(inventory.getProductKey(), order.getProductKey()));
+        }
+    }
+}
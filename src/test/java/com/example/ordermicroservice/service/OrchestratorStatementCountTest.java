@@ -0,0 +1,179 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code OrchestratorStatementCountTest} class counts the SQL statements that {@link Orchestrator} sends to the
+ * H2 database, using a Hibernate {@link StatementInspector} that records every prepared statement.
+ *
+ * <p>Hibernate prepares a statement once per JDBC batch, so the number of prepared statements is the number of
+ * database round trips. Order and payment IDs are generated in-process and inventory IDs come from a pooled
+ * sequence, so inserts are batched as well: the batch path must send one statement per table however many orders
+ * the batch holds, and a single order must not need more than one statement per step. Sequence calls, which fetch a
+ * block of 50 IDs at a time, are counted separately.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Orchestrator
+ * @see StatementInspector
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.ordermicroservice.service.OrchestratorStatementCountTest$SqlRecorder",
+        "inventory.concurrency.strategy=CONDITIONAL_UPDATE"
+})
+public class OrchestratorStatementCountTest {
+
+    private static final String[] PRODUCT_IDS = {"COUNT-A", "COUNT-B"};
+
+    @Autowired
+    private Orchestrator orchestrator;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * The SQL of every statement prepared by Hibernate since the last reset.
+     */
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Seeds two products with enough stock for every test and warms up the ID sequences.
+     */
+    @BeforeEach
+    void setUp() {
+        for (String productId : PRODUCT_IDS) {
+            Inventory inventory = new Inventory();
+            inventory.setProductId(productId);
+            inventory.setQuantity(1_000);
+            inventoryRepository.save(inventory);
+        }
+        orchestrator.processOrders(orders(2));
+    }
+
+    /**
+     * Removes the seeded products.
+     */
+    @AfterEach
+    void tearDown() {
+        for (String productId : PRODUCT_IDS) {
+            inventoryRepository.delete(inventoryRepository.findByProductId(productId));
+        }
+    }
+
+    /**
+     * Tests that a batch of 40 orders sends one locking inventory query and one batched statement each for the
+     * order inserts, the payment inserts and the inventory updates.
+     */
+    @Test
+    void testProcessOrders_OneStatementPerTable() {
+        // Act
+        Map<String, Long> statements = recordStatements(() -> orchestrator.processOrders(orders(40)));
+
+        // Assert
+        String message = "statements per batch of 40 orders: " + statements;
+        assertEquals(1, statements.get("select inventory"), message);
+        assertEquals(1, statements.get("insert orders"), message);
+        assertEquals(1, statements.get("insert payment"), message);
+        assertEquals(1, statements.get("update inventory"), message);
+        assertEquals(4, statements.size() - (statements.containsKey("sequence") ? 1 : 0), message);
+    }
+
+    /**
+     * Tests that a single new order sends one statement per step: the inventory check, the payment insert, the order
+     * insert and the conditional inventory decrement. The order ID is generated in-process, so no statement is needed
+     * to obtain it.
+     */
+    @Test
+    void testProcessOrder_StatementsPerOrder() {
+        // Arrange
+        Order order = orders(1).get(0);
+
+        // Act
+        Map<String, Long> statements = recordStatements(() -> orchestrator.processOrder(order));
+
+        // Assert
+        String message = "statements per order: " + statements;
+        long total = statements.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals("sequence"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        assertEquals(4, total, message);
+        assertEquals(1, statements.get("insert payment"), message);
+        assertEquals(1, statements.get("insert orders"), message);
+        assertFalse(statements.containsKey("sequence"), message);
+    }
+
+    /**
+     * Runs an action and returns the statements it prepared, counted by kind and table, for example
+     * {@code insert orders}; sequence calls are counted as {@code sequence}.
+     */
+    private Map<String, Long> recordStatements(Runnable action) {
+        STATEMENTS.clear();
+        action.run();
+        return STATEMENTS.stream().collect(Collectors.groupingBy(OrchestratorStatementCountTest::kind,
+                Collectors.counting()));
+    }
+
+    private static String kind(String sql) {
+        String[] words = sql.toLowerCase().split("\\s+");
+        if (sql.toLowerCase().contains("next value for")) {
+            return "sequence";
+        }
+        return switch (words[0]) {
+            case "insert" -> "insert " + words[2];
+            case "update" -> "update " + words[1];
+            default -> words[0] + " " + words[indexOf(words, "from") + 1];
+        };
+    }
+
+    private static int indexOf(String[] words, String word) {
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].equals(word)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<Order> orders(int count) {
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setProductId(PRODUCT_IDS[i % PRODUCT_IDS.length]);
+            order.setQuantity(1);
+            order.setAmount(10.0);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    /**
+     * Records the SQL of every statement that Hibernate prepares, without changing it.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -1,13 +1,27 @@
 package com.example.ordermicroservice.service;
 
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
 import com.example.ordermicroservice.model.Order;
 import com.example.ordermicroservice.model.Payment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -53,12 +67,23 @@ public class OrchestratorTest {
     @Mock
     private PaymentService paymentService;
 
+    /**
+     * A mock instance of {@link TaskExecutor} used to simulate the worker pool for asynchronously accepted orders.
+     */
+    @Mock
+    private TaskExecutor orderProcessingExecutor;
+
     /**
      * The {@link Orchestrator} instance being tested, with mocked dependencies injected.
      */
     @InjectMocks
     private Orchestrator orchestrator;
 
+    /**
+     * A {@link SimpleMeterRegistry} that records the step timers and failure counters of the orchestrator.
+     */
+    private MeterRegistry meterRegistry;
+
     /**
      * A sample {@link Order} object used for testing.
      */
@@ -76,6 +101,10 @@ public class OrchestratorTest {
         order.setProductId("PROD123");
         order.setQuantity(2);
         order.setAmount(100.0);
+
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(orchestrator, "meterRegistry", meterRegistry);
+        orchestrator.init();
     }
 
     /**
@@ -172,4 +201,387 @@ public class OrchestratorTest {
         verify(orderService, never()).createOrder(any(Order.class));
         verify(inventoryService, never()).updateInventory(anyString(), anyInt());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the {@link Orchestrator#processOrders(List)} method with a batch whose orders compete for the same stock.
+     *
+     * <p>This test verifies that inventory is read once for all distinct products, that stock reserved by an
+     * earlier order in the batch is not available to a later one, and that orders, payments and inventory
+     * updates are each written with a single batched call.
+     */
+    @Test
+    void testProcessOrders_BatchedWrites() {
+        // Arrange
+        Order second = new Order();
+        second.setId(2L);
+        second.setProductId("PROD123");
+        second.setQuantity(2);
+        second.setAmount(100.0);
+        Order third = new Order();
+        third.setId(3L);
+        third.setProductId("PROD123");
+        third.setQuantity(2);
+        third.setAmount(100.0);
+        Inventory inventory = new Inventory();
+        inventory.setProductId("PROD123");
+        inventory.setQuantity(4);
+        when(inventoryService.findInventories(Set.of("PROD123"))).thenReturn(Map.of("PROD123", inventory));
+        when(paymentService.processPayments(anyList())).thenReturn(true);
+
+        // Act
+        List<String> results = orchestrator.processOrders(List.of(order, second, third));
+
+        // Assert
+        assertEquals(List.of("Order processed successfully", "Order processed successfully",
+                "Order failed: Insufficient inventory"), results);
+        verify(inventoryService, times(1)).findInventories(Set.of("PROD123"));
+        verify(orderService, times(1)).createOrders(List.of(order, second));
+        verify(paymentService, times(1)).processPayments(argThat(payments -> payments.size() == 2));
+        verify(inventoryService, times(1)).deductInventories(Map.of("PROD123", inventory), Map.of("PROD123", 4));
+        verify(inventoryService, never()).checkInventory(anyString(), anyInt());
+        verify(paymentService, never()).processPayment(any(Payment.class));
+        verify(orderService, never()).createOrder(any(Order.class));
+        verify(inventoryService, never()).updateInventory(anyString(), anyInt());
+    }
+
+    /**
+     * Tests the {@link Orchestrator#processOrders(List)} method when the payment batch fails.
+     *
+     * <p>This test verifies that the accepted orders are reported as failed and marked "FAILED", and that
+     * the inventory is not updated.
+     */
+    @Test
+    void testProcessOrders_PaymentFailed() {
+        // Arrange
+        Inventory inventory = new Inventory();
+        inventory.setProductId("PROD123");
+        inventory.setQuantity(10);
+        when(inventoryService.findInventories(Set.of("PROD123"))).thenReturn(Map.of("PROD123", inventory));
+        when(paymentService.processPayments(anyList())).thenReturn(false);
+
+        // Act
+        List<String> results = orchestrator.processOrders(List.of(order));
+
+        // Assert
+        assertEquals(List.of("Order failed: Payment processing failed"), results);
+        assertEquals("FAILED", order.getStatus());
+        verify(inventoryService, never()).deductInventories(any(), any());
+    }
+
+    /**
+     * Tests the {@link Orchestrator#processOrders(List)} method when no order in the batch can be fulfilled.
+     *
+     * <p>This test verifies that nothing is written when every order is rejected.
+     */
+    @Test
+    void testProcessOrders_NoInventory() {
+        // Arrange
+        when(inventoryService.findInventories(Set.of("PROD123"))).thenReturn(Map.of());
+
+        // Act
+        List<String> results = orchestrator.processOrders(List.of(order));
+
+        // Assert
+        assertEquals(List.of("Order failed: Insufficient inventory"), results);
+        verify(orderService, never()).createOrders(any());
+        verify(paymentService, never()).processPayments(any());
+        verify(inventoryService, never()).deductInventories(any(), any());
+    }
+
+    /**
+     * Tests the {@link Orchestrator#processOrders(List)} method when the provided order list is {@code null}.
+     */
+    @Test
+    void testProcessOrders_NullOrders() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            orchestrator.processOrders(null);
+        });
+
+        // Assert
+        assertEquals("Orders cannot be null", exception.getMessage());
+        verify(inventoryService, never()).findInventories(any());
+    }
+
+    /**
+     * Tests the {@link Orchestrator#processOrder(Order)} method when a concurrent order takes the remaining stock
+     * between the inventory check and the inventory update.
+     *
+     * <p>This test verifies that the order is cancelled, the payment refunded, and the method returns
+     * "Order failed: Insufficient inventory".
+     */
+    @Test
+    void testProcessOrder_InventoryTakenConcurrently() {
+        // Arrange
+        when(inventoryService.checkInventory("PROD123", 2)).thenReturn(true);
+        when(paymentService.processPayment(any(Payment.class))).thenReturn(true);
+        doThrow(new InsufficientInventoryException("Insufficient inventory for product ID: PROD123"))
+                .when(inventoryService).updateInventory("PROD123", 2);
+
+        // Act
+        String result = orchestrator.processOrder(order);
+
+        // Assert
+        assertEquals("Order failed: Insufficient inventory", result);
+        verify(orderService, times(1)).cancelOrder(order);
+        verify(paymentService, times(1)).refundPayment(any(Payment.class));
+    }
+
+    /**
+     * Tests the {@link Orchestrator#processOrder(Order)} method when the order cannot be created after the payment
+     * succeeded.
+     *
+     * <p>This test verifies that the payment is refunded, the inventory is not updated, and the exception is
+     * propagated to the caller.
+     */
+    @Test
+    void testProcessOrder_CreateOrderFailed() {
+        // Arrange
+        when(inventoryService.checkInventory("PROD123", 2)).thenReturn(true);
+        when(paymentService.processPayment(any(Payment.class))).thenReturn(true);
+        when(orderService.createOrder(order)).thenThrow(new IllegalStateException("Database unavailable"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> orchestrator.processOrder(order));
+        verify(paymentService, times(1)).refundPayment(any(Payment.class));
+        verify(inventoryService, never()).updateInventory(anyString(), anyInt());
+    }
+
+    /**
+     * Tests the {@link Orchestrator#acceptOrder(Order)} method when the accepted order is processed successfully.
+     *
+     * <p>This test runs the submitted task directly and verifies that the order is persisted as "PENDING" before
+     * it is processed, and that its status is not marked as failed afterwards.
+     */
+    @Test
+    void testAcceptOrder_Processed() {
+        // Arrange
+        when(orderService.createPendingOrder(order)).thenReturn(order);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(orderProcessingExecutor).execute(any(Runnable.class));
+        when(inventoryService.checkInventory("PROD123", 2)).thenReturn(true);
+        when(paymentService.processPayment(any(Payment.class))).thenReturn(true);
+
+        // Act
+        Order result = orchestrator.acceptOrder(order);
+
+        // Assert
+        assertSame(order, result);
+        verify(orderService, times(1)).createPendingOrder(order);
+        verify(orderService, times(1)).createOrder(order);
+        verify(orderService, never()).updateStatus(any(Order.class), anyString());
+    }
+
+    /**
+     * Tests the {@link Orchestrator#acceptOrder(Order)} method when the accepted order fails during processing.
+     *
+     * <p>This test verifies that the status of the order is set to "FAILED".
+     */
+    @Test
+    void testAcceptOrder_Failed() {
+        // Arrange
+        when(orderService.createPendingOrder(order)).thenReturn(order);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(orderProcessingExecutor).execute(any(Runnable.class));
+        when(inventoryService.checkInventory("PROD123", 2)).thenReturn(false);
+
+        // Act
+        orchestrator.acceptOrder(order);
+
+        // Assert
+        verify(orderService, times(1)).updateStatus(order, "FAILED");
+    }
+
+    /**
+     * Tests the {@link Orchestrator#acceptOrder(Order)} method when the worker queue is full.
+     *
+     * <p>This test verifies that the order is marked "REJECTED" and the rejection is propagated to the caller.
+     */
+    @Test
+    void testAcceptOrder_QueueFull() {
+        // Arrange
+        when(orderService.createPendingOrder(order)).thenReturn(order);
+        doThrow(new TaskRejectedException("Executor did not accept task"))
+                .when(orderProcessingExecutor).execute(any(Runnable.class));
+
+        // Act & Assert
+        assertThrows(TaskRejectedException.class, () -> orchestrator.acceptOrder(order));
+        verify(orderService, times(1)).updateStatus(order, "REJECTED");
+        verify(inventoryService, never()).checkInventory(anyString(), anyInt());
+    }
+
+    /**
+     * Switches the orchestrator to the parallel mode with a real asynchronous executor for the payment step.
+     */
+    private void useParallelMode() {
+        ReflectionTestUtils.setField(orchestrator, "mode", OrchestrationMode.PARALLEL);
+        ReflectionTestUtils.setField(orchestrator, "orchestrationExecutor", new SimpleAsyncTaskExecutor());
+    }
+
+    /**
+     * Tests the {@link Orchestrator#processOrder(Order)} method in the parallel mode when both steps succeed.
+     *
+     * <p>Each step waits until the other one has started, so this test only passes if the inventory reservation and
+     * the payment actually run at the same time.
+     */
+    @Test
+    void testProcessOrder_ParallelSuccess() {
+        // Arrange
+        useParallelMode();
+        CountDownLatch reservationStarted = new CountDownLatch(1);
+        CountDownLatch paymentStarted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            reservationStarted.countDown();
+            assertTrue(paymentStarted.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(inventoryService).updateInventory("PROD123", 2);
+        when(paymentService.processPayment(any(Payment.class))).thenAnswer(invocation -> {
+            paymentStarted.countDown();
+            return reservationStarted.await(5, TimeUnit.SECONDS);
+        });
+
+        // Act
+        String result = orchestrator.processOrder(order);
+
+        // Assert
+        assertEquals("Order processed successfully", result);
+        verify(inventoryService, never()).checkInventory(anyString(), anyInt());
+        verify(orderService, times(1)).createOrder(order);
+        verify(inventoryService, never()).releaseInventory(anyString(), anyInt());
+        verify(paymentService, never()).refundPayment(any(Payment.class));
+    }
+
+    /**
+     * Tests the {@link Orchestrator#processOrder(Order)} method in the parallel mode when the payment fails.
+     *
+     * <p>This test verifies that the inventory reservation is released and no order is created.
+     */
+    @Test
+    void testProcessOrder_ParallelPaymentFailed() {
+        // Arrange
+        useParallelMode();
+        when(paymentService.processPayment(any(Payment.class))).thenReturn(false);
+
+        // Act
+        String result = orchestrator.processOrder(order);
+
+        // Assert
+        assertEquals("Order failed: Payment processing failed", result);
+        verify(inventoryService, times(1)).releaseInventory("PROD123", 2);
+        verify(orderService, never()).createOrder(any(Order.class));
+    }
+
+    /**
+     * Tests the {@link Orchestrator#processOrder(Order)} method in the parallel mode when the inventory reservation fails.
+     *
+     * <p>This test verifies that the successful payment is refunded and no order is created.
+     */
+    @Test
+    void testProcessOrder_ParallelInsufficientInventory() {
+        // Arrange
+        useParallelMode();
+        when(paymentService.processPayment(any(Payment.class))).thenReturn(true);
+        doThrow(new InsufficientInventoryException("Insufficient inventory for product ID: PROD123"))
+                .when(inventoryService).updateInventory("PROD123", 2);
+
+        // Act
+        String result = orchestrator.processOrder(order);
+
+        // Assert
+        assertEquals("Order failed: Insufficient inventory", result);
+        verify(paymentService, times(1)).refundPayment(any(Payment.class));
+        verify(inventoryService, never()).releaseInventory(anyString(), anyInt());
+        verify(orderService, never()).createOrder(any(Order.class));
+    }
+
+    /**
+     * Tests the {@link Orchestrator#processOrder(Order)} method in the parallel mode when both the inventory
+     * reservation and the payment throw.
+     *
+     * <p>This test verifies that the exception of the payment is propagated with that of the reservation suppressed.
+     */
+    @Test
+    void testProcessOrder_ParallelReservationAndPaymentThrow() {
+        // Arrange
+        useParallelMode();
+        IllegalStateException reservationFailure = new IllegalStateException("Inventory unavailable");
+        doThrow(reservationFailure).when(inventoryService).updateInventory("PROD123", 2);
+        when(paymentService.processPayment(any(Payment.class))).thenThrow(new IllegalStateException("Gateway unavailable"));
+
+        // Act
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> orchestrator.processOrder(order));
+
+        // Assert
+        assertEquals("Gateway unavailable", thrown.getMessage());
+        assertArrayEquals(new Throwable[]{reservationFailure}, thrown.getSuppressed());
+        verify(inventoryService, never()).releaseInventory(anyString(), anyInt());
+        verify(orderService, never()).createOrder(any(Order.class));
+    }
+
+    /**
+     * Tests the {@link Orchestrator#processOrder(Order)} method in the parallel mode when the order cannot be created
+     * after both steps succeeded.
+     *
+     * <p>This test verifies that the reservation is released, the payment refunded, and the exception propagated to
+     * the caller.
+     */
+    @Test
+    void testProcessOrder_ParallelCreateOrderFailed() {
+        // Arrange
+        useParallelMode();
+        when(paymentService.processPayment(any(Payment.class))).thenReturn(true);
+        when(orderService.createOrder(order)).thenThrow(new IllegalStateException("Database unavailable"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> orchestrator.processOrder(order));
+        verify(inventoryService, times(1)).releaseInventory("PROD123", 2);
+        verify(paymentService, times(1)).refundPayment(any(Payment.class));
+    }
+
+    /**
+     * Tests that {@link Orchestrator#processOrder(Order)} records the latency of every workflow step.
+     *
+     * <p>This test verifies that a successful order records one sample in the {@code orchestrator.step} timer of each
+     * step and does not count a failure.
+     */
+    @Test
+    void testProcessOrder_RecordsStepTimers() {
+        // Arrange
+        when(inventoryService.checkInventory("PROD123", 2)).thenReturn(true);
+        when(paymentService.processPayment(any(Payment.class))).thenReturn(true);
+
+        // Act
+        orchestrator.processOrder(order);
+
+        // Assert
+        for (String step : List.of("inventory.check", "payment", "order.create", "inventory.update")) {
+            assertEquals(1, meterRegistry.get("orchestrator.step").tag("step", step).timer().count(), step);
+        }
+        assertTrue(meterRegistry.find("orchestrator.failures").counters().isEmpty());
+    }
+
+    /**
+     * Tests that {@link Orchestrator#processOrder(Order)} counts failed orders by reason.
+     *
+     * <p>This test verifies that an insufficient inventory outcome and a payment failure outcome each increment the
+     * {@code orchestrator.failures} counter tagged with their reason.
+     */
+    @Test
+    void testProcessOrder_CountsFailures() {
+        // Arrange
+        when(inventoryService.checkInventory("PROD123", 2)).thenReturn(false, true);
+        when(paymentService.processPayment(any(Payment.class))).thenReturn(false);
+
+        // Act
+        orchestrator.processOrder(order);
+        orchestrator.processOrder(order);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("orchestrator.failures").tag("reason", "insufficient_inventory").counter().count());
+        assertEquals(1, meterRegistry.get("orchestrator.failures").tag("reason", "payment_failed").counter().count());
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code OrderImportServiceTest} class is a JUnit 5 test class for the {@link OrderImportService} class.
+ * It uses Mockito to mock the {@link Orchestrator} and tests chunking, the per-line results, invalid and malformed
+ * lines, failed chunks and that a large import never holds more than one chunk of orders.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see OrderImportService
+ * @see Orchestrator
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderImportServiceTest {
+
+    /**
+     * A mock instance of {@link Orchestrator} used to simulate chunk processing.
+     */
+    @Mock
+    private Orchestrator orchestrator;
+
+    /**
+     * The {@link OrderImportService} instance being tested, with mocked dependencies injected.
+     */
+    @InjectMocks
+    private OrderImportService orderImportService;
+
+    /**
+     * The {@link ObjectMapper} used to read the results written by the service.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Sets up a service that processes two orders per chunk before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderImportService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(orderImportService, "chunkSize", 2);
+    }
+
+    /**
+     * Tests that the orders are processed in chunks and that every line gets its result and order ID.
+     */
+    @Test
+    void testImportOrders_Chunked() throws IOException {
+        // Arrange
+        when(orchestrator.processOrders(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+
+        // Act
+        List<OrderImportResult> results = importOrders(line("PROD1", 1) + line("PROD2", 2) + line("PROD3", 3));
+
+        // Assert
+        verify(orchestrator, times(2)).processOrders(anyList());
+        assertEquals(3, results.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 1, results.get(i).getLine());
+            assertEquals(100L + i + 1, results.get(i).getOrderId());
+            assertEquals("Order processed successfully", results.get(i).getResult());
+        }
+    }
+
+    /**
+     * Tests that an invalid order is reported on its own line and is not processed.
+     */
+    @Test
+    void testImportOrders_InvalidOrder() throws IOException {
+        // Arrange
+        when(orchestrator.processOrders(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+
+        // Act
+        List<OrderImportResult> results = importOrders(line("PROD1", 1) + line("PROD2", 0));
+
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals(new OrderImportResult(2, null, "Quantity must be positive"), results.get(0));
+        assertEquals(1, results.get(1).getLine());
+        assertEquals("Order processed successfully", results.get(1).getResult());
+        verify(orchestrator, times(1)).processOrders(anyList());
+    }
+
+    /**
+     * Tests that a rejected order is reported without an order ID.
+     */
+    @Test
+    void testImportOrders_Rejected() throws IOException {
+        // Arrange
+        when(orchestrator.processOrders(anyList())).thenReturn(List.of("Insufficient inventory for product ID: PROD1"));
+
+        // Act
+        List<OrderImportResult> results = importOrders(line("PROD1", 1));
+
+        // Assert
+        assertEquals(List.of(new OrderImportResult(1, null, "Insufficient inventory for product ID: PROD1")), results);
+    }
+
+    /**
+     * Tests that every order of a failed chunk is reported and that the import continues with the next chunk.
+     */
+    @Test
+    void testImportOrders_ChunkFailed() throws IOException {
+        // Arrange
+        when(orchestrator.processOrders(anyList()))
+                .thenThrow(new IllegalStateException("Inventory record not found for product ID: PROD1"))
+                .thenAnswer(invocation -> created(invocation.getArgument(0)));
+
+        // Act
+        List<OrderImportResult> results = importOrders(line("PROD1", 1) + line("PROD2", 2) + line("PROD3", 3));
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals("Order failed: Inventory record not found for product ID: PROD1", results.get(0).getResult());
+        assertEquals("Order failed: Inventory record not found for product ID: PROD1", results.get(1).getResult());
+        assertEquals("Order processed successfully", results.get(2).getResult());
+    }
+
+    /**
+     * Tests that malformed JSON ends the import after the orders read before it have been processed.
+     */
+    @Test
+    void testImportOrders_MalformedJson() throws IOException {
+        // Arrange
+        when(orchestrator.processOrders(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+
+        // Act
+        List<OrderImportResult> results = importOrders(line("PROD1", 1) + "{\"productId\": oops}\n" + line("PROD3", 3));
+
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals("Order processed successfully", results.get(0).getResult());
+        assertEquals(2, results.get(1).getLine());
+        assertTrue(results.get(1).getResult().startsWith("Import aborted: malformed JSON"));
+        verify(orchestrator, times(1)).processOrders(anyList());
+    }
+
+    /**
+     * Tests that null streams are rejected.
+     */
+    @Test
+    void testImportOrders_NullStreams() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> orderImportService.importOrders(null, new ByteArrayOutputStream()));
+    }
+
+    /**
+     * Tests that an import of 100,000 orders, generated on the fly and never held in memory as a whole, is processed
+     * in chunks of at most the chunk size while its results are streamed out.
+     */
+    @Test
+    void testImportOrders_LargeStream() throws IOException {
+        // Arrange
+        int orders = 100_000;
+        ReflectionTestUtils.setField(orderImportService, "chunkSize", 500);
+        AtomicInteger largestChunk = new AtomicInteger();
+        when(orchestrator.processOrders(anyList())).thenAnswer(invocation -> {
+            List<Order> chunk = invocation.getArgument(0);
+            largestChunk.accumulateAndGet(chunk.size(), Math::max);
+            return created(chunk);
+        });
+        CountingOutputStream output = new CountingOutputStream();
+
+        // Act
+        long lines = orderImportService.importOrders(new GeneratedOrders(orders), output);
+
+        // Assert
+        assertEquals(orders, lines);
+        assertEquals(orders, output.lines);
+        assertEquals(500, largestChunk.get());
+        verify(orchestrator, times(orders / 500)).processOrders(anyList());
+    }
+
+    private List<OrderImportResult> importOrders(String ndjson) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        orderImportService.importOrders(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), output);
+        List<OrderImportResult> results = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, OrderImportResult.class));
+        }
+        return results;
+    }
+
+    private static String line(String productId, int quantity) {
+        return "{\"productId\":\"" + productId + "\",\"quantity\":" + quantity + ",\"amount\":10.0}\n";
+    }
+
+    /**
+     * Marks every order of a chunk as created with an ID derived from its product ID, as the orchestrator would.
+     */
+    private static List<String> created(List<Order> chunk) {
+        List<String> results = new ArrayList<>(chunk.size());
+        for (Order order : chunk) {
+            order.setId(100L + Long.parseLong(order.getProductId().substring(4)));
+            order.setStatus("CREATED");
+            results.add("Order processed successfully");
+        }
+        return results;
+    }
+
+    /**
+     * An input stream that generates NDJSON orders line by line as they are read.
+     */
+    private static class GeneratedOrders extends InputStream {
+
+        private final int orders;
+        private int next;
+        private byte[] line = new byte[0];
+        private int position;
+
+        GeneratedOrders(int orders) {
+            this.orders = orders;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (next == orders) {
+                    return -1;
+                }
+                line = line("PROD" + next++, 1).getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++];
+        }
+    }
+
+    /**
+     * An output stream that only counts the lines written to it.
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.JournalCheckpoint;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.Payment;
+import com.example.ordermicroservice.repository.JournalCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code OrderJournalProjectorTest} class is a JUnit 5 test class for the {@link OrderJournalProjector} class.
+ * It uses Mockito to mock the {@link OrderJournal}, the {@link JdbcTemplate} and the
+ * {@link JournalCheckpointRepository} and tests that journal records are merged into the tables in batches, together
+ * with the checkpoint, and that the projection resumes after a stored checkpoint.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see OrderJournalProjector
+ * @see OrderJournal
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderJournalProjectorTest {
+
+    /**
+     * A mock instance of {@link OrderJournal} from which the records are read.
+     */
+    @Mock
+    private OrderJournal journal;
+
+    /**
+     * A mock instance of {@link JdbcTemplate} used to simulate the batched merges.
+     */
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * A mock instance of {@link JournalCheckpointRepository} used to simulate the checkpoint table.
+     */
+    @Mock
+    private JournalCheckpointRepository checkpointRepository;
+
+    /**
+     * A mock instance of {@link TransactionTemplate} that runs transaction callbacks directly.
+     */
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The {@link OrderJournalProjector} instance being tested, with mocked dependencies injected.
+     */
+    @InjectMocks
+    private OrderJournalProjector projector;
+
+    /**
+     * Sets up transactions that run their callbacks directly and a registry for the lag gauge before each test case.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(projector, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(projector, "batchSize", 2);
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    /**
+     * Tests that records are merged into their tables in batches, each with its checkpoint, until the journal is
+     * exhausted.
+     */
+    @Test
+    void testProject_MergesBatchesAndAdvancesCheckpoint() {
+        // Arrange
+        when(checkpointRepository.findById(OrderJournalProjector.CHECKPOINT)).thenReturn(Optional.empty());
+        projector.init();
+        when(journal.read(0, 2)).thenReturn(List.of(orderEntry(1, 10L), paymentEntry(2, 20L)));
+        when(journal.read(2, 2)).thenReturn(List.of(orderEntry(3, 30L)));
+
+        // Act
+        projector.project();
+
+        // Assert
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("MERGE INTO orders"), anyList(), any(int[].class));
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("MERGE INTO payment"),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(20L)), any(int[].class));
+        verify(checkpointRepository).save(argThat(checkpoint -> checkpoint.getSequence() == 2));
+        verify(checkpointRepository).save(argThat(checkpoint -> checkpoint.getSequence() == 3));
+        verify(journal, never()).release(anyLong());
+    }
+
+    /**
+     * Tests that the projection resumes after the stored checkpoint and releases projected segments when enabled.
+     */
+    @Test
+    void testProject_ResumesAfterCheckpoint() {
+        // Arrange
+        JournalCheckpoint checkpoint = new JournalCheckpoint();
+        checkpoint.setName(OrderJournalProjector.CHECKPOINT);
+        checkpoint.setSequence(5);
+        when(checkpointRepository.findById(OrderJournalProjector.CHECKPOINT)).thenReturn(Optional.of(checkpoint));
+        ReflectionTestUtils.setField(projector, "releaseSegments", true);
+        projector.init();
+        when(journal.read(5, 2)).thenReturn(List.of(orderEntry(6, 60L)));
+        when(journal.getDurableSequence()).thenReturn(6L);
+
+        // Act
+        long lagBefore = projector.getLag();
+        projector.project();
+
+        // Assert
+        assertEquals(1, lagBefore);
+        assertEquals(0, projector.getLag());
+        verify(journal, never()).read(eq(0L), anyInt());
+        verify(journal).release(6);
+    }
+
+    /**
+     * Tests that nothing is written when the journal holds no new records.
+     */
+    @Test
+    void testProject_NothingToProject() {
+        // Arrange
+        when(checkpointRepository.findById(OrderJournalProjector.CHECKPOINT)).thenReturn(Optional.empty());
+        projector.init();
+        when(journal.read(0, 2)).thenReturn(List.of());
+
+        // Act
+        projector.project();
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate, transactionTemplate);
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    private OrderJournal.Entry orderEntry(long sequence, Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setProductId("PRODUCT-1");
+        order.setQuantity(1);
+        order.setAmount(10.0);
+        order.setStatus("CREATED");
+        order.setVersion(0L);
+        return new OrderJournal.Entry(sequence, order, null);
+    }
+
+    private OrderJournal.Entry paymentEntry(long sequence, Long id) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setOrderId("10");
+        payment.setAmount(10.0);
+        payment.setStatus("SUCCESS");
+        payment.setVersion(0L);
+        return new OrderJournal.Entry(sequence, null, payment);
+    }
+}
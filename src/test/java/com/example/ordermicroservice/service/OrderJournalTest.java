@@ -0,0 +1,273 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.Payment;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code OrderJournalTest} class is a JUnit 5 test class for the {@link OrderJournal} class.
+ * It writes the journal to a temporary directory and tests the record layout, segment rolling, grouped fsyncs and
+ * the recovery of a journal with a torn tail.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see OrderJournal
+ */
+public class OrderJournalTest {
+
+    /**
+     * The temporary directory holding the segment files.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * A {@link SimpleMeterRegistry} that records the fsync batch sizes.
+     */
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The {@link OrderJournal} instance being tested.
+     */
+    private OrderJournal journal;
+
+    /**
+     * Creates a registry for the metrics before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Shuts the journal down after each test case.
+     */
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        journal.shutdown();
+    }
+
+    /**
+     * Tests that orders and payments are read back with the state they were appended with, and that their versions
+     * are advanced as Hibernate would.
+     */
+    @Test
+    void testAppendAndRead() {
+        // Arrange
+        journal = start(1024, 0, 1);
+        Order order = order(1L, "PRODUCT-1");
+        Payment payment = payment(2L, "1");
+
+        // Act
+        long orderSequence = journal.append(order);
+        long paymentSequence = journal.append(payment);
+        order.setStatus("CANCELLED");
+        journal.append(order);
+        List<OrderJournal.Entry> entries = journal.read(0, 10);
+
+        // Assert
+        assertEquals(1, orderSequence);
+        assertEquals(2, paymentSequence);
+        assertEquals(1L, order.getVersion());
+        assertEquals(0L, payment.getVersion());
+        assertEquals(3, entries.size());
+        Order read = entries.get(0).order();
+        assertEquals(1L, read.getId());
+        assertEquals("PRODUCT-1", read.getProductId());
+        assertNull(read.getProductKey());
+        assertEquals(2, read.getQuantity());
+        assertEquals(50.0, read.getAmount());
+        assertEquals("CREATED", read.getStatus());
+        assertEquals(0L, read.getVersion());
+        assertNull(entries.get(0).payment());
+        assertEquals(payment, entries.get(1).payment());
+        assertEquals("CANCELLED", entries.get(2).order().getStatus());
+        assertEquals(1L, entries.get(2).order().getVersion());
+        assertEquals(List.of(), journal.read(3, 10));
+    }
+
+    /**
+     * Tests that a full segment is rolled into a new one, that records are read across segments and that released
+     * segments are deleted and skipped.
+     */
+    @Test
+    void testSegmentRolling() throws IOException {
+        // Arrange
+        journal = start(4 * OrderJournal.RECORD_SIZE, 0, 1);
+
+        // Act
+        for (long id = 1; id <= 10; id++) {
+            journal.append(order(id, "PRODUCT-" + id));
+        }
+
+        // Assert
+        assertEquals(3, segmentFiles().size());
+        List<OrderJournal.Entry> entries = journal.read(2, 5);
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), entries.stream().map(OrderJournal.Entry::sequence).toList());
+        assertEquals(7L, entries.get(4).order().getId());
+
+        assertEquals(1, journal.release(6));
+        assertEquals(2, segmentFiles().size());
+        assertEquals(5L, journal.read(0, 1).get(0).sequence());
+    }
+
+    /**
+     * Tests that concurrent appends are forced to disk together and that every caller returns once its record is
+     * durable.
+     */
+    @Test
+    void testAppend_GroupsFsyncs() throws Exception {
+        // Arrange
+        journal = start(1024 * OrderJournal.RECORD_SIZE, 5_000, 4);
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+        // Act
+        List<Future<Long>> appends = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            Order order = order(id, "PRODUCT-1");
+            appends.add(callers.submit(() -> journal.append(order)));
+        }
+        for (Future<Long> append : appends) {
+            append.get();
+        }
+        callers.shutdown();
+
+        // Assert
+        assertEquals(4, journal.getDurableSequence());
+        DistributionSummary batchSize = meterRegistry.get("orders.journal.fsync.batch-size").summary();
+        assertEquals(1, batchSize.count());
+        assertEquals(4, batchSize.totalAmount());
+    }
+
+    /**
+     * Tests that a restarted journal recovers up to its last valid record, discards a torn record and the segments
+     * after it, and continues appending after the last valid record.
+     */
+    @Test
+    void testRecovery_TornTail() throws Exception {
+        // Arrange
+        journal = start(4 * OrderJournal.RECORD_SIZE, 0, 1);
+        for (long id = 1; id <= 6; id++) {
+            journal.append(order(id, "PRODUCT-" + id));
+        }
+        journal.shutdown();
+        // Tear the third record, so that the second segment is beyond the end of the journal
+        try (FileChannel channel = FileChannel.open(segmentFiles().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), 2L * OrderJournal.RECORD_SIZE + 100);
+        }
+
+        // Act
+        journal = start(4 * OrderJournal.RECORD_SIZE, 0, 1);
+
+        // Assert
+        assertEquals(2, journal.getDurableSequence());
+        assertEquals(1, segmentFiles().size());
+        assertEquals(2, journal.read(0, 10).size());
+        assertEquals(3, journal.append(order(7L, "PRODUCT-7")));
+        assertEquals(7L, journal.read(2, 10).get(0).order().getId());
+    }
+
+    /**
+     * Tests that the longest product ID and status fit in a record next to each other and are read back intact.
+     */
+    @Test
+    void testAppend_LongestStrings() {
+        // Arrange
+        journal = start(1024, 0, 1);
+        Order order = order(1L, "P".repeat(OrderJournal.MAX_KEY_BYTES));
+        order.setStatus("S".repeat(OrderJournal.MAX_STATUS_BYTES));
+
+        // Act
+        journal.append(order);
+        Order read = journal.read(0, 1).get(0).order();
+
+        // Assert
+        assertEquals(order.getProductId(), read.getProductId());
+        assertEquals(order.getStatus(), read.getStatus());
+    }
+
+    /**
+     * Tests that a product ID too long for the record layout is rejected without appending anything.
+     */
+    @Test
+    void testAppend_ProductIdTooLong() {
+        // Arrange
+        journal = start(1024, 0, 1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> journal.append(order(1L, "P".repeat(OrderJournal.MAX_KEY_BYTES + 1))));
+        assertEquals(0, journal.getDurableSequence());
+    }
+
+    /**
+     * Tests that appends are rejected once the journal has been shut down.
+     */
+    @Test
+    void testAppend_AfterShutdown() throws InterruptedException {
+        // Arrange
+        journal = start(1024, 0, 1);
+        journal.shutdown();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> journal.append(order(1L, "PRODUCT-1")));
+    }
+
+    private OrderJournal start(long segmentSizeBytes, long fsyncIntervalMs, int fsyncBatchSize) {
+        OrderJournal started = new OrderJournal();
+        ReflectionTestUtils.setField(started, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(started, "directory", directory);
+        ReflectionTestUtils.setField(started, "segmentSizeBytes", segmentSizeBytes);
+        ReflectionTestUtils.setField(started, "fsyncIntervalMs", fsyncIntervalMs);
+        ReflectionTestUtils.setField(started, "fsyncBatchSize", fsyncBatchSize);
+        started.init();
+        return started;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private Order order(Long id, String productId) {
+        Order order = new Order();
+        order.setId(id);
+        order.setProductId(productId);
+        order.setQuantity(2);
+        order.setAmount(50.0);
+        order.setStatus("CREATED");
+        return order;
+    }
+
+    private Payment payment(Long id, String orderId) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setOrderId(orderId);
+        payment.setAmount(50.0);
+        payment.setStatus("SUCCESS");
+        return payment;
+    }
+}
@@ -1,12 +1,22 @@
 package com.example.ordermicroservice.service;
 
+import com.example.ordermicroservice.exception.ResourceNotFoundException;
 import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.OrderPage;
+import com.example.ordermicroservice.model.OrderSummary;
 import com.example.ordermicroservice.repository.OrderRepository;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +48,12 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    /**
+     * A real {@link SnowflakeIdGenerator} that assigns the IDs of new orders.
+     */
+    @Spy
+    private SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator();
+
     /**
      * The {@link OrderService} instance being tested, with mocked dependencies injected.
      */
@@ -73,4 +89,236 @@ class OrderServiceTest {
         assertNotNull(createdOrder);
         assertEquals("CREATED", createdOrder.getStatus());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the {@link OrderService#createOrders(List)} method to ensure it sets the status of every order
+     * to "CREATED" and saves them with a single {@code saveAll} call.
+     */
+    @Test
+    void testCreateOrders() {
+        // Arrange
+        Order first = new Order();
+        first.setProductId("product1");
+        Order second = new Order();
+        second.setProductId("product2");
+        List<Order> orders = List.of(first, second);
+
+        when(orderRepository.saveAll(orders)).thenReturn(orders);
+
+        // Act
+        List<Order> createdOrders = orderService.createOrders(orders);
+
+        // Assert
+        assertEquals(2, createdOrders.size());
+        assertEquals("CREATED", first.getStatus());
+        assertEquals("CREATED", second.getStatus());
+        verify(orderRepository, times(1)).saveAll(orders);
+        verify(orderRepository, never()).save(any());
+    }
+
+    /**
+     * Tests the {@link OrderService#cancelOrder(Order)} method to ensure it sets the status to "CANCELLED"
+     * and saves the order.
+     */
+    @Test
+    void testCancelOrder() {
+        // Arrange
+        Order order = new Order();
+        order.setProductId("product1");
+        order.setStatus("CREATED");
+
+        when(orderRepository.save(order)).thenReturn(order);
+
+        // Act
+        Order cancelledOrder = orderService.cancelOrder(order);
+
+        // Assert
+        assertEquals("CANCELLED", cancelledOrder.getStatus());
+        verify(orderRepository, times(1)).save(order);
+    }
+
+    /**
+     * Tests the {@link OrderService#createPendingOrder(Order)} method to ensure it saves the order as "PENDING".
+     */
+    @Test
+    void testCreatePendingOrder() {
+        // Arrange
+        Order order = new Order();
+        order.setProductId("product1");
+        when(orderRepository.save(order)).thenReturn(order);
+
+        // Act
+        Order pendingOrder = orderService.createPendingOrder(order);
+
+        // Assert
+        assertEquals("PENDING", pendingOrder.getStatus());
+        assertNotNull(pendingOrder.getId());
+        verify(orderRepository, times(1)).save(order);
+    }
+
+    /**
+     * Tests the {@link OrderService#getOrder(Long)} method when no order exists with the given ID.
+     *
+     * <p>This test verifies that a {@link ResourceNotFoundException} is thrown.
+     */
+    @Test
+    void testGetOrder_NotFound() {
+        // Arrange
+        when(orderRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> orderService.getOrder(99L));
+        assertEquals("Order not found with ID: 99", exception.getMessage());
+    }
+
+    /**
+     * Tests the {@link OrderService#createOrder(Order)} method when the product key dictionary is enabled.
+     *
+     * <p>This test verifies that the order is stamped with the integer key of its product before it is saved.
+     */
+    @Test
+    void testCreateOrder_AssignsProductKey() {
+        // Arrange
+        ProductKeyDictionary dictionary = mock(ProductKeyDictionary.class);
+        ReflectionTestUtils.setField(orderService, "productKeyDictionary", dictionary);
+        when(dictionary.keyOf("PROD123")).thenReturn(7);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Order order = new Order();
+        order.setProductId("PROD123");
+
+        // Act
+        Order createdOrder = orderService.createOrder(order);
+
+        // Assert
+        assertEquals(7, createdOrder.getProductKey());
+    }
+
+    /**
+     * Tests the {@link OrderService#assignId(Order)} method to ensure it assigns a generated ID only to an order
+     * that does not have one yet.
+     */
+    @Test
+    void testAssignId() {
+        // Arrange
+        Order newOrder = new Order();
+        Order existingOrder = new Order();
+        existingOrder.setId(42L);
+
+        // Act
+        orderService.assignId(newOrder);
+        orderService.assignId(existingOrder);
+
+        // Assert
+        assertNotNull(newOrder.getId());
+        assertEquals(42L, existingOrder.getId());
+        verify(idGenerator, times(1)).nextId();
+        verifyNoInteractions(orderRepository);
+    }
+
+    /**
+     * Tests the {@link OrderService#findOrders(String, String, Long, int)} method when more orders follow the page.
+     *
+     * <p>This test verifies that one order more than the limit is read, that only the limit is returned and that the
+     * next page starts after the last order returned.
+     */
+    @Test
+    void testFindOrders_MorePages() {
+        // Arrange
+        when(orderRepository.findByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, Limit.of(3)))
+                .thenReturn(List.of(summary(1L), summary(2L), summary(3L)));
+
+        // Act
+        OrderPage page = orderService.findOrders(null, null, null, 2);
+
+        // Assert
+        assertEquals(List.of(summary(1L), summary(2L)), page.getOrders());
+        assertEquals(2L, page.getNextAfterId());
+    }
+
+    /**
+     * Tests the {@link OrderService#findOrders(String, String, Long, int)} method on the last page.
+     *
+     * <p>This test verifies that the page starts after the given ID and that no next page is returned.
+     */
+    @Test
+    void testFindOrders_LastPage() {
+        // Arrange
+        when(orderRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3))).thenReturn(List.of(summary(3L)));
+
+        // Act
+        OrderPage page = orderService.findOrders(null, null, 2L, 2);
+
+        // Assert
+        assertEquals(List.of(summary(3L)), page.getOrders());
+        assertNull(page.getNextAfterId());
+    }
+
+    /**
+     * Tests that the {@link OrderService#findOrders(String, String, Long, int)} method uses the query that matches
+     * the given filters.
+     */
+    @Test
+    void testFindOrders_Filters() {
+        // Arrange
+        when(orderRepository.findByProductIdAndIdGreaterThanOrderByIdAsc("PROD123", 5L, Limit.of(11))).thenReturn(List.of());
+        when(orderRepository.findByStatusAndIdGreaterThanOrderByIdAsc("CREATED", 5L, Limit.of(11))).thenReturn(List.of());
+        when(orderRepository.findByProductIdAndStatusAndIdGreaterThanOrderByIdAsc("PROD123", "CREATED", 5L, Limit.of(11)))
+                .thenReturn(List.of(summary(6L)));
+
+        // Act
+        orderService.findOrders("PROD123", null, 5L, 10);
+        orderService.findOrders(null, "CREATED", 5L, 10);
+        OrderPage page = orderService.findOrders("PROD123", "CREATED", 5L, 10);
+
+        // Assert
+        assertEquals(List.of(summary(6L)), page.getOrders());
+        verify(orderRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    /**
+     * Tests the {@link OrderService#findOrders(String, String, Long, int)} method with a limit out of range.
+     */
+    @Test
+    void testFindOrders_InvalidLimit() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> orderService.findOrders(null, null, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.findOrders(null, null, null, OrderService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(orderRepository);
+    }
+
+    /**
+     * Tests that orders are appended to the {@link OrderJournal} instead of being saved when it is enabled, and that
+     * they are still saved directly inside a transaction.
+     */
+    @Test
+    void testCreateOrder_Journal() {
+        // Arrange
+        OrderJournal orderJournal = mock(OrderJournal.class);
+        ReflectionTestUtils.setField(orderService, "orderJournal", orderJournal);
+        Order order = new Order();
+        order.setProductId("PROD123");
+        order.setQuantity(1);
+        when(orderRepository.save(order)).thenReturn(order);
+
+        // Act
+        Order created = orderService.createOrder(order);
+        orderService.cancelOrder(order);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            orderService.updateStatus(order, "FAILED");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Assert
+        assertSame(order, created);
+        assertNotNull(order.getId());
+        verify(orderJournal, times(2)).append(order);
+        verify(orderRepository, times(1)).save(order);
+    }
+
+    private OrderSummary summary(Long id) {
+        return new OrderSummary(id, "PROD123", 1, 10.0, "CREATED");
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Payment;
+import com.example.ordermicroservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code PaymentGroupCommitterTest} class is a JUnit 5 test class for the {@link PaymentGroupCommitter} class.
+ * It uses Mockito to mock the {@link PaymentRepository} and {@link TransactionTemplate} dependencies and tests that
+ * concurrent payments are saved together, that a failed batch only fails its bad payments and the published metrics.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see PaymentGroupCommitter
+ * @see PaymentRepository
+ */
+@ExtendWith(MockitoExtension.class)
+public class PaymentGroupCommitterTest {
+
+    /**
+     * A mock instance of {@link PaymentRepository} used to simulate database interactions.
+     */
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    /**
+     * A mock instance of {@link TransactionTemplate} that runs transaction callbacks directly.
+     */
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The {@link PaymentGroupCommitter} instance being tested, with mocked dependencies injected.
+     */
+    @InjectMocks
+    private PaymentGroupCommitter groupCommitter;
+
+    /**
+     * A {@link SimpleMeterRegistry} that records the group commit metrics.
+     */
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The executor on which concurrent callers save their payments.
+     */
+    private ExecutorService callers;
+
+    /**
+     * Sets up transactions that run their callbacks directly and a registry for the metrics before each test case.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(groupCommitter, "meterRegistry", meterRegistry);
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        callers = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Stops the flusher thread and the callers after each test case.
+     */
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        groupCommitter.shutdown();
+        callers.shutdownNow();
+    }
+
+    /**
+     * Tests that payments saved concurrently are written with one {@code saveAll} in one transaction as soon as the
+     * batch is full, and that the batch size and wait times are recorded.
+     */
+    @Test
+    void testSave_GroupsConcurrentPayments() throws Exception {
+        // Arrange
+        start(5_000, 4);
+
+        // Act
+        List<Future<?>> saves = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            Payment payment = payment(id);
+            saves.add(callers.submit(() -> groupCommitter.save(payment)));
+        }
+        for (Future<?> save : saves) {
+            save.get();
+        }
+
+        // Assert
+        verify(paymentRepository, times(1)).saveAll(argThat(payments -> ((List<Payment>) payments).size() == 4));
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        DistributionSummary batchSize = meterRegistry.get("payments.group-commit.batch-size").summary();
+        assertEquals(1, batchSize.count());
+        assertEquals(4, batchSize.totalAmount());
+        assertEquals(4, meterRegistry.get("payments.group-commit.wait").timer().count());
+    }
+
+    /**
+     * Tests that a payment is written once the window expires, even if the batch is not full.
+     */
+    @Test
+    void testSave_WindowExpires() {
+        // Arrange
+        start(10, 100);
+        Payment payment = payment(1L);
+
+        // Act
+        groupCommitter.save(payment);
+
+        // Assert
+        verify(paymentRepository, times(1)).saveAll(List.of(payment));
+    }
+
+    /**
+     * Tests that the payments of a failed batch are saved again one by one with their version reset, and that only
+     * the caller of the bad payment gets the exception.
+     */
+    @Test
+    void testSave_BatchFailure() throws Exception {
+        // Arrange
+        start(5_000, 2);
+        Payment good = payment(1L);
+        Payment bad = payment(2L);
+        when(paymentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            good.setVersion(0L);
+            throw new IllegalStateException("Batch failed");
+        });
+        when(paymentRepository.save(any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) == bad) {
+                throw new IllegalStateException("Duplicate payment");
+            }
+            return invocation.getArgument(0);
+        });
+
+        // Act
+        Future<?> goodSave = callers.submit(() -> groupCommitter.save(good));
+        Future<?> badSave = callers.submit(() -> groupCommitter.save(bad));
+
+        // Assert
+        goodSave.get();
+        ExecutionException exception = assertThrows(ExecutionException.class, badSave::get);
+        assertEquals("Duplicate payment", exception.getCause().getMessage());
+        assertNull(good.getVersion());
+        verify(paymentRepository, times(1)).save(good);
+    }
+
+    /**
+     * Tests that {@code null} payments are rejected.
+     */
+    @Test
+    void testSave_NullPayment() {
+        // Arrange
+        start(10, 100);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> groupCommitter.save(null));
+    }
+
+    /**
+     * Tests that payments are rejected once the committer has been shut down.
+     */
+    @Test
+    void testSave_AfterShutdown() throws InterruptedException {
+        // Arrange
+        start(10, 100);
+        groupCommitter.shutdown();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> groupCommitter.save(payment(1L)));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    private void start(long windowMs, int maxBatchSize) {
+        ReflectionTestUtils.setField(groupCommitter, "windowMs", windowMs);
+        ReflectionTestUtils.setField(groupCommitter, "maxBatchSize", maxBatchSize);
+        groupCommitter.init();
+    }
+
+    private Payment payment(Long id) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setOrderId("ORDER" + id);
+        payment.setAmount(100.0);
+        payment.setStatus("SUCCESS");
+        return payment;
+    }
+}
@@ -7,7 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +44,12 @@ public class PaymentServiceTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    /**
+     * A real {@link SnowflakeIdGenerator} that assigns the IDs of new payments.
+     */
+    @Spy
+    private SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator();
+
     /**
      * The {@link PaymentService} instance being tested, with mocked dependencies injected.
      */
@@ -103,4 +114,131 @@ public class PaymentServiceTest {
         assertEquals("Payment cannot be null", exception.getMessage());
         verify(paymentRepository, never()).save(any()); // Ensure save is not called
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the {@link PaymentService#processPayments(List)} method when a batch of payments is processed successfully.
+     *
+     * <p>This test verifies that every payment status is updated to "SUCCESS" and that the payments are saved
+     * with a single {@code saveAll} call instead of one {@code save} per payment.
+     */
+    @Test
+    void testProcessPayments_Success() {
+        // Arrange
+        Payment second = new Payment();
+        second.setOrderId("ORDER456");
+        second.setAmount(50.0);
+        List<Payment> payments = List.of(payment, second);
+
+        // Act
+        boolean result = paymentService.processPayments(payments);
+
+        // Assert
+        assertTrue(result);
+        assertEquals("SUCCESS", payment.getStatus());
+        assertEquals("SUCCESS", second.getStatus());
+        assertEquals(1L, payment.getId()); // Verify an existing ID is kept
+        assertNotNull(second.getId()); // Verify a new payment is assigned an ID
+        verify(paymentRepository, times(1)).saveAll(payments);
+        verify(paymentRepository, never()).save(any());
+    }
+
+    /**
+     * Tests the {@link PaymentService#processPayments(List)} method when the payment list is {@code null}.
+     */
+    @Test
+    void testProcessPayments_NullPayments() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            paymentService.processPayments(null);
+        });
+
+        // Assert
+        assertEquals("Payments cannot be null", exception.getMessage());
+        verify(paymentRepository, never()).saveAll(any());
+    }
+
+    /**
+     * Tests the {@link PaymentService#refundPayment(Payment)} method to ensure it sets the status to "REFUNDED"
+     * and saves the payment.
+     */
+    @Test
+    void testRefundPayment() {
+        // Act
+        paymentService.refundPayment(payment);
+
+        // Assert
+        assertEquals("REFUNDED", payment.getStatus());
+        verify(paymentRepository, times(1)).save(payment);
+    }
+
+    /**
+     * Tests the {@link PaymentService#processPayment(Payment)} method when group commit is enabled.
+     *
+     * <p>This test verifies that the payment is handed to the {@link PaymentGroupCommitter} instead of being saved
+     * on its own.
+     */
+    @Test
+    void testProcessPayment_GroupCommit() {
+        // Arrange
+        PaymentGroupCommitter groupCommitter = mock(PaymentGroupCommitter.class);
+        ReflectionTestUtils.setField(paymentService, "groupCommitter", groupCommitter);
+
+        // Act
+        boolean result = paymentService.processPayment(payment);
+
+        // Assert
+        assertTrue(result);
+        verify(groupCommitter, times(1)).save(payment);
+        verify(paymentRepository, never()).save(any());
+    }
+
+    /**
+     * Tests the {@link PaymentService#processPayment(Payment)} method when group commit is enabled but the caller
+     * is in a transaction.
+     *
+     * <p>This test verifies that the payment is saved directly so that it stays part of the caller's transaction.
+     */
+    @Test
+    void testProcessPayment_GroupCommitInTransaction() {
+        // Arrange
+        PaymentGroupCommitter groupCommitter = mock(PaymentGroupCommitter.class);
+        ReflectionTestUtils.setField(paymentService, "groupCommitter", groupCommitter);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act
+        try {
+            paymentService.processPayment(payment);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Assert
+        verify(paymentRepository, times(1)).save(payment);
+        verifyNoInteractions(groupCommitter);
+    }
+
+    /**
+     * Tests the {@link PaymentService#processPayment(Payment)} and {@link PaymentService#refundPayment(Payment)}
+     * methods when the order journal is enabled.
+     *
+     * <p>This test verifies that the payment is appended to the {@link OrderJournal} instead of being saved, even
+     * when group commit is enabled as well.
+     */
+    @Test
+    void testProcessPayment_Journal() {
+        // Arrange
+        OrderJournal orderJournal = mock(OrderJournal.class);
+        PaymentGroupCommitter groupCommitter = mock(PaymentGroupCommitter.class);
+        ReflectionTestUtils.setField(paymentService, "orderJournal", orderJournal);
+        ReflectionTestUtils.setField(paymentService, "groupCommitter", groupCommitter);
+
+        // Act
+        paymentService.processPayment(payment);
+        paymentService.refundPayment(payment);
+
+        // Assert
+        verify(orderJournal, times(2)).append(payment);
+        assertEquals("REFUNDED", payment.getStatus());
+        verifyNoInteractions(groupCommitter, paymentRepository);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.ProductKey;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import com.example.ordermicroservice.repository.ProductKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code ProductKeyDictionaryTest} class is a JUnit 5 test class for the {@link ProductKeyDictionary} class.
+ * It uses Mockito to mock the repositories and the transaction manager and tests key lookup, assignment and
+ * caching.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see ProductKeyDictionary
+ * @see ProductKeyRepository
+ */
+@ExtendWith(MockitoExtension.class)
+public class ProductKeyDictionaryTest {
+
+    /**
+     * A mock instance of {@link ProductKeyRepository} used to simulate the {@code product_key} table.
+     */
+    @Mock
+    private ProductKeyRepository productKeyRepository;
+
+    /**
+     * A mock instance of {@link InventoryRepository} used to verify that assigned keys are stamped on inventory.
+     */
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * A mock instance of {@link PlatformTransactionManager} that lets assignment transactions run directly.
+     */
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * The {@link ProductKeyDictionary} instance being tested, with mocked dependencies injected.
+     */
+    @InjectMocks
+    private ProductKeyDictionary dictionary;
+
+    /**
+     * Creates the assignment transaction template before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        dictionary.init();
+    }
+
+    /**
+     * Tests that a known key is read from the database once and then served from memory.
+     */
+    @Test
+    void testFind_Cached() {
+        // Arrange
+        when(productKeyRepository.findByProductId("PROD123")).thenReturn(entry(7, "PROD123"));
+
+        // Act & Assert
+        assertEquals(7, dictionary.find("PROD123"));
+        assertEquals(7, dictionary.find("PROD123"));
+        verify(productKeyRepository, times(1)).findByProductId("PROD123");
+    }
+
+    /**
+     * Tests that a lookup of an unknown product does not assign a key, and that the miss is remembered.
+     */
+    @Test
+    void testFind_Unknown() {
+        // Act & Assert
+        assertNull(dictionary.find("UNKNOWN"));
+        assertNull(dictionary.find("UNKNOWN"));
+        verify(productKeyRepository, times(1)).findByProductId("UNKNOWN");
+        verify(productKeyRepository, never()).save(any());
+    }
+
+    /**
+     * Tests that a new product is assigned the next key, which is stamped on its inventory record.
+     */
+    @Test
+    void testKeyOf_Assigns() {
+        // Arrange
+        when(productKeyRepository.save(any(ProductKey.class))).thenReturn(entry(8, "PROD456"));
+
+        // Act
+        int key = dictionary.keyOf("PROD456");
+
+        // Assert
+        assertEquals(8, key);
+        assertEquals(8, dictionary.find("PROD456"));
+        verify(inventoryRepository, times(1)).assignProductKey("PROD456", 8);
+    }
+
+    /**
+     * Tests that a product remembered without a key is found once a key is assigned to it.
+     */
+    @Test
+    void testKeyOf_AfterMiss() {
+        // Arrange
+        when(productKeyRepository.save(any(ProductKey.class))).thenReturn(entry(8, "PROD456"));
+        assertNull(dictionary.find("PROD456"));
+
+        // Act & Assert
+        assertEquals(8, dictionary.keyOf("PROD456"));
+        assertEquals(8, dictionary.find("PROD456"));
+    }
+
+    /**
+     * Tests that a caller that loses the race to assign a key reads the key of the winner.
+     */
+    @Test
+    void testKeyOf_ConcurrentAssignment() {
+        // Arrange
+        when(productKeyRepository.findByProductId("PROD456")).thenReturn(null, entry(9, "PROD456"));
+        when(productKeyRepository.save(any(ProductKey.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act & Assert
+        assertEquals(9, dictionary.keyOf("PROD456"));
+    }
+
+    private ProductKey entry(int id, String productId) {
+        ProductKey entry = new ProductKey();
+        entry.setId(id);
+        entry.setProductId(productId);
+        return entry;
+    }
+}
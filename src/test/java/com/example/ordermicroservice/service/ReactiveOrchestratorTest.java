@@ -0,0 +1,146 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.model.Payment;
+import com.example.ordermicroservice.repository.ReactiveInventoryRepository;
+import com.example.ordermicroservice.repository.ReactiveOrderRepository;
+import com.example.ordermicroservice.repository.ReactivePaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code ReactiveOrchestratorTest} class is a JUnit 5 test class for the {@link ReactiveOrchestrator} class.
+ * It uses Mockito to mock the reactive repositories and tests the compensation of the order processing workflow.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see ReactiveOrchestrator
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReactiveOrchestratorTest {
+
+    /**
+     * A mock instance of {@link ReactiveOrderRepository} used to simulate order creation and cancellation.
+     */
+    @Mock
+    private ReactiveOrderRepository orderRepository;
+
+    /**
+     * A mock instance of {@link ReactivePaymentRepository} used to simulate payments and refunds.
+     */
+    @Mock
+    private ReactivePaymentRepository paymentRepository;
+
+    /**
+     * A mock instance of {@link ReactiveInventoryRepository} used to simulate inventory checks and decrements.
+     */
+    @Mock
+    private ReactiveInventoryRepository inventoryRepository;
+
+    /**
+     * A mock instance of {@link SnowflakeIdGenerator} used to assign IDs.
+     */
+    @Mock
+    private SnowflakeIdGenerator idGenerator;
+
+    /**
+     * The registry to which the step timers and failure counters are published.
+     */
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The {@link ReactiveOrchestrator} instance being tested, with mocked dependencies injected.
+     */
+    @InjectMocks
+    private ReactiveOrchestrator orchestrator;
+
+    /**
+     * A sample {@link Order} object used for testing.
+     */
+    private Order order;
+
+    /**
+     * Sets up the registry, a product with enough stock and a sample order before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(orchestrator, "meterRegistry", meterRegistry);
+        orchestrator.init();
+        Inventory inventory = new Inventory();
+        inventory.setProductId("PROD123");
+        inventory.setQuantity(10);
+        when(inventoryRepository.findByProductId("PROD123")).thenReturn(Mono.just(inventory));
+        when(idGenerator.nextId()).thenReturn(1L, 2L);
+        order = new Order();
+        order.setProductId("PROD123");
+        order.setQuantity(2);
+        order.setAmount(50.0);
+    }
+
+    /**
+     * Tests that the payment is refunded and the error emitted when the order cannot be created.
+     */
+    @Test
+    void testProcessOrder_CreateOrderFailed() {
+        // Arrange
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("Duplicate order");
+        when(paymentRepository.insert(any(Payment.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(orderRepository.insert(order)).thenReturn(Mono.error(failure));
+        when(paymentRepository.updateStatus(any(Payment.class))).thenReturn(Mono.just(1L));
+
+        // Act & Assert
+        StepVerifier.create(orchestrator.processOrder(order))
+                .expectErrorMatches(ex -> ex == failure)
+                .verify();
+        ArgumentCaptor<Payment> refunded = ArgumentCaptor.forClass(Payment.class);
+        verify(paymentRepository).updateStatus(refunded.capture());
+        assertEquals("REFUNDED", refunded.getValue().getStatus());
+        verify(orderRepository, never()).updateStatus(any(Order.class));
+    }
+
+    /**
+     * Tests that the order is cancelled and the payment refunded when a concurrent order took the stock, and that the
+     * failure and every step are recorded in the registered meters.
+     */
+    @Test
+    void testProcessOrder_StockTakenConcurrently() {
+        // Arrange
+        when(paymentRepository.insert(any(Payment.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(orderRepository.insert(order)).thenReturn(Mono.just(order));
+        when(inventoryRepository.decrementQuantity("PROD123", 2)).thenReturn(Mono.just(0L));
+        when(orderRepository.updateStatus(order)).thenReturn(Mono.just(1L));
+        when(paymentRepository.updateStatus(any(Payment.class))).thenReturn(Mono.just(1L));
+
+        // Act & Assert
+        StepVerifier.create(orchestrator.processOrder(order))
+                .expectNext("Order failed: Insufficient inventory")
+                .verifyComplete();
+        assertEquals("CANCELLED", order.getStatus());
+        assertEquals(1.0, meterRegistry.get("orchestrator.failures").tag("reason", "insufficient_inventory")
+                .counter().count());
+        assertEquals(List.of("inventory.check", "inventory.update", "order.create", "payment"),
+                meterRegistry.get("orchestrator.step").timers().stream()
+                        .map(timer -> timer.getId().getTag("step"))
+                        .sorted()
+                        .toList());
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.exception.InsufficientInventoryException;
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The {@code RingBufferInventoryStoreTest} class is a JUnit 5 test class for the {@link RingBufferInventoryStore}
+ * class. It runs the writer and persister threads on a small ring, so that every test wraps around it many times, and
+ * checks the results returned to callers and the quantities written to a repository that keeps its records in a map.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see RingBufferInventoryStore
+ */
+public class RingBufferInventoryStoreTest {
+
+    /**
+     * The {@link RingBufferInventoryStore} instance being tested.
+     */
+    private RingBufferInventoryStore store;
+
+    /**
+     * The mocked {@link InventoryRepository} whose records are held in {@link #table}.
+     */
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * The persisted records, keyed by product ID.
+     */
+    private Map<String, Inventory> table;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Creates a store with an eight-slot ring in front of an empty table before each test case, without starting it.
+     */
+    @BeforeEach
+    void setUp() {
+        table = new ConcurrentHashMap<>();
+        inventoryRepository = mock(InventoryRepository.class);
+        when(inventoryRepository.findForUpdateByProductIdInOrderByProductId(anyCollection())).thenAnswer(invocation -> {
+            List<Inventory> inventories = new ArrayList<>();
+            for (String productId : invocation.<Collection<String>>getArgument(0)) {
+                Inventory inventory = table.get(productId);
+                if (inventory != null) {
+                    inventories.add(copy(inventory));
+                }
+            }
+            return inventories;
+        });
+        when(inventoryRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            for (Inventory inventory : invocation.<List<Inventory>>getArgument(0)) {
+                table.put(inventory.getProductId(), copy(inventory));
+            }
+            return invocation.getArgument(0);
+        });
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        meterRegistry = new SimpleMeterRegistry();
+        store = new RingBufferInventoryStore();
+        ReflectionTestUtils.setField(store, "inventoryRepository", inventoryRepository);
+        ReflectionTestUtils.setField(store, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(store, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(store, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(store, "bufferSize", 8);
+        ReflectionTestUtils.setField(store, "persistBatchSize", 2);
+        ReflectionTestUtils.setField(store, "persistRetryMs", 0L);
+    }
+
+    /**
+     * Stops the writer and persister threads after each test case.
+     */
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        store.shutdown();
+    }
+
+    /**
+     * Tests that restocked products can be checked, decremented and incremented through the ring, and that unknown
+     * products and insufficient stock are reported with the exceptions of the {@link InventoryStore} contract.
+     */
+    @Test
+    void testRestockDecrementIncrement() {
+        // Arrange
+        store.init();
+
+        // Act
+        store.restock("PROD123", 10);
+        store.restock("PROD123", 5);
+        store.decrement("PROD123", 4);
+
+        // Assert
+        assertEquals(11, store.getAvailable("PROD123"));
+        assertTrue(store.increment("PROD123", 1));
+        assertEquals(12, store.getAvailable("PROD123"));
+        assertEquals(-1, store.getAvailable("PROD124"));
+        assertFalse(store.increment("PROD124", 1));
+        assertThrows(IllegalStateException.class, () -> store.decrement("PROD124", 1));
+        assertThrows(InsufficientInventoryException.class, () -> store.decrement("PROD123", 13));
+        assertThrows(ArithmeticException.class, () -> store.restock("PROD123", Integer.MAX_VALUE));
+        assertEquals(12, store.getAvailable("PROD123"));
+    }
+
+    /**
+     * Tests that concurrent decrements of a hot product by many threads never oversell and lose no update.
+     */
+    @Test
+    void testConcurrentDecrements() throws Exception {
+        // Arrange
+        store.init();
+        store.restock("HOT", 20_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger accepted = new AtomicInteger();
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    try {
+                        store.decrement("HOT", 1);
+                        accepted.incrementAndGet();
+                    } catch (InsufficientInventoryException ex) {
+                        // Sold out
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        store.shutdown();
+
+        // Assert
+        assertEquals(20_000, accepted.get());
+        assertEquals(0, table.get("HOT").getQuantity());
+    }
+
+    /**
+     * Tests that the net changes of all commands are written to the table on shutdown, updating existing records and
+     * creating the records of new products, and that the store rejects commands afterwards.
+     */
+    @Test
+    void testShutdown_PersistsChanges() throws InterruptedException {
+        // Arrange
+        Inventory existing = new Inventory();
+        existing.setId(1L);
+        existing.setProductId("PROD1");
+        existing.setQuantity(10);
+        table.put("PROD1", existing);
+        store.init();
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            store.restock("PROD" + (i % 5), 2);
+            store.decrement("PROD" + (i % 5), 1);
+        }
+        store.shutdown();
+
+        // Assert
+        assertEquals(30, table.get("PROD1").getQuantity());
+        assertEquals(20, table.get("PROD0").getQuantity());
+        assertEquals(20, table.get("PROD4").getQuantity());
+        assertThrows(IllegalStateException.class, () -> store.getAvailable("PROD1"));
+    }
+
+    /**
+     * Tests that a store refuses to start next to the inventory buckets, which write the table themselves.
+     */
+    @Test
+    void testInit_RejectsBuckets() {
+        // Arrange (the store of the test case is only started so that it can be shut down)
+        store.init();
+        RingBufferInventoryStore rejected = new RingBufferInventoryStore();
+        ReflectionTestUtils.setField(rejected, "bucketsEnabled", true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, rejected::init);
+    }
+
+    /**
+     * Tests that the stock is loaded from the table on startup.
+     */
+    @Test
+    void testInit_LoadsTable() throws Exception {
+        // Arrange
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString(1)).thenReturn("PROD1");
+        when(resultSet.getInt(2)).thenReturn(42);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+
+        // Act
+        store.init();
+
+        // Assert
+        assertEquals(42, store.getAvailable("PROD1"));
+    }
+
+    /**
+     * Tests that a batch deduction is applied to all products or, if one of them runs out of stock, to none.
+     */
+    @Test
+    void testDeductInventories_AllOrNothing() throws InterruptedException {
+        // Arrange
+        store.init();
+        store.restock("PROD1", 5);
+        store.restock("PROD2", 1);
+        Map<String, Integer> deductions = new LinkedHashMap<>();
+        deductions.put("PROD1", 3);
+        deductions.put("PROD2", 2);
+        Map<String, Inventory> inventories = store.findInventories(deductions.keySet());
+
+        // Act & Assert
+        assertEquals(5, inventories.get("PROD1").getQuantity());
+        assertThrows(InsufficientInventoryException.class, () -> store.deductInventories(inventories, deductions));
+        assertEquals(5, store.getAvailable("PROD1"));
+        assertEquals(1, store.getAvailable("PROD2"));
+        deductions.put("PROD2", 1);
+        store.deductInventories(inventories, deductions);
+        store.shutdown();
+        assertEquals(2, table.get("PROD1").getQuantity());
+        assertEquals(0, table.get("PROD2").getQuantity());
+    }
+
+    /**
+     * Tests that a batch deduction is added back, in the store and in the table, when the caller's transaction rolls
+     * back.
+     */
+    @Test
+    void testDeductInventories_AddsBackOnRollback() throws InterruptedException {
+        // Arrange
+        store.init();
+        store.restock("PROD1", 5);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        try {
+            store.deductInventories(store.findInventories(List.of("PROD1")), Map.of("PROD1", 3));
+            assertEquals(2, store.getAvailable("PROD1"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(5, store.getAvailable("PROD1"));
+        store.shutdown();
+        assertEquals(5, table.get("PROD1").getQuantity());
+    }
+
+    /**
+     * Tests that a batch that fails to be written is retried and counted as a failure.
+     */
+    @Test
+    void testPersist_RetriesFailedBatch() throws InterruptedException {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        when(inventoryRepository.findForUpdateByProductIdInOrderByProductId(anyCollection())).thenAnswer(invocation -> {
+            if (attempts.getAndIncrement() == 0) {
+                throw new QueryTimeoutException("Lock wait timeout");
+            }
+            return List.of();
+        });
+        store.init();
+
+        // Act
+        store.restock("PROD1", 7);
+        while (!table.containsKey("PROD1")) {
+            Thread.onSpinWait();
+        }
+        store.shutdown();
+
+        // Assert
+        assertEquals(7, table.get("PROD1").getQuantity());
+        assertEquals(1.0, meterRegistry.get("inventory.store.ring.persist.failures").counter().count());
+    }
+
+    private static Inventory copy(Inventory inventory) {
+        Inventory copy = new Inventory();
+        copy.setId(inventory.getId());
+        copy.setProductId(inventory.getProductId());
+        copy.setQuantity(inventory.getQuantity());
+        return copy;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.ordermicroservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code SnowflakeIdGeneratorTest} class is a JUnit 5 test class for the {@link SnowflakeIdGenerator} class.
+ * It tests the layout of the generated IDs, their ordering and their uniqueness under heavy multi-threaded
+ * generation.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see SnowflakeIdGenerator
+ */
+public class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 32;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    /**
+     * Tests that an ID embeds the node ID and the time at which it was generated.
+     */
+    @Test
+    void testIdLayout() {
+        // Arrange
+        SnowflakeIdGenerator generator = generator(513);
+        long before = System.currentTimeMillis();
+
+        // Act
+        long id = generator.nextId();
+
+        // Assert
+        assertTrue(id > 0);
+        assertEquals(513, SnowflakeIdGenerator.nodeIdOf(id));
+        long timestamp = SnowflakeIdGenerator.timestampOf(id);
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis());
+    }
+
+    /**
+     * Tests that IDs generated one after another strictly increase, also when more than 4,096 IDs are generated
+     * within one millisecond.
+     */
+    @Test
+    void testIdsIncrease() {
+        // Arrange
+        SnowflakeIdGenerator generator = generator(1);
+        long previous = generator.nextId();
+
+        // Act & Assert
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous, "ID " + id + " does not follow " + previous);
+            previous = id;
+        }
+    }
+
+    /**
+     * Tests that 32 threads generating 50,000 IDs each at the same time never receive the same ID, and that the IDs
+     * seen by each thread strictly increase.
+     */
+    @Test
+    void testUniqueUnderContention() throws Exception {
+        // Arrange
+        SnowflakeIdGenerator generator = generator(7);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                start.await();
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            long[] ids = futures.get(t).get();
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1]);
+            }
+            System.arraycopy(ids, 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+        executor.shutdown();
+
+        // Assert
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "Duplicate ID " + all[i]);
+        }
+    }
+
+    /**
+     * Tests that two nodes generating IDs at the same time never collide.
+     */
+    @Test
+    void testUniqueAcrossNodes() {
+        // Arrange
+        SnowflakeIdGenerator first = generator(1);
+        SnowflakeIdGenerator second = generator(2);
+        long[] ids = new long[20_000];
+
+        // Act
+        for (int i = 0; i < ids.length; i += 2) {
+            ids[i] = first.nextId();
+            ids[i + 1] = second.nextId();
+        }
+
+        // Assert
+        assertEquals(ids.length, Arrays.stream(ids).distinct().count());
+    }
+
+    /**
+     * Tests that a node ID outside the 10-bit range is rejected.
+     */
+    @Test
+    void testInvalidNodeId() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> generator(1024));
+        assertThrows(IllegalArgumentException.class, () -> generator(-1));
+    }
+
+    private SnowflakeIdGenerator generator(long nodeId) {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator();
+        ReflectionTestUtils.setField(generator, "nodeId", nodeId);
+        generator.init();
+        return generator;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.ordermicroservice.service;
+
+import com.example.ordermicroservice.model.Inventory;
+import com.example.ordermicroservice.model.Order;
+import com.example.ordermicroservice.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code VirtualThreadBenchmarkTest} class compares running {@link Orchestrator#processOrder(Order)} on platform
+ * threads and on virtual threads with 1,000 to 10,000 orders in flight at the same time against the H2 database.
+ *
+ * <p>The platform run uses a fixed pool of 200 threads, the default maximum of Tomcat's request pool, so that the
+ * excess orders queue for a thread. The virtual run starts one virtual thread per order, so every order is in flight
+ * and queues for a JDBC connection instead. For each level the benchmark prints the throughput and the p50 and p99
+ * latency measured from the moment all orders are released to the completion of each order, so time spent waiting
+ * for a platform thread is included.
+ *
+ * <p>The benchmark is slow and only runs when the {@code benchmark} system property is {@code true}:
+ * {@code mvn test -Dtest=VirtualThreadBenchmarkTest -Dbenchmark=true}.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2023-10-01
+ * @see Orchestrator
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=50",
+        "inventory.concurrency.strategy=CONDITIONAL_UPDATE"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadBenchmarkTest {
+
+    private static final int[] IN_FLIGHT_LEVELS = {1_000, 5_000, 10_000};
+    private static final int PLATFORM_THREADS = 200;
+    private static final int PRODUCTS = 1_000;
+
+    @Autowired
+    private Orchestrator orchestrator;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /**
+     * Seeds enough stock across many products that no order fails and contention on single rows stays low.
+     */
+    @BeforeEach
+    void setUp() {
+        List<Inventory> inventories = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setProductId("BENCH-" + i);
+            inventory.setQuantity(Integer.MAX_VALUE);
+            inventories.add(inventory);
+        }
+        inventoryRepository.saveAll(inventories);
+    }
+
+    /**
+     * Removes the seeded stock.
+     */
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll(inventoryRepository.findAll().stream()
+                .filter(inventory -> inventory.getProductId().startsWith("BENCH-"))
+                .toList());
+    }
+
+    /**
+     * Runs every in-flight level on platform threads and on virtual threads and prints the results.
+     */
+    @Test
+    void testPlatformVersusVirtualThreads() throws Exception {
+        // Warm up the JIT, the connection pool and the H2 caches
+        run(Executors.newFixedThreadPool(PLATFORM_THREADS), 1_000);
+
+        System.out.printf("%-10s %9s %10s %9s %9s%n", "threads", "in-flight", "orders/s", "p50 ms", "p99 ms");
+        for (int inFlight : IN_FLIGHT_LEVELS) {
+            print("platform", inFlight, run(Executors.newFixedThreadPool(PLATFORM_THREADS), inFlight));
+            print("virtual", inFlight, run(Executors.newVirtualThreadPerTaskExecutor(), inFlight));
+        }
+    }
+
+    /**
+     * Submits all orders, releases them at once, waits for them to complete and returns the wall time followed by
+     * the sorted per-order latencies, all in nanoseconds.
+     */
+    private long[] run(ExecutorService executor, int inFlight) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong begin = new AtomicLong();
+        List<Future<Long>> futures = new ArrayList<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            Order order = new Order();
+            order.setProductId("BENCH-" + (i % PRODUCTS));
+            order.setQuantity(1);
+            order.setAmount(10.0);
+            futures.add(executor.submit(() -> {
+                start.await();
+                assertEquals("Order processed successfully", orchestrator.processOrder(order));
+                return System.nanoTime() - begin.get();
+            }));
+        }
+        begin.set(System.nanoTime());
+        start.countDown();
+        long[] result = new long[inFlight + 1];
+        for (int i = 0; i < inFlight; i++) {
+            result[i + 1] = futures.get(i).get();
+        }
+        result[0] = System.nanoTime() - begin.get();
+        executor.shutdown();
+        Arrays.sort(result, 1, result.length);
+        return result;
+    }
+
+    private void print(String threads, int inFlight, long[] result) {
+        double throughput = inFlight / (result[0] / 1_000_000_000.0);
+        double p50 = result[1 + (int) (inFlight * 0.50)] / 1_000_000.0;
+        double p99 = result[1 + (int) (inFlight * 0.99)] / 1_000_000.0;
+        System.out.printf("%-10s %9d %10.0f %9.1f %9.1f%n", threads, inFlight, throughput, p50, p99);
+    }
+}